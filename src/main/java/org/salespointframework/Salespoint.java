@@ -83,6 +83,15 @@ public class Salespoint {
 			properties.put("spring.datasource.generate-unique-name", true);
 
 			sources.addFirst(new MapPropertySource("salespointDefaults", properties));
+
+			// Tuning defaults applications can override
+			Map<String, Object> tuning = new HashMap<>();
+			tuning.put("spring.jpa.properties.hibernate.batch_fetch_style", "dynamic");
+			tuning.put("spring.jpa.properties.hibernate.jdbc.batch_size", 50);
+			tuning.put("spring.jpa.properties.hibernate.order_inserts", true);
+			tuning.put("spring.jpa.properties.hibernate.order_updates", true);
+
+			sources.addLast(new MapPropertySource("salespointTuningDefaults", tuning));
 		}
 	}
 }
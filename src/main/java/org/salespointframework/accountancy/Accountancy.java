@@ -17,11 +17,14 @@ package org.salespointframework.accountancy;
 
 import java.time.Duration;
 import java.time.temporal.TemporalAmount;
+import java.util.Collection;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import javax.money.MonetaryAmount;
 
+import org.salespointframework.order.OrderIdentifier;
 import org.salespointframework.time.BusinessTime;
 import org.salespointframework.time.Interval;
 import org.springframework.data.util.Streamable;
@@ -115,4 +118,45 @@ public interface Accountancy {
 	 *         {@link Interval}.
 	 */
 	Map<Interval, MonetaryAmount> salesVolume(Interval interval, TemporalAmount duration);
+
+	/**
+	 * Returns the balance of all {@link AccountancyEntry}s dated within the given {@link Interval}, including its start
+	 * and end. Calculated from the running balances persisted for closed periods in case {@link BalanceCheckpoints} are
+	 * enabled.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	MonetaryAmount balance(Interval interval);
+
+	/**
+	 * Returns all {@link ProductPaymentEntry}s for the {@link org.salespointframework.order.Order} with the given
+	 * {@link OrderIdentifier}.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	Streamable<ProductPaymentEntry> findByOrder(OrderIdentifier order);
+
+	/**
+	 * Returns whether a revenue {@link ProductPaymentEntry} exists for the {@link org.salespointframework.order.Order}
+	 * with the given {@link OrderIdentifier}, i.e. whether the {@link org.salespointframework.order.Order} has been paid.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	boolean existsRevenueFor(OrderIdentifier order);
+
+	/**
+	 * Returns the subset of the given {@link OrderIdentifier}s for which a revenue {@link ProductPaymentEntry} exists.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 * @see #existsRevenueFor(OrderIdentifier)
+	 */
+	Set<OrderIdentifier> findOrdersWithRevenue(Collection<OrderIdentifier> orders);
 }
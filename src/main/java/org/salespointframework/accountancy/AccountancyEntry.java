@@ -27,30 +27,70 @@ import java.util.Optional;
 
 import javax.money.MonetaryAmount;
 import javax.persistence.AttributeOverride;
+import javax.persistence.AttributeOverrides;
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.Index;
 import javax.persistence.PrePersist;
+import javax.persistence.Table;
 
 import org.salespointframework.core.AbstractEntity;
+import org.salespointframework.core.EmbeddedMonetaryAmount;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
  * This class represents an accountancy entry. It is advisable to sub-class it, to define specific entry types for an
  * accountancy, for example a {@link ProductPaymentEntry}.
  *
+ * The value is persisted in a numeric {@code VALUE_AMOUNT} and a {@code VALUE_CURRENCY} column. Entries persisted
+ * with the value formatted into the legacy {@code VALUE} column are read from it until they are migrated in bulk via
+ * {@link AccountancyEntryMigration}.
+ *
  * @author Hannes Weisbach
  * @author Oliver Gierke
  */
 @Entity
 @ToString
+@Table(indexes = { @Index(name = "ACCOUNTANCY_ENTRY_DATE_IDX", columnList = "date"),
+		@Index(name = "ACCOUNTANCY_ENTRY_ORDER_IDX", columnList = "ORDER_ID"),
+		@Index(name = "ACCOUNTANCY_ENTRY_ROLLED_UP_IDX", columnList = "ROLLED_UP, date"),
+		@Index(name = "ACCOUNTANCY_ENTRY_CHECKPOINTED_IDX", columnList = "CHECKPOINTED, date") })
 @NoArgsConstructor(force = true, access = AccessLevel.PROTECTED, onConstructor = @__(@Deprecated))
 public class AccountancyEntry extends AbstractEntity<AccountancyEntryIdentifier> {
 
 	@EmbeddedId @AttributeOverride(name = "id", column = @Column(name = "ENTRY_ID", nullable = false)) //
 	private AccountancyEntryIdentifier accountancyEntryIdentifier = new AccountancyEntryIdentifier();
 
-	private @Getter MonetaryAmount value;
+	@Embedded //
+	@AttributeOverrides({ //
+			@AttributeOverride(name = "amount", column = @Column(name = "VALUE_AMOUNT", precision = 38, scale = 10)), //
+			@AttributeOverride(name = "currency", column = @Column(name = "VALUE_CURRENCY", length = 3)) //
+	}) //
+	private EmbeddedMonetaryAmount value;
+
+	/**
+	 * The value as formatted {@link String} for entries persisted before the introduction of the numeric columns.
+	 */
+	@Column(name = "VALUE") //
+	private @Nullable String legacyValue;
+
+	/**
+	 * When the entry was added to the {@link RevenueRollup}s, {@literal null} if it hasn't been yet. Only ever set in bulk
+	 * by {@link RevenueRollups}, so that writing back an entry loaded before can't reset it.
+	 */
+	@Column(name = "ROLLED_UP", insertable = false, updatable = false) //
+	private @Nullable LocalDateTime rolledUp;
+
+	/**
+	 * When the entry was included in the {@link BalanceCheckpoint}s, {@literal null} if it hasn't been yet. Only ever set
+	 * in bulk by {@link BalanceCheckpoints}.
+	 */
+	@Column(name = "CHECKPOINTED", insertable = false, updatable = false) //
+	private @Nullable LocalDateTime checkpointed;
+
 	private @Setter(AccessLevel.PACKAGE) LocalDateTime date = null;
 	private @Getter String description;
 
@@ -74,10 +114,29 @@ public class AccountancyEntry extends AbstractEntity<AccountancyEntryIdentifier>
 		Assert.notNull(value, "Value must not be null");
 		Assert.notNull(description, "Description must not be null");
 
-		this.value = value;
+		this.value = EmbeddedMonetaryAmount.of(value);
 		this.description = description;
 	}
 
+	/**
+	 * Returns the value of the entry.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public MonetaryAmount getValue() {
+
+		if (value != null) {
+			return value.toMonetaryAmount();
+		}
+
+		// Parsed on every call rather than assigned to keep the entry from being written back
+		var legacy = EmbeddedMonetaryAmount.parse(legacyValue);
+
+		Assert.state(legacy != null, "No value set!");
+
+		return legacy;
+	}
+
 	/**
 	 * Returns whether the {@link AccountancyEntry} already has a {@link Date} set.
 	 *
@@ -110,7 +169,7 @@ public class AccountancyEntry extends AbstractEntity<AccountancyEntryIdentifier>
 	 * @since 7.1
 	 */
 	public boolean isRevenue() {
-		return value.isPositiveOrZero();
+		return getValue().isPositiveOrZero();
 	}
 
 	/**
@@ -120,7 +179,7 @@ public class AccountancyEntry extends AbstractEntity<AccountancyEntryIdentifier>
 	 * @since 7.1
 	 */
 	public boolean isExpense() {
-		return value.isNegative();
+		return getValue().isNegative();
 	}
 
 	/**
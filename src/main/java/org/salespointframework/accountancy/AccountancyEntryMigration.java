@@ -0,0 +1,85 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import org.salespointframework.core.EmbeddedMonetaryAmount;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Migrates the values of {@link AccountancyEntry}s persisted in the legacy {@code VALUE} column, i.e. formatted into a
+ * {@link String}, into the numeric {@code VALUE_AMOUNT} and {@code VALUE_CURRENCY} columns. Entries are migrated with a
+ * bulk update per distinct legacy value without loading them, in batches of values, each in a transaction of its own,
+ * so that the migration can be run on large tables and resumed in case it fails. Once it has completed, the legacy column only contains {@literal null} values and can be dropped.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Service
+public class AccountancyEntryMigration {
+
+	private static final int BATCH_SIZE = 500;
+
+	private final AccountancyEntryRepository entries;
+	private final TransactionTemplate transactions;
+
+	AccountancyEntryMigration(AccountancyEntryRepository entries, PlatformTransactionManager transactionManager) {
+
+		this.entries = entries;
+		this.transactions = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Migrates the values of all {@link AccountancyEntry}s still persisted in the legacy {@code VALUE} column.
+	 *
+	 * @return the number of {@link AccountancyEntry}s migrated.
+	 */
+	public long migrateLegacyValues() {
+
+		var migrated = new long[1];
+		int batch;
+
+		do {
+
+			batch = transactions.execute(__ -> {
+
+				var values = entries.findLegacyValues(PageRequest.of(0, BATCH_SIZE));
+
+				values.forEach(it -> migrated[0] += migrate(it));
+
+				return values.size();
+			});
+
+		} while (batch == BATCH_SIZE);
+
+		return migrated[0];
+	}
+
+	/**
+	 * Migrates all {@link AccountancyEntry}s with the given legacy value.
+	 *
+	 * @param legacyValue must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s migrated.
+	 */
+	private int migrate(String legacyValue) {
+
+		var value = EmbeddedMonetaryAmount.of(EmbeddedMonetaryAmount.parse(legacyValue));
+
+		return entries.migrateLegacyValue(legacyValue, value.getAmount(), value.getCurrency());
+	}
+}
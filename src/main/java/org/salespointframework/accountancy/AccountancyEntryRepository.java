@@ -15,11 +15,25 @@
  */
 package org.salespointframework.accountancy;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+import javax.money.MonetaryAmount;
+
+import org.salespointframework.core.EmbeddedMonetaryAmount;
 import org.salespointframework.core.SalespointRepository;
+import org.salespointframework.order.OrderIdentifier;
 import org.salespointframework.time.Interval;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.Assert;
 
 /**
@@ -50,4 +64,261 @@ interface AccountancyEntryRepository extends SalespointRepository<AccountancyEnt
 
 		return findByDateBetween(interval.getStart(), interval.getEnd());
 	}
+
+	/**
+	 * Returns all {@link ProductPaymentEntry}s for the {@link org.salespointframework.order.Order}s with the given
+	 * identifiers.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e from ProductPaymentEntry e where e.orderIdentifier in ?1")
+	Streamable<ProductPaymentEntry> findByOrderIdentifierIn(Collection<OrderIdentifier> orders);
+
+	/**
+	 * Returns all {@link AccountancyEntry}s within the given time frame ordered by their date. The returned
+	 * {@link Stream} has to be closed after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e from AccountancyEntry e where e.date between ?1 and ?2 order by e.date")
+	Stream<AccountancyEntry> streamByDateBetween(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the dates and values of all {@link AccountancyEntry}s within the given time frame ordered by their date
+	 * without loading the {@link AccountancyEntry}s themselves. The returned {@link Stream} has to be closed after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.date between ?1 and ?2 order by e.date")
+	Stream<DatedValue> streamValuesByDateBetween(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the dates and values of all {@link AccountancyEntry}s dated at or after the given start and before the
+	 * given end without loading the {@link AccountancyEntry}s themselves. The returned {@link Stream} has to be closed
+	 * after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.date >= ?1 and e.date < ?2")
+	Stream<DatedValue> streamValuesByDateWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the dates and values of all dated {@link AccountancyEntry}s without loading the {@link AccountancyEntry}s
+	 * themselves. The returned {@link Stream} has to be closed after use.
+	 *
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.date is not null")
+	Stream<DatedValue> streamValues();
+
+	/**
+	 * Returns the dates and values of all {@link AccountancyEntry}s dated at or after the given start and before the
+	 * given end that haven't been added to the {@link RevenueRollup}s yet. The returned {@link Stream} has to be closed
+	 * after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.rolledUp is null and e.date >= ?1 and e.date < ?2")
+	Stream<DatedValue> streamValuesNotRolledUpByDateWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the given number of dated {@link AccountancyEntry}s that haven't been added to the {@link RevenueRollup}s
+	 * yet without loading the {@link AccountancyEntry}s themselves.
+	 *
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.accountancyEntryIdentifier as id, e.date as date, e.value.amount as amount," //
+			+ " e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.rolledUp is null and e.date is not null")
+	List<IdentifiedValue> findNotRolledUp(Pageable pageable);
+
+	/**
+	 * Marks the {@link AccountancyEntry}s with the given identifiers as added to the {@link RevenueRollup}s at the given
+	 * date, unless they already are.
+	 *
+	 * @param entries must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s marked.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update AccountancyEntry e set e.rolledUp = ?2 where e.accountancyEntryIdentifier in ?1 and e.rolledUp is null")
+	int markRolledUp(Collection<AccountancyEntryIdentifier> entries, LocalDateTime date);
+
+	/**
+	 * Marks all {@link AccountancyEntry}s dated at or after the given start and before the given end as not added to the
+	 * {@link RevenueRollup}s.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s marked.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update AccountancyEntry e set e.rolledUp = null where e.date >= ?1 and e.date < ?2")
+	int resetRolledUpByDateWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Marks all {@link AccountancyEntry}s as not added to the {@link RevenueRollup}s.
+	 *
+	 * @return the number of {@link AccountancyEntry}s marked.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update AccountancyEntry e set e.rolledUp = null")
+	int resetRolledUp();
+
+	/**
+	 * Returns the dates and values of all {@link AccountancyEntry}s dated at or after the given start and before the
+	 * given end that have been included in the {@link BalanceCheckpoint}s. The returned {@link Stream} has to be closed
+	 * after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.checkpointed is not null and e.date >= ?1 and e.date < ?2")
+	Stream<DatedValue> streamValuesCheckpointedByDateWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the dates and values of all {@link AccountancyEntry}s dated at or after the given start and before the
+	 * given end that haven't been included in the {@link BalanceCheckpoint}s yet. The returned {@link Stream} has to be
+	 * closed after use.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select e.date as date, e.value.amount as amount, e.value.currency as currency, e.legacyValue as legacyValue" //
+			+ " from AccountancyEntry e where e.checkpointed is null and e.date >= ?1 and e.date < ?2")
+	Stream<DatedValue> streamValuesNotCheckpointedByDateWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the date of the earliest {@link AccountancyEntry} dated before the given date that hasn't been included in
+	 * the {@link BalanceCheckpoint}s yet.
+	 *
+	 * @param date must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select min(e.date) from AccountancyEntry e where e.checkpointed is null and e.date < ?1")
+	Optional<LocalDateTime> findFirstDateNotCheckpointedBefore(LocalDateTime date);
+
+	/**
+	 * Marks all {@link AccountancyEntry}s dated before the given date as included in the {@link BalanceCheckpoint}s at
+	 * the given point in time, unless they already are.
+	 *
+	 * @param until must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s marked.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update AccountancyEntry e set e.checkpointed = ?2 where e.checkpointed is null and e.date < ?1")
+	int markCheckpointed(LocalDateTime until, LocalDateTime date);
+
+	/**
+	 * Returns the date of the earliest dated {@link AccountancyEntry}.
+	 *
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select min(e.date) from AccountancyEntry e")
+	Optional<LocalDateTime> findFirstDate();
+
+	/**
+	 * Returns the given number of distinct values still persisted in the legacy {@code VALUE} column.
+	 *
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 * @see AccountancyEntryMigration
+	 */
+	@Query("select distinct e.legacyValue from AccountancyEntry e where e.legacyValue is not null")
+	List<String> findLegacyValues(Pageable pageable);
+
+	/**
+	 * Moves the given value persisted in the legacy {@code VALUE} column of all {@link AccountancyEntry}s into the
+	 * numeric columns in a single statement.
+	 *
+	 * @param legacyValue must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @param currency must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s migrated.
+	 * @since 7.4
+	 * @see AccountancyEntryMigration
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update AccountancyEntry e set e.value.amount = ?2, e.value.currency = ?3, e.legacyValue = null" //
+			+ " where e.legacyValue = ?1")
+	int migrateLegacyValue(String legacyValue, BigDecimal amount, String currency);
+
+	/**
+	 * The date and value of an {@link AccountancyEntry}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface DatedValue {
+
+		LocalDateTime getDate();
+
+		@Nullable
+		BigDecimal getAmount();
+
+		@Nullable
+		String getCurrency();
+
+		@Nullable
+		String getLegacyValue();
+
+		default MonetaryAmount getValue() {
+
+			var amount = getAmount();
+
+			return amount == null
+					? EmbeddedMonetaryAmount.parse(getLegacyValue())
+					: EmbeddedMonetaryAmount.toMonetaryAmount(amount, getCurrency());
+		}
+	}
+
+	/**
+	 * The identifier, date and value of an {@link AccountancyEntry}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface IdentifiedValue extends DatedValue {
+
+		AccountancyEntryIdentifier getId();
+	}
 }
@@ -18,10 +18,16 @@ package org.salespointframework.accountancy;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import java.util.Set;
+import java.util.stream.Collectors;
+
 import org.salespointframework.order.Order;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
 import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.salespointframework.order.OrderEvents.OrdersCanceled;
+import org.salespointframework.order.OrderEvents.OrdersPaid;
+import org.salespointframework.order.OrderIdentifier;
 import org.springframework.context.ApplicationListener;
 import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Component;
@@ -46,9 +52,18 @@ public class AccountancyOrderEventListener {
 	@EventListener
 	public void on(OrderPaid event) {
 
-		Order order = event.getOrder();
+		addRevenueFor(event.getOrder());
+	}
 
-		accountancy.add(ProductPaymentEntry.of(order, String.format("Rechnung Nr. %s", order.getId())));
+	/**
+	 * Creates a new revenue {@link ProductPaymentEntry} for each of the orders that have been paid in bulk.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @since 7.4
+	 */
+	@EventListener
+	public void on(OrdersPaid event) {
+		event.getOrders().forEach(this::addRevenueFor);
 	}
 
 	/**
@@ -63,12 +78,36 @@ public class AccountancyOrderEventListener {
 
 		Order order = event.getOrder();
 
-		if (accountancy.findAll().stream() //
-				.map(ProductPaymentEntry.class::cast) //
-				.anyMatch(it -> it.belongsTo(order) && it.isRevenue())) {
-
-			accountancy.add(ProductPaymentEntry.rollback(order,
-					String.format("Order %s cancelled! Reason: %s.", order.getId(), event.getReason())));
+		if (accountancy.existsRevenueFor(order.getId())) {
+			addRollbackFor(order, event.getReason());
 		}
 	}
+
+	/**
+	 * Creates a counter {@link ProductPaymentEntry} for each of the orders cancelled in bulk that have a revenue entry
+	 * already. Looks up the revenue entries for all orders in a single query.
+	 *
+	 * @param event must not be {@literal null}.
+	 * @since 7.4
+	 */
+	@EventListener
+	public void on(OrdersCanceled event) {
+
+		Set<OrderIdentifier> paid = accountancy.findOrdersWithRevenue(event.getOrders().stream() //
+				.map(Order::getId) //
+				.collect(Collectors.toList()));
+
+		event.getOrders().stream() //
+				.filter(it -> paid.contains(it.getId())) //
+				.forEach(it -> addRollbackFor(it, event.getReason()));
+	}
+
+	private void addRevenueFor(Order order) {
+		accountancy.add(ProductPaymentEntry.of(order, String.format("Rechnung Nr. %s", order.getId())));
+	}
+
+	private void addRollbackFor(Order order, String reason) {
+		accountancy.add(ProductPaymentEntry.rollback(order,
+				String.format("Order %s cancelled! Reason: %s.", order.getId(), reason)));
+	}
 }
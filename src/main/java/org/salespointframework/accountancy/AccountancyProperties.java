@@ -0,0 +1,142 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+import org.salespointframework.accountancy.RevenueRollup.Granularity;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Properties to configure Salespoint's accountancy. Declare {@code salespoint.accountancy.…} in application properties
+ * to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Value
+@ConstructorBinding
+@ConfigurationProperties("salespoint.accountancy")
+class AccountancyProperties {
+
+	/**
+	 * Configuration of the {@link RevenueRollups}.
+	 */
+	private Rollups rollups;
+
+	/**
+	 * Configuration of the {@link BalanceCheckpoints}.
+	 */
+	private Checkpoints checkpoints;
+
+	AccountancyProperties(@Nullable Rollups rollups, @Nullable Checkpoints checkpoints) {
+
+		this.rollups = rollups == null ? new Rollups(false, null) : rollups;
+		this.checkpoints = checkpoints == null ? new Checkpoints(false, null, null) : checkpoints;
+	}
+
+	/**
+	 * Properties to configure the {@link RevenueRollups}. Declare {@code salespoint.accountancy.rollups.…} in application
+	 * properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Rollups {
+
+		/**
+		 * Whether to maintain hourly, daily and monthly aggregates of all {@link AccountancyEntry}s and use them to
+		 * calculate sales volumes, defaults to {@literal false}. Entries added before enabling them are rolled up on the
+		 * first run.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The interval to roll up the {@link AccountancyEntry}s added since the last run in, defaults to one minute. Set to
+		 * zero to disable scheduled roll-ups and trigger them manually via {@link RevenueRollups#rollUp()}.
+		 */
+		private Duration interval;
+
+		Rollups(boolean enabled, @Nullable Duration interval) {
+
+			this.enabled = enabled;
+			this.interval = interval == null ? Duration.ofMinutes(1) : interval;
+
+			Assert.isTrue(!this.interval.isNegative(), "Roll-up interval must not be negative!");
+		}
+
+		/**
+		 * Returns whether the {@link AccountancyEntry}s are rolled up periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return enabled && !interval.isZero();
+		}
+	}
+
+	/**
+	 * Properties to configure the {@link BalanceCheckpoints}. Declare {@code salespoint.accountancy.checkpoints.…} in
+	 * application properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Checkpoints {
+
+		/**
+		 * Whether to persist the running balance at the end of every closed period and use it to calculate balances,
+		 * defaults to {@literal false}.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The period to close, defaults to {@link Granularity#DAY}.
+		 */
+		private Granularity period;
+
+		/**
+		 * The interval to check for periods that have ended in, defaults to one minute. Set to zero to disable scheduled
+		 * closing and trigger it manually via {@link BalanceCheckpoints#closePeriods()}.
+		 */
+		private Duration interval;
+
+		Checkpoints(boolean enabled, @Nullable Granularity period, @Nullable Duration interval) {
+
+			this.enabled = enabled;
+			this.period = period == null ? Granularity.DAY : period;
+			this.interval = interval == null ? Duration.ofMinutes(1) : interval;
+
+			Assert.isTrue(!this.interval.isNegative(), "Closing interval must not be negative!");
+		}
+
+		/**
+		 * Returns whether periods are closed periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return enabled && !interval.isZero();
+		}
+	}
+}
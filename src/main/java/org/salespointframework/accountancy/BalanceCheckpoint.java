@@ -0,0 +1,70 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.springframework.util.Assert;
+
+/**
+ * The running balance of all {@link AccountancyEntry}s in a particular currency dated before the end of a closed
+ * period.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see BalanceCheckpoints
+ */
+@Entity
+@Getter
+@Table(name = "ACCOUNTANCY_CHECKPOINT", uniqueConstraints = @UniqueConstraint(name = "ACCOUNTANCY_CHECKPOINT_UK",
+		columnNames = { "PERIOD_END", "CURRENCY" }))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class BalanceCheckpoint {
+
+	private @Id @GeneratedValue Long id;
+
+	@Column(name = "PERIOD_END", nullable = false) //
+	private final LocalDateTime end;
+
+	@Column(name = "CURRENCY", nullable = false, length = 3) //
+	private final String currency;
+
+	@Column(precision = 38, scale = 10) //
+	private final BigDecimal balance;
+
+	BalanceCheckpoint(LocalDateTime end, String currency, BigDecimal balance) {
+
+		Assert.notNull(end, "End must not be null!");
+		Assert.hasText(currency, "Currency must not be null or empty!");
+		Assert.notNull(balance, "Balance must not be null!");
+
+		this.end = end;
+		this.currency = currency;
+		this.balance = balance;
+	}
+}
@@ -0,0 +1,73 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link BalanceCheckpoint}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface BalanceCheckpointRepository extends CrudRepository<BalanceCheckpoint, Long> {
+
+	/**
+	 * Returns the end of the latest period a {@link BalanceCheckpoint} exists for.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select max(c.end) from BalanceCheckpoint c")
+	Optional<LocalDateTime> findLatestEnd();
+
+	/**
+	 * Returns the {@link BalanceCheckpoint}s of all currencies for the latest period ending at or before the given date.
+	 *
+	 * @param date must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select c from BalanceCheckpoint c where c.end = " //
+			+ "(select max(l.end) from BalanceCheckpoint l where l.end <= ?1)")
+	List<BalanceCheckpoint> findLatestAtOrBefore(LocalDateTime date);
+
+	/**
+	 * Deletes all {@link BalanceCheckpoint}s for periods ending after the given date.
+	 *
+	 * @param date must not be {@literal null}.
+	 * @return the number of {@link BalanceCheckpoint}s deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from BalanceCheckpoint c where c.end > ?1")
+	int deleteByEndAfter(LocalDateTime date);
+
+	/**
+	 * Deletes all {@link BalanceCheckpoint}s.
+	 *
+	 * @return the number of {@link BalanceCheckpoint}s deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from BalanceCheckpoint c")
+	int deleteAllInBulk();
+}
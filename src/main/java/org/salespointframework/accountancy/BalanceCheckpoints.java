@@ -0,0 +1,321 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.salespointframework.accountancy.AccountancyEntryRepository.DatedValue;
+import org.salespointframework.accountancy.RevenueRollup.Granularity;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.core.EmbeddedMonetaryAmount;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Persists the running balance of all {@link AccountancyEntry}s per currency at the end of every closed period, if
+ * enabled via {@code salespoint.accountancy.checkpoints.enabled}. A period is closed once its end has passed according
+ * to {@link BusinessTime}, by a check running periodically or via {@link #closePeriods()}. The balance of an
+ * {@link Interval} is then calculated from the checkpoints preceding its start and end, only reading the entries dated
+ * after them, i.e. at most the entries of the periods not closed yet.
+ * <p>
+ * Adding an {@link AccountancyEntry} doesn't touch the checkpoints. Instead, closing periods marks the entries it
+ * includes in the checkpoints, so that a checkpoint always reflects exactly the marked entries dated before its end.
+ * Entries dated within closed periods that are not marked, i.e. added after the period was closed or committed
+ * concurrently to closing it, are added to balances individually and cause the following checkpoints to be calculated
+ * anew on the next run. Use {@link #rebuild()} after changing the period.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see AccountancyProperties.Checkpoints
+ */
+@Service
+public class BalanceCheckpoints implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(BalanceCheckpoints.class);
+
+	private final BalanceCheckpointRepository checkpoints;
+	private final AccountancyEntryRepository entries;
+	private final BusinessTime businessTime;
+	private final TransactionTemplate transactions;
+	private final AccountancyProperties.Checkpoints configuration;
+	private final Granularity period;
+
+	private boolean running;
+	private @Nullable ScheduledExecutorService scheduler;
+
+	BalanceCheckpoints(BalanceCheckpointRepository checkpoints, AccountancyEntryRepository entries,
+			BusinessTime businessTime, PlatformTransactionManager transactionManager, AccountancyProperties properties) {
+
+		this.checkpoints = checkpoints;
+		this.entries = entries;
+		this.businessTime = businessTime;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.configuration = properties.getCheckpoints();
+		this.period = configuration.getPeriod();
+	}
+
+	/**
+	 * Persists the checkpoints for all periods closed according to {@link BusinessTime} that don't have one yet and
+	 * calculates the ones following entries added to closed periods anew. Fails in case periods were closed
+	 * concurrently, e.g. by another instance of the application, leaving them to a subsequent run. Doesn't do anything in
+	 * case the checkpoints are disabled.
+	 */
+	public synchronized void closePeriods() {
+
+		if (!isEnabled()) {
+			return;
+		}
+
+		var now = businessTime.getTime();
+
+		transactions.executeWithoutResult(__ -> {
+
+			// Entries added to closed periods after they were closed
+			checkpoints.findLatestEnd() //
+					.flatMap(entries::findFirstDateNotCheckpointedBefore) //
+					.ifPresent(checkpoints::deleteByEndAfter);
+
+			close(period.truncate(now), now);
+		});
+	}
+
+	/**
+	 * Discards all checkpoints and persists them anew for all closed periods, e.g. after changing the period. Doesn't do
+	 * anything in case the checkpoints are disabled.
+	 */
+	public synchronized void rebuild() {
+
+		if (!isEnabled()) {
+			return;
+		}
+
+		var now = businessTime.getTime();
+
+		transactions.executeWithoutResult(__ -> {
+
+			checkpoints.deleteAllInBulk();
+			close(period.truncate(now), now);
+		});
+	}
+
+	/**
+	 * Returns whether the checkpoints are maintained.
+	 *
+	 * @return
+	 */
+	boolean isEnabled() {
+		return configuration.isEnabled();
+	}
+
+	/**
+	 * Calculates the balance of all {@link AccountancyEntry}s dated within the given {@link Interval}, including its
+	 * start and end, from the checkpoints preceding them. Sums up the entries of the {@link Interval} directly in case
+	 * no period within it is closed. Doesn't close any periods.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	MonetaryAmount balance(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		var start = interval.getStart();
+		var end = interval.getEnd();
+		var latest = checkpoints.findLatestAtOrBefore(end);
+		var balances = new HashMap<String, BigDecimal>();
+
+		if (latest.isEmpty() || !latest.get(0).getEnd().isAfter(start)) {
+
+			try (var values = entries.streamValuesByDateBetween(start, end)) {
+				add(balances, values.map(DatedValue::getValue));
+			}
+
+			return toMonetaryAmount(balances);
+		}
+
+		var checkpoint = latest.get(0).getEnd();
+		var preceding = checkpoints.findLatestAtOrBefore(start);
+		var from = preceding.isEmpty() //
+				? entries.findFirstDate().orElse(start) //
+				: preceding.get(0).getEnd();
+
+		latest.forEach(it -> balances.merge(it.getCurrency(), it.getBalance(), BigDecimal::add));
+		preceding.forEach(it -> balances.merge(it.getCurrency(), it.getBalance().negate(), BigDecimal::add));
+
+		try (var values = entries.streamValuesNotCheckpointedByDateWithin(from, checkpoint)) {
+			add(balances, values.map(DatedValue::getValue));
+		}
+
+		try (var values = entries.streamValuesByDateBetween(checkpoint, end)) {
+			add(balances, values.map(DatedValue::getValue));
+		}
+
+		try (var values = entries.streamValuesByDateWithin(from, start)) {
+			add(balances, values.map(DatedValue::getValue).map(MonetaryAmount::negate));
+		}
+
+		return toMonetaryAmount(balances);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		this.running = true;
+
+		if (!configuration.isScheduled()) {
+			return;
+		}
+
+		var interval = configuration.getInterval().toMillis();
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-checkpoints-"));
+		this.scheduler.scheduleWithFixedDelay(this::closePeriodsSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+
+		this.running = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Persists the checkpoints for all periods following the latest checkpoint and ending at or before the given date
+	 * with a single scan of the entries dated within those periods. Marks the entries dated before the given date first
+	 * and only includes the marked ones, so that entries committed concurrently are picked up by a subsequent run.
+	 *
+	 * @param until must not be {@literal null}.
+	 * @param now must not be {@literal null}.
+	 */
+	private void close(LocalDateTime until, LocalDateTime now) {
+
+		var latest = checkpoints.findLatestEnd();
+		var balances = new HashMap<String, BigDecimal>();
+		LocalDateTime from;
+
+		if (latest.isPresent()) {
+
+			from = latest.get();
+
+			if (!from.isBefore(until)) {
+				return;
+			}
+
+			checkpoints.findLatestAtOrBefore(from).forEach(it -> balances.put(it.getCurrency(), it.getBalance()));
+
+		} else {
+
+			var first = entries.findFirstDate();
+
+			if (first.isEmpty() || !period.truncate(first.get()).isBefore(until)) {
+				return;
+			}
+
+			from = period.truncate(first.get());
+		}
+
+		entries.markCheckpointed(until, now);
+
+		var sums = new HashMap<LocalDateTime, Map<String, BigDecimal>>();
+
+		try (var values = entries.streamValuesCheckpointedByDateWithin(from, until)) {
+			values.forEach(it -> add(sums.computeIfAbsent(period.truncate(it.getDate()), __ -> new HashMap<>()),
+					Stream.of(it.getValue())));
+		}
+
+		var result = new ArrayList<BalanceCheckpoint>();
+
+		for (var start = from; start.isBefore(until); start = period.next(start)) {
+
+			var end = period.next(start);
+
+			sums.getOrDefault(start, Collections.emptyMap()) //
+					.forEach((currency, amount) -> balances.merge(currency, amount, BigDecimal::add));
+			balances.forEach((currency, balance) -> result.add(new BalanceCheckpoint(end, currency, balance)));
+		}
+
+		checkpoints.saveAll(result);
+	}
+
+	private void closePeriodsSafely() {
+
+		try {
+			closePeriods();
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to close accountancy periods!", o_O);
+		}
+	}
+
+	private static void add(Map<String, BigDecimal> balances, Stream<MonetaryAmount> values) {
+
+		values.forEach(it -> balances.merge(it.getCurrency().getCurrencyCode(),
+				it.getNumber().numberValue(BigDecimal.class), BigDecimal::add));
+	}
+
+	private static MonetaryAmount toMonetaryAmount(Map<String, BigDecimal> balances) {
+
+		return balances.entrySet().stream() //
+				.filter(it -> it.getValue().signum() != 0) //
+				.map(it -> EmbeddedMonetaryAmount.toMonetaryAmount(it.getValue(), it.getKey())) //
+				.reduce(Money.of(0, Currencies.EURO), MonetaryAmount::add);
+	}
+}
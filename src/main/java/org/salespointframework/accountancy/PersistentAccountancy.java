@@ -15,21 +15,30 @@
  */
 package org.salespointframework.accountancy;
 
-import static java.util.function.Function.*;
 import static java.util.stream.Collectors.*;
 
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import java.time.LocalDateTime;
 import java.time.temporal.TemporalAmount;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Map.Entry;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collector;
+import java.util.stream.Stream;
 
 import javax.money.MonetaryAmount;
 
 import org.javamoney.moneta.Money;
+import org.salespointframework.accountancy.AccountancyEntryRepository.DatedValue;
 import org.salespointframework.core.Currencies;
+import org.salespointframework.order.OrderIdentifier;
 import org.salespointframework.time.BusinessTime;
 import org.salespointframework.time.Interval;
 import org.salespointframework.time.Intervals;
@@ -52,6 +61,8 @@ class PersistentAccountancy implements Accountancy {
 
 	private final @NonNull BusinessTime businessTime;
 	private final @NonNull AccountancyEntryRepository repository;
+	private final @NonNull RevenueRollups rollups;
+	private final @NonNull BalanceCheckpoints checkpoints;
 
 	/*
 	 * (non-Javadoc)
@@ -111,8 +122,12 @@ class PersistentAccountancy implements Accountancy {
 		Assert.notNull(interval, "Interval must not be null");
 		Assert.notNull(duration, "TemporalAmount must not be null");
 
-		return Intervals.divide(interval, duration).stream() //
-				.collect(toMap(identity(), this::find));
+		var intervals = Intervals.divide(interval, duration).toList();
+
+		try (var entries = repository.streamByDateBetween(interval.getStart(), interval.getEnd())) {
+			return bucket(intervals, entries, it -> it.getDate().orElseThrow(),
+					collectingAndThen(toList(), Streamable::of));
+		}
 	}
 
 	/*
@@ -125,9 +140,119 @@ class PersistentAccountancy implements Accountancy {
 		Assert.notNull(interval, "Interval must not be null");
 		Assert.notNull(duration, "TemporalAmount must not be null");
 
-		return find(interval, duration).entrySet().stream().//
-				collect(toMap(Entry::getKey, entry -> entry.getValue().stream().//
-						map(AccountancyEntry::getValue).//
-						reduce(Money.of(0, Currencies.EURO), MonetaryAmount::add)));
+		var intervals = Intervals.divide(interval, duration).toList();
+		var fromRollups = rollups.isEnabled() //
+				? rollups.salesVolume(intervals) //
+				: Optional.<Map<Interval, MonetaryAmount>> empty();
+
+		if (fromRollups.isPresent()) {
+			return fromRollups.get();
+		}
+
+		try (var values = repository.streamValuesByDateBetween(interval.getStart(), interval.getEnd())) {
+			return bucket(intervals, values, DatedValue::getDate,
+					reducing(Money.of(0, Currencies.EURO), DatedValue::getValue, MonetaryAmount::add));
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.accountancy.Accountancy#balance(org.salespointframework.time.Interval)
+	 */
+	@Override
+	public final MonetaryAmount balance(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		if (checkpoints.isEnabled()) {
+			return checkpoints.balance(interval);
+		}
+
+		try (var values = repository.streamValuesByDateBetween(interval.getStart(), interval.getEnd())) {
+			return values.map(DatedValue::getValue).reduce(Money.of(0, Currencies.EURO), MonetaryAmount::add);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.accountancy.Accountancy#findByOrder(org.salespointframework.order.OrderIdentifier)
+	 */
+	@Override
+	public final Streamable<ProductPaymentEntry> findByOrder(OrderIdentifier order) {
+
+		Assert.notNull(order, "Order identifier must not be null!");
+
+		return repository.findByOrderIdentifierIn(Collections.singleton(order));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.accountancy.Accountancy#existsRevenueFor(org.salespointframework.order.OrderIdentifier)
+	 */
+	@Override
+	public final boolean existsRevenueFor(OrderIdentifier order) {
+
+		Assert.notNull(order, "Order identifier must not be null!");
+
+		return findByOrder(order).stream().anyMatch(ProductPaymentEntry::isRevenue);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.accountancy.Accountancy#findOrdersWithRevenue(java.util.Collection)
+	 */
+	@Override
+	public final Set<OrderIdentifier> findOrdersWithRevenue(Collection<OrderIdentifier> orders) {
+
+		Assert.notNull(orders, "Order identifiers must not be null!");
+
+		if (orders.isEmpty()) {
+			return Collections.emptySet();
+		}
+
+		return repository.findByOrderIdentifierIn(orders).stream() //
+				.filter(ProductPaymentEntry::isRevenue) //
+				.map(ProductPaymentEntry::getOrderIdentifier) //
+				.collect(toSet());
+	}
+
+	/**
+	 * Assigns the given elements, ordered by date, to the given consecutive {@link Interval}s in a single pass. An
+	 * element dated at the boundary of two {@link Interval}s is assigned to the later one.
+	 *
+	 * @param intervals must not be {@literal null} or empty.
+	 * @param elements must not be {@literal null}.
+	 * @param date the function to obtain the date of an element, must not be {@literal null}.
+	 * @param collector the {@link Collector} to aggregate the elements of an {@link Interval}, must not be
+	 *          {@literal null}.
+	 * @return the aggregated elements per {@link Interval} in chronological order.
+	 */
+	private static <T, A, R> Map<Interval, R> bucket(List<Interval> intervals, Stream<T> elements,
+			Function<T, LocalDateTime> date, Collector<T, A, R> collector) {
+
+		var containers = intervals.stream() //
+				.map(__ -> collector.supplier().get()) //
+				.collect(toList());
+		var accumulator = collector.accumulator();
+		var index = new int[1];
+
+		elements.forEachOrdered(it -> {
+
+			var current = date.apply(it);
+
+			while (index[0] < intervals.size() - 1 && !current.isBefore(intervals.get(index[0]).getEnd())) {
+				index[0]++;
+			}
+
+			accumulator.accept(containers.get(index[0]), it);
+		});
+
+		var result = new LinkedHashMap<Interval, R>();
+
+		for (int i = 0; i < intervals.size(); i++) {
+			result.put(intervals.get(i), collector.finisher().apply(containers.get(i)));
+		}
+
+		return result;
 	}
 }
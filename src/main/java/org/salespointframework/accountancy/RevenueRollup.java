@@ -0,0 +1,159 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.springframework.util.Assert;
+
+/**
+ * The revenue and expenses of all {@link AccountancyEntry}s in a particular currency dated within an hour, day or
+ * month.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see RevenueRollups
+ */
+@Entity
+@Getter
+@Table(name = "ACCOUNTANCY_ROLLUP", uniqueConstraints = @UniqueConstraint(name = "ACCOUNTANCY_ROLLUP_PERIOD_UK",
+		columnNames = { "GRANULARITY", "PERIOD_START", "CURRENCY" }))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class RevenueRollup {
+
+	private @Id @GeneratedValue Long id;
+
+	@Enumerated(EnumType.STRING) //
+	@Column(name = "GRANULARITY", nullable = false) //
+	private final Granularity granularity;
+
+	@Column(name = "PERIOD_START", nullable = false) //
+	private final LocalDateTime start;
+
+	@Column(name = "CURRENCY", nullable = false, length = 3) //
+	private final String currency;
+
+	@Column(precision = 38, scale = 10) //
+	private final BigDecimal revenue;
+
+	@Column(precision = 38, scale = 10) //
+	private final BigDecimal expense;
+
+	RevenueRollup(Granularity granularity, LocalDateTime start, String currency, BigDecimal revenue,
+			BigDecimal expense) {
+
+		Assert.notNull(granularity, "Granularity must not be null!");
+		Assert.isTrue(granularity.isAligned(start), "Start must be aligned to the granularity!");
+		Assert.hasText(currency, "Currency must not be null or empty!");
+		Assert.notNull(revenue, "Revenue must not be null!");
+		Assert.notNull(expense, "Expense must not be null!");
+
+		this.granularity = granularity;
+		this.start = start;
+		this.currency = currency;
+		this.revenue = revenue;
+		this.expense = expense;
+	}
+
+	/**
+	 * The periods {@link RevenueRollup}s are kept for.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	enum Granularity {
+
+		HOUR {
+
+			@Override
+			LocalDateTime truncate(LocalDateTime date) {
+				return date.truncatedTo(ChronoUnit.HOURS);
+			}
+
+			@Override
+			LocalDateTime next(LocalDateTime start) {
+				return start.plusHours(1);
+			}
+		},
+
+		DAY {
+
+			@Override
+			LocalDateTime truncate(LocalDateTime date) {
+				return date.truncatedTo(ChronoUnit.DAYS);
+			}
+
+			@Override
+			LocalDateTime next(LocalDateTime start) {
+				return start.plusDays(1);
+			}
+		},
+
+		MONTH {
+
+			@Override
+			LocalDateTime truncate(LocalDateTime date) {
+				return date.truncatedTo(ChronoUnit.DAYS).withDayOfMonth(1);
+			}
+
+			@Override
+			LocalDateTime next(LocalDateTime start) {
+				return start.plusMonths(1);
+			}
+		};
+
+		/**
+		 * Returns the start of the period the given date lies in.
+		 *
+		 * @param date must not be {@literal null}.
+		 * @return will never be {@literal null}.
+		 */
+		abstract LocalDateTime truncate(LocalDateTime date);
+
+		/**
+		 * Returns the start of the period following the one starting at the given date.
+		 *
+		 * @param start must not be {@literal null}.
+		 * @return will never be {@literal null}.
+		 */
+		abstract LocalDateTime next(LocalDateTime start);
+
+		/**
+		 * Returns whether the given date is the start of a period.
+		 *
+		 * @param date must not be {@literal null}.
+		 * @return
+		 */
+		boolean isAligned(LocalDateTime date) {
+			return truncate(date).equals(date);
+		}
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+import org.salespointframework.accountancy.RevenueRollup.Granularity;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link RevenueRollup}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface RevenueRollupRepository extends CrudRepository<RevenueRollup, Long> {
+
+	/**
+	 * Adds the given revenue and expense to the {@link RevenueRollup} of the given period and currency in a single
+	 * statement.
+	 *
+	 * @param granularity must not be {@literal null}.
+	 * @param start must not be {@literal null}.
+	 * @param currency must not be {@literal null}.
+	 * @param revenue must not be {@literal null}.
+	 * @param expense must not be {@literal null}.
+	 * @return the number of {@link RevenueRollup}s updated, i.e. {@literal 0} in case none exists for the period and
+	 *         currency yet.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update RevenueRollup r set r.revenue = r.revenue + ?4, r.expense = r.expense + ?5" //
+			+ " where r.granularity = ?1 and r.start = ?2 and r.currency = ?3")
+	int add(Granularity granularity, LocalDateTime start, String currency, BigDecimal revenue, BigDecimal expense);
+
+	/**
+	 * Returns the totals of all {@link RevenueRollup}s of the given {@link Granularity} starting at one of the given
+	 * dates. Reads the current state of the database rather than {@link RevenueRollup} instances already loaded.
+	 *
+	 * @param granularity must not be {@literal null}.
+	 * @param starts must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select r.start as start, r.currency as currency, r.revenue as revenue, r.expense as expense" //
+			+ " from RevenueRollup r where r.granularity = ?1 and r.start in ?2")
+	List<Totals> findTotals(Granularity granularity, Collection<LocalDateTime> starts);
+
+	/**
+	 * Deletes all {@link RevenueRollup}s starting within the given dates, the latter exclusive.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return the number of {@link RevenueRollup}s deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from RevenueRollup r where r.start >= ?1 and r.start < ?2")
+	int deleteByStartWithin(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Deletes all {@link RevenueRollup}s.
+	 *
+	 * @return the number of {@link RevenueRollup}s deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from RevenueRollup r")
+	int deleteAllInBulk();
+
+	/**
+	 * The totals of a {@link RevenueRollup}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface Totals {
+
+		LocalDateTime getStart();
+
+		String getCurrency();
+
+		BigDecimal getRevenue();
+
+		BigDecimal getExpense();
+	}
+}
@@ -0,0 +1,532 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.salespointframework.accountancy.AccountancyEntryRepository.DatedValue;
+import org.salespointframework.accountancy.AccountancyEntryRepository.IdentifiedValue;
+import org.salespointframework.accountancy.RevenueRollup.Granularity;
+import org.salespointframework.accountancy.RevenueRollupRepository.Totals;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Maintains hourly, daily and monthly aggregates of the revenue and expenses recorded in the {@link Accountancy} per
+ * currency, if enabled via {@code salespoint.accountancy.rollups.enabled}. Adding an {@link AccountancyEntry} doesn't
+ * touch the aggregates, so that concurrent additions don't contend for the rows of the periods they're dated in.
+ * Instead, the entries added are rolled up periodically or via {@link #rollUp()} by a single writer, that adds them to
+ * the aggregates, creating the ones for new periods, and marks them as rolled up in the same transaction. As that is
+ * tracked per {@link AccountancyEntry}, entries committed late, as well as the ones added before enabling the
+ * aggregates, are picked up by a subsequent run.
+ * <p>
+ * The aggregates are used to calculate {@link Accountancy#salesVolume(Interval, java.time.temporal.TemporalAmount)
+ * sales volumes} from the coarsest aggregates covering an interval, plus the entries not rolled up yet, only reading
+ * all entries dated within the partial hours at its edges. Use {@link #rebuild()} to recreate the aggregates from the
+ * entries.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see AccountancyProperties.Rollups
+ */
+@Service
+public class RevenueRollups implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(RevenueRollups.class);
+
+	private static final int MAX_LOOKUP_SIZE = 500;
+
+	/**
+	 * The maximum number of {@link AccountancyEntry}s rolled up in a single transaction.
+	 */
+	private static final int BATCH_SIZE = 1000;
+
+	private final RevenueRollupRepository rollups;
+	private final AccountancyEntryRepository entries;
+	private final TransactionTemplate transactions;
+	private final BusinessTime businessTime;
+	private final AccountancyProperties.Rollups configuration;
+
+	private boolean running;
+	private @Nullable ScheduledExecutorService scheduler;
+
+	RevenueRollups(RevenueRollupRepository rollups, AccountancyEntryRepository entries,
+			PlatformTransactionManager transactionManager, BusinessTime businessTime, AccountancyProperties properties) {
+
+		this.rollups = rollups;
+		this.entries = entries;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.businessTime = businessTime;
+		this.configuration = properties.getRollups();
+	}
+
+	/**
+	 * Adds all {@link AccountancyEntry}s not rolled up yet to the aggregates of the periods they're dated in. Fails in
+	 * case any of them was rolled up concurrently, e.g. by another instance of the application, leaving them to a
+	 * subsequent run.
+	 *
+	 * @return the number of {@link AccountancyEntry}s rolled up.
+	 */
+	public synchronized long rollUp() {
+
+		var now = businessTime.getTime();
+		long rolledUp = 0;
+		int batch;
+
+		do {
+
+			batch = transactions.execute(__ -> fold(now));
+			rolledUp += batch;
+
+		} while (batch == BATCH_SIZE);
+
+		return rolledUp;
+	}
+
+	/**
+	 * Recreates the aggregates from all {@link AccountancyEntry}s, e.g. after entries were changed in the database
+	 * directly.
+	 */
+	public synchronized void rebuild() {
+
+		transactions.executeWithoutResult(__ -> {
+			rollups.deleteAllInBulk();
+			entries.resetRolledUp();
+		});
+
+		rollUp();
+	}
+
+	/**
+	 * Recreates the aggregates for all {@link AccountancyEntry}s dated within the months the given {@link Interval}
+	 * touches, e.g. after backfilling entries for that period.
+	 *
+	 * @param interval must not be {@literal null}.
+	 */
+	public synchronized void rebuild(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		var from = Granularity.MONTH.truncate(interval.getStart());
+		var to = Granularity.MONTH.next(Granularity.MONTH.truncate(interval.getEnd()));
+
+		transactions.executeWithoutResult(__ -> {
+			rollups.deleteByStartWithin(from, to);
+			entries.resetRolledUpByDateWithin(from, to);
+		});
+
+		rollUp();
+	}
+
+	/**
+	 * Returns whether the aggregates are maintained.
+	 *
+	 * @return
+	 */
+	boolean isEnabled() {
+		return configuration.isEnabled();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		this.running = true;
+
+		if (!configuration.isScheduled()) {
+			return;
+		}
+
+		var interval = configuration.getInterval().toMillis();
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-rollups-"));
+		this.scheduler.scheduleWithFixedDelay(this::rollUpSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+
+		this.running = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Adds the next batch of {@link AccountancyEntry}s not rolled up yet to the aggregates and marks them as rolled up
+	 * at the given date.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @return the number of {@link AccountancyEntry}s rolled up.
+	 */
+	private int fold(LocalDateTime now) {
+
+		var values = entries.findNotRolledUp(PageRequest.of(0, BATCH_SIZE));
+
+		if (values.isEmpty()) {
+			return 0;
+		}
+
+		var identifiers = values.stream() //
+				.map(IdentifiedValue::getId) //
+				.collect(Collectors.toList());
+
+		Assert.state(entries.markRolledUp(identifiers, now) == values.size(),
+				"Accountancy entries were rolled up concurrently!");
+
+		aggregate(values.stream()).forEach(it -> {
+
+			if (rollups.add(it.getGranularity(), it.getStart(), it.getCurrency(), it.getRevenue(), it.getExpense()) == 0) {
+				rollups.save(it);
+			}
+		});
+
+		return values.size();
+	}
+
+	private void rollUpSafely() {
+
+		try {
+
+			var rolledUp = rollUp();
+
+			LOGGER.debug("Rolled up {} accountancy entries.", rolledUp);
+
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to roll up accountancy entries!", o_O);
+		}
+	}
+
+	/**
+	 * Calculates the sales volume for each of the given, consecutive {@link Interval}s from the aggregates. The last
+	 * {@link Interval} includes the entries dated at its end. Returns {@link Optional#empty()} in case the
+	 * {@link Interval}s can't be composed from whole hours, except for the start of the first and the end of the last
+	 * one.
+	 *
+	 * @param intervals must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Optional<Map<Interval, MonetaryAmount>> salesVolume(List<Interval> intervals) {
+
+		Assert.notNull(intervals, "Intervals must not be null!");
+
+		for (int i = 0; i < intervals.size() - 1; i++) {
+			if (!Granularity.HOUR.isAligned(intervals.get(i).getEnd())) {
+				return Optional.empty();
+			}
+		}
+
+		var covers = new ArrayList<Cover>();
+
+		for (int i = 0; i < intervals.size(); i++) {
+			covers.add(Cover.of(intervals.get(i), i == 0, i == intervals.size() - 1));
+		}
+
+		var totals = lookupTotals(covers);
+		var pending = lookupPending(covers);
+		var result = new LinkedHashMap<Interval, MonetaryAmount>();
+
+		for (var cover : covers) {
+
+			MonetaryAmount volume = pending.getOrDefault(cover.getInterval(), Money.of(0, Currencies.EURO));
+
+			for (var period : cover.getPeriods()) {
+				for (var total : totals.getOrDefault(period, Collections.emptyList())) {
+					volume = volume.add(Money.of(total.getRevenue().add(total.getExpense()), total.getCurrency()));
+				}
+			}
+
+			for (var raw : cover.getRaw()) {
+				try (var values = raw.isInclusive() //
+						? entries.streamValuesByDateBetween(raw.getFrom(), raw.getTo())
+						: entries.streamValuesByDateWithin(raw.getFrom(), raw.getTo())) {
+
+					volume = values.map(DatedValue::getValue).reduce(volume, MonetaryAmount::add);
+				}
+			}
+
+			result.put(cover.getInterval(), volume);
+		}
+
+		return Optional.of(result);
+	}
+
+	/**
+	 * Looks up the totals of all periods of the given {@link Cover}s with a single query per {@link Granularity} and
+	 * chunk of {@value #MAX_LOOKUP_SIZE} periods.
+	 *
+	 * @param covers must not be {@literal null}.
+	 * @return
+	 */
+	private Map<Period, List<Totals>> lookupTotals(List<Cover> covers) {
+
+		var starts = new EnumMap<Granularity, Set<LocalDateTime>>(Granularity.class);
+
+		covers.stream() //
+				.flatMap(it -> it.getPeriods().stream()) //
+				.forEach(it -> starts.computeIfAbsent(it.getGranularity(), __ -> new TreeSet<>()).add(it.getStart()));
+
+		var result = new HashMap<Period, List<Totals>>();
+
+		starts.forEach((granularity, dates) -> {
+
+			var list = new ArrayList<>(dates);
+
+			for (int i = 0; i < list.size(); i += MAX_LOOKUP_SIZE) {
+
+				rollups.findTotals(granularity, list.subList(i, Math.min(i + MAX_LOOKUP_SIZE, list.size())))
+						.forEach(it -> result.computeIfAbsent(Period.of(granularity, it.getStart()), __ -> new ArrayList<>())
+								.add(it));
+			}
+		});
+
+		return result;
+	}
+
+	/**
+	 * Sums up the values of all {@link AccountancyEntry}s not rolled up yet that are dated within the periods of the
+	 * given {@link Cover}s with a single query.
+	 *
+	 * @param covers must not be {@literal null}.
+	 * @return
+	 */
+	private Map<Interval, MonetaryAmount> lookupPending(List<Cover> covers) {
+
+		var rolledUp = covers.stream() //
+				.filter(it -> !it.getPeriods().isEmpty()) //
+				.collect(Collectors.toList());
+
+		if (rolledUp.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		var from = rolledUp.get(0).getPeriods().get(0).getStart();
+		var to = rolledUp.get(rolledUp.size() - 1).getEnd();
+		var result = new HashMap<Interval, MonetaryAmount>();
+
+		try (var values = entries.streamValuesNotRolledUpByDateWithin(from, to)) {
+
+			values.forEach(value -> rolledUp.stream() //
+					.filter(it -> it.rollsUp(value.getDate())) //
+					.findFirst() //
+					.ifPresent(it -> result.merge(it.getInterval(), value.getValue(), MonetaryAmount::add)));
+		}
+
+		return result;
+	}
+
+	/**
+	 * Sums up the given values into {@link RevenueRollup}s of all {@link Granularity}s.
+	 *
+	 * @param values must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	private static List<RevenueRollup> aggregate(Stream<? extends DatedValue> values) {
+
+		var sums = new HashMap<Key, BigDecimal[]>();
+
+		values.forEach(it -> {
+
+			var amount = it.getValue().getNumber().numberValue(BigDecimal.class);
+			var currency = it.getValue().getCurrency().getCurrencyCode();
+			var index = amount.signum() < 0 ? 1 : 0;
+
+			for (var granularity : Granularity.values()) {
+
+				var key = new Key(granularity, granularity.truncate(it.getDate()), currency);
+				var sum = sums.computeIfAbsent(key, __ -> new BigDecimal[] { BigDecimal.ZERO, BigDecimal.ZERO });
+
+				sum[index] = sum[index].add(amount);
+			}
+		});
+
+		return sums.entrySet().stream() //
+				.map(it -> new RevenueRollup(it.getKey().getGranularity(), it.getKey().getStart(), it.getKey().getCurrency(),
+						it.getValue()[0], it.getValue()[1])) //
+				.collect(Collectors.toList());
+	}
+
+	@Value
+	private static class Key {
+		Granularity granularity;
+		LocalDateTime start;
+		String currency;
+	}
+
+	@Value(staticConstructor = "of")
+	private static class Period {
+
+		Granularity granularity;
+		LocalDateTime start;
+
+		LocalDateTime getEnd() {
+			return granularity.next(start);
+		}
+	}
+
+	@Value
+	private static class Range {
+		LocalDateTime from, to;
+		boolean inclusive;
+	}
+
+	/**
+	 * The periods and the ranges of raw entries an {@link Interval} is composed of.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@Value
+	private static class Cover {
+
+		Interval interval;
+		List<Period> periods;
+		List<Range> raw;
+
+		/**
+		 * Composes the given {@link Interval} from the coarsest aligned periods. Partial hours at the start of the first
+		 * and the end of the last {@link Interval} are covered by raw entries.
+		 *
+		 * @param interval must not be {@literal null}.
+		 * @param first whether the {@link Interval} is the first one.
+		 * @param last whether the {@link Interval} is the last one and thus includes its end.
+		 * @return will never be {@literal null}.
+		 */
+		static Cover of(Interval interval, boolean first, boolean last) {
+
+			var start = interval.getStart();
+			var end = interval.getEnd();
+			var alignedStart = Granularity.HOUR.isAligned(start) ? start : start.truncatedTo(ChronoUnit.HOURS).plusHours(1);
+			var alignedEnd = Granularity.HOUR.truncate(end);
+
+			var periods = new ArrayList<Period>();
+			var raw = new ArrayList<Range>();
+
+			if (!alignedStart.isBefore(alignedEnd)) {
+				raw.add(new Range(start, end, last));
+				return new Cover(interval, periods, raw);
+			}
+
+			if (first && start.isBefore(alignedStart)) {
+				raw.add(new Range(start, alignedStart, false));
+			}
+
+			var current = alignedStart;
+
+			while (current.isBefore(alignedEnd)) {
+
+				var granularity = coarsest(current, alignedEnd);
+
+				periods.add(Period.of(granularity, current));
+				current = granularity.next(current);
+			}
+
+			if (last) {
+				raw.add(new Range(alignedEnd, end, true));
+			}
+
+			return new Cover(interval, periods, raw);
+		}
+
+		/**
+		 * Returns whether the given date lies within the periods of the {@link Cover}, i.e. the entries dated at it are
+		 * covered by aggregates once rolled up.
+		 *
+		 * @param date must not be {@literal null}.
+		 * @return
+		 */
+		boolean rollsUp(LocalDateTime date) {
+
+			return !periods.isEmpty() //
+					&& !date.isBefore(periods.get(0).getStart()) //
+					&& date.isBefore(getEnd());
+		}
+
+		/**
+		 * Returns the end of the last period of the {@link Cover}.
+		 *
+		 * @return
+		 */
+		LocalDateTime getEnd() {
+			return periods.get(periods.size() - 1).getEnd();
+		}
+
+		private static Granularity coarsest(LocalDateTime start, LocalDateTime end) {
+
+			for (var granularity : List.of(Granularity.MONTH, Granularity.DAY)) {
+				if (granularity.isAligned(start) && !granularity.next(start).isAfter(end)) {
+					return granularity;
+				}
+			}
+
+			return Granularity.HOUR;
+		}
+	}
+}
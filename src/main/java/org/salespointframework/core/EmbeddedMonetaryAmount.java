@@ -0,0 +1,149 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.core;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.money.format.MonetaryAmountFormat;
+import javax.money.format.MonetaryFormats;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+import org.javamoney.moneta.Money;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A {@link MonetaryAmount} persisted as a numeric amount and a currency code column, e.g. to be able to sum up, compare
+ * and index amounts in the database and to avoid parsing a formatted {@link String} every time an entity is loaded.
+ * Use {@code @AttributeOverride(name = "amount", …)} and {@code @AttributeOverride(name = "currency", …)} to customize
+ * the column names.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Embeddable
+@Getter
+@EqualsAndHashCode
+@NoArgsConstructor(force = true, access = AccessLevel.PROTECTED)
+public class EmbeddedMonetaryAmount {
+
+	private static final MonetaryAmountFormat FORMAT = MonetaryFormats.getAmountFormat(Locale.ROOT);
+
+	/**
+	 * The numeric amount.
+	 */
+	@Column(precision = 38, scale = 10) //
+	private final BigDecimal amount;
+
+	/**
+	 * The ISO 4217 code of the currency.
+	 */
+	@Column(length = 3) //
+	private final String currency;
+
+	private EmbeddedMonetaryAmount(BigDecimal amount, String currency) {
+
+		this.amount = amount;
+		this.currency = currency;
+	}
+
+	/**
+	 * Creates a new {@link EmbeddedMonetaryAmount} for the given {@link MonetaryAmount}.
+	 *
+	 * @param amount must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public static EmbeddedMonetaryAmount of(MonetaryAmount amount) {
+
+		Assert.notNull(amount, "Monetary amount must not be null!");
+
+		return new EmbeddedMonetaryAmount(amount.getNumber().numberValue(BigDecimal.class),
+				amount.getCurrency().getCurrencyCode());
+	}
+
+	/**
+	 * Creates a {@link MonetaryAmount} from the given amount and currency code as read from the database.
+	 *
+	 * @param amount must not be {@literal null}.
+	 * @param currency must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 */
+	public static MonetaryAmount toMonetaryAmount(BigDecimal amount, String currency) {
+
+		Assert.notNull(amount, "Amount must not be null!");
+		Assert.hasText(currency, "Currency must not be null or empty!");
+
+		var normalized = amount.stripTrailingZeros();
+
+		return Money.of(normalized.scale() < 0 ? normalized.setScale(0) : normalized, Monetary.getCurrency(currency));
+	}
+
+	/**
+	 * Parses the given {@link String} representation of a {@link MonetaryAmount} as written by
+	 * {@link MonetaryAmount#toString()} or formatted for {@link Locale#ROOT}. Used to migrate amounts persisted as
+	 * {@link String}s.
+	 *
+	 * @param source can be {@literal null}.
+	 * @return {@literal null} in case the given source is {@literal null}.
+	 */
+	@Nullable
+	public static MonetaryAmount parse(@Nullable String source) {
+
+		if (source == null) {
+			return null;
+		}
+
+		try {
+			return Money.parse(source);
+		} catch (RuntimeException e) {
+
+			try {
+				return Money.parse(source, FORMAT);
+			} catch (RuntimeException inner) {
+
+				// Propagate the original exception in case the fallback fails
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Returns the {@link MonetaryAmount} represented by the current instance.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public MonetaryAmount toMonetaryAmount() {
+		return toMonetaryAmount(amount, currency);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return toMonetaryAmount().toString();
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.salespointframework.quantity.Quantity;
+import org.springframework.util.Assert;
+
+/**
+ * Decides which {@link MultiInventoryItem}s an {@link org.salespointframework.order.OrderLine} is fulfilled from on
+ * {@link org.salespointframework.order.Order} completion. Declare a Spring bean of this type to enable the allocation
+ * of {@link MultiInventoryItem}s. Without one, {@link org.salespointframework.order.OrderLine}s for products kept in a
+ * {@link MultiInventory} are skipped on completion.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see #greedy()
+ * @see #fewestSplits()
+ * @see #priorityOrder(Comparator)
+ */
+@FunctionalInterface
+public interface AllocationStrategy {
+
+	/**
+	 * Allocates the given requested {@link Quantity} from the given {@link MultiInventoryItem}s.
+	 *
+	 * @param requested the {@link Quantity} to allocate, will never be {@literal null}.
+	 * @param available the {@link Quantity} still available per {@link MultiInventoryItem} of the product, ordered by
+	 *          the items' identifiers. Will never be {@literal null}.
+	 * @return the {@link Quantity} to take per {@link MultiInventoryItem}, summing up to the requested {@link Quantity}.
+	 *         An empty {@link Map} in case the requested {@link Quantity} can't be allocated. Must not be
+	 *         {@literal null}.
+	 */
+	Map<MultiInventoryItem, Quantity> allocate(Quantity requested, Map<MultiInventoryItem, Quantity> available);
+
+	/**
+	 * Takes as much as possible from each {@link MultiInventoryItem} in the order of their identifiers.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	static AllocationStrategy greedy() {
+		return (requested, available) -> takeInOrder(requested, new ArrayList<>(available.entrySet()));
+	}
+
+	/**
+	 * Takes the requested {@link Quantity} from as few {@link MultiInventoryItem}s as possible, i.e. from the smallest
+	 * one that suffices on its own and from the largest ones first otherwise.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	static AllocationStrategy fewestSplits() {
+
+		return (requested, available) -> {
+
+			var entries = new ArrayList<>(available.entrySet());
+
+			entries.sort((left, right) -> compare(right.getValue(), left.getValue()));
+
+			var single = entries.stream() //
+					.filter(it -> it.getValue().isGreaterThanOrEqualTo(requested)) //
+					.reduce((first, second) -> second);
+
+			return single.isPresent() //
+					? Collections.singletonMap(single.get().getKey(), requested)
+					: takeInOrder(requested, entries);
+		};
+	}
+
+	/**
+	 * Takes as much as possible from each {@link MultiInventoryItem} in the order defined by the given
+	 * {@link Comparator}, e.g. to prefer a particular warehouse.
+	 *
+	 * @param comparator must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static AllocationStrategy priorityOrder(Comparator<? super MultiInventoryItem> comparator) {
+
+		Assert.notNull(comparator, "Comparator must not be null!");
+
+		return (requested, available) -> {
+
+			var entries = new ArrayList<>(available.entrySet());
+
+			entries.sort(Entry.comparingByKey(comparator));
+
+			return takeInOrder(requested, entries);
+		};
+	}
+
+	private static Map<MultiInventoryItem, Quantity> takeInOrder(Quantity requested,
+			List<Entry<MultiInventoryItem, Quantity>> entries) {
+
+		var result = new LinkedHashMap<MultiInventoryItem, Quantity>();
+		var remaining = requested;
+
+		for (var entry : entries) {
+
+			if (remaining.isZeroOrNegative()) {
+				break;
+			}
+
+			var available = entry.getValue();
+
+			if (available.isZeroOrNegative()) {
+				continue;
+			}
+
+			var taken = available.isLessThan(remaining) ? available : remaining;
+
+			result.put(entry.getKey(), taken);
+			remaining = remaining.subtract(taken);
+		}
+
+		return remaining.isZeroOrNegative() ? result : Collections.emptyMap();
+	}
+
+	private static int compare(Quantity left, Quantity right) {
+		return left.isLessThan(right) ? -1 : left.isEqualTo(right) ? 0 : 1;
+	}
+}
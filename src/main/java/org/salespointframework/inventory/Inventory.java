@@ -15,9 +15,12 @@
  */
 package org.salespointframework.inventory;
 
+import java.math.BigDecimal;
+
 import org.salespointframework.catalog.Product;
 import org.salespointframework.catalog.ProductIdentifier;
 import org.salespointframework.core.SalespointRepository;
+import org.salespointframework.quantity.Metric;
 import org.salespointframework.quantity.Quantity;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.NoRepositoryBean;
@@ -38,7 +41,8 @@ import org.springframework.data.util.Streamable;
  * If you absolutely need to model {@link Product}s managed in multiple warehouses, use {@link MultiInventoryItem}
  * alongside {@link MultiInventory}. {@link MultiInventory#findByProductIdentifier(ProductIdentifier)} rather returns an
  * {@link InventoryItems} instance. The overall {@link Quantity} of {@link Product}s in the system can then be obtained
- * via {@link InventoryItems#getTotalQuantity()}. {@link MultiInventoryItem}s are not suspect to auto-inventory updates
+ * via {@link InventoryItems#getTotalQuantity()} or, without loading the {@link InventoryItem}s, via
+ * {@link MultiInventory#sumQuantities(java.util.Collection)}. {@link MultiInventoryItem}s are not suspect to auto-inventory updates
  * upon order completion as it's not clear which of the {@link InventoryItem}s is supposed to be deducted.
  *
  * @author Oliver Drotbohm
@@ -67,4 +71,23 @@ public interface Inventory<T extends InventoryItem<?>> {
 	 */
 	@Query("select i from #{#entityName} i where i.quantity.amount <= 0")
 	Streamable<T> findItemsOutOfStock();
+
+	/**
+	 * The quantity of a product kept in an {@link Inventory}, as summed up by the database.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface QuantitySum {
+
+		ProductIdentifier getProduct();
+
+		Metric getMetric();
+
+		BigDecimal getAmount();
+
+		default Quantity getQuantity() {
+			return StockShard.toQuantity(getAmount(), getMetric());
+		}
+	}
 }
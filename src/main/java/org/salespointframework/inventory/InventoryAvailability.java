@@ -0,0 +1,268 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.Inventory.QuantitySum;
+import org.salespointframework.inventory.InventoryEvents.QuantityIncreased;
+import org.salespointframework.inventory.InventoryEvents.QuantityReduced;
+import org.salespointframework.inventory.InventoryEvents.StockMoved;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.util.Assert;
+
+/**
+ * Looks up the quantities available for a set of products, e.g. to render the availability of all products shown on
+ * a catalog or cart page. The stock of all products requested is looked up with at most two queries, one against the
+ * {@link UniqueInventory} and one against the {@link MultiInventory} for the products not managed by the former. The
+ * quantities held back by {@link StockReservations} are not considered available.
+ * <p>
+ * The stock looked up can optionally be cached for a configurable amount of {@link BusinessTime}. Cached entries are
+ * evicted once changes of the stock of the product applied via the current instance are committed. A lookup running
+ * concurrently to such an eviction doesn't cache its result, as it might not reflect the change yet. Changes applied to
+ * the database directly or by other instances are only seen once the cached entry expires. The number of products
+ * cached is limited, expired entries are purged once the limit is reached.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see InventoryProperties.Availability
+ */
+@Service
+public class InventoryAvailability {
+
+	private final UniqueInventory<UniqueInventoryItem> uniqueInventory;
+	private final MultiInventory<MultiInventoryItem> inventory;
+	private final StockReservations reservations;
+	private final BusinessTime businessTime;
+	private final InventoryProperties.Availability configuration;
+	private final Map<ProductIdentifier, CachedStock> cache = new ConcurrentHashMap<>();
+	private final AtomicLong versions = new AtomicLong();
+
+	InventoryAvailability(UniqueInventory<UniqueInventoryItem> uniqueInventory,
+			MultiInventory<MultiInventoryItem> inventory, StockReservations reservations, BusinessTime businessTime,
+			InventoryProperties properties) {
+
+		this.uniqueInventory = uniqueInventory;
+		this.inventory = inventory;
+		this.reservations = reservations;
+		this.businessTime = businessTime;
+		this.configuration = properties.getAvailability();
+	}
+
+	/**
+	 * Returns the {@link Quantity} available for the product with the given {@link ProductIdentifier}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}, {@link Quantity#NONE} in case the product is not kept in any
+	 *         {@link Inventory}.
+	 */
+	public Quantity getAvailable(ProductIdentifier product) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+
+		return getAvailable(Collections.singleton(product)).getOrDefault(product, Quantity.NONE);
+	}
+
+	/**
+	 * Returns the {@link Quantity} available per given {@link ProductIdentifier}.
+	 *
+	 * @param products must not be {@literal null}.
+	 * @return will never be {@literal null}. Doesn't contain entries for products not kept in any {@link Inventory}.
+	 */
+	public Map<ProductIdentifier, Quantity> getAvailable(Collection<ProductIdentifier> products) {
+
+		Assert.notNull(products, "Product identifiers must not be null!");
+
+		var now = businessTime.getTime();
+		var stock = new HashMap<ProductIdentifier, Optional<Quantity>>();
+		var observed = new HashMap<ProductIdentifier, Long>();
+
+		products.forEach(it -> {
+
+			var cached = cache.get(it);
+
+			if (cached != null && cached.isValidAt(now)) {
+				stock.put(it, cached.getQuantity());
+			} else {
+				observed.put(it, cached == null ? 0L : cached.getVersion());
+			}
+		});
+
+		var missing = observed.keySet();
+
+		if (!missing.isEmpty()) {
+
+			var found = lookup(missing);
+
+			missing.forEach(it -> {
+
+				var quantity = Optional.ofNullable(found.get(it));
+
+				stock.put(it, quantity);
+
+				if (configuration.isCached()) {
+					cache(it, quantity, observed.get(it), now);
+				}
+			});
+		}
+
+		var result = new HashMap<ProductIdentifier, Quantity>();
+
+		stock.forEach((product, quantity) -> quantity //
+				.map(it -> it.subtract(reservations.getReserved(product))) //
+				.ifPresent(it -> result.put(product, it)));
+
+		return result;
+	}
+
+	/**
+	 * Returns whether the product with the given {@link ProductIdentifier} is available in at least the given
+	 * {@link Quantity}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @return
+	 */
+	public boolean isAvailable(ProductIdentifier product, Quantity quantity) {
+
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		return getAvailable(product).isGreaterThanOrEqualTo(quantity);
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void on(QuantityReduced event) {
+		evict(event.getItem().getProduct().getId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void on(QuantityIncreased event) {
+		evict(event.getItem().getProduct().getId());
+	}
+
+	@TransactionalEventListener(fallbackExecution = true)
+	void on(StockMoved event) {
+		evict(event.getProduct());
+	}
+
+	/**
+	 * Caches the given stock of the given product, unless the cached entry was changed since the given version was
+	 * observed, i.e. the stock was changed concurrently to the lookup.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @param observed the version of the cached entry observed before the lookup, {@literal 0} if none was present.
+	 * @param now must not be {@literal null}.
+	 */
+	private void cache(ProductIdentifier product, Optional<Quantity> quantity, long observed, LocalDateTime now) {
+
+		if (!cache.containsKey(product) && cache.size() >= configuration.getCacheSize()) {
+
+			cache.values().removeIf(it -> !it.isValidAt(now));
+
+			if (cache.size() >= configuration.getCacheSize()) {
+				return;
+			}
+		}
+
+		var expires = now.plus(configuration.getCacheTtl());
+
+		cache.compute(product, (__, current) -> (current == null ? 0L : current.getVersion()) == observed //
+				? CachedStock.of(quantity, expires, versions.incrementAndGet())
+				: current);
+	}
+
+	/**
+	 * Replaces the cached entry for the given product with an invalid one of a new version, so that lookups running
+	 * concurrently don't cache the stock they looked up before the change.
+	 *
+	 * @param product must not be {@literal null}.
+	 */
+	private void evict(ProductIdentifier product) {
+
+		if (!configuration.isCached()) {
+			return;
+		}
+
+		var expires = businessTime.getTime().plus(configuration.getCacheTtl());
+
+		cache.compute(product, (__, current) -> CachedStock.evicted(expires, versions.incrementAndGet()));
+	}
+
+	/**
+	 * Looks up the stock of the given products, first in the {@link UniqueInventory}, then in the
+	 * {@link MultiInventory} for the ones not found.
+	 *
+	 * @param products must not be {@literal null} or empty.
+	 * @return
+	 */
+	private Map<ProductIdentifier, Quantity> lookup(Collection<ProductIdentifier> products) {
+
+		var result = uniqueInventory.findQuantitiesByProductIn(products).stream() //
+				.collect(Collectors.toMap(QuantitySum::getProduct, QuantitySum::getQuantity, Quantity::add, HashMap::new));
+
+		var remaining = products.stream() //
+				.filter(it -> !result.containsKey(it)) //
+				.collect(Collectors.toSet());
+
+		if (!remaining.isEmpty()) {
+			result.putAll(inventory.sumQuantities(remaining));
+		}
+
+		return result;
+	}
+
+	/**
+	 * The stock cached for a product. Evicted entries don't carry a stock but are kept until they expire to track the
+	 * version of the entry.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	@Value
+	private static class CachedStock {
+
+		Optional<Quantity> quantity;
+		LocalDateTime expires;
+		long version;
+		boolean evicted;
+
+		static CachedStock of(Optional<Quantity> quantity, LocalDateTime expires, long version) {
+			return new CachedStock(quantity, expires, version, false);
+		}
+
+		static CachedStock evicted(LocalDateTime expires, long version) {
+			return new CachedStock(Optional.empty(), expires, version, true);
+		}
+
+		boolean isValidAt(LocalDateTime now) {
+			return !evicted && now.isBefore(expires);
+		}
+	}
+}
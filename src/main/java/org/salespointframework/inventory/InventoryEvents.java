@@ -61,4 +61,45 @@ public class InventoryEvents {
 	static class QuantityReduced implements DomainEvent {
 		InventoryItem<?> item;
 	}
+
+	/**
+	 * Event published to signal an increase of the quantity of an {@link InventoryItem}, e.g. on restocking it.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value(staticConstructor = "of")
+	static class QuantityIncreased implements DomainEvent {
+		InventoryItem<?> item;
+	}
+
+	/**
+	 * Event published to signal a change of the stock of a {@link Product} applied to an {@link InventoryItem} directly,
+	 * to be recorded in the {@link StockLedger}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value(staticConstructor = "of")
+	static class StockMoved implements DomainEvent {
+
+		ProductIdentifier product;
+		Quantity quantity;
+		StockMovement.Type type;
+	}
+
+	/**
+	 * Event published to signal a change of the quantity of a sharded {@link UniqueInventoryItem} to be applied to its
+	 * shards.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 * @see StockShards
+	 */
+	@Value(staticConstructor = "of")
+	static class ShardedQuantityChanged implements DomainEvent {
+
+		UniqueInventoryItem item;
+		Quantity quantity;
+	}
 }
@@ -0,0 +1,284 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.InventoryEvents.StockMoved;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Imports large numbers of new {@link InventoryItem}s, e.g. from a warehouse snapshot. Items are imported in chunks,
+ * each of them in a transaction of its own. The constraints usually verified by the {@link InventoryItemCreationListener}
+ * for every single {@link InventoryItem} persisted are verified for a complete chunk with one query per
+ * {@link Inventory}: no {@link UniqueInventoryItem} may be imported for a product already kept in any
+ * {@link Inventory}, no {@link MultiInventoryItem} for a product already kept in the {@link UniqueInventory}. The items
+ * of a chunk are then inserted using JDBC batching.
+ * <p>
+ * In case a chunk violates the constraints, the import fails with an {@link IllegalStateException}. Chunks imported
+ * before stay imported.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Service
+public class InventoryImporter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(InventoryImporter.class);
+	private static final int DEFAULT_CHUNK_SIZE = 1000;
+	private static final String ALREADY_EXISTS = "Trying to import %s for product(s) %s already managed by a unique inventory item!";
+
+	private final UniqueInventory<UniqueInventoryItem> uniqueInventory;
+	private final MultiInventory<MultiInventoryItem> inventory;
+	private final EntityManager em;
+	private final TransactionTemplate transactions;
+	private final ApplicationEventPublisher events;
+
+	InventoryImporter(UniqueInventory<UniqueInventoryItem> uniqueInventory, MultiInventory<MultiInventoryItem> inventory,
+			EntityManager em, PlatformTransactionManager transactionManager, ApplicationEventPublisher events) {
+
+		this.uniqueInventory = uniqueInventory;
+		this.inventory = inventory;
+		this.em = em;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+		this.events = events;
+	}
+
+	/**
+	 * Imports the given {@link InventoryItem}s in chunks of 1000 items.
+	 *
+	 * @param items must not be {@literal null}.
+	 * @return the {@link Report} of the import.
+	 */
+	public Report importItems(Iterable<? extends InventoryItem<?>> items) {
+
+		Assert.notNull(items, "Inventory items must not be null!");
+
+		return importItems(StreamSupport.stream(items.spliterator(), false), DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Imports the given {@link InventoryItem}s in chunks of the given size. The {@link Stream} is consumed lazily, i.e.
+	 * only a single chunk of items is held in memory at a time.
+	 *
+	 * @param items must not be {@literal null}.
+	 * @param chunkSize must be greater than zero.
+	 * @return the {@link Report} of the import.
+	 */
+	public Report importItems(Stream<? extends InventoryItem<?>> items, int chunkSize) {
+
+		Assert.notNull(items, "Inventory items must not be null!");
+		Assert.isTrue(chunkSize > 0, "Chunk size must be greater than zero!");
+
+		var imported = new Imported();
+		var chunks = new ArrayList<Chunk>();
+		var chunk = new ArrayList<InventoryItem<?>>(chunkSize);
+		var iterator = items.iterator();
+
+		while (iterator.hasNext()) {
+
+			chunk.add(iterator.next());
+
+			if (chunk.size() == chunkSize || !iterator.hasNext()) {
+
+				chunks.add(importChunk(chunks.size(), chunk, imported));
+				chunk.clear();
+			}
+		}
+
+		return new Report(Collections.unmodifiableList(chunks));
+	}
+
+	private Chunk importChunk(int index, List<InventoryItem<?>> items, Imported imported) {
+
+		var start = System.nanoTime();
+
+		transactions.executeWithoutResult(__ -> {
+
+			verify(items, imported);
+
+			em.unwrap(Session.class).setJdbcBatchSize(items.size());
+
+			InventoryItemCreationListener.withoutVerification(() -> items.forEach(em::persist));
+
+			em.flush();
+			em.clear();
+
+			items.forEach(it -> events.publishEvent(StockMoved.of(it.getProduct().getId(), it.getQuantity(), Type.STOCKED)));
+		});
+
+		var chunk = new Chunk(index, items.size(), Duration.ofNanos(System.nanoTime() - start));
+
+		LOGGER.debug("Imported chunk {} of {} inventory items in {}ms ({} items/s).", index, chunk.getItems(),
+				chunk.getDuration().toMillis(), Math.round(chunk.getThroughput()));
+
+		return chunk;
+	}
+
+	/**
+	 * Verifies the given {@link InventoryItem}s against the ones already existing and the ones imported before.
+	 *
+	 * @param items must not be {@literal null}.
+	 * @param imported must not be {@literal null}.
+	 */
+	private void verify(List<InventoryItem<?>> items, Imported imported) {
+
+		var unique = new HashSet<ProductIdentifier>();
+		var multi = new HashSet<ProductIdentifier>();
+
+		for (var item : items) {
+
+			var product = item.getProduct().getId();
+
+			if (item instanceof UniqueInventoryItem) {
+
+				if (!unique.add(product) || imported.contains(product)) {
+					throw new IllegalStateException(String.format(ALREADY_EXISTS, item, product));
+				}
+
+			} else {
+
+				if (imported.unique.contains(product)) {
+					throw new IllegalStateException(String.format(ALREADY_EXISTS, item, product));
+				}
+
+				multi.add(product);
+			}
+		}
+
+		var all = new HashSet<>(unique);
+		all.addAll(multi);
+
+		var conflicting = new HashSet<>(uniqueInventory.findProductIdentifiersIn(all));
+
+		unique.stream() //
+				.filter(multi::contains) //
+				.forEach(conflicting::add);
+
+		if (!unique.isEmpty()) {
+			conflicting.addAll(inventory.findProductIdentifiersIn(unique));
+		}
+
+		if (!conflicting.isEmpty()) {
+			throw new IllegalStateException(String.format(ALREADY_EXISTS, "inventory items", conflicting.stream() //
+					.map(ProductIdentifier::toString) //
+					.collect(Collectors.joining(", "))));
+		}
+
+		imported.unique.addAll(unique);
+		imported.multi.addAll(multi);
+	}
+
+	/**
+	 * The products imported so far.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	private static class Imported {
+
+		private final Set<ProductIdentifier> unique = new HashSet<>();
+		private final Set<ProductIdentifier> multi = new HashSet<>();
+
+		boolean contains(ProductIdentifier product) {
+			return unique.contains(product) || multi.contains(product);
+		}
+	}
+
+	/**
+	 * The result of an import.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class Report {
+
+		/**
+		 * The chunks imported, in the order of their import.
+		 */
+		List<Chunk> chunks;
+
+		/**
+		 * Returns the total number of {@link InventoryItem}s imported.
+		 *
+		 * @return
+		 */
+		public long getItems() {
+			return chunks.stream().mapToLong(Chunk::getItems).sum();
+		}
+	}
+
+	/**
+	 * A chunk of {@link InventoryItem}s imported within a single transaction.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class Chunk {
+
+		/**
+		 * The index of the chunk within the import.
+		 */
+		int index;
+
+		/**
+		 * The number of {@link InventoryItem}s imported.
+		 */
+		int items;
+
+		/**
+		 * The time it took to verify and insert the items.
+		 */
+		Duration duration;
+
+		/**
+		 * Returns the number of {@link InventoryItem}s imported per second.
+		 *
+		 * @return
+		 */
+		public double getThroughput() {
+			return items * 1_000_000_000d / Math.max(1, duration.toNanos());
+		}
+	}
+}
@@ -16,11 +16,13 @@
 package org.salespointframework.inventory;
 
 import lombok.AccessLevel;
-import lombok.Getter;
 import lombok.NoArgsConstructor;
 
+import java.util.Optional;
+
 import javax.persistence.AttributeOverride;
 import javax.persistence.Column;
+import javax.persistence.Embedded;
 import javax.persistence.EmbeddedId;
 import javax.persistence.EntityListeners;
 import javax.persistence.MappedSuperclass;
@@ -28,8 +30,12 @@ import javax.persistence.PrePersist;
 
 import org.salespointframework.catalog.Product;
 import org.salespointframework.core.AbstractAggregateRoot;
+import org.salespointframework.inventory.InventoryEvents.QuantityIncreased;
 import org.salespointframework.inventory.InventoryEvents.QuantityReduced;
+import org.salespointframework.inventory.InventoryEvents.StockMoved;
+import org.salespointframework.inventory.StockMovement.Type;
 import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
@@ -52,9 +58,13 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 	@AttributeOverride(name = "id", column = @Column(name = "ITEM_ID")) //
 	private final InventoryItemIdentifier inventoryItemIdentifier = new InventoryItemIdentifier();
 
-	@Getter //
 	private Quantity quantity;
 
+	@Embedded //
+	@AttributeOverride(name = "amount", column = @Column(name = "RESTOCK_THRESHOLD_AMOUNT")) //
+	@AttributeOverride(name = "metric", column = @Column(name = "RESTOCK_THRESHOLD_METRIC")) //
+	private @Nullable Quantity restockThreshold;
+
 	/**
 	 * Creates a new {@link InventoryItem} for the given {@link Product} and {@link Quantity}.
 	 *
@@ -68,6 +78,8 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 		product.verify(quantity);
 
 		this.quantity = quantity;
+
+		registerEvent(StockMoved.of(product.getId(), quantity, Type.STOCKED));
 	}
 
 	/*
@@ -78,6 +90,48 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 		return inventoryItemIdentifier;
 	}
 
+	/**
+	 * Returns the {@link Quantity} available.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Quantity getQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * Returns the threshold below which a {@link org.salespointframework.inventory.InventoryEvents.StockShort} is
+	 * supposed to be triggered for the {@link InventoryItem}, if one is configured for it specifically.
+	 *
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 * @see InventoryProperties#getRestockThreshold()
+	 */
+	public Optional<Quantity> getRestockThreshold() {
+		return Optional.ofNullable(restockThreshold);
+	}
+
+	/**
+	 * Configures the threshold below which a {@link org.salespointframework.inventory.InventoryEvents.StockShort} is
+	 * supposed to be triggered for the {@link InventoryItem}, overriding the one configured globally.
+	 *
+	 * @param threshold can be {@literal null} to fall back to the threshold configured globally.
+	 * @return the current instance.
+	 * @since 7.4
+	 * @see InventoryProperties#getRestockThreshold()
+	 */
+	@SuppressWarnings("unchecked")
+	public T setRestockThreshold(@Nullable Quantity threshold) {
+
+		if (threshold != null) {
+			getProduct().verify(threshold);
+		}
+
+		this.restockThreshold = threshold;
+
+		return (T) this;
+	}
+
 	/**
 	 * Returns whether the {@link InventoryItem} is available in exactly or more of the given quantity.
 	 *
@@ -85,7 +139,7 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 	 * @return
 	 */
 	public boolean hasSufficientQuantity(Quantity quantity) {
-		return !this.quantity.subtract(quantity).isNegative();
+		return !getQuantity().subtract(quantity).isNegative();
 	}
 
 	/**
@@ -93,16 +147,30 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 	 *
 	 * @param quantity must not be {@literal null}.
 	 */
-	@SuppressWarnings("unchecked")
 	public T decreaseQuantity(Quantity quantity) {
 
 		Assert.notNull(quantity, "Quantity must not be null!");
-		Assert.isTrue(this.quantity.isGreaterThanOrEqualTo(quantity),
-				String.format("Insufficient quantity! Have %s but was requested to reduce by %s.", this.quantity, quantity));
+		Assert.isTrue(getQuantity().isGreaterThanOrEqualTo(quantity),
+				String.format("Insufficient quantity! Have %s but was requested to reduce by %s.", getQuantity(), quantity));
 
 		getProduct().verify(quantity);
 
-		this.quantity = this.quantity.subtract(quantity);
+		changeQuantity(quantity.times(-1));
+
+		registerEvent(StockMoved.of(getProduct().getId(), quantity.times(-1), Type.ADJUSTED));
+
+		return quantityReduced();
+	}
+
+	/**
+	 * Registers a {@link QuantityReduced} event for the current {@link InventoryItem}, e.g. after its quantity has been
+	 * decreased in the database directly and the {@link InventoryItem} was refreshed.
+	 *
+	 * @return the current instance.
+	 * @since 7.4
+	 */
+	@SuppressWarnings("unchecked")
+	T quantityReduced() {
 
 		registerEvent(QuantityReduced.of(this));
 
@@ -114,17 +182,69 @@ public abstract class InventoryItem<T extends InventoryItem<T>> extends Abstract
 	 *
 	 * @param quantity must not be {@literal null}.
 	 */
-	@SuppressWarnings("unchecked")
 	public T increaseQuantity(Quantity quantity) {
 
 		Assert.notNull(quantity, "Quantity must not be null!");
 		getProduct().verify(quantity);
 
-		this.quantity = this.quantity.add(quantity);
+		changeQuantity(quantity);
+
+		registerEvent(StockMoved.of(getProduct().getId(), quantity, Type.ADJUSTED));
+
+		return quantityIncreased();
+	}
+
+	/**
+	 * Registers a {@link QuantityIncreased} event for the current {@link InventoryItem}, e.g. after its quantity has been
+	 * increased in the database directly and the {@link InventoryItem} was refreshed.
+	 *
+	 * @return the current instance.
+	 * @since 7.4
+	 */
+	@SuppressWarnings("unchecked")
+	T quantityIncreased() {
+
+		registerEvent(QuantityIncreased.of(this));
 
 		return (T) this;
 	}
 
+	/**
+	 * Returns the {@link Quantity} kept in the {@link InventoryItem} itself, i.e. ignoring any quantities kept elsewhere
+	 * for it.
+	 *
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	Quantity getOwnQuantity() {
+		return quantity;
+	}
+
+	/**
+	 * Applies the given change to the {@link Quantity} of the {@link InventoryItem}. Sub-classes keeping their stock
+	 * elsewhere can override this to apply the change accordingly.
+	 *
+	 * @param delta the {@link Quantity} to add, negative to reduce the stock, must not be {@literal null}.
+	 * @since 7.4
+	 */
+	void changeQuantity(Quantity delta) {
+		this.quantity = this.quantity.add(delta);
+	}
+
+	/**
+	 * Replaces the {@link Quantity} kept in the {@link InventoryItem} itself without publishing any events. Used when
+	 * moving stock between the {@link InventoryItem} and other places keeping it.
+	 *
+	 * @param quantity must not be {@literal null}.
+	 * @since 7.4
+	 */
+	void setOwnQuantity(Quantity quantity) {
+
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		this.quantity = quantity;
+	}
+
 	/**
 	 * Returns whether the {@link InventoryItem} belongs to the given {@link Product}.
 	 *
@@ -29,7 +29,8 @@ import org.springframework.stereotype.Component;
 /**
  * JPA entity listener to make sure that no new {@link MultiInventoryItems} are created for {@link Product}s already
  * managed by a {@link UniqueInventoryItem}. Also, creating a new {@link UniqueInventoryItem} for a {@link Product} for
- * which a {@link UniqueInventoryItem} already exists is prevented.
+ * which a {@link UniqueInventoryItem} already exists is prevented. The verification is skipped for
+ * {@link InventoryItem}s already verified in bulk, see {@link #withoutVerification(Runnable)}.
  *
  * @author Oliver Drotbohm
  * @since 7.2
@@ -40,6 +41,8 @@ class InventoryItemCreationListener {
 
 	private static final String UNIQUE_ITEM_ALREADY_EXISTS = "Trying to persist unique inventory item for %s. The following item(s) already exist: %s.";
 
+	private static final ThreadLocal<Boolean> VERIFIED = ThreadLocal.withInitial(() -> false);
+
 	private final @NonNull ObjectProvider<UniqueInventory<UniqueInventoryItem>> uniqueInventory;
 	private final @NonNull ObjectProvider<MultiInventory<MultiInventoryItem>> inventory;
 
@@ -53,6 +56,10 @@ class InventoryItemCreationListener {
 	@PrePersist
 	public void verify(InventoryItem<?> item) {
 
+		if (VERIFIED.get()) {
+			return;
+		}
+
 		assertNonUniqueItem(item);
 
 		if (UniqueInventoryItem.class.isInstance(item)) {
@@ -69,6 +76,25 @@ class InventoryItemCreationListener {
 		}
 	}
 
+	/**
+	 * Runs the given callback without verifying the {@link InventoryItem}s persisted by it. Only to be used if the
+	 * constraints have been verified for all {@link InventoryItem}s in question already.
+	 *
+	 * @param callback must not be {@literal null}.
+	 * @since 7.4
+	 * @see InventoryImporter
+	 */
+	static void withoutVerification(Runnable callback) {
+
+		VERIFIED.set(true);
+
+		try {
+			callback.run();
+		} finally {
+			VERIFIED.remove();
+		}
+	}
+
 	private void assertNonUniqueItem(InventoryItem<?> item) {
 
 		uniqueInventory.getObject().findByProduct(item.getProduct()) //
@@ -40,6 +40,7 @@ public class InventoryItems<T extends InventoryItem<?>> implements Streamable<T>
 	 * Returns the total quantity of all the {@link InventoryItem}s contained.
 	 *
 	 * @return will never be {@literal null}.
+	 * @see MultiInventory#sumQuantityByProduct(org.salespointframework.catalog.ProductIdentifier)
 	 */
 	public Quantity getTotalQuantity() {
 
@@ -23,8 +23,11 @@ import org.salespointframework.inventory.InventoryEvents.QuantityReduced;
 import org.salespointframework.inventory.InventoryEvents.StockShort;
 import org.salespointframework.order.Order;
 import org.salespointframework.order.OrderCompletionFailure;
+import org.salespointframework.order.OrderCompletionReport;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.order.OrderEvents.OrdersCanceled;
+import org.salespointframework.order.OrderEvents.OrdersCompleted;
 import org.salespointframework.order.OrderLine;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.ApplicationListener;
@@ -40,8 +43,9 @@ import org.springframework.stereotype.Component;
 class InventoryListeners {
 
 	/**
-	 * Event listener to monitor {@link QuantityReduced} events and compare against the
-	 * {@link InventoryProperties#getRestockThreshold()} configured.
+	 * Event listener to monitor {@link QuantityReduced} events and compare against the restock threshold configured for
+	 * the {@link InventoryItem} or, if none is configured, the {@link InventoryProperties#getRestockThreshold()}
+	 * configured globally.
 	 *
 	 * @author Oliver Drotbohm
 	 * @since 7.3
@@ -51,16 +55,27 @@ class InventoryListeners {
 	static class InternalInventoryListeners {
 
 		private final InventoryProperties configuration;
+		private final StockShortNotifications notifications;
 
 		@EventListener
 		StockShort on(QuantityReduced event) {
 
-			var threshold = configuration.getRestockThreshold();
 			var item = event.getItem();
+			var threshold = item.getRestockThreshold().orElseGet(configuration::getRestockThreshold);
 
-			return item.hasSufficientQuantity(threshold)
-					? null
-					: StockShort.of(item, threshold);
+			if (item.hasSufficientQuantity(threshold)) {
+				return null;
+			}
+
+			var shortage = StockShort.of(item, threshold);
+
+			if (!notifications.isCoalescing()) {
+				return shortage;
+			}
+
+			notifications.submit(shortage);
+
+			return null;
 		}
 	}
 
@@ -101,5 +116,31 @@ class InventoryListeners {
 		public void on(OrderCanceled event) {
 			management.cancelOrder(event.getOrder());
 		}
+
+		/**
+		 * Verifies and updates the stock for all {@link Order}s of the given {@link OrdersCompleted} event and rejects the
+		 * completion of the ones that cannot be fulfilled.
+		 *
+		 * @param event must not be {@literal null}.
+		 * @since 7.4
+		 */
+		@EventListener
+		public void on(OrdersCompleted event) {
+
+			management.verifyAndUpdate(event.getOrders()).stream() //
+					.filter(OrderCompletionReport::hasErrors) //
+					.forEach(event::reject);
+		}
+
+		/**
+		 * Rolls back the stock decreases for all {@link Order}s of the given {@link OrdersCanceled} event.
+		 *
+		 * @param event must not be {@literal null}.
+		 * @since 7.4
+		 */
+		@EventListener
+		public void on(OrdersCanceled event) {
+			event.getOrders().forEach(management::cancelOrder);
+		}
 	}
 }
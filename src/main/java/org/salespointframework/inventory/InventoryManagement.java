@@ -20,19 +20,45 @@ import static org.salespointframework.order.OrderCompletionReport.OrderLineCompl
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import javax.persistence.EntityManager;
+
+import org.salespointframework.catalog.Product;
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.StockMovement.Type;
 import org.salespointframework.order.Order;
 import org.salespointframework.order.OrderCompletionFailure;
 import org.salespointframework.order.OrderCompletionReport;
 import org.salespointframework.order.OrderCompletionReport.OrderLineCompletion;
 import org.salespointframework.order.OrderLine;
-import org.springframework.data.util.Optionals;
+import org.salespointframework.quantity.MetricMismatchException;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
 import org.springframework.stereotype.Service;
 import org.springframework.util.Assert;
 
 /**
+ * Updates the stock kept in the {@link UniqueInventory} for completed and cancelled {@link Order}s. Stock is decreased
+ * using {@link UniqueInventory#decreaseQuantityIfAvailable(ProductIdentifier, Quantity)}, i.e. verifying and updating
+ * the stock is a single, atomic operation that cannot oversell a product even if multiple {@link Order}s for it are
+ * completed concurrently. The completion of an {@link Order} consumes the {@link Reservation} held by it, other
+ * {@link Order}s can't decrease the stock below the quantities reserved via {@link StockReservations}. All changes of
+ * the stock are recorded in the {@link StockLedger}. In case an {@link AllocationStrategy} is configured, the
+ * {@link OrderLine}s for products kept in a {@link MultiInventory} are allocated to its {@link MultiInventoryItem}s
+ * via {@link MultiInventoryAllocations}.
+ *
  * @author Oliver Drotbohm
  * @since 7.3
  */
@@ -46,92 +72,332 @@ class InventoryManagement {
 	private final @NonNull MultiInventory<MultiInventoryItem> inventory;
 	private final @NonNull UniqueInventory<UniqueInventoryItem> uniqueInventory;
 	private final @NonNull List<LineItemFilter> filters;
+	private final @NonNull EntityManager em;
+	private final @NonNull StockReservations reservations;
+	private final @NonNull StockShards shards;
+	private final @NonNull StockLedger ledger;
+	private final @NonNull MultiInventoryAllocations allocations;
 
 	public OrderCompletionReport verifyAndUpdate(Order order) {
 
-		var collect = order.getOrderLines() //
-				.map(this::verify)//
-				.toList();
+		var stock = new Stock();
 
-		return OrderCompletionReport.forCompletions(order, collect) //
+		stock.resolve(handledProductsOf(order).collect(Collectors.toSet()));
+
+		return verifyAndUpdate(order, stock) //
 				.onError(OrderCompletionFailure::new);
 	}
 
+	/**
+	 * Verifies and updates the stock for all given {@link Order}s. In contrast to {@link #verifyAndUpdate(Order)}, an
+	 * {@link Order} that cannot be fulfilled does not cause an exception but is reported through its
+	 * {@link OrderCompletionReport}. The stock is only updated for the {@link Order}s that can be fulfilled completely.
+	 * The {@link InventoryItem}s for all {@link Order}s are looked up in a single query per {@link Inventory}.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @return the {@link OrderCompletionReport}s for all given {@link Order}s in the same order.
+	 * @since 7.4
+	 */
+	public List<OrderCompletionReport> verifyAndUpdate(List<? extends Order> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		var stock = new Stock();
+
+		stock.resolve(orders.stream() //
+				.flatMap(this::handledProductsOf) //
+				.collect(Collectors.toSet()));
+
+		return orders.stream() //
+				.map(it -> verifyAndUpdate(it, stock)) //
+				.collect(Collectors.toList());
+	}
+
 	public void cancelOrder(Order order) {
 
+		reservations.findFor(order).ifPresent(reservations::release);
+
+		// Based on the allocations recorded, as the order might already be marked as canceled
+		allocations.release(order);
+
 		if (!order.isCompleted()) {
 			return;
 		}
 
-		order.getOrderLines() //
-				.flatMap(this::updateStockFor) //
-				.forEach(uniqueInventory::save);
+		var requested = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+		order.getOrderLines().forEach(it -> requested.merge(it.getProductIdentifier(), it.getQuantity(), Quantity::add));
+
+		var stock = new Stock();
+
+		stock.resolve(requested.keySet());
+
+		requested.keySet().stream() //
+				.filter(it -> stock.getUniqueItem(it).isEmpty() && !stock.hasMultiItems(it)) //
+				.findFirst() //
+				.ifPresent(it -> {
+					throw new IllegalArgumentException(String.format("Couldn't find InventoryItem for product %s!", it));
+				});
+
+		requested.forEach((identifier, quantity) -> stock.getUniqueItem(identifier).ifPresent(item -> {
+
+			increase(item, quantity);
+			ledger.record(identifier, quantity, Type.ORDER_CANCELED, order);
+			uniqueInventory.save(refresh(item).quantityIncreased());
+		}));
 	}
 
 	/**
-	 * Verifies the given {@link OrderLine} for sufficient stock in the {@link UniqueInventory}.
+	 * Verifies the given {@link Order} against the {@link UniqueInventoryItem}s, considering the quantities requested by
+	 * all {@link OrderLine}s pointing to the same product, and decreases the stock accordingly. Only decreases the stock
+	 * if all {@link OrderLine}s can be fulfilled, i.e. decreases already applied are reverted in case the stock of any
+	 * other product turns out to be insufficient.
 	 *
-	 * @param orderLine must not be {@literal null}.
+	 * @param order must not be {@literal null}.
+	 * @param stock the {@link Stock} resolved for the {@link Order}, must not be {@literal null}.
 	 * @return
 	 */
-	private OrderLineCompletion verify(OrderLine orderLine) {
+	private OrderCompletionReport verifyAndUpdate(Order order, Stock stock) {
 
-		Assert.notNull(orderLine, "OrderLine must not be null!");
+		var requested = new LinkedHashMap<ProductIdentifier, Quantity>();
+		var multiLines = new ArrayList<OrderLine>();
+		var completions = order.getOrderLines() //
+				.map(it -> verify(it, stock, requested, multiLines)) //
+				.toList();
 
-		if (!LineItemFilter.shouldBeHandled(orderLine, filters)) {
-			return OrderLineCompletion.success(orderLine);
+		if (completions.stream().anyMatch(OrderLineCompletion::isFailure)) {
+			return OrderCompletionReport.forCompletions(order, completions);
 		}
 
-		var identifier = orderLine.getProductIdentifier();
-		var item = uniqueInventory.findByProductIdentifier(identifier);
+		var plan = allocations.allocate(order, multiLines);
+
+		if (!plan.isFulfillable()) {
+			return OrderCompletionReport.forCompletions(order, withErrors(completions, plan::isInsufficient));
+		}
+
+		var reservation = reservations.findFor(order);
+		var decreased = new ArrayList<ProductIdentifier>();
+		var insufficient = new HashSet<ProductIdentifier>();
+
+		requested.forEach((identifier, quantity) -> {
 
-		return item.map(it -> verifyAndUpdateUnique(it, orderLine)) //
-				.orElseGet(() -> assertAtLeastOneExists(orderLine));
+			var item = stock.getUniqueItem(identifier).orElseThrow();
+
+			if (decrease(item, quantity, reservation.orElse(null))) {
+				decreased.add(identifier);
+			} else {
+				insufficient.add(identifier);
+			}
+		});
+
+		if (insufficient.isEmpty()) {
+
+			decreased.forEach(it -> ledger.record(it, requested.get(it).times(-1), Type.ORDER_COMPLETED, order));
+			decreased.forEach(it -> stock.getUniqueItem(it) //
+					.map(this::refresh) //
+					.ifPresent(item -> uniqueInventory.save(item.quantityReduced())));
+
+			allocations.apply(plan);
+			reservation.ifPresent(reservations::release);
+
+			return OrderCompletionReport.forCompletions(order, completions.stream() //
+					.map(it -> plan.contains(it.getOrderLine()) //
+							? allocated(it.getOrderLine(), plan.getAllocations(it.getOrderLine())) //
+							: it) //
+					.collect(Collectors.toList()));
+		}
+
+		decreased.forEach(it -> stock.getUniqueItem(it).ifPresent(item -> increase(item, requested.get(it))));
+		decreased.forEach(it -> stock.getUniqueItem(it).ifPresent(this::refresh));
+
+		return OrderCompletionReport.forCompletions(order, withErrors(completions, insufficient::contains));
 	}
 
 	/**
-	 * Verifies that the given UI
+	 * Replaces the given {@link OrderLineCompletion}s for the products not available in sufficient quantity with errors.
 	 *
-	 * @param item
-	 * @param orderLine
+	 * @param completions must not be {@literal null}.
+	 * @param insufficient must not be {@literal null}.
 	 * @return
 	 */
-	private OrderLineCompletion verifyAndUpdateUnique(UniqueInventoryItem item, OrderLine orderLine) {
-		return hasSufficientQuantity(item, orderLine)
-				.onSuccess(it -> uniqueInventory.save(item.decreaseQuantity(it.getQuantity())));
+	private static List<OrderLineCompletion> withErrors(List<OrderLineCompletion> completions,
+			Predicate<ProductIdentifier> insufficient) {
+
+		return completions.stream() //
+				.map(it -> insufficient.test(it.getOrderLine().getProductIdentifier()) //
+						? error(it.getOrderLine(), NOT_ENOUGH_STOCK) //
+						: it) //
+				.collect(Collectors.toList());
 	}
 
 	/**
-	 * Creates a new {@link OrderLineCompletion} verifying that at least one {@link MultiInventoryItem} exists.
+	 * Verifies that a {@link UniqueInventoryItem} exists for the given {@link OrderLine} and registers the quantity
+	 * requested by it. {@link OrderLine}s for products only kept in the {@link MultiInventory} are registered for
+	 * allocation in case an {@link AllocationStrategy} is configured and skipped otherwise. Whether sufficient stock is
+	 * available is verified on the actual update.
 	 *
 	 * @param orderLine must not be {@literal null}.
+	 * @param stock the {@link Stock} resolved for the {@link Order}, must not be {@literal null}.
+	 * @param requested the quantities requested per product by the {@link Order} so far, must not be {@literal null}.
+	 * @param multiLines the {@link OrderLine}s to allocate to {@link MultiInventoryItem}s, must not be {@literal null}.
 	 * @return
+	 * @throws MetricMismatchException in case the {@link Product} does not support the quantity of the {@link OrderLine}.
 	 */
-	private OrderLineCompletion assertAtLeastOneExists(OrderLine orderLine) {
+	private OrderLineCompletion verify(OrderLine orderLine, Stock stock, Map<ProductIdentifier, Quantity> requested,
+			List<OrderLine> multiLines) {
+
+		if (!LineItemFilter.shouldBeHandled(orderLine, filters)) {
+			return OrderLineCompletion.success(orderLine);
+		}
+
+		var identifier = orderLine.getProductIdentifier();
+		var item = stock.getUniqueItem(identifier);
+
+		if (item.isEmpty()) {
+
+			if (!stock.hasMultiItems(identifier)) {
+				return error(orderLine, NO_INVENTORY_ITEM);
+			}
 
-		var items = inventory.findByProductIdentifier(orderLine.getProductIdentifier());
+			if (!allocations.isEnabled()) {
+				return skipped(orderLine);
+			}
 
-		return items.isEmpty() ? error(orderLine, NO_INVENTORY_ITEM) : skipped(orderLine);
+			multiLines.add(orderLine);
+
+			return success(orderLine);
+		}
+
+		item.get().getProduct().verify(orderLine.getQuantity());
+		requested.merge(identifier, orderLine.getQuantity(), Quantity::add);
+
+		return success(orderLine);
 	}
 
-	private Stream<UniqueInventoryItem> updateStockFor(OrderLine orderLine) {
+	/**
+	 * Decreases the stock of the given {@link UniqueInventoryItem} by the given {@link Quantity}. Consumes the given
+	 * {@link Reservation} if it covers the {@link Quantity}, otherwise leaves the quantities reserved by other
+	 * {@link Reservation}s untouched.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @param reservation the {@link Reservation} held by the {@link Order}, can be {@literal null}.
+	 * @return whether the stock was decreased.
+	 */
+	private boolean decrease(UniqueInventoryItem item, Quantity quantity, @Nullable Reservation reservation) {
+
+		var identifier = item.getProduct().getId();
+		var reserved = reservation != null && reservation.getQuantity(identifier).isGreaterThanOrEqualTo(quantity) //
+				? Quantity.NONE
+				: reservations.getReservedByOthers(identifier, reservation);
+
+		if (item.isSharded()) {
+			return shards.decreaseIfAvailable(item, quantity, reserved);
+		}
+
+		return reserved.isZeroOrNegative() //
+				? uniqueInventory.decreaseQuantityIfAvailable(identifier, quantity)
+				: uniqueInventory.decreaseQuantityIfAvailable(identifier, quantity, reserved);
+	}
+
+	/**
+	 * Increases the stock of the given {@link UniqueInventoryItem} by the given {@link Quantity}, adding it to one of its
+	 * shards in case it's sharded.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 */
+	private void increase(UniqueInventoryItem item, Quantity quantity) {
+
+		if (item.isSharded()) {
+			shards.increase(item, quantity);
+		} else {
+			uniqueInventory.increaseQuantity(item.getProduct().getId(), quantity);
+		}
+	}
+
+	/**
+	 * Returns the identifiers of the products of all {@link OrderLine}s of the given {@link Order} that are supposed to
+	 * be handled according to the configured {@link LineItemFilter}s.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return
+	 */
+	private Stream<ProductIdentifier> handledProductsOf(Order order) {
+
+		return order.getOrderLines().stream() //
+				.filter(it -> LineItemFilter.shouldBeHandled(it, filters)) //
+				.map(OrderLine::getProductIdentifier);
+	}
 
-		var productIdentifier = orderLine.getProductIdentifier();
-		var item = uniqueInventory.findByProductIdentifier(productIdentifier)
-				.map(it -> it.increaseQuantity(orderLine.getQuantity()));
+	/**
+	 * Re-reads the state of the given {@link UniqueInventoryItem} from the database to reflect changes applied via
+	 * single-statement updates.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return the refreshed item.
+	 */
+	private UniqueInventoryItem refresh(UniqueInventoryItem item) {
 
-		if (!item.isPresent() && inventory.findByProductIdentifier(productIdentifier).isEmpty()) {
-			throw new IllegalArgumentException(
-					String.format("Couldn't find InventoryItem for product %s!", productIdentifier));
+		if (em.contains(item)) {
+			em.refresh(item);
 		}
 
-		return Optionals.toStream(item);
+		return item;
 	}
 
-	private static OrderLineCompletion hasSufficientQuantity(InventoryItem<?> item, OrderLine orderLine) {
+	/**
+	 * The {@link InventoryItem}s available for a set of products. Resolved in bulk, i.e. with a single query per
+	 * {@link Inventory} rather than one per {@link OrderLine}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	private class Stock {
+
+		private final Map<ProductIdentifier, Optional<UniqueInventoryItem>> uniqueItems = new HashMap<>();
+		private final Map<ProductIdentifier, Boolean> multiItems = new HashMap<>();
+
+		/**
+		 * Looks up the {@link InventoryItem}s for all given {@link ProductIdentifier}s not resolved yet. Only looks up
+		 * {@link MultiInventoryItem}s for the products no {@link UniqueInventoryItem} exists for.
+		 *
+		 * @param identifiers must not be {@literal null}.
+		 */
+		void resolve(Collection<ProductIdentifier> identifiers) {
+
+			var unresolved = identifiers.stream() //
+					.filter(it -> !uniqueItems.containsKey(it)) //
+					.collect(Collectors.toSet());
 
-		return item.hasSufficientQuantity(orderLine.getQuantity()) //
-				? success(orderLine) //
-				: error(orderLine, NOT_ENOUGH_STOCK);
+			if (unresolved.isEmpty()) {
+				return;
+			}
+
+			var found = uniqueInventory.findByProductIdentifierIn(unresolved).stream() //
+					.collect(Collectors.toMap(it -> it.getProduct().getId(), Function.identity()));
+
+			unresolved.forEach(it -> uniqueItems.put(it, Optional.ofNullable(found.get(it))));
+
+			var withoutUniqueItem = unresolved.stream() //
+					.filter(it -> !found.containsKey(it)) //
+					.collect(Collectors.toSet());
+
+			if (withoutUniqueItem.isEmpty()) {
+				return;
+			}
+
+			var stocked = inventory.findProductIdentifiersIn(withoutUniqueItem);
+
+			withoutUniqueItem.forEach(it -> multiItems.put(it, stocked.contains(it)));
+		}
+
+		Optional<UniqueInventoryItem> getUniqueItem(ProductIdentifier identifier) {
+			return uniqueItems.getOrDefault(identifier, Optional.empty());
+		}
+
+		boolean hasMultiItems(ProductIdentifier identifier) {
+			return multiItems.getOrDefault(identifier, false);
+		}
 	}
 }
@@ -17,10 +17,14 @@ package org.salespointframework.inventory;
 
 import lombok.Value;
 
+import java.time.Duration;
+import java.util.Optional;
+
 import org.salespointframework.quantity.Quantity;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.ConstructorBinding;
 import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
  * Properties to configure Salespoint's inventory. Declare {@code salespoint.inventory.…} in application properties to
@@ -42,12 +46,177 @@ class InventoryProperties {
 
 	/**
 	 * The threshold at which a {@link InventoryEvents.StockShort} is supposed to be triggered during inventory updates.
+	 * Can be overridden per {@link InventoryItem} via {@link InventoryItem#setRestockThreshold(Quantity)}.
 	 */
 	private Quantity restockThreshold;
 
-	InventoryProperties(boolean disableUpdates, @Nullable Quantity restockThreshold) {
+	/**
+	 * The window within which at most one {@link InventoryEvents.StockShort} is published per product, defaults to zero.
+	 * If set, {@link InventoryEvents.StockShort}s are published asynchronously once the stock change causing them has
+	 * been committed, the ones triggered while a window is open are coalesced into a single one published at its end.
+	 * If not set, a {@link InventoryEvents.StockShort} is published synchronously for every reduction of the stock below
+	 * the threshold.
+	 */
+	private Duration stockShortWindow;
+
+	/**
+	 * Configuration of the {@link StockReservations}.
+	 */
+	private Reservations reservations;
+
+	/**
+	 * Configuration of the {@link StockLedger}.
+	 */
+	private Ledger ledger;
+
+	/**
+	 * Configuration of the {@link InventoryAvailability}.
+	 */
+	private Availability availability;
+
+	InventoryProperties(boolean disableUpdates, @Nullable Quantity restockThreshold, @Nullable Duration stockShortWindow,
+			@Nullable Reservations reservations, @Nullable Ledger ledger, @Nullable Availability availability) {
 
 		this.disableUpdates = disableUpdates;
 		this.restockThreshold = restockThreshold == null ? Quantity.NONE : restockThreshold;
+		this.stockShortWindow = stockShortWindow == null ? Duration.ZERO : stockShortWindow;
+		this.reservations = reservations == null ? new Reservations(null, null) : reservations;
+		this.ledger = ledger == null ? new Ledger(null, null) : ledger;
+		this.availability = availability == null ? new Availability(null, null) : availability;
+
+		Assert.isTrue(!this.stockShortWindow.isNegative(), "Stock short window must not be negative!");
+	}
+
+	/**
+	 * Properties to configure the {@link StockReservations}. Declare {@code salespoint.inventory.reservations.…} in
+	 * application properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Reservations {
+
+		/**
+		 * How long a {@link Reservation} holds back stock before it expires, defaults to 15 minutes. Measured in
+		 * {@link org.salespointframework.time.BusinessTime}.
+		 */
+		private Duration ttl;
+
+		/**
+		 * The interval to remove expired {@link Reservation}s in, defaults to one minute. Set to zero to disable scheduled
+		 * removal and trigger it manually via {@link StockReservations#expire()}. Expired {@link Reservation}s do not hold
+		 * back stock anymore, independently of whether they have been removed already.
+		 */
+		private Duration expiryInterval;
+
+		Reservations(@Nullable Duration ttl, @Nullable Duration expiryInterval) {
+
+			this.ttl = ttl == null ? Duration.ofMinutes(15) : ttl;
+			this.expiryInterval = expiryInterval == null ? Duration.ofMinutes(1) : expiryInterval;
+
+			Assert.isTrue(!this.ttl.isNegative() && !this.ttl.isZero(), "Reservation TTL must be positive!");
+			Assert.isTrue(!this.expiryInterval.isNegative(), "Expiry interval must not be negative!");
+		}
+
+		/**
+		 * Whether expired {@link Reservation}s are supposed to be removed periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return !expiryInterval.isZero();
+		}
+	}
+
+	/**
+	 * Properties to configure the {@link StockLedger}. Declare {@code salespoint.inventory.ledger.…} in application
+	 * properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Ledger {
+
+		/**
+		 * The interval to fold {@link StockMovement}s into snapshots in, defaults to one minute. Set to zero to disable
+		 * scheduled compaction and trigger it manually via {@link StockLedger#compact()}.
+		 */
+		private Duration compactionInterval;
+
+		/**
+		 * How long to keep {@link StockMovement}s already folded into a snapshot, measured in
+		 * {@link org.salespointframework.time.BusinessTime}. Keeps all of them if not set.
+		 */
+		private @Nullable Duration retention;
+
+		Ledger(@Nullable Duration compactionInterval, @Nullable Duration retention) {
+
+			this.compactionInterval = compactionInterval == null ? Duration.ofMinutes(1) : compactionInterval;
+			this.retention = retention;
+
+			Assert.isTrue(!this.compactionInterval.isNegative(), "Compaction interval must not be negative!");
+			Assert.isTrue(retention == null || !retention.isNegative(), "Retention must not be negative!");
+		}
+
+		/**
+		 * Returns how long to keep {@link StockMovement}s already folded into a snapshot.
+		 *
+		 * @return will never be {@literal null}.
+		 */
+		Optional<Duration> getRetention() {
+			return Optional.ofNullable(retention);
+		}
+
+		/**
+		 * Whether {@link StockMovement}s are supposed to be compacted periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return !compactionInterval.isZero();
+		}
+	}
+
+	/**
+	 * Properties to configure the {@link InventoryAvailability}. Declare {@code salespoint.inventory.availability.…} in
+	 * application properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Availability {
+
+		/**
+		 * How long to cache the stock looked up for a product at most, defaults to zero, i.e. no caching. Cached entries
+		 * are evicted on changes of the stock applied through the current instance.
+		 */
+		private Duration cacheTtl;
+
+		/**
+		 * The maximum number of products to cache the stock for, defaults to 10000. Once reached, expired entries are
+		 * purged and the stock of further products is not cached until entries expire.
+		 */
+		private int cacheSize;
+
+		Availability(@Nullable Duration cacheTtl, @Nullable Integer cacheSize) {
+
+			this.cacheTtl = cacheTtl == null ? Duration.ZERO : cacheTtl;
+			this.cacheSize = cacheSize == null ? 10_000 : cacheSize;
+
+			Assert.isTrue(!this.cacheTtl.isNegative(), "Cache TTL must not be negative!");
+			Assert.isTrue(this.cacheSize > 0, "Cache size must be greater than zero!");
+		}
+
+		/**
+		 * Whether the stock looked up is supposed to be cached.
+		 *
+		 * @return
+		 */
+		boolean isCached() {
+			return !cacheTtl.isZero();
+		}
 	}
 }
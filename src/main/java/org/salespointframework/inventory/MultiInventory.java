@@ -15,9 +15,22 @@
  */
 package org.salespointframework.inventory;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import javax.persistence.LockModeType;
+
 import org.salespointframework.catalog.Product;
 import org.salespointframework.catalog.ProductIdentifier;
 import org.salespointframework.core.SalespointRepository;
+import org.salespointframework.quantity.Metric;
+import org.salespointframework.quantity.MetricMismatchException;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.util.Assert;
 
@@ -40,6 +53,84 @@ public interface MultiInventory<T extends MultiInventoryItem>
 	@Query("select i from #{#entityName} i where i.product.id = ?1")
 	InventoryItems<T> findByProductIdentifier(ProductIdentifier productIdentifier);
 
+	/**
+	 * Returns the subset of the given {@link ProductIdentifier}s for which at least one {@link MultiInventoryItem} exists.
+	 *
+	 * @param productIdentifiers must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select distinct i.product.id from #{#entityName} i where i.product.id in ?1")
+	Set<ProductIdentifier> findProductIdentifiersIn(Collection<ProductIdentifier> productIdentifiers);
+
+	/**
+	 * Returns all {@link MultiInventoryItem}s for the given {@link ProductIdentifier}s ordered by their identifiers,
+	 * locking them for the current transaction. The stable order prevents concurrent transactions locking overlapping
+	 * sets of {@link MultiInventoryItem}s from deadlocking.
+	 *
+	 * @param productIdentifiers must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select i from #{#entityName} i where i.product.id in ?1 order by i.inventoryItemIdentifier.id")
+	List<T> findForUpdate(Collection<ProductIdentifier> productIdentifiers);
+
+	/**
+	 * Returns the total {@link Quantity} of all {@link MultiInventoryItem}s for the given {@link ProductIdentifier},
+	 * summed up by the database.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @return will never be {@literal null}, {@link Quantity#NONE} in case no {@link MultiInventoryItem} exists for the
+	 *         given {@link ProductIdentifier}.
+	 * @throws MetricMismatchException in case the {@link MultiInventoryItem}s of the product use different
+	 *           {@link Metric}s.
+	 * @since 7.4
+	 * @see InventoryItems#getTotalQuantity()
+	 */
+	default Quantity sumQuantityByProduct(ProductIdentifier productIdentifier) {
+
+		Assert.notNull(productIdentifier, "ProductIdentifier must not be null!");
+
+		return sumQuantities(Collections.singleton(productIdentifier)) //
+				.getOrDefault(productIdentifier, Quantity.NONE);
+	}
+
+	/**
+	 * Returns the total {@link Quantity} of all {@link MultiInventoryItem}s per given {@link ProductIdentifier}, summed
+	 * up by the database in a single query.
+	 *
+	 * @param productIdentifiers must not be {@literal null}.
+	 * @return will never be {@literal null}. Doesn't contain entries for the {@link ProductIdentifier}s no
+	 *         {@link MultiInventoryItem} exists for.
+	 * @throws MetricMismatchException in case the {@link MultiInventoryItem}s of a product use different
+	 *           {@link Metric}s.
+	 * @since 7.4
+	 */
+	default Map<ProductIdentifier, Quantity> sumQuantities(Collection<ProductIdentifier> productIdentifiers) {
+
+		Assert.notNull(productIdentifiers, "ProductIdentifiers must not be null!");
+
+		if (productIdentifiers.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		return sumQuantitiesByProductIn(productIdentifiers).stream() //
+				.collect(Collectors.toMap(QuantitySum::getProduct, QuantitySum::getQuantity, Quantity::add));
+	}
+
+	/**
+	 * Returns the sums of the quantities of all {@link MultiInventoryItem}s per {@link ProductIdentifier} and
+	 * {@link Metric}. Prefer {@link #sumQuantities(Collection)}.
+	 *
+	 * @param productIdentifiers must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select i.product.id as product, i.quantity.metric as metric, sum(i.quantity.amount) as amount" //
+			+ " from #{#entityName} i where i.product.id in ?1 group by i.product.id, i.quantity.metric")
+	List<QuantitySum> sumQuantitiesByProductIn(Collection<ProductIdentifier> productIdentifiers);
+
 	/**
 	 * Returns all {@link InventoryItems} available for a given {@link Product}.
 	 *
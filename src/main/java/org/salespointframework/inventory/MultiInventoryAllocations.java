@@ -0,0 +1,332 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.hibernate.Session;
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderCompletionReport.Allocation;
+import org.salespointframework.order.OrderLine;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+/**
+ * Allocates the {@link OrderLine}s of an {@link Order} to the {@link MultiInventoryItem}s of their products using the
+ * {@link AllocationStrategy} declared in the application. All {@link MultiInventoryItem}s of the products of an
+ * {@link Order} are looked up and locked in a single query, the allocation itself happens in memory and the decreased
+ * quantities are written back in a single, batched flush. The allocations are recorded as {@link StockAllocation}s so
+ * that a cancellation of the {@link Order} returns the stock to the very same {@link MultiInventoryItem}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Component
+@RequiredArgsConstructor
+class MultiInventoryAllocations {
+
+	private final @NonNull MultiInventory<MultiInventoryItem> inventory;
+	private final @NonNull StockAllocationRepository allocations;
+	private final @NonNull StockLedger ledger;
+	private final @NonNull ObjectProvider<AllocationStrategy> strategy;
+	private final @NonNull EntityManager em;
+
+	/**
+	 * Returns whether an {@link AllocationStrategy} is configured, i.e. whether {@link OrderLine}s for products kept in
+	 * a {@link MultiInventory} are supposed to be allocated.
+	 *
+	 * @return
+	 */
+	boolean isEnabled() {
+		return strategy.getIfAvailable() != null;
+	}
+
+	/**
+	 * Allocates the given {@link OrderLine}s to the {@link MultiInventoryItem}s of their products, locking the latter
+	 * for the current transaction. Doesn't change any stock yet, see {@link #apply(Plan)}.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @param lines must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Transactional
+	public Plan allocate(Order order, List<OrderLine> lines) {
+
+		Assert.notNull(order, "Order must not be null!");
+		Assert.notNull(lines, "Order lines must not be null!");
+
+		var products = lines.stream() //
+				.map(OrderLine::getProductIdentifier) //
+				.collect(Collectors.toSet());
+
+		if (products.isEmpty()) {
+			return new Plan(order, Collections.emptyMap(), Collections.emptySet());
+		}
+
+		var allocationStrategy = strategy.getObject();
+
+		var available = new LinkedHashMap<ProductIdentifier, Map<MultiInventoryItem, Quantity>>();
+
+		inventory.findForUpdate(products).forEach(it -> available //
+				.computeIfAbsent(it.getProduct().getId(), __ -> new LinkedHashMap<>()) //
+				.put(it, it.getQuantity()));
+
+		var allocated = new LinkedHashMap<OrderLine, Map<MultiInventoryItem, Quantity>>();
+		var insufficient = new HashSet<ProductIdentifier>();
+
+		for (var line : lines) {
+
+			var identifier = line.getProductIdentifier();
+			var remaining = available.getOrDefault(identifier, Collections.emptyMap());
+			var result = remaining.isEmpty() //
+					? Collections.<MultiInventoryItem, Quantity> emptyMap()
+					: allocationStrategy.allocate(line.getQuantity(), Collections.unmodifiableMap(remaining));
+
+			if (!isValid(line.getQuantity(), result, remaining)) {
+				insufficient.add(identifier);
+				continue;
+			}
+
+			result.forEach((item, quantity) -> remaining.computeIfPresent(item, (__, it) -> it.subtract(quantity)));
+			allocated.put(line, result);
+		}
+
+		return new Plan(order, allocated, insufficient);
+	}
+
+	/**
+	 * Decreases the stock of the {@link MultiInventoryItem}s by the quantities allocated in the given {@link Plan} and
+	 * records the allocations.
+	 *
+	 * @param plan must not be {@literal null}.
+	 */
+	@Transactional
+	public void apply(Plan plan) {
+
+		Assert.notNull(plan, "Plan must not be null!");
+		Assert.isTrue(plan.isFulfillable(), "Can't apply allocations with insufficient stock!");
+
+		var order = plan.getOrder();
+		var taken = new LinkedHashMap<MultiInventoryItem, Quantity>();
+
+		plan.allocated.values().forEach(it -> it.forEach((item, quantity) -> taken.merge(item, quantity, Quantity::add)));
+
+		if (taken.isEmpty()) {
+			return;
+		}
+
+		taken.forEach((item, quantity) -> item.setOwnQuantity(item.getOwnQuantity().subtract(quantity)));
+
+		allocations.saveAll(taken.entrySet().stream() //
+				.map(it -> new StockAllocation(order.getId(), it.getKey().getId(), it.getKey().getProduct().getId(),
+						it.getValue())) //
+				.collect(Collectors.toList()));
+
+		flushBatched(taken.size());
+
+		sumByProduct(taken).forEach((product, quantity) -> //
+		ledger.record(product, quantity.times(-1), Type.ORDER_COMPLETED, order));
+
+		taken.keySet().forEach(it -> inventory.save(it.quantityReduced()));
+	}
+
+	/**
+	 * Returns the stock allocated for the given {@link Order} to the {@link MultiInventoryItem}s it was taken from.
+	 *
+	 * @param order must not be {@literal null}.
+	 */
+	@Transactional
+	public void release(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		var allocated = allocations.findByOrder(order.getId());
+
+		if (allocated.isEmpty()) {
+			return;
+		}
+
+		var products = allocated.stream() //
+				.map(StockAllocation::getProduct) //
+				.collect(Collectors.toSet());
+
+		var items = inventory.findForUpdate(products).stream() //
+				.collect(Collectors.toMap(MultiInventoryItem::getId, Function.identity()));
+
+		var returned = new LinkedHashMap<MultiInventoryItem, Quantity>();
+
+		allocated.forEach(it -> {
+
+			var item = items.get(it.getItem());
+
+			if (item != null) {
+				returned.merge(item, it.getQuantity(), Quantity::add);
+			}
+		});
+
+		returned.forEach((item, quantity) -> item.setOwnQuantity(item.getOwnQuantity().add(quantity)));
+
+		allocations.deleteByOrder(order.getId());
+
+		flushBatched(returned.size());
+
+		sumByProduct(returned).forEach((product, quantity) -> //
+		ledger.record(product, quantity, Type.ORDER_CANCELED, order));
+
+		returned.keySet().forEach(it -> inventory.save(it.quantityIncreased()));
+	}
+
+	/**
+	 * Returns whether the given allocation covers exactly the requested {@link Quantity} using only the
+	 * {@link MultiInventoryItem}s available in sufficient quantity.
+	 *
+	 * @param requested must not be {@literal null}.
+	 * @param allocation must not be {@literal null}.
+	 * @param available must not be {@literal null}.
+	 * @return
+	 */
+	private static boolean isValid(Quantity requested, Map<MultiInventoryItem, Quantity> allocation,
+			Map<MultiInventoryItem, Quantity> available) {
+
+		if (allocation == null || allocation.isEmpty()) {
+			return false;
+		}
+
+		var total = requested.toZero();
+
+		for (var entry : allocation.entrySet()) {
+
+			var quantity = available.get(entry.getKey());
+			var taken = entry.getValue();
+
+			if (quantity == null || taken.isZeroOrNegative() || taken.isGreaterThan(quantity)) {
+				return false;
+			}
+
+			total = total.add(taken);
+		}
+
+		return total.isEqualTo(requested);
+	}
+
+	private static Map<ProductIdentifier, Quantity> sumByProduct(Map<MultiInventoryItem, Quantity> quantities) {
+
+		var result = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+		quantities.forEach((item, quantity) -> result.merge(item.getProduct().getId(), quantity, Quantity::add));
+
+		return result;
+	}
+
+	/**
+	 * Flushes the pending changes, sending the updates of the given number of {@link MultiInventoryItem}s to the
+	 * database in a single batch.
+	 *
+	 * @param size the number of {@link MultiInventoryItem}s changed.
+	 */
+	private void flushBatched(int size) {
+
+		var session = em.unwrap(Session.class);
+		var batchSize = session.getJdbcBatchSize();
+
+		session.setJdbcBatchSize(Math.max(size, batchSize == null ? 1 : batchSize));
+
+		try {
+			em.flush();
+		} finally {
+			session.setJdbcBatchSize(batchSize);
+		}
+	}
+
+	/**
+	 * The allocation of the {@link OrderLine}s of an {@link Order} to {@link MultiInventoryItem}s.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	static class Plan {
+
+		private final @Getter Order order;
+		private final Map<OrderLine, Map<MultiInventoryItem, Quantity>> allocated;
+		private final Set<ProductIdentifier> insufficient;
+
+		/**
+		 * Returns whether all {@link OrderLine}s could be allocated.
+		 *
+		 * @return
+		 */
+		boolean isFulfillable() {
+			return insufficient.isEmpty();
+		}
+
+		/**
+		 * Returns whether the given {@link ProductIdentifier} couldn't be allocated in sufficient quantity.
+		 *
+		 * @param product must not be {@literal null}.
+		 * @return
+		 */
+		boolean isInsufficient(ProductIdentifier product) {
+			return insufficient.contains(product);
+		}
+
+		/**
+		 * Returns whether the given {@link OrderLine} is part of the {@link Plan}.
+		 *
+		 * @param line must not be {@literal null}.
+		 * @return
+		 */
+		boolean contains(OrderLine line) {
+			return allocated.containsKey(line) || insufficient.contains(line.getProductIdentifier());
+		}
+
+		/**
+		 * Returns the {@link Allocation}s for the given {@link OrderLine}.
+		 *
+		 * @param line must not be {@literal null}.
+		 * @return will never be {@literal null}.
+		 */
+		List<Allocation> getAllocations(OrderLine line) {
+
+			var result = new ArrayList<Allocation>();
+
+			allocated.getOrDefault(line, Collections.emptyMap()) //
+					.forEach((item, quantity) -> result.add(Allocation.of(item.getId(), quantity)));
+
+			return result;
+		}
+	}
+}
@@ -0,0 +1,103 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Optional;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderIdentifier;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Stock held back for a {@link org.salespointframework.order.Cart} or an {@link Order} until it expires. While a
+ * {@link Reservation} is active, the quantities reserved by it are not available to other {@link Reservation}s or the
+ * completion of {@link Order}s not holding it.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see StockReservations
+ */
+@Value
+@AllArgsConstructor(access = AccessLevel.PACKAGE)
+public class Reservation {
+
+	ReservationIdentifier id;
+	@Nullable OrderIdentifier order;
+	LocalDateTime expires;
+	Map<ProductIdentifier, Quantity> quantities;
+
+	/**
+	 * Returns the identifier of the {@link Order} the {@link Reservation} was made or assigned to.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<OrderIdentifier> getOrder() {
+		return Optional.ofNullable(order);
+	}
+
+	/**
+	 * Returns the quantities reserved per product.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Map<ProductIdentifier, Quantity> getQuantities() {
+		return Collections.unmodifiableMap(quantities);
+	}
+
+	/**
+	 * Returns the {@link Quantity} reserved for the product with the given {@link ProductIdentifier}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Quantity getQuantity(ProductIdentifier product) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+
+		return quantities.getOrDefault(product, Quantity.NONE);
+	}
+
+	/**
+	 * Returns whether the {@link Reservation} is still active at the given point in time.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @return
+	 */
+	public boolean isActiveAt(LocalDateTime now) {
+
+		Assert.notNull(now, "Time must not be null!");
+
+		return expires.isAfter(now);
+	}
+
+	Reservation expiringAt(LocalDateTime expires) {
+		return new Reservation(id, order, expires, quantities);
+	}
+
+	Reservation assignedTo(OrderIdentifier order) {
+		return new Reservation(id, order, expires, quantities);
+	}
+}
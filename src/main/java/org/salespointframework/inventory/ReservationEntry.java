@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.OrderIdentifier;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * The persistent form of a {@link Reservation}, one row per reserved product. Keeps the table narrow so that all
+ * active {@link Reservation}s can be loaded cheaply on startup.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Entity
+@Getter
+@Table(name = "STOCK_RESERVATION", indexes = {
+		@Index(name = "STOCK_RESERVATION_RESERVATION_IDX", columnList = "RESERVATION_ID"),
+		@Index(name = "STOCK_RESERVATION_EXPIRES_IDX", columnList = "expires") })
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class ReservationEntry {
+
+	private @Id @GeneratedValue Long id;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "RESERVATION_ID", nullable = false)) //
+	private final ReservationIdentifier reservation;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "ORDER_ID")) //
+	private final @Nullable OrderIdentifier order;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "PRODUCT_ID", nullable = false)) //
+	private final ProductIdentifier product;
+
+	private final Quantity quantity;
+	private final LocalDateTime expires;
+
+	private ReservationEntry(Reservation reservation, ProductIdentifier product, Quantity quantity) {
+
+		Assert.notNull(reservation, "Reservation must not be null!");
+
+		this.reservation = reservation.getId();
+		this.order = reservation.getOrder().orElse(null);
+		this.product = product;
+		this.quantity = quantity;
+		this.expires = reservation.getExpires();
+	}
+
+	/**
+	 * Creates one {@link ReservationEntry} per product reserved by the given {@link Reservation}.
+	 *
+	 * @param reservation must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static List<ReservationEntry> of(Reservation reservation) {
+
+		return reservation.getQuantities().entrySet().stream() //
+				.map(it -> new ReservationEntry(reservation, it.getKey(), it.getValue())) //
+				.collect(Collectors.toList());
+	}
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.time.LocalDateTime;
+
+import org.salespointframework.order.OrderIdentifier;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link ReservationEntry} instances.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface ReservationEntryRepository extends CrudRepository<ReservationEntry, Long> {
+
+	/**
+	 * Returns all {@link ReservationEntry}s still active at the given point in time.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Streamable<ReservationEntry> findByExpiresAfter(LocalDateTime now);
+
+	/**
+	 * Moves the expiry date of all entries of the {@link Reservation} with the given identifier.
+	 *
+	 * @param reservation must not be {@literal null}.
+	 * @param expires must not be {@literal null}.
+	 * @return the number of entries updated.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update ReservationEntry e set e.expires = ?2 where e.reservation = ?1")
+	int updateExpiry(ReservationIdentifier reservation, LocalDateTime expires);
+
+	/**
+	 * Assigns all entries of the {@link Reservation} with the given identifier to the given {@link OrderIdentifier}.
+	 *
+	 * @param reservation must not be {@literal null}.
+	 * @param order must not be {@literal null}.
+	 * @return the number of entries updated.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update ReservationEntry e set e.order = ?2 where e.reservation = ?1")
+	int assign(ReservationIdentifier reservation, OrderIdentifier order);
+
+	/**
+	 * Deletes all entries of the {@link Reservation} with the given identifier.
+	 *
+	 * @param reservation must not be {@literal null}.
+	 * @return the number of entries deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from ReservationEntry e where e.reservation = ?1")
+	int deleteByReservation(ReservationIdentifier reservation);
+
+	/**
+	 * Deletes all entries expired at the given point in time.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @return the number of entries deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from ReservationEntry e where e.expires <= ?1")
+	int deleteExpired(LocalDateTime now);
+}
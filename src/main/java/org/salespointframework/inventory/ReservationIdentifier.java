@@ -0,0 +1,48 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import javax.persistence.Embeddable;
+
+import org.salespointframework.core.SalespointIdentifier;
+
+/**
+ * Identifier for {@link Reservation}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Embeddable
+public final class ReservationIdentifier extends SalespointIdentifier {
+
+	private static final long serialVersionUID = 2946120186417735316L;
+
+	/**
+	 * Creates a new unique identifier for {@link Reservation}s.
+	 */
+	ReservationIdentifier() {
+		super();
+	}
+
+	/**
+	 * Only needed for property editor, shouldn't be used otherwise.
+	 *
+	 * @param reservationIdentifier The string representation of the identifier.
+	 */
+	ReservationIdentifier(String reservationIdentifier) {
+		super(reservationIdentifier);
+	}
+}
@@ -0,0 +1,80 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.OrderIdentifier;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.util.Assert;
+
+/**
+ * The {@link Quantity} taken from a {@link MultiInventoryItem} to complete an {@link org.salespointframework.order.Order}.
+ * Kept to be able to return the stock to the very same {@link MultiInventoryItem}s in case the
+ * {@link org.salespointframework.order.Order} is cancelled.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see MultiInventoryAllocations
+ */
+@Entity
+@Getter
+@Table(name = "INVENTORY_ALLOCATION",
+		indexes = @Index(name = "INVENTORY_ALLOCATION_ORDER_IDX", columnList = "ORDER_ID"))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class StockAllocation {
+
+	private @Id @GeneratedValue Long id;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "ORDER_ID", nullable = false)) //
+	private final OrderIdentifier order;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "ITEM_ID", nullable = false)) //
+	private final InventoryItemIdentifier item;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "PRODUCT_ID", nullable = false)) //
+	private final ProductIdentifier product;
+
+	private final Quantity quantity;
+
+	StockAllocation(OrderIdentifier order, InventoryItemIdentifier item, ProductIdentifier product, Quantity quantity) {
+
+		Assert.notNull(order, "Order identifier must not be null!");
+		Assert.notNull(item, "Inventory item identifier must not be null!");
+		Assert.notNull(product, "Product identifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		this.order = order;
+		this.item = item;
+		this.product = product;
+		this.quantity = quantity;
+	}
+}
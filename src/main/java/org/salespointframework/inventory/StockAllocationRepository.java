@@ -0,0 +1,53 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.util.List;
+
+import org.salespointframework.order.OrderIdentifier;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link StockAllocation}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface StockAllocationRepository extends CrudRepository<StockAllocation, Long> {
+
+	/**
+	 * Returns all {@link StockAllocation}s of the {@link org.salespointframework.order.Order} with the given identifier.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select a from StockAllocation a where a.order = ?1 order by a.item.id")
+	List<StockAllocation> findByOrder(OrderIdentifier order);
+
+	/**
+	 * Deletes all {@link StockAllocation}s of the {@link org.salespointframework.order.Order} with the given identifier.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return the number of {@link StockAllocation}s deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from StockAllocation a where a.order = ?1")
+	int deleteByOrder(OrderIdentifier order);
+}
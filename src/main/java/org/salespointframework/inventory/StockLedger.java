@@ -0,0 +1,303 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.InventoryEvents.StockMoved;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.salespointframework.inventory.StockMovementRepository.Delta;
+import org.salespointframework.order.Order;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * An audit ledger of all changes of the stock of the products kept in the inventory. Every creation of an
+ * {@link InventoryItem}, manual change of its quantity as well as every completion and cancellation of an
+ * {@link Order} is recorded as a {@link StockMovement} in the same transaction, which gives a history of the stock of
+ * every product.
+ * <p>
+ * The ledger is kept in addition to the quantity of the {@link InventoryItem}s, which stays authoritative and still
+ * guards the stock against being oversold. I.e. recording a change adds an insert to the update of the
+ * {@link InventoryItem} but doesn't replace it. Concurrent changes of the stock of a product thus still contend for the
+ * row of its {@link InventoryItem}, see {@link StockShards} to reduce that contention. Note that the ledger only
+ * covers the changes applied through Salespoint's APIs.
+ * <p>
+ * The stock of a product according to the ledger is materialized from the {@link StockSnapshot} of that product and
+ * the {@link StockMovement}s not folded into it yet. Snapshots are advanced by a compaction running periodically or via
+ * {@link #compact()}, that folds all {@link StockMovement}s recorded more than a minute ago into them and marks them as
+ * folded in the same transaction. As folding is tracked per {@link StockMovement}, movements recorded by transactions
+ * committing late are picked up by a subsequent compaction. Folded {@link StockMovement}s are kept as history unless a
+ * retention period is configured.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see InventoryProperties.Ledger
+ */
+@Service
+public class StockLedger implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StockLedger.class);
+
+	/**
+	 * The time to wait before folding a {@link StockMovement} into a {@link StockSnapshot}, so that recent movements
+	 * stay available individually for a while.
+	 */
+	static final Duration SETTLEMENT = Duration.ofMinutes(1);
+
+	/**
+	 * The maximum number of {@link StockMovement}s folded in a single transaction.
+	 */
+	private static final int BATCH_SIZE = 1000;
+
+	private final StockMovementRepository movements;
+	private final StockSnapshotRepository snapshots;
+	private final TransactionTemplate transactions;
+	private final BusinessTime businessTime;
+	private final InventoryProperties.Ledger configuration;
+
+	private boolean running;
+	private @Nullable ScheduledExecutorService scheduler;
+
+	StockLedger(StockMovementRepository movements, StockSnapshotRepository snapshots,
+			PlatformTransactionManager transactionManager, BusinessTime businessTime, InventoryProperties properties) {
+
+		this.movements = movements;
+		this.snapshots = snapshots;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.businessTime = businessTime;
+		this.configuration = properties.getLedger();
+	}
+
+	/**
+	 * Returns the current stock of the product with the given {@link ProductIdentifier} according to the ledger.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Quantity getQuantity(ProductIdentifier product) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+
+		var snapshot = snapshots.findByProduct(product);
+		var delta = movements.sumUnfolded(product).map(Delta::getQuantity);
+
+		return snapshot.map(StockSnapshot::getQuantity) //
+				.map(it -> delta.map(it::add).orElse(it)) //
+				.or(() -> delta) //
+				.orElse(Quantity.NONE);
+	}
+
+	/**
+	 * Returns the stock of the product with the given {@link ProductIdentifier} at the given point in time. Only
+	 * considers the {@link StockMovement}s still retained.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Quantity getQuantityAt(ProductIdentifier product, LocalDateTime date) {
+
+		Assert.notNull(date, "Date must not be null!");
+
+		var current = getQuantity(product);
+
+		return movements.sumAfter(product, date) //
+				.map(it -> current.subtract(it.getQuantity())) //
+				.orElse(current);
+	}
+
+	/**
+	 * Returns all {@link StockMovement}s of the product with the given {@link ProductIdentifier} recorded within the
+	 * given {@link Interval}, in the order they were recorded in.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Streamable<StockMovement> getMovements(ProductIdentifier product, Interval interval) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+		Assert.notNull(interval, "Interval must not be null!");
+
+		return movements.findByProductAndDateBetween(product, interval.getStart(), interval.getEnd());
+	}
+
+	/**
+	 * Folds all {@link StockMovement}s recorded more than a minute ago into the {@link StockSnapshot}s of their products
+	 * and removes the ones folded that are older than the configured retention period.
+	 *
+	 * @return the number of products whose {@link StockSnapshot}s were advanced.
+	 */
+	public synchronized int compact() {
+
+		var now = businessTime.getTime();
+		var products = new HashSet<ProductIdentifier>();
+
+		while (transactions.execute(__ -> fold(now, products)) == BATCH_SIZE) {}
+
+		configuration.getRetention() //
+				.ifPresent(it -> transactions.executeWithoutResult(__ -> movements.deleteFoldedBefore(now.minus(it))));
+
+		return products.size();
+	}
+
+	/**
+	 * Records a {@link StockMovement} of the given {@link Quantity} for the product with the given
+	 * {@link ProductIdentifier}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param quantity the change of the stock, negative for decreases, must not be {@literal null}.
+	 * @param type must not be {@literal null}.
+	 * @param order the {@link Order} causing the change, can be {@literal null}.
+	 */
+	void record(ProductIdentifier product, Quantity quantity, Type type, @Nullable Order order) {
+
+		var movement = new StockMovement(product, quantity, type, order == null ? null : order.getId(),
+				businessTime.getTime());
+
+		transactions.executeWithoutResult(__ -> movements.save(movement));
+	}
+
+	/**
+	 * Records the {@link StockMovement}s for changes of the stock applied to {@link InventoryItem}s directly.
+	 *
+	 * @param event must not be {@literal null}.
+	 */
+	@EventListener
+	void on(StockMoved event) {
+		record(event.getProduct(), event.getQuantity(), event.getType(), null);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		this.running = true;
+
+		if (!configuration.isScheduled()) {
+			return;
+		}
+
+		var interval = configuration.getCompactionInterval().toMillis();
+
+		this.scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-stock-ledger-"));
+		this.scheduler.scheduleWithFixedDelay(this::compactSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+
+		this.running = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Folds the next batch of {@link StockMovement}s recorded until the settlement period before the given date into the
+	 * {@link StockSnapshot}s of their products. Fails in case any of the {@link StockMovement}s was folded concurrently.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @param products the products whose {@link StockSnapshot}s were advanced, must not be {@literal null}.
+	 * @return the number of {@link StockMovement}s folded.
+	 */
+	private int fold(LocalDateTime now, Set<ProductIdentifier> products) {
+
+		var unfolded = movements.findUnfoldedUntil(now.minus(SETTLEMENT), PageRequest.of(0, BATCH_SIZE));
+
+		if (unfolded.isEmpty()) {
+			return 0;
+		}
+
+		Assert.state(movements.markFolded(unfolded) == unfolded.size(), "Stock movements were folded concurrently!");
+
+		var deltas = movements.sumByIdIn(unfolded);
+		var existing = snapshots.findByProductIn(deltas.stream() //
+				.map(Delta::getProduct) //
+				.collect(Collectors.toSet())).stream() //
+				.collect(Collectors.toMap(StockSnapshot::getProduct, Function.identity()));
+
+		deltas.forEach(it -> {
+
+			var snapshot = existing.computeIfAbsent(it.getProduct(),
+					product -> new StockSnapshot(product, it.getQuantity()));
+
+			snapshots.save(snapshot.fold(it.getQuantity(), now));
+			products.add(it.getProduct());
+		});
+
+		return unfolded.size();
+	}
+
+	private void compactSafely() {
+
+		try {
+
+			var compacted = compact();
+
+			LOGGER.debug("Compacted stock movements of {} products.", compacted);
+
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to compact stock movements!", o_O);
+		}
+	}
+}
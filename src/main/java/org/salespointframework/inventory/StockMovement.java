@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.OrderIdentifier;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A single change of the stock of a product as recorded by the {@link StockLedger}. Movements are only ever appended,
+ * the only change applied to them later on is marking them as folded into the {@link StockSnapshot} of their product.
+ * Increases of the stock are recorded as positive, decreases as negative {@link Quantity}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see StockLedger#getMovements(ProductIdentifier, org.salespointframework.time.Interval)
+ */
+@Entity
+@Getter
+@Table(name = "INVENTORY_STOCK_MOVEMENT", indexes = {
+		@Index(name = "INVENTORY_STOCK_MOVEMENT_PRODUCT_IDX", columnList = "PRODUCT_ID, folded"),
+		@Index(name = "INVENTORY_STOCK_MOVEMENT_FOLDED_IDX", columnList = "folded, date"),
+		@Index(name = "INVENTORY_STOCK_MOVEMENT_DATE_IDX", columnList = "date") })
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+public class StockMovement {
+
+	private @Id @GeneratedValue Long id;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "PRODUCT_ID", nullable = false)) //
+	private final ProductIdentifier product;
+
+	private final Quantity quantity;
+
+	@Enumerated(EnumType.STRING) //
+	private final Type type;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "ORDER_ID")) //
+	private final @Nullable OrderIdentifier order;
+
+	private final LocalDateTime date;
+
+	/**
+	 * Whether the movement has been folded into the {@link StockSnapshot} of its product already.
+	 */
+	@Getter(AccessLevel.NONE) //
+	private boolean folded;
+
+	StockMovement(ProductIdentifier product, Quantity quantity, Type type, @Nullable OrderIdentifier order,
+			LocalDateTime date) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+		Assert.notNull(type, "Type must not be null!");
+		Assert.notNull(date, "Date must not be null!");
+
+		this.product = product;
+		this.quantity = quantity;
+		this.type = type;
+		this.order = order;
+		this.date = date;
+	}
+
+	/**
+	 * Returns the identifier of the {@link org.salespointframework.order.Order} that caused the movement, if any.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<OrderIdentifier> getOrder() {
+		return Optional.ofNullable(order);
+	}
+
+	/**
+	 * The causes of a {@link StockMovement}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	public enum Type {
+
+		/**
+		 * The initial stock of a newly created {@link InventoryItem}.
+		 */
+		STOCKED,
+
+		/**
+		 * A manual change of the stock via {@link InventoryItem#increaseQuantity(Quantity)} or
+		 * {@link InventoryItem#decreaseQuantity(Quantity)}.
+		 */
+		ADJUSTED,
+
+		/**
+		 * The decrease of the stock on the completion of an {@link org.salespointframework.order.Order}.
+		 */
+		ORDER_COMPLETED,
+
+		/**
+		 * The increase of the stock on the cancellation of a completed {@link org.salespointframework.order.Order}.
+		 */
+		ORDER_CANCELED;
+	}
+}
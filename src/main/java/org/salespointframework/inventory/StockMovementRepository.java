@@ -0,0 +1,139 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.quantity.Metric;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link StockMovement}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface StockMovementRepository extends CrudRepository<StockMovement, Long> {
+
+	/**
+	 * Returns all {@link StockMovement}s of the given product recorded within the given dates, in the order they were
+	 * recorded in.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select m from StockMovement m where m.product = ?1 and m.date between ?2 and ?3 order by m.id")
+	Streamable<StockMovement> findByProductAndDateBetween(ProductIdentifier product, LocalDateTime from,
+			LocalDateTime to);
+
+	/**
+	 * Sums up the {@link StockMovement}s of the given product that haven't been folded into the product's
+	 * {@link StockSnapshot} yet.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select m.product as product, m.quantity.metric as metric, sum(m.quantity.amount) as amount" //
+			+ " from StockMovement m where m.product = ?1 and m.folded = false group by m.product, m.quantity.metric")
+	Optional<Delta> sumUnfolded(ProductIdentifier product);
+
+	/**
+	 * Sums up the {@link StockMovement}s of the given product recorded after the given date.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select m.product as product, m.quantity.metric as metric, sum(m.quantity.amount) as amount" //
+			+ " from StockMovement m where m.product = ?1 and m.date > ?2 group by m.product, m.quantity.metric")
+	Optional<Delta> sumAfter(ProductIdentifier product, LocalDateTime date);
+
+	/**
+	 * Returns the identifiers of the {@link StockMovement}s recorded at or before the given date that haven't been
+	 * folded into the {@link StockSnapshot}s of their products yet.
+	 *
+	 * @param date must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select m.id from StockMovement m where m.folded = false and m.date <= ?1 order by m.id")
+	List<Long> findUnfoldedUntil(LocalDateTime date, Pageable pageable);
+
+	/**
+	 * Sums up the {@link StockMovement}s with the given identifiers per product.
+	 *
+	 * @param movements must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select m.product as product, m.quantity.metric as metric, sum(m.quantity.amount) as amount" //
+			+ " from StockMovement m where m.id in ?1 group by m.product, m.quantity.metric")
+	List<Delta> sumByIdIn(Collection<Long> movements);
+
+	/**
+	 * Marks the {@link StockMovement}s with the given identifiers as folded, unless they are already.
+	 *
+	 * @param movements must not be {@literal null}.
+	 * @return the number of {@link StockMovement}s marked as folded.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update StockMovement m set m.folded = true where m.id in ?1 and m.folded = false")
+	int markFolded(Collection<Long> movements);
+
+	/**
+	 * Deletes all {@link StockMovement}s recorded before the given date that have already been folded into a
+	 * {@link StockSnapshot}.
+	 *
+	 * @param date must not be {@literal null}.
+	 * @return the number of {@link StockMovement}s deleted.
+	 */
+	@Transactional
+	@Modifying
+	@Query("delete from StockMovement m where m.date < ?1 and m.folded = true")
+	int deleteFoldedBefore(LocalDateTime date);
+
+	/**
+	 * The sum of a set of {@link StockMovement}s of a product.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface Delta {
+
+		ProductIdentifier getProduct();
+
+		Metric getMetric();
+
+		BigDecimal getAmount();
+
+		default Quantity getQuantity() {
+			return StockShard.toQuantity(getAmount(), getMetric());
+		}
+	}
+}
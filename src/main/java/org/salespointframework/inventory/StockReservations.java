@@ -0,0 +1,561 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.Cart;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderIdentifier;
+import org.salespointframework.order.OrderLine;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * Reserves stock of {@link UniqueInventoryItem}s for {@link Cart}s and {@link Order}s so that it can't be sold to
+ * anyone else until the {@link Reservation} expires or is released. The completion of an {@link Order} consumes its
+ * {@link Reservation}, the completion of any other {@link Order} only succeeds if it leaves the quantities reserved
+ * for others untouched. Products not managed by a {@link UniqueInventory} are not reserved.
+ * <p>
+ * Active {@link Reservation}s are kept in an in-memory index per product, so that verifying a {@link Reservation}
+ * request only requires looking up the current stock. The index is backed by a table containing one row per reserved
+ * product and loaded on startup. {@link Reservation}s expire according to {@link BusinessTime} and stop holding back
+ * stock immediately, expired rows are removed periodically or via {@link #expire()}. Note that the index is local to
+ * the current instance, i.e. with multiple application instances sharing a database, {@link Reservation}s made on
+ * other instances are only seen after a restart. The stock itself is never oversold though, as its decrease is
+ * guarded by the database.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see InventoryProperties.Reservations
+ */
+@Service
+public class StockReservations implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StockReservations.class);
+
+	private final ReservationEntryRepository entries;
+	private final TransactionTemplate transactions;
+	private final UniqueInventory<UniqueInventoryItem> inventory;
+	private final BusinessTime businessTime;
+	private final List<LineItemFilter> filters;
+	private final InventoryProperties.Reservations configuration;
+
+	private final Map<ReservationIdentifier, Reservation> reservations = new ConcurrentHashMap<>();
+	private final Map<ProductIdentifier, Set<ReservationIdentifier>> byProduct = new ConcurrentHashMap<>();
+	private final Map<OrderIdentifier, ReservationIdentifier> byOrder = new ConcurrentHashMap<>();
+	private final Map<ProductIdentifier, ReentrantLock> locks = new ConcurrentHashMap<>();
+
+	private boolean running;
+	private @Nullable ScheduledExecutorService scheduler;
+
+	StockReservations(ReservationEntryRepository entries, PlatformTransactionManager transactionManager,
+			UniqueInventory<UniqueInventoryItem> inventory, BusinessTime businessTime, List<LineItemFilter> filters,
+			InventoryProperties properties) {
+
+		this.entries = entries;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.inventory = inventory;
+		this.businessTime = businessTime;
+		this.filters = filters;
+		this.configuration = properties.getReservations();
+	}
+
+	/**
+	 * Reserves the quantities of all {@link org.salespointframework.order.CartItem}s of the given {@link Cart}.
+	 *
+	 * @param cart must not be {@literal null}.
+	 * @return the {@link Reservation} or {@link Optional#empty()} in case the stock of any of the products is
+	 *         insufficient.
+	 */
+	public Optional<Reservation> reserve(Cart cart) {
+
+		Assert.notNull(cart, "Cart must not be null!");
+
+		var quantities = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+		cart.forEach(it -> quantities.merge(it.getProduct().getId(), it.getQuantity(), Quantity::add));
+
+		return transactions.execute(__ -> reserve(new ReservationIdentifier(), null, quantities));
+	}
+
+	/**
+	 * Reserves the quantities of all {@link OrderLine}s of the given {@link Order} handled by the configured
+	 * {@link LineItemFilter}s. Replaces the {@link Reservation} already held by the {@link Order}, if any.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return the {@link Reservation} or {@link Optional#empty()} in case the stock of any of the products is
+	 *         insufficient. The {@link Reservation} already held by the {@link Order} is kept in that case.
+	 */
+	public Optional<Reservation> reserve(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		var quantities = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+		order.getOrderLines().stream() //
+				.filter(it -> LineItemFilter.shouldBeHandled(it, filters)) //
+				.forEach(it -> quantities.merge(it.getProductIdentifier(), it.getQuantity(), Quantity::add));
+
+		var identifier = byOrder.getOrDefault(order.getId(), new ReservationIdentifier());
+
+		return transactions.execute(__ -> reserve(identifier, order.getId(), quantities));
+	}
+
+	/**
+	 * Assigns the {@link Reservation} with the given identifier, usually made for a {@link Cart}, to the given
+	 * {@link Order}, so that it's consumed on the {@link Order}'s completion. Releases the {@link Reservation} the
+	 * {@link Order} held before, if any.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @param order must not be {@literal null}.
+	 * @return the assigned {@link Reservation} or {@link Optional#empty()} if no active {@link Reservation} exists for
+	 *         the given identifier.
+	 */
+	public Optional<Reservation> assign(ReservationIdentifier identifier, Order order) {
+
+		Assert.notNull(identifier, "Reservation identifier must not be null!");
+		Assert.notNull(order, "Order must not be null!");
+
+		return transactions.execute(__ -> findActive(identifier).map(it -> {
+
+			findFor(order) //
+					.filter(existing -> !existing.getId().equals(identifier)) //
+					.ifPresent(this::release);
+
+			var assigned = it.assignedTo(order.getId());
+
+			entries.assign(identifier, order.getId());
+			afterCommit(() -> replace(it, assigned));
+
+			return assigned;
+		}));
+	}
+
+	/**
+	 * Extends the {@link Reservation} with the given identifier by the configured TTL, starting now.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return the extended {@link Reservation} or {@link Optional#empty()} if no active {@link Reservation} exists for
+	 *         the given identifier.
+	 */
+	public Optional<Reservation> extend(ReservationIdentifier identifier) {
+
+		Assert.notNull(identifier, "Reservation identifier must not be null!");
+
+		return transactions.execute(__ -> findActive(identifier).map(it -> {
+
+			var extended = it.expiringAt(businessTime.getTime().plus(configuration.getTtl()));
+
+			entries.updateExpiry(identifier, extended.getExpires());
+			afterCommit(() -> replace(it, extended));
+
+			return extended;
+		}));
+	}
+
+	/**
+	 * Releases the given {@link Reservation}, i.e. makes the quantities reserved by it available again.
+	 *
+	 * @param reservation must not be {@literal null}.
+	 */
+	public void release(Reservation reservation) {
+
+		Assert.notNull(reservation, "Reservation must not be null!");
+
+		entries.deleteByReservation(reservation.getId());
+		afterCommit(() -> remove(reservation));
+	}
+
+	/**
+	 * Returns the active {@link Reservation} with the given identifier.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<Reservation> findActive(ReservationIdentifier identifier) {
+
+		Assert.notNull(identifier, "Reservation identifier must not be null!");
+
+		var now = businessTime.getTime();
+
+		return Optional.ofNullable(reservations.get(identifier)) //
+				.filter(it -> it.isActiveAt(now));
+	}
+
+	/**
+	 * Returns the active {@link Reservation} held by the given {@link Order}.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<Reservation> findFor(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+
+		return Optional.ofNullable(byOrder.get(order.getId())) //
+				.flatMap(this::findActive);
+	}
+
+	/**
+	 * Returns the {@link Quantity} of the product with the given {@link ProductIdentifier} currently held back by active
+	 * {@link Reservation}s.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public Quantity getReserved(ProductIdentifier product) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+
+		return getReserved(product, null, businessTime.getTime());
+	}
+
+	/**
+	 * Returns the {@link Quantity} of the product with the given {@link ProductIdentifier} held back by active
+	 * {@link Reservation}s other than the given one.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param reservation the {@link Reservation} to exclude, can be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Quantity getReservedByOthers(ProductIdentifier product, @Nullable Reservation reservation) {
+		return getReserved(product, reservation == null ? null : reservation.getId(), businessTime.getTime());
+	}
+
+	/**
+	 * Removes all expired {@link Reservation}s.
+	 *
+	 * @return the number of reserved products removed.
+	 */
+	public int expire() {
+
+		var now = businessTime.getTime();
+		var removed = entries.deleteExpired(now);
+
+		reservations.values().stream() //
+				.filter(it -> !it.isActiveAt(now)) //
+				.forEach(this::remove);
+
+		return removed;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		entries.findByExpiresAfter(businessTime.getTime()).stream() //
+				.collect(Collectors.groupingBy(ReservationEntry::getReservation)) //
+				.forEach((identifier, entries) -> add(toReservation(identifier, entries)));
+
+		LOGGER.debug("Loaded {} active reservations.", reservations.size());
+
+		this.running = true;
+
+		if (!configuration.isScheduled()) {
+			return;
+		}
+
+		var interval = configuration.getExpiryInterval().toMillis();
+
+		this.scheduler = Executors
+				.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-stock-reservations-"));
+		this.scheduler.scheduleWithFixedDelay(this::expireSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+
+		this.running = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	/**
+	 * Reserves the given quantities under the given {@link ReservationIdentifier}, replacing the {@link Reservation}
+	 * already registered for it. The stock of all products involved is verified while holding the locks for all of
+	 * them, so that concurrent {@link Reservation}s can't exceed the stock.
+	 *
+	 * @param identifier must not be {@literal null}.
+	 * @param order can be {@literal null}.
+	 * @param requested must not be {@literal null}.
+	 * @return
+	 */
+	private Optional<Reservation> reserve(ReservationIdentifier identifier, @Nullable OrderIdentifier order,
+			Map<ProductIdentifier, Quantity> requested) {
+
+		var previous = reservations.get(identifier);
+		var products = new HashSet<>(requested.keySet());
+
+		if (previous != null) {
+			products.addAll(previous.getQuantities().keySet());
+		}
+
+		var locked = lock(products);
+
+		try {
+
+			var now = businessTime.getTime();
+			var stock = inventory.findByProductIdentifierIn(requested.keySet()).stream() //
+					.collect(Collectors.toMap(it -> it.getProduct().getId(), InventoryItem::getQuantity));
+
+			var quantities = new LinkedHashMap<ProductIdentifier, Quantity>();
+
+			for (var entry : requested.entrySet()) {
+
+				var product = entry.getKey();
+				var available = stock.get(product);
+
+				if (available == null) {
+					continue;
+				}
+
+				if (available.subtract(getReserved(product, identifier, now)).isLessThan(entry.getValue())) {
+					return Optional.empty();
+				}
+
+				quantities.put(product, entry.getValue());
+			}
+
+			var reservation = new Reservation(identifier, order, now.plus(configuration.getTtl()), quantities);
+
+			if (previous != null) {
+				entries.deleteByReservation(identifier);
+			}
+
+			entries.saveAll(ReservationEntry.of(reservation));
+
+			replace(previous, reservation);
+			afterRollback(() -> replace(reservation, previous));
+
+			return Optional.of(reservation);
+
+		} finally {
+			locked.forEach(ReentrantLock::unlock);
+		}
+	}
+
+	private Quantity getReserved(ProductIdentifier product, @Nullable ReservationIdentifier excluded,
+			LocalDateTime now) {
+
+		return byProduct.getOrDefault(product, Set.of()).stream() //
+				.filter(it -> !it.equals(excluded)) //
+				.map(reservations::get) //
+				.filter(Objects::nonNull) //
+				.filter(it -> it.isActiveAt(now)) //
+				.map(it -> it.getQuantity(product)) //
+				.reduce(Quantity.NONE, Quantity::add);
+	}
+
+	/**
+	 * Replaces the given {@link Reservation} with the given new one in the index.
+	 *
+	 * @param current the {@link Reservation} to remove, can be {@literal null}.
+	 * @param replacement the {@link Reservation} to add, can be {@literal null}.
+	 */
+	private void replace(@Nullable Reservation current, @Nullable Reservation replacement) {
+
+		if (current != null) {
+			remove(current);
+		}
+
+		if (replacement != null) {
+			add(replacement);
+		}
+	}
+
+	private void add(Reservation reservation) {
+
+		var products = reservation.getQuantities().keySet();
+		var locked = lock(products);
+
+		try {
+
+			var identifier = reservation.getId();
+
+			reservations.put(identifier, reservation);
+			products.forEach(it -> byProduct.computeIfAbsent(it, __ -> ConcurrentHashMap.newKeySet()).add(identifier));
+			reservation.getOrder().ifPresent(it -> byOrder.put(it, identifier));
+
+		} finally {
+			locked.forEach(ReentrantLock::unlock);
+		}
+	}
+
+	private void remove(Reservation reservation) {
+
+		var products = reservation.getQuantities().keySet();
+		var locked = lock(products);
+
+		try {
+
+			var identifier = reservation.getId();
+
+			if (!reservations.remove(identifier, reservation)) {
+				return;
+			}
+
+			products.forEach(it -> byProduct.computeIfPresent(it, (__, identifiers) -> {
+
+				identifiers.remove(identifier);
+
+				return identifiers.isEmpty() ? null : identifiers;
+			}));
+
+			reservation.getOrder().ifPresent(it -> byOrder.remove(it, identifier));
+
+		} finally {
+			locked.forEach(ReentrantLock::unlock);
+		}
+	}
+
+	/**
+	 * Acquires the locks for all given products in a stable order to prevent deadlocks between concurrent
+	 * {@link Reservation}s.
+	 *
+	 * @param products must not be {@literal null}.
+	 * @return the locks acquired.
+	 */
+	private List<ReentrantLock> lock(Collection<ProductIdentifier> products) {
+
+		var result = products.stream() //
+				.sorted(Comparator.comparing(ProductIdentifier::getIdentifier)) //
+				.map(it -> locks.computeIfAbsent(it, __ -> new ReentrantLock())) //
+				.collect(Collectors.toList());
+
+		result.forEach(ReentrantLock::lock);
+
+		return result;
+	}
+
+	private void expireSafely() {
+
+		try {
+
+			var removed = expire();
+
+			LOGGER.debug("Removed {} expired reservation entries.", removed);
+
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to remove expired reservations!", o_O);
+		}
+	}
+
+	private static Reservation toReservation(ReservationIdentifier identifier, List<ReservationEntry> entries) {
+
+		var first = entries.get(0);
+		var quantities = entries.stream() //
+				.collect(Collectors.toMap(ReservationEntry::getProduct, ReservationEntry::getQuantity, Quantity::add,
+						LinkedHashMap::new));
+
+		return new Reservation(identifier, first.getOrder(), first.getExpires(), quantities);
+	}
+
+	/**
+	 * Runs the given callback after the current transaction has been committed or immediately, if no transaction is
+	 * active. Used to only make changes visible in the index once they're persisted.
+	 *
+	 * @param callback must not be {@literal null}.
+	 */
+	private static void afterCommit(Runnable callback) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			callback.run();
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				callback.run();
+			}
+		});
+	}
+
+	/**
+	 * Runs the given callback in case the current transaction is rolled back.
+	 *
+	 * @param callback must not be {@literal null}.
+	 */
+	private static void afterRollback(Runnable callback) {
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCompletion(int status) {
+
+				if (status == STATUS_ROLLED_BACK) {
+					callback.run();
+				}
+			}
+		});
+	}
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+
+import org.salespointframework.quantity.Metric;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.util.Assert;
+
+/**
+ * A part of the stock of a sharded {@link UniqueInventoryItem}. The item's quantity is the sum of its own quantity and
+ * the quantities of all of its shards.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see StockShards
+ */
+@Entity
+@Getter
+@Table(name = "INVENTORY_STOCK_SHARD",
+		uniqueConstraints = @UniqueConstraint(name = "INVENTORY_STOCK_SHARD_ITEM_UK", columnNames = { "ITEM_ID", "SHARD" }))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class StockShard {
+
+	private @Id @GeneratedValue Long id;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "ITEM_ID", nullable = false)) //
+	private final InventoryItemIdentifier item;
+
+	@Column(name = "SHARD") //
+	private final int shard;
+
+	private final Quantity quantity;
+
+	StockShard(InventoryItemIdentifier item, int shard, Quantity quantity) {
+
+		Assert.notNull(item, "Inventory item identifier must not be null!");
+		Assert.isTrue(shard >= 0, "Shard must not be negative!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		this.item = item;
+		this.shard = shard;
+		this.quantity = quantity;
+	}
+
+	/**
+	 * Creates a {@link Quantity} for the given raw amount as read from the shards table.
+	 *
+	 * @param amount must not be {@literal null}.
+	 * @param metric must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static Quantity toQuantity(BigDecimal amount, Metric metric) {
+
+		return Metric.UNIT.equals(metric) //
+				? Quantity.of(amount.longValue(), metric)
+				: Quantity.of(amount.doubleValue(), metric);
+	}
+}
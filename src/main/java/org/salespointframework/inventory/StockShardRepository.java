@@ -0,0 +1,132 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import javax.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.lang.Nullable;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link StockShard}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface StockShardRepository extends CrudRepository<StockShard, Long> {
+
+	/**
+	 * Returns the amounts currently kept in the {@link StockShard}s of the {@link UniqueInventoryItem} with the given
+	 * identifier. Reads the database directly, i.e. is not affected by {@link StockShard}s already loaded.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select s.shard as shard, s.quantity.amount as amount from StockShard s where s.item = ?1")
+	List<ShardAmount> findAmounts(InventoryItemIdentifier item);
+
+	/**
+	 * Returns the amounts currently kept in the {@link StockShard}s of the {@link UniqueInventoryItem} with the given
+	 * identifier, locking the {@link StockShard}s for the current transaction.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s.shard as shard, s.quantity.amount as amount from StockShard s where s.item = ?1 order by s.shard")
+	List<ShardAmount> findAmountsForUpdate(InventoryItemIdentifier item);
+
+	/**
+	 * Returns all {@link StockShard}s of the {@link UniqueInventoryItem} with the given identifier, locking them for the
+	 * current transaction.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select s from StockShard s where s.item = ?1 order by s.shard")
+	List<StockShard> findForUpdate(InventoryItemIdentifier item);
+
+	/**
+	 * Decreases the given shard of the {@link UniqueInventoryItem} with the given identifier by the given amount, if and
+	 * only if the shard holds at least that amount.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param shard the index of the shard.
+	 * @param amount must not be {@literal null}.
+	 * @return the number of shards updated, i.e. {@literal 1} in case the shard was decreased, {@literal 0} otherwise.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update StockShard s set s.quantity.amount = s.quantity.amount - ?3" //
+			+ " where s.item = ?1 and s.shard = ?2 and s.quantity.amount >= ?3")
+	int decreaseIfAvailable(InventoryItemIdentifier item, int shard, BigDecimal amount);
+
+	/**
+	 * Returns the amount currently kept in the given shard of the {@link UniqueInventoryItem} with the given identifier.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param shard the index of the shard.
+	 * @return the amount or {@literal null} in case no such shard exists.
+	 */
+	@Nullable
+	@Query("select s.quantity.amount from StockShard s where s.item = ?1 and s.shard = ?2")
+	BigDecimal findAmount(InventoryItemIdentifier item, int shard);
+
+	/**
+	 * Increases the given shard of the {@link UniqueInventoryItem} with the given identifier by the given amount.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param shard the index of the shard.
+	 * @param amount must not be {@literal null}.
+	 * @return the number of shards updated.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update StockShard s set s.quantity.amount = s.quantity.amount + ?3 where s.item = ?1 and s.shard = ?2")
+	int increase(InventoryItemIdentifier item, int shard, BigDecimal amount);
+
+	/**
+	 * Deletes all {@link StockShard}s of the {@link UniqueInventoryItem} with the given identifier.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return the number of shards deleted.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("delete from StockShard s where s.item = ?1")
+	int deleteByItem(InventoryItemIdentifier item);
+
+	/**
+	 * The amount kept in a single {@link StockShard}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface ShardAmount {
+
+		int getShard();
+
+		BigDecimal getAmount();
+	}
+}
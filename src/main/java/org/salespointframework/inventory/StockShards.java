@@ -0,0 +1,292 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.LinkedHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.LockModeType;
+
+import org.salespointframework.inventory.InventoryEvents.ShardedQuantityChanged;
+import org.salespointframework.inventory.StockShardRepository.ShardAmount;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
+
+/**
+ * Spreads the stock of a {@link UniqueInventoryItem} across multiple {@link StockShard}s, so that concurrent decreases
+ * of its stock, e.g. on the completion of {@link org.salespointframework.order.Order}s, are distributed across
+ * multiple rows instead of all contending for the row of the item. Meant to be used for individual products selling at
+ * very high rates only, as calculating the quantity of a sharded item requires summing up its shards.
+ * <p>
+ * While sharded, the entire stock of an item is kept in its shards. A decrease picks a random shard holding sufficient
+ * stock according to a non-locking read and decreases it with a single-statement update guarded by the amount of that
+ * shard only. If no single shard holds the quantity requested or the shard picked was drained concurrently, the
+ * quantity is borrowed from the other shards. To prevent deadlocks between concurrent decreases, shards are always
+ * borrowed from by ascending index. Decreases that cannot be fulfilled according to the initial read are rejected
+ * without touching any row. If quantities are held back by {@link Reservation}s, the initial read locks the shards of
+ * the item, so that the decrease is serialized with all other ones of the item and the reserved quantity is
+ * guaranteed to be left. Increases, e.g. on the cancellation of an {@link org.salespointframework.order.Order}, are
+ * added to a random shard.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see UniqueInventoryItem#isSharded()
+ */
+@Service
+@RequiredArgsConstructor
+public class StockShards {
+
+	private final @NonNull StockShardRepository shards;
+	private final @NonNull UniqueInventory<UniqueInventoryItem> inventory;
+	private final @NonNull EntityManager em;
+
+	/**
+	 * Spreads the current stock of the given {@link UniqueInventoryItem} evenly across the given number of shards.
+	 * Re-distributes the stock in case the item is already sharded.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param numberOfShards must be greater than one.
+	 * @return the sharded {@link UniqueInventoryItem}.
+	 */
+	@Transactional
+	public UniqueInventoryItem shard(UniqueInventoryItem item, int numberOfShards) {
+
+		Assert.notNull(item, "Inventory item must not be null!");
+		Assert.isTrue(numberOfShards > 1, "Number of shards must be greater than one!");
+
+		var locked = lock(item);
+		var total = locked.getQuantity();
+		var amount = total.getAmount();
+		var share = amount.divide(BigDecimal.valueOf(numberOfShards), amount.scale(), RoundingMode.DOWN);
+		var remainder = amount.subtract(share.multiply(BigDecimal.valueOf(numberOfShards)));
+
+		shards.deleteByItem(locked.getId());
+		shards.saveAll(IntStream.range(0, numberOfShards) //
+				.mapToObj(it -> new StockShard(locked.getId(), it,
+						StockShard.toQuantity(it == 0 ? share.add(remainder) : share, total.getMetric()))) //
+				.collect(Collectors.toList()));
+
+		locked.setOwnQuantity(total.toZero());
+		locked.setShards(numberOfShards);
+
+		return refresh(inventory.save(locked));
+	}
+
+	/**
+	 * Moves the stock kept in the shards of the given {@link UniqueInventoryItem} back into the item and removes the
+	 * shards.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return the {@link UniqueInventoryItem} no longer sharded.
+	 */
+	@Transactional
+	public UniqueInventoryItem unshard(UniqueInventoryItem item) {
+
+		Assert.notNull(item, "Inventory item must not be null!");
+
+		var locked = lock(item);
+
+		locked.setOwnQuantity(locked.getQuantity());
+		locked.setShards(0);
+
+		shards.deleteByItem(locked.getId());
+
+		return refresh(inventory.save(locked));
+	}
+
+	/**
+	 * Decreases the stock of the given sharded {@link UniqueInventoryItem} by the given {@link Quantity}, if and only if
+	 * at least the given retained {@link Quantity} is still available afterwards. Note that the change is applied to the
+	 * database directly, i.e. the given {@link UniqueInventoryItem} doesn't reflect it.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @param retained must not be {@literal null}.
+	 * @return whether the stock was decreased.
+	 */
+	boolean decreaseIfAvailable(UniqueInventoryItem item, Quantity quantity, Quantity retained) {
+
+		Assert.isTrue(item.isSharded(), "Inventory item must be sharded!");
+
+		var current = retained.isZeroOrNegative() //
+				? shards.findAmounts(item.getId()) //
+				: shards.findAmountsForUpdate(item.getId());
+
+		var amount = quantity.getAmount();
+		var available = current.stream() //
+				.map(ShardAmount::getAmount) //
+				.reduce(BigDecimal.ZERO, BigDecimal::add);
+
+		if (available.compareTo(amount.add(retained.getAmount())) < 0) {
+			return false;
+		}
+
+		var candidates = current.stream() //
+				.filter(it -> it.getAmount().compareTo(amount) >= 0) //
+				.collect(Collectors.toList());
+
+		if (candidates.isEmpty()) {
+			return borrow(item, amount);
+		}
+
+		var shard = candidates.get(ThreadLocalRandom.current().nextInt(candidates.size())).getShard();
+
+		return shards.decreaseIfAvailable(item.getId(), shard, amount) == 1 || borrow(item, amount);
+	}
+
+	/**
+	 * Increases the stock of the given sharded {@link UniqueInventoryItem} by the given {@link Quantity}, adding it to a
+	 * random shard. Note that the change is applied to the database directly, i.e. the given {@link UniqueInventoryItem}
+	 * doesn't reflect it.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 */
+	void increase(UniqueInventoryItem item, Quantity quantity) {
+
+		Assert.isTrue(item.isSharded(), "Inventory item must be sharded!");
+
+		var shard = ThreadLocalRandom.current().nextInt(item.getShards());
+
+		shards.increase(item.getId(), shard, quantity.getAmount());
+	}
+
+	/**
+	 * Applies changes of the quantity of sharded {@link UniqueInventoryItem}s made through
+	 * {@link InventoryItem#increaseQuantity(Quantity)} and {@link InventoryItem#decreaseQuantity(Quantity)} to their
+	 * shards.
+	 *
+	 * @param event must not be {@literal null}.
+	 */
+	@EventListener
+	void on(ShardedQuantityChanged event) {
+
+		var item = event.getItem();
+		var quantity = event.getQuantity();
+
+		if (!quantity.isNegative()) {
+			increase(item, quantity);
+			return;
+		}
+
+		Assert.state(decreaseIfAvailable(item, quantity.times(-1), quantity.toZero()),
+				() -> String.format("Insufficient quantity to reduce %s by %s!", item, quantity.times(-1)));
+	}
+
+	/**
+	 * Collects the given amount from the shards of the given {@link UniqueInventoryItem} in ascending order of their
+	 * index. Reverts the decreases already applied in case the amount cannot be collected completely.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @return whether the stock was decreased.
+	 */
+	private boolean borrow(UniqueInventoryItem item, BigDecimal amount) {
+
+		var taken = new LinkedHashMap<Integer, BigDecimal>();
+		var remaining = amount;
+
+		for (int shard = 0; shard < item.getShards() && remaining.signum() > 0; shard++) {
+
+			var decreased = take(item, shard, remaining);
+
+			if (decreased.signum() > 0) {
+				taken.put(shard, decreased);
+				remaining = remaining.subtract(decreased);
+			}
+		}
+
+		if (remaining.signum() == 0) {
+			return true;
+		}
+
+		taken.forEach((shard, decreased) -> shards.increase(item.getId(), shard, decreased));
+
+		return false;
+	}
+
+	/**
+	 * Takes as much as possible of the given amount from the given shard. Re-reads the shard once in case a concurrent
+	 * decrease changed it in between.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @param shard the index of the shard.
+	 * @param requested must not be {@literal null}.
+	 * @return the amount taken.
+	 */
+	private BigDecimal take(UniqueInventoryItem item, int shard, BigDecimal requested) {
+
+		for (int attempt = 0; attempt < 2; attempt++) {
+
+			var available = shards.findAmount(item.getId(), shard);
+			var amount = available == null ? BigDecimal.ZERO : requested.min(available);
+
+			if (amount.signum() <= 0) {
+				return BigDecimal.ZERO;
+			}
+
+			if (shards.decreaseIfAvailable(item.getId(), shard, amount) == 1) {
+				return amount;
+			}
+		}
+
+		return BigDecimal.ZERO;
+	}
+
+	/**
+	 * Locks all shards of the given {@link UniqueInventoryItem} and the item itself, in that order, and re-reads the
+	 * item from the database.
+	 *
+	 * @param item must not be {@literal null}.
+	 * @return the locked item.
+	 */
+	private UniqueInventoryItem lock(UniqueInventoryItem item) {
+
+		shards.findForUpdate(item.getId()).forEach(em::detach);
+
+		if (em.contains(item)) {
+
+			em.refresh(item, LockModeType.PESSIMISTIC_WRITE);
+
+			return item;
+		}
+
+		var result = em.find(UniqueInventoryItem.class, item.getId(), LockModeType.PESSIMISTIC_WRITE);
+
+		Assert.state(result != null, () -> String.format("Inventory item %s not found!", item.getId()));
+
+		return result;
+	}
+
+	private UniqueInventoryItem refresh(UniqueInventoryItem item) {
+
+		em.flush();
+		em.refresh(item);
+
+		return item;
+	}
+}
@@ -0,0 +1,238 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.inventory.InventoryEvents.StockShort;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+/**
+ * Coalesces {@link StockShort} events so that at most one of them is published per product within the window
+ * configured via {@code salespoint.inventory.stock-short-window}. The first {@link StockShort} for a product is
+ * published right away and opens a window. The ones submitted while the window is open are suppressed, except for the
+ * latest one, which is published at the end of the window and opens the next one. All events are published
+ * asynchronously once the transaction causing them has been committed.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see InventoryProperties#getStockShortWindow()
+ */
+@Service
+public class StockShortNotifications implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StockShortNotifications.class);
+
+	private final ApplicationEventPublisher events;
+	private final Duration window;
+	private final Map<ProductIdentifier, Window> windows = new ConcurrentHashMap<>();
+	private final Map<ProductIdentifier, AtomicLong> suppressed = new ConcurrentHashMap<>();
+
+	private @Nullable ScheduledExecutorService executor;
+
+	StockShortNotifications(ApplicationEventPublisher events, InventoryProperties properties) {
+
+		this.events = events;
+		this.window = properties.getStockShortWindow();
+	}
+
+	/**
+	 * Returns the total number of {@link StockShort}s suppressed so far.
+	 *
+	 * @return
+	 */
+	public long getSuppressed() {
+		return suppressed.values().stream().mapToLong(AtomicLong::get).sum();
+	}
+
+	/**
+	 * Returns the number of {@link StockShort}s suppressed so far for the product with the given
+	 * {@link ProductIdentifier}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return
+	 */
+	public long getSuppressed(ProductIdentifier product) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+
+		var counter = suppressed.get(product);
+
+		return counter == null ? 0 : counter.get();
+	}
+
+	/**
+	 * Whether {@link StockShort}s are supposed to be coalesced at all.
+	 *
+	 * @return
+	 */
+	boolean isCoalescing() {
+		return !window.isZero();
+	}
+
+	/**
+	 * Submits the given {@link StockShort} for publication once the current transaction has been committed.
+	 *
+	 * @param event must not be {@literal null}.
+	 */
+	void submit(StockShort event) {
+
+		Assert.notNull(event, "StockShort must not be null!");
+
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			coalesce(event);
+			return;
+		}
+
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+
+			@Override
+			public void afterCommit() {
+				coalesce(event);
+			}
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (executor != null || !isCoalescing()) {
+			return;
+		}
+
+		this.executor = Executors
+				.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-stock-short-"));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (executor != null) {
+			executor.shutdown();
+			this.executor = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return executor != null;
+	}
+
+	private void coalesce(StockShort event) {
+
+		var product = event.getProductId();
+		var opened = new AtomicBoolean();
+
+		windows.compute(product, (__, current) -> {
+
+			if (current == null) {
+
+				opened.set(true);
+
+				return new Window();
+			}
+
+			if (current.pending.getAndSet(event) != null) {
+				suppressed.computeIfAbsent(product, ___ -> new AtomicLong()).incrementAndGet();
+			}
+
+			return current;
+		});
+
+		if (opened.get()) {
+			publishAndSchedule(product, event);
+		}
+	}
+
+	/**
+	 * Closes the window for the given product and publishes the {@link StockShort} submitted last while it was open, if
+	 * any, opening the next window.
+	 *
+	 * @param product must not be {@literal null}.
+	 */
+	private void close(ProductIdentifier product) {
+
+		var pending = new AtomicReference<StockShort>();
+
+		windows.computeIfPresent(product, (__, current) -> {
+
+			pending.set(current.pending.getAndSet(null));
+
+			return pending.get() == null ? null : current;
+		});
+
+		if (pending.get() != null) {
+			publishAndSchedule(product, pending.get());
+		}
+	}
+
+	private synchronized void publishAndSchedule(ProductIdentifier product, StockShort event) {
+
+		if (executor == null) {
+
+			windows.remove(product);
+			publish(event);
+
+			return;
+		}
+
+		executor.execute(() -> publish(event));
+		executor.schedule(() -> close(product), window.toMillis(), TimeUnit.MILLISECONDS);
+	}
+
+	private void publish(StockShort event) {
+
+		try {
+			events.publishEvent(event);
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to publish stock short for product {}!", event.getProductId(), o_O);
+		}
+	}
+
+	private static class Window {
+		private final AtomicReference<StockShort> pending = new AtomicReference<>();
+	}
+}
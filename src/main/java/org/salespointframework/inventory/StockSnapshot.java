@@ -0,0 +1,88 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Embedded;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.persistence.UniqueConstraint;
+import javax.persistence.Version;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.util.Assert;
+
+/**
+ * The stock of a product folding all {@link StockMovement}s of it marked as folded. Maintained by the compaction of the
+ * {@link StockLedger}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Entity
+@Getter(AccessLevel.PACKAGE)
+@Table(name = "INVENTORY_STOCK_SNAPSHOT",
+		uniqueConstraints = @UniqueConstraint(name = "INVENTORY_STOCK_SNAPSHOT_PRODUCT_UK", columnNames = "PRODUCT_ID"))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class StockSnapshot {
+
+	private @Id @GeneratedValue Long id;
+	private @Version Long version;
+
+	@Embedded //
+	@AttributeOverride(name = "id", column = @Column(name = "PRODUCT_ID", nullable = false)) //
+	private final ProductIdentifier product;
+
+	private Quantity quantity;
+	private LocalDateTime date;
+
+	StockSnapshot(ProductIdentifier product, Quantity quantity) {
+
+		Assert.notNull(product, "Product identifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		this.product = product;
+		this.quantity = quantity.toZero();
+	}
+
+	/**
+	 * Folds the given {@link Quantity} summed up from {@link StockMovement}s into the {@link StockSnapshot}.
+	 *
+	 * @param delta must not be {@literal null}.
+	 * @param date must not be {@literal null}.
+	 * @return the current instance.
+	 */
+	StockSnapshot fold(Quantity delta, LocalDateTime date) {
+
+		Assert.notNull(delta, "Quantity must not be null!");
+		Assert.notNull(date, "Date must not be null!");
+
+		this.quantity = quantity.add(delta);
+		this.date = date;
+
+		return this;
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import java.util.Collection;
+import java.util.Optional;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.data.util.Streamable;
+
+/**
+ * Repository for {@link StockSnapshot}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface StockSnapshotRepository extends CrudRepository<StockSnapshot, Long> {
+
+	/**
+	 * Returns the {@link StockSnapshot} of the given product.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select s from StockSnapshot s where s.product = ?1")
+	Optional<StockSnapshot> findByProduct(ProductIdentifier product);
+
+	/**
+	 * Returns the {@link StockSnapshot}s of all given products.
+	 *
+	 * @param products must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	@Query("select s from StockSnapshot s where s.product in ?1")
+	Streamable<StockSnapshot> findByProductIn(Collection<ProductIdentifier> products);
+}
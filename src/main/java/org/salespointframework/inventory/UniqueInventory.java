@@ -15,14 +15,23 @@
  */
 package org.salespointframework.inventory;
 
+import java.math.BigDecimal;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 
 import org.salespointframework.catalog.Product;
 import org.salespointframework.catalog.ProductIdentifier;
 import org.salespointframework.core.SalespointRepository;
 import org.salespointframework.order.Order;
+import org.salespointframework.quantity.Metric;
 import org.salespointframework.quantity.Quantity;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.util.Streamable;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.Assert;
 
 /**
  * A {@link UniqueInventory} manages {@link UniqueInventoryItem}s, i.e. only a single {@link InventoryItem} can exist
@@ -48,6 +57,51 @@ public interface UniqueInventory<T extends UniqueInventoryItem>
 	@Query("select i from #{#entityName} i where i.product.id = ?1")
 	Optional<T> findByProductIdentifier(ProductIdentifier productIdentifier);
 
+	/**
+	 * Returns the {@link InventoryItem}s for all given {@link ProductIdentifier}s, fetching their {@link Product}s in the
+	 * same query.
+	 *
+	 * @param productIdentifiers must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select i from #{#entityName} i join fetch i.product p where p.id in ?1")
+	Streamable<T> findByProductIdentifierIn(Collection<ProductIdentifier> productIdentifiers);
+
+	/**
+	 * Returns the subset of the given {@link ProductIdentifier}s for which a {@link UniqueInventoryItem} exists.
+	 *
+	 * @param productIdentifiers must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select i.product.id from #{#entityName} i where i.product.id in ?1")
+	Set<ProductIdentifier> findProductIdentifiersIn(Collection<ProductIdentifier> productIdentifiers);
+
+	/**
+	 * Returns the {@link Quantity} of the {@link UniqueInventoryItem}s for all given {@link ProductIdentifier}s,
+	 * including the quantities kept in their {@link StockShard}s, without loading the {@link UniqueInventoryItem}s.
+	 *
+	 * @param productIdentifiers must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select i.product.id as product, i.quantity.metric as metric, i.quantity.amount + coalesce(" //
+			+ "(select sum(s.quantity.amount) from StockShard s where s.item = i.inventoryItemIdentifier), 0) as amount" //
+			+ " from #{#entityName} i where i.product.id in ?1")
+	List<QuantitySum> findQuantitiesByProductIn(Collection<ProductIdentifier> productIdentifiers);
+
+	/**
+	 * Returns all {@link UniqueInventoryItem}s that are out of stock, considering the quantities kept in the
+	 * {@link StockShard}s of sharded items.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	@Override
+	@Query("select i from #{#entityName} i where i.quantity.amount <= 0 and not exists ("
+			+ "select s from StockShard s where s.item = i.inventoryItemIdentifier and s.quantity.amount > 0)")
+	Streamable<T> findItemsOutOfStock();
+
 	/**
 	 * Returns the {@link InventoryItem} for the given {@link Product}.
 	 *
@@ -57,4 +111,121 @@ public interface UniqueInventory<T extends UniqueInventoryItem>
 	default Optional<T> findByProduct(Product product) {
 		return findByProductIdentifier(product.getId());
 	}
+
+	/**
+	 * Decreases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given amount in a single statement, if and only if the item is available in at least that amount. Concurrent
+	 * decreases of the same {@link UniqueInventoryItem} can thus never result in a negative quantity. Prefer
+	 * {@link #decreaseQuantityIfAvailable(ProductIdentifier, Quantity)}.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @param metric must not be {@literal null}.
+	 * @return the number of {@link UniqueInventoryItem}s updated, i.e. {@literal 1} in case the quantity was decreased,
+	 *         {@literal 0} otherwise.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update #{#entityName} i set i.quantity.amount = i.quantity.amount - ?2" //
+			+ " where i.product.id = ?1 and i.quantity.metric = ?3 and i.quantity.amount >= ?2")
+	int decreaseQuantityIfAvailable(ProductIdentifier productIdentifier, BigDecimal amount, Metric metric);
+
+	/**
+	 * Decreases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given {@link Quantity} in a single statement, if and only if the item is available in at least that quantity.
+	 * Concurrent decreases of the same {@link UniqueInventoryItem} can thus never result in a negative quantity. Note
+	 * that the change is applied to the database directly, i.e. {@link UniqueInventoryItem} instances already loaded
+	 * don't reflect it.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @return whether the quantity was decreased.
+	 * @since 7.4
+	 */
+	default boolean decreaseQuantityIfAvailable(ProductIdentifier productIdentifier, Quantity quantity) {
+
+		Assert.notNull(productIdentifier, "ProductIdentifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		return decreaseQuantityIfAvailable(productIdentifier, quantity.getAmount(), quantity.getMetric()) == 1;
+	}
+
+	/**
+	 * Decreases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given amount in a single statement, if and only if the item is available in at least the given required amount.
+	 * Prefer {@link #decreaseQuantityIfAvailable(ProductIdentifier, Quantity, Quantity)}.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @param metric must not be {@literal null}.
+	 * @param required must not be {@literal null}.
+	 * @return the number of {@link UniqueInventoryItem}s updated, i.e. {@literal 1} in case the quantity was decreased,
+	 *         {@literal 0} otherwise.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update #{#entityName} i set i.quantity.amount = i.quantity.amount - ?2" //
+			+ " where i.product.id = ?1 and i.quantity.metric = ?3 and i.quantity.amount >= ?4")
+	int decreaseQuantityIfAvailable(ProductIdentifier productIdentifier, BigDecimal amount, Metric metric,
+			BigDecimal required);
+
+	/**
+	 * Decreases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given {@link Quantity} in a single statement, if and only if the given retained {@link Quantity} is still available
+	 * afterwards. Used to decrease stock without touching the quantities held back by {@link Reservation}s.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @param retained must not be {@literal null}.
+	 * @return whether the quantity was decreased.
+	 * @since 7.4
+	 * @see StockReservations
+	 */
+	default boolean decreaseQuantityIfAvailable(ProductIdentifier productIdentifier, Quantity quantity,
+			Quantity retained) {
+
+		Assert.notNull(productIdentifier, "ProductIdentifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+		Assert.notNull(retained, "Retained quantity must not be null!");
+
+		return decreaseQuantityIfAvailable(productIdentifier, quantity.getAmount(), quantity.getMetric(),
+				quantity.add(retained).getAmount()) == 1;
+	}
+
+	/**
+	 * Increases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given amount in a single statement. Prefer {@link #increaseQuantity(ProductIdentifier, Quantity)}.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @param metric must not be {@literal null}.
+	 * @return the number of {@link UniqueInventoryItem}s updated.
+	 * @since 7.4
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update #{#entityName} i set i.quantity.amount = i.quantity.amount + ?2" //
+			+ " where i.product.id = ?1 and i.quantity.metric = ?3")
+	int increaseQuantity(ProductIdentifier productIdentifier, BigDecimal amount, Metric metric);
+
+	/**
+	 * Increases the {@link Quantity} of the {@link UniqueInventoryItem} for the given {@link ProductIdentifier} by the
+	 * given {@link Quantity} in a single statement. Note that the change is applied to the database directly, i.e.
+	 * {@link UniqueInventoryItem} instances already loaded don't reflect it.
+	 *
+	 * @param productIdentifier must not be {@literal null}.
+	 * @param quantity must not be {@literal null}.
+	 * @return whether the quantity was increased, i.e. a {@link UniqueInventoryItem} exists for the given
+	 *         {@link ProductIdentifier}.
+	 * @since 7.4
+	 */
+	default boolean increaseQuantity(ProductIdentifier productIdentifier, Quantity quantity) {
+
+		Assert.notNull(productIdentifier, "ProductIdentifier must not be null!");
+		Assert.notNull(quantity, "Quantity must not be null!");
+
+		return increaseQuantity(productIdentifier, quantity.getAmount(), quantity.getMetric()) == 1;
+	}
 }
@@ -18,15 +18,24 @@ package org.salespointframework.inventory;
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
 
+import java.math.BigDecimal;
+
 import javax.persistence.Entity;
 import javax.persistence.JoinColumn;
 import javax.persistence.OneToOne;
 
+import org.hibernate.annotations.Formula;
 import org.salespointframework.catalog.Product;
+import org.salespointframework.inventory.InventoryEvents.ShardedQuantityChanged;
 import org.salespointframework.quantity.Quantity;
+import org.springframework.lang.Nullable;
 
 /**
- * An {@link InventoryItem} that requires a unique one-to-one relationship to a {@link Product} instance.
+ * An {@link InventoryItem} that requires a unique one-to-one relationship to a {@link Product} instance. For products
+ * selling at high rates, the stock can be spread across multiple shards via {@link StockShards#shard(UniqueInventoryItem,
+ * int)} so that concurrent {@link org.salespointframework.order.Order} completions don't all contend for the same row.
+ * {@link #getQuantity()} always reports the sum of the quantities kept in the item itself and its shards. The shards
+ * are only summed up when loading sharded items.
  *
  * @author Oliver Drotbohm
  * @since 7.2
@@ -39,6 +48,13 @@ public class UniqueInventoryItem extends InventoryItem<UniqueInventoryItem> {
 	@JoinColumn(unique = true) //
 	private Product product;
 
+	private int shards;
+
+	// Only evaluates the sum of the shards for sharded items
+	@Formula("(case when SHARDS > 0 then (select sum(s.QUANTITY_AMOUNT) from INVENTORY_STOCK_SHARD s" //
+			+ " where s.ITEM_ID = ITEM_ID) end)") //
+	private @Nullable BigDecimal shardedAmount;
+
 	/**
 	 * Creates a new {@link UniqueInventoryItem} for the given {@link Product} and {@link Quantity}.
 	 *
@@ -60,4 +76,60 @@ public class UniqueInventoryItem extends InventoryItem<UniqueInventoryItem> {
 	public Product getProduct() {
 		return this.product;
 	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.inventory.InventoryItem#getQuantity()
+	 */
+	@Override
+	public Quantity getQuantity() {
+
+		var quantity = super.getQuantity();
+
+		return shardedAmount == null //
+				? quantity
+				: quantity.add(StockShard.toQuantity(shardedAmount, quantity.getMetric()));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.inventory.InventoryItem#changeQuantity(org.salespointframework.quantity.Quantity)
+	 */
+	@Override
+	void changeQuantity(Quantity delta) {
+
+		if (!isSharded()) {
+			super.changeQuantity(delta);
+			return;
+		}
+
+		this.shardedAmount = (shardedAmount == null ? BigDecimal.ZERO : shardedAmount).add(delta.getAmount());
+
+		registerEvent(ShardedQuantityChanged.of(this, delta));
+	}
+
+	/**
+	 * Returns whether the stock of the item is spread across shards.
+	 *
+	 * @return
+	 * @since 7.4
+	 * @see StockShards
+	 */
+	public boolean isSharded() {
+		return shards > 0;
+	}
+
+	/**
+	 * Returns the number of shards the stock of the item is spread across, {@literal 0} if it's not sharded.
+	 *
+	 * @return
+	 * @since 7.4
+	 */
+	int getShards() {
+		return shards;
+	}
+
+	void setShards(int shards) {
+		this.shards = shards;
+	}
 }
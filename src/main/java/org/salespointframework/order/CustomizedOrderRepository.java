@@ -0,0 +1,43 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+/**
+ * Custom query methods for {@link OrderRepository} that cannot be expressed as declared queries.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface CustomizedOrderRepository<T extends Order> {
+
+	/**
+	 * Returns the {@link OrderWindow} for the given {@link OrderWindowRequest} using a keyset based lookup on the
+	 * creation date and identifier of the {@link Order}s.
+	 *
+	 * @param request must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	OrderWindow<T> findWindow(OrderWindowRequest request);
+
+	/**
+	 * Returns the window of {@link OrderSummary}s for the given {@link OrderWindowRequest} using the same lookup as
+	 * {@link #findWindow(OrderWindowRequest)}.
+	 *
+	 * @param request must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	OrderWindow<OrderSummary> findSummaries(OrderWindowRequest request);
+}
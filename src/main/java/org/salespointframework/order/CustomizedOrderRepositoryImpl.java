@@ -0,0 +1,195 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+import javax.persistence.EntityManager;
+
+import org.javamoney.moneta.Money;
+import org.salespointframework.catalog.ProductIdentifier;
+import org.springframework.util.Assert;
+
+import com.querydsl.core.BooleanBuilder;
+import com.querydsl.core.Tuple;
+import com.querydsl.core.types.Predicate;
+import com.querydsl.jpa.JPAExpressions;
+import com.querydsl.jpa.JPQLQuery;
+import com.querydsl.jpa.impl.JPAQuery;
+
+/**
+ * Querydsl based implementation of {@link CustomizedOrderRepository}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@RequiredArgsConstructor
+class CustomizedOrderRepositoryImpl<T extends Order> implements CustomizedOrderRepository<T> {
+
+	private static final String FETCH_GRAPH = "javax.persistence.fetchgraph";
+	private static final QOrder $ = QOrder.order;
+
+	private final @NonNull EntityManager em;
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.CustomizedOrderRepository#findWindow(org.salespointframework.order.OrderWindowRequest)
+	 */
+	@Override
+	@SuppressWarnings("unchecked")
+	public OrderWindow<T> findWindow(OrderWindowRequest request) {
+
+		Assert.notNull(request, "OrderWindowRequest must not be null!");
+
+		var orders = prepare(new JPAQuery<Order>(em).select($), request) //
+				.setHint(FETCH_GRAPH, em.getEntityGraph(Order.SUMMARY_GRAPH)) //
+				.fetch();
+
+		return OrderWindow.of((List<T>) orders, request, OrderCursor::of);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.CustomizedOrderRepository#findSummaries(org.salespointframework.order.OrderWindowRequest)
+	 */
+	@Override
+	public OrderWindow<OrderSummary> findSummaries(OrderWindowRequest request) {
+
+		Assert.notNull(request, "OrderWindowRequest must not be null!");
+
+		var tuples = prepare(new JPAQuery<Tuple>(em).select($.orderIdentifier, $.dateCreated, $.orderStatus,
+				$.userAccount.userAccountIdentifier, $.totalAmount, $.totalCurrency), request).fetch();
+
+		var legacyTotals = legacyTotalsOf(tuples);
+
+		var summaries = tuples.stream() //
+				.map(it -> new OrderSummary(it.get($.orderIdentifier), it.get($.dateCreated), it.get($.orderStatus),
+						it.get($.userAccount.userAccountIdentifier), totalOf(it, legacyTotals))) //
+				.collect(Collectors.toList());
+
+		return OrderWindow.of(summaries, request, OrderCursor::of);
+	}
+
+	/**
+	 * Computes the totals of the {@link Order}s represented by the given {@link Tuple}s that don't have a persisted
+	 * total, i.e. {@link Order}s persisted before the total was stored alongside the {@link Order}. Loads all of them
+	 * in a single query and calculates the totals from their lines without writing them back.
+	 *
+	 * @param tuples must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	private Map<OrderIdentifier, MonetaryAmount> legacyTotalsOf(List<Tuple> tuples) {
+
+		var identifiers = tuples.stream() //
+				.filter(it -> it.get($.totalAmount) == null || it.get($.totalCurrency) == null) //
+				.map(it -> it.get($.orderIdentifier)) //
+				.collect(Collectors.toList());
+
+		if (identifiers.isEmpty()) {
+			return Collections.emptyMap();
+		}
+
+		return new JPAQuery<Order>(em).select($) //
+				.from($) //
+				.where($.orderIdentifier.in(identifiers)) //
+				.fetch().stream() //
+				.collect(Collectors.toMap(Order::getId,
+						it -> it.getOrderLines().getTotal().add(it.getAllChargeLines().getTotal())));
+	}
+
+	private static MonetaryAmount totalOf(Tuple tuple, Map<OrderIdentifier, MonetaryAmount> legacyTotals) {
+
+		var amount = tuple.get($.totalAmount);
+		var currency = tuple.get($.totalCurrency);
+
+		return amount == null || currency == null //
+				? legacyTotals.get(tuple.get($.orderIdentifier)) //
+				: Money.of(amount, Monetary.getCurrency(currency));
+	}
+
+	/**
+	 * Applies the criteria, ordering and size of the given {@link OrderWindowRequest} to the given {@link JPAQuery}.
+	 *
+	 * @param query must not be {@literal null}.
+	 * @param request must not be {@literal null}.
+	 * @return
+	 */
+	private static <S> JPAQuery<S> prepare(JPAQuery<S> query, OrderWindowRequest request) {
+
+		var predicate = new BooleanBuilder();
+
+		if (!request.getStatus().isEmpty()) {
+			predicate.and($.orderStatus.in(request.getStatus()));
+		}
+
+		request.getUserAccount().ifPresent(it -> predicate.and($.userAccount.eq(it)));
+		request.getInterval().ifPresent(it -> predicate.and($.dateCreated.between(it.getStart(), it.getEnd())));
+		request.getProduct().ifPresent(it -> predicate.and($.orderIdentifier.id.in(ordersContaining(it))));
+		request.getMinimumTotal().ifPresent(it -> predicate.and(hasCurrencyOf(it)).and($.totalAmount.goe(amountOf(it))));
+		request.getMaximumTotal().ifPresent(it -> predicate.and(hasCurrencyOf(it)).and($.totalAmount.loe(amountOf(it))));
+
+		var newestFirst = request.isNewestFirst();
+
+		request.getCursor().ifPresent(it -> predicate.and(newestFirst //
+				? $.dateCreated.lt(it.getDateCreated()).or($.dateCreated.eq(it.getDateCreated()) //
+						.and($.orderIdentifier.id.lt(it.getOrderIdentifier().getIdentifier()))) //
+				: $.dateCreated.gt(it.getDateCreated()).or($.dateCreated.eq(it.getDateCreated()) //
+						.and($.orderIdentifier.id.gt(it.getOrderIdentifier().getIdentifier())))));
+
+		query = query.from($) //
+				.where(predicate) //
+				.orderBy(newestFirst ? $.dateCreated.desc() : $.dateCreated.asc(),
+						newestFirst ? $.orderIdentifier.id.desc() : $.orderIdentifier.id.asc());
+
+		return request.isPaged() ? query.limit(request.getSize() + 1) : query;
+	}
+
+	private static Predicate hasCurrencyOf(MonetaryAmount amount) {
+		return $.totalCurrency.eq(amount.getCurrency().getCurrencyCode());
+	}
+
+	private static BigDecimal amountOf(MonetaryAmount amount) {
+		return amount.getNumber().numberValueExact(BigDecimal.class);
+	}
+
+	/**
+	 * Returns a sub-query for the identifiers of all {@link Order}s containing an {@link OrderLine} for the given
+	 * {@link ProductIdentifier}. Joins the {@link Order}s with their lines and restricts the latter by product
+	 * identifier, so that the database can select the matching {@link OrderLine}s via the index on it.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return
+	 */
+	private static JPQLQuery<String> ordersContaining(ProductIdentifier product) {
+
+		var order = new QOrder("containing");
+		var line = QOrderLine.orderLine;
+
+		return JPAExpressions.select(order.orderIdentifier.id) //
+				.from(order) //
+				.join(order.orderLines, line) //
+				.where(line.productIdentifier.id.eq(product.getIdentifier()));
+	}
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import org.salespointframework.order.OrderOutboxEntry.Status;
+import org.springframework.data.domain.Pageable;
+import org.springframework.util.Assert;
+
+/**
+ * {@link OrderOutboxEntries} keeping the entries in memory. The entries are neither persistent nor written
+ * transactionally, which makes this implementation only suitable for tests.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+class InMemoryOrderOutboxEntries implements OrderOutboxEntries {
+
+	private final Map<Long, OrderOutboxEntry> entries = new ConcurrentSkipListMap<>();
+	private final AtomicLong sequence = new AtomicLong();
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderOutboxEntries#save(org.salespointframework.order.OrderOutboxEntry)
+	 */
+	@Override
+	public <S extends OrderOutboxEntry> S save(S entry) {
+
+		Assert.notNull(entry, "Entry must not be null!");
+
+		if (entry.getId() == null) {
+			entry.setId(sequence.incrementAndGet());
+		}
+
+		entries.put(entry.getId(), entry);
+
+		return entry;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderOutboxEntries#findById(java.lang.Long)
+	 */
+	@Override
+	public Optional<OrderOutboxEntry> findById(Long id) {
+		return Optional.ofNullable(entries.get(id));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderOutboxEntries#findByStatusOrderByIdAsc(org.salespointframework.order.OrderOutboxEntry.Status, org.springframework.data.domain.Pageable)
+	 */
+	@Override
+	public List<OrderOutboxEntry> findByStatusOrderByIdAsc(Status status, Pageable pageable) {
+
+		return entries.values().stream() //
+				.filter(it -> it.getStatus() == status) //
+				.skip(pageable.isPaged() ? pageable.getOffset() : 0) //
+				.limit(pageable.isPaged() ? pageable.getPageSize() : Long.MAX_VALUE) //
+				.collect(Collectors.toList());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderOutboxEntries#findFirstByStatusOrderByIdAsc(org.salespointframework.order.OrderOutboxEntry.Status)
+	 */
+	@Override
+	public Optional<OrderOutboxEntry> findFirstByStatusOrderByIdAsc(Status status) {
+
+		return entries.values().stream() //
+				.filter(it -> it.getStatus() == status) //
+				.findFirst();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderOutboxEntries#countByStatus(org.salespointframework.order.OrderOutboxEntry.Status)
+	 */
+	@Override
+	public long countByStatus(Status status) {
+
+		return entries.values().stream() //
+				.filter(it -> it.getStatus() == status) //
+				.count();
+	}
+}
@@ -21,15 +21,27 @@ import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import javax.money.Monetary;
 import javax.money.MonetaryAmount;
 import javax.persistence.*;
 
+import org.hibernate.annotations.BatchSize;
+import org.javamoney.moneta.Money;
 import org.salespointframework.catalog.Product;
+import org.salespointframework.catalog.ProductIdentifier;
 import org.salespointframework.core.AbstractAggregateRoot;
+import org.salespointframework.core.Currencies;
 import org.salespointframework.order.ChargeLine.AttachedChargeLine;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
@@ -40,6 +52,7 @@ import org.salespointframework.useraccount.UserAccount;
 import org.springframework.data.domain.Range;
 import org.springframework.data.domain.Range.Bound;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
 import org.springframework.util.Assert;
 
 /**
@@ -48,11 +61,29 @@ import org.springframework.util.Assert;
  * @author Oliver Gierke
  */
 @Entity
-@Table(name = "ORDERS")
+@Table(name = "ORDERS", indexes = { //
+		@Index(name = "ORDERS_DATE_CREATED_IDX", columnList = "dateCreated, ORDER_ID"), //
+		@Index(name = "ORDERS_STATUS_DATE_CREATED_IDX", columnList = "orderStatus, dateCreated, ORDER_ID"), //
+		@Index(name = "ORDERS_ARCHIVED_STATUS_IDX", columnList = "ARCHIVED, orderStatus, dateCreated"), //
+		@Index(name = "ORDERS_OWNER_IDX", columnList = "USER_ACCOUNT_USERACCOUNT_ID, dateCreated") //
+})
+@NamedEntityGraph(name = Order.SUMMARY_GRAPH, attributeNodes = @NamedAttributeNode("userAccount"))
 @ToString(doNotUseGetters = true)
 @NoArgsConstructor(force = true, access = AccessLevel.PROTECTED, onConstructor = @__(@Deprecated))
 public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
+	/**
+	 * The name of the entity graph to load an {@link Order} and its {@link UserAccount} in a single query.
+	 *
+	 * @see OrderFetchPlan#SUMMARY
+	 */
+	static final String SUMMARY_GRAPH = "Order.summary";
+
+	/**
+	 * The maximum number of {@link Order}s to load line collections for in a single query.
+	 */
+	static final int LINE_BATCH_SIZE = 100;
+
 	@EmbeddedId //
 	@AttributeOverride(name = "id", column = @Column(name = "ORDER_ID")) //
 	private OrderIdentifier orderIdentifier = new OrderIdentifier();
@@ -61,7 +92,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 	@Getter //
 	@OneToOne //
-	@AttributeOverride(name = "id", column = @Column(name = "OWNER_ID")) //
+	@JoinColumn(name = "USER_ACCOUNT_USERACCOUNT_ID") //
 	private UserAccount userAccount;
 
 	@Getter //
@@ -75,14 +106,58 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 	// end::orderStatus[]
 
 	@OneToMany(cascade = CascadeType.ALL) //
+	@BatchSize(size = LINE_BATCH_SIZE) //
 	private List<OrderLine> orderLines = new ArrayList<>();
 
 	@OneToMany(cascade = CascadeType.ALL) //
+	@BatchSize(size = LINE_BATCH_SIZE) //
 	private List<ChargeLine> chargeLines = new ArrayList<>();
 
 	@OneToMany(cascade = CascadeType.ALL) //
+	@BatchSize(size = LINE_BATCH_SIZE) //
 	private List<AttachedChargeLine> attachedChargeLines = new ArrayList<>();
 
+	/**
+	 * The running total of all lines of the {@link Order}, kept in sync by all methods adding or removing lines. Might be
+	 * {@literal null} for {@link Order}s persisted before the column was introduced and is calculated from the lines on
+	 * first access in that case.
+	 */
+	@Column(name = "TOTAL_AMOUNT", precision = 38, scale = 10) //
+	private BigDecimal totalAmount = BigDecimal.ZERO;
+
+	@Column(name = "TOTAL_CURRENCY", length = 3) //
+	private String totalCurrency = Currencies.EURO.getCurrencyCode();
+
+	/**
+	 * The number of {@link OrderLine}s of the {@link Order}.
+	 */
+	@Column(name = "LINE_COUNT") //
+	private Integer lineCount = 0;
+
+	/**
+	 * Whether the {@link Order} has been moved to the archive, i.e. it is finished and old enough to not be considered by
+	 * lookups of recent {@link Order}s anymore. Only ever set by {@link OrderArchiver} via a bulk update, so that
+	 * instances loaded before don't reset it when being saved.
+	 *
+	 * @see OrderArchiver
+	 */
+	@Getter //
+	@Column(name = "ARCHIVED", updatable = false) //
+	private boolean archived = false;
+
+	/**
+	 * Indexes of the {@link OrderLine}s by the {@link ProductIdentifier} they refer to and of the
+	 * {@link AttachedChargeLine}s by the {@link OrderLine} they are attached to. Built lazily on first lookup and kept in
+	 * sync by all methods adding or removing lines.
+	 */
+	@Transient //
+	@ToString.Exclude //
+	private Map<ProductIdentifier, List<OrderLine>> orderLinesByProduct;
+
+	@Transient //
+	@ToString.Exclude //
+	private Map<OrderLine, List<AttachedChargeLine>> chargeLinesByOrderLine;
+
 	/**
 	 * Creates a new Order
 	 *
@@ -141,8 +216,11 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		Assert.notNull(product, "Product must not be null!");
 
-		return Totalable.of(Streamable.of(() -> orderLines.stream() //
-				.filter(it -> it.refersTo(product))));
+		var identifier = product.getId();
+
+		return Totalable.of(Streamable.of(() -> getOrderLinesByProduct() //
+				.getOrDefault(identifier, Collections.emptyList()) //
+				.stream()));
 	}
 
 	/**
@@ -183,20 +261,27 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 	 */
 	public Totalable<AttachedChargeLine> getChargeLines(OrderLine orderLine) {
 
-		List<AttachedChargeLine> foo = attachedChargeLines;
+		Assert.notNull(orderLine, "Order line must not be null!");
 
-		return Totalable.of(Streamable.of(() -> foo.stream() //
-				.filter(it -> it.belongsTo(orderLine))));
+		return Totalable.of(Streamable.of(() -> getChargeLinesByOrderLine() //
+				.getOrDefault(orderLine, Collections.emptyList()) //
+				.stream()));
 	}
 
 	/**
-	 * Returns the total price of the {@link Order}.
+	 * Returns the total price of the {@link Order}. The total is maintained on every change to the lines of the
+	 * {@link Order} and thus doesn't require the lines to be loaded.
 	 *
 	 * @return
 	 * @since 7.1
 	 */
 	public MonetaryAmount getTotal() {
-		return getOrderLines().getTotal().add(getAllChargeLines().getTotal());
+
+		if (totalAmount == null || totalCurrency == null) {
+			setTotal(getOrderLines().getTotal().add(getAllChargeLines().getTotal()));
+		}
+
+		return Money.of(totalAmount, Monetary.getCurrency(totalCurrency));
 	}
 
 	/**
@@ -213,9 +298,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 		Assert.notNull(orderLine, "OrderLine must not be null!");
 		assertOrderIsOpen();
 
-		this.orderLines.add(orderLine);
-
-		return orderLine;
+		return addLine(orderLine);
 	}
 
 	/**
@@ -231,11 +314,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 		Assert.notNull(product, "Product must not be null!");
 		Assert.notNull(quantity, "Quantity must not be null!");
 
-		OrderLine orderLine = new OrderLine(product, quantity);
-
-		this.orderLines.add(orderLine);
-
-		return orderLine;
+		return addLine(new OrderLine(product, quantity));
 	}
 
 	/**
@@ -250,7 +329,14 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		removeChargeLinesFor(orderLine);
 
-		this.orderLines.remove(orderLine);
+		var numberOfLines = getNumberOfLineItems();
+
+		if (removeLine(orderLines, orderLine)) {
+
+			this.lineCount = numberOfLines - 1;
+
+			removeFromIndex(orderLinesByProduct, OrderLine::getProductIdentifier, orderLine);
+		}
 	}
 
 	/**
@@ -267,7 +353,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		this.chargeLines.add(chargeLine);
 
-		return chargeLine;
+		return addToTotal(chargeLine);
 	}
 
 	/**
@@ -289,7 +375,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		this.chargeLines.add(chargeLine);
 
-		return chargeLine;
+		return addToTotal(chargeLine);
 	}
 
 	/**
@@ -335,7 +421,9 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		this.attachedChargeLines.add(chargeLine);
 
-		return chargeLine;
+		addToIndex(chargeLinesByOrderLine, AttachedChargeLine::getOrderLine, chargeLine);
+
+		return addToTotal(chargeLine);
 	}
 
 	public void remove(ChargeLine chargeLine) {
@@ -344,7 +432,7 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		assertOrderIsOpen();
 
-		this.chargeLines.remove(chargeLine);
+		removeLine(chargeLines, chargeLine);
 	}
 
 	/**
@@ -359,7 +447,9 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		assertOrderIsOpen();
 
-		this.attachedChargeLines.remove(chargeLine);
+		if (removeLine(attachedChargeLines, chargeLine)) {
+			removeFromIndex(chargeLinesByOrderLine, AttachedChargeLine::getOrderLine, chargeLine);
+		}
 	}
 
 	/**
@@ -372,9 +462,23 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 		Assert.notNull(orderLine, "Order line must not be null!");
 
-		getChargeLines(orderLine) //
-				.toList() //
-				.forEach(this::remove);
+		var index = getChargeLinesByOrderLine();
+		var chargeLines = index.get(orderLine);
+
+		if (chargeLines == null || chargeLines.isEmpty()) {
+			return;
+		}
+
+		assertOrderIsOpen();
+
+		var total = getTotal();
+
+		index.remove(orderLine);
+
+		// Remove all lines in a single pass instead of one lookup in the list per line
+		this.attachedChargeLines.removeAll(new HashSet<>(chargeLines));
+
+		setTotal(total.subtract(Totalable.of(chargeLines).getTotal()));
 	}
 
 	/**
@@ -425,12 +529,25 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 	Order complete() {
 
+		completeSilently();
+
+		registerEvent(OrderCompleted.of(this));
+
+		return this;
+	}
+
+	/**
+	 * Marks the current {@link Order} as completed without registering an {@link OrderCompleted} event. Used by bulk
+	 * operations that publish a single {@link OrderEvents.OrdersCompleted} for a batch of {@link Order}s.
+	 *
+	 * @return the current {@link Order}.
+	 */
+	Order completeSilently() {
+
 		Assert.isTrue(isPaid(), "An order must be paid to be completed!");
 
 		this.orderStatus = OrderStatus.COMPLETED;
 
-		registerEvent(OrderCompleted.of(this));
-
 		return this;
 	}
 
@@ -448,15 +565,67 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 			registerEvent(OrderCompleted.of(this));
 		}
 
-		this.orderStatus = OrderStatus.CANCELLED;
+		cancelSilently();
 
 		registerEvent(OrderCanceled.of(this, reason));
 
 		return this;
 	}
 
+	/**
+	 * Marks the current {@link Order} as canceled without registering any events. Used by bulk operations that publish
+	 * a single {@link OrderEvents.OrdersCanceled} for a batch of {@link Order}s.
+	 *
+	 * @return the current {@link Order}.
+	 */
+	Order cancelSilently() {
+
+		Assert.isTrue(!isCanceled(), "Order is already cancelled!");
+
+		this.orderStatus = OrderStatus.CANCELLED;
+
+		return this;
+	}
+
+	/**
+	 * Resets the {@link OrderStatus} of the current {@link Order} to the given one. Used by bulk operations to revert
+	 * the transition of an {@link Order} that was rejected by an event listener.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return the current {@link Order}.
+	 */
+	Order revertTo(OrderStatus status) {
+
+		Assert.notNull(status, "OrderStatus must not be null!");
+
+		this.orderStatus = status;
+
+		return this;
+	}
+
+	/**
+	 * Initializes all line collections of the {@link Order}. Lines of other {@link Order}s loaded alongside the current
+	 * one are initialized in the same batch.
+	 *
+	 * @return the current {@link Order}.
+	 * @see OrderFetchPlan#FULL
+	 */
+	Order initializeLines() {
+
+		this.orderLines.size();
+		this.chargeLines.size();
+		this.attachedChargeLines.size();
+
+		return this;
+	}
+
 	int getNumberOfLineItems() {
-		return this.orderLines.size();
+
+		if (lineCount == null) {
+			this.lineCount = orderLines.size();
+		}
+
+		return lineCount;
 	}
 
 	boolean isPaymentExpected() {
@@ -465,12 +634,25 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 
 	Order markPaid() {
 
+		markPaidSilently();
+
+		registerEvent(OrderPaid.of(this));
+
+		return this;
+	}
+
+	/**
+	 * Marks the current {@link Order} as paid without registering an {@link OrderPaid} event. Used by bulk operations
+	 * that publish a single {@link OrderEvents.OrdersPaid} for a batch of {@link Order}s.
+	 *
+	 * @return the current {@link Order}.
+	 */
+	Order markPaidSilently() {
+
 		Assert.isTrue(!isPaid(), "Order is already paid!");
 
 		this.orderStatus = OrderStatus.PAID;
 
-		registerEvent(OrderPaid.of(this));
-
 		return this;
 	}
 
@@ -495,6 +677,107 @@ public class Order extends AbstractAggregateRoot<OrderIdentifier> {
 		}
 	}
 
+	private OrderLine addLine(OrderLine orderLine) {
+
+		this.lineCount = getNumberOfLineItems() + 1;
+		this.orderLines.add(orderLine);
+
+		addToIndex(orderLinesByProduct, OrderLine::getProductIdentifier, orderLine);
+
+		return addToTotal(orderLine);
+	}
+
+	private <P extends Priced> P addToTotal(P priced) {
+
+		var total = getTotal();
+
+		setTotal(total.isZero() ? priced.getPrice() : total.add(priced.getPrice()));
+
+		return priced;
+	}
+
+	private <P extends Priced> boolean removeLine(List<P> lines, P line) {
+
+		var total = getTotal();
+
+		if (!lines.remove(line)) {
+			return false;
+		}
+
+		setTotal(total.subtract(line.getPrice()));
+
+		return true;
+	}
+
+	private Map<ProductIdentifier, List<OrderLine>> getOrderLinesByProduct() {
+
+		if (orderLinesByProduct == null) {
+			this.orderLinesByProduct = index(orderLines, OrderLine::getProductIdentifier);
+		}
+
+		return orderLinesByProduct;
+	}
+
+	private Map<OrderLine, List<AttachedChargeLine>> getChargeLinesByOrderLine() {
+
+		if (chargeLinesByOrderLine == null) {
+			this.chargeLinesByOrderLine = index(attachedChargeLines, AttachedChargeLine::getOrderLine);
+		}
+
+		return chargeLinesByOrderLine;
+	}
+
+	private static <K, V> Map<K, List<V>> index(List<V> lines, Function<V, K> key) {
+
+		return lines.stream() //
+				.collect(Collectors.groupingBy(key, HashMap::new, Collectors.toCollection(ArrayList::new)));
+	}
+
+	/**
+	 * Adds the given line to the given index unless the index hasn't been built yet.
+	 *
+	 * @param index can be {@literal null}.
+	 * @param key must not be {@literal null}.
+	 * @param line must not be {@literal null}.
+	 */
+	private static <K, V> void addToIndex(@Nullable Map<K, List<V>> index, Function<V, K> key, V line) {
+
+		if (index != null) {
+			index.computeIfAbsent(key.apply(line), __ -> new ArrayList<>()).add(line);
+		}
+	}
+
+	/**
+	 * Removes the given line from the given index unless the index hasn't been built yet.
+	 *
+	 * @param index can be {@literal null}.
+	 * @param key must not be {@literal null}.
+	 * @param line must not be {@literal null}.
+	 */
+	private static <K, V> void removeFromIndex(@Nullable Map<K, List<V>> index, Function<V, K> key, V line) {
+
+		if (index == null) {
+			return;
+		}
+
+		var lines = index.get(key.apply(line));
+
+		if (lines != null) {
+
+			lines.remove(line);
+
+			if (lines.isEmpty()) {
+				index.remove(key.apply(line));
+			}
+		}
+	}
+
+	private void setTotal(MonetaryAmount total) {
+
+		this.totalAmount = total.getNumber().numberValueExact(BigDecimal.class);
+		this.totalCurrency = total.getCurrency().getCurrencyCode();
+	}
+
 	private OrderLine getRequiredOrderLineByIndex(int index) {
 
 		Range<Integer> allowedIndexRange = Range.from(Bound.inclusive(0))//
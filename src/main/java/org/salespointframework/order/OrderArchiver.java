@@ -0,0 +1,173 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.salespointframework.time.BusinessTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Moves finished, i.e. completed or cancelled, {@link Order}s older than a configurable age into the archive. Archived
+ * {@link Order}s are still returned by all lookups of {@link OrderManagement}. The lookups for unfinished
+ * {@link Order}s by {@link OrderStatus} are answered from an index leading with the archive state and thus only
+ * touch the recent {@link Order}s. Enable via {@code salespoint.order.archive.enabled=true}.
+ * <p>
+ * {@link Order}s are archived in batches, each in a transaction of its own. As the archive state is kept with the
+ * {@link Order}, an interrupted run is simply picked up by the next one. Note that the archived {@link Order}s stay
+ * in the {@code ORDERS} table.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderProperties.Archive
+ */
+@Component
+@ConditionalOnProperty(name = "salespoint.order.archive.enabled", havingValue = "true")
+public class OrderArchiver implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderArchiver.class);
+	private static final Set<OrderStatus> FINISHED = EnumSet.of(OrderStatus.COMPLETED, OrderStatus.CANCELLED);
+
+	private final OrderRepository<Order> orders;
+	private final TransactionTemplate transactions;
+	private final BusinessTime businessTime;
+	private final OrderProperties.Archive configuration;
+
+	private @Nullable ScheduledExecutorService scheduler;
+
+	OrderArchiver(OrderRepository<Order> orders, PlatformTransactionManager transactionManager, BusinessTime businessTime,
+			OrderProperties properties) {
+
+		this.orders = orders;
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.businessTime = businessTime;
+		this.configuration = properties.getArchive();
+	}
+
+	/**
+	 * Archives all finished {@link Order}s created before the current archive horizon.
+	 *
+	 * @return the number of {@link Order}s archived.
+	 */
+	public long archive() {
+
+		var horizon = getHorizon();
+		var batchSize = configuration.getBatchSize();
+		var total = 0L;
+		int archived;
+
+		do {
+
+			archived = transactions.execute(__ -> {
+
+				var identifiers = orders.findArchivable(FINISHED, horizon, PageRequest.of(0, batchSize));
+
+				return identifiers.isEmpty() ? 0 : orders.archive(identifiers);
+			});
+
+			total += archived;
+
+		} while (archived == batchSize);
+
+		return total;
+	}
+
+	/**
+	 * Returns whether {@link Order}s in the given {@link OrderStatus} are subject to archiving.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return
+	 */
+	static boolean archives(OrderStatus status) {
+		return FINISHED.contains(status);
+	}
+
+	/**
+	 * Returns the date before which finished {@link Order}s are moved to the archive.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public LocalDateTime getHorizon() {
+		return businessTime.getTime().minus(configuration.getAge());
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (!configuration.isScheduled() || scheduler != null) {
+			return;
+		}
+
+		var interval = configuration.getInterval().toMillis();
+
+		this.scheduler = Executors
+				.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-order-archiver-"));
+		this.scheduler.scheduleWithFixedDelay(this::archiveSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return scheduler != null;
+	}
+
+	private void archiveSafely() {
+
+		try {
+
+			var archived = archive();
+
+			LOGGER.debug("Archived {} orders.", archived);
+
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to archive orders!", o_O);
+		}
+	}
+}
@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.data.util.Streamable;
+import org.springframework.util.Assert;
+
+/**
+ * The aggregated result of a bulk operation on {@link Order}s, i.e. {@link OrderManagement#payOrders(Iterable)},
+ * {@link OrderManagement#completeOrders(Iterable)} and {@link OrderManagement#cancelOrders(Iterable, String)}. Contains
+ * one {@link Entry} per {@link Order} handed into the operation.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@EqualsAndHashCode
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderBatchReport<T extends Order> implements Streamable<OrderBatchReport.Entry<T>> {
+
+	private final List<Entry<T>> entries;
+
+	/**
+	 * Creates a new {@link OrderBatchReport} for the given {@link Entry}s.
+	 *
+	 * @param entries must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static <T extends Order> OrderBatchReport<T> of(List<Entry<T>> entries) {
+
+		Assert.notNull(entries, "Entries must not be null!");
+
+		return new OrderBatchReport<>(entries);
+	}
+
+	/**
+	 * Returns all {@link Order}s the operation succeeded for.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Streamable<T> getSucceeded() {
+		return filter(it -> it.getStatus() == BatchStatus.SUCCEEDED).map(Entry::getOrder);
+	}
+
+	/**
+	 * Returns all {@link Order}s that were skipped as the operation was not applicable to them, e.g. because they were
+	 * paid or canceled already.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Streamable<T> getSkipped() {
+		return filter(it -> it.getStatus() == BatchStatus.SKIPPED).map(Entry::getOrder);
+	}
+
+	/**
+	 * Returns the {@link Entry}s of all {@link Order}s the operation failed for.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Streamable<Entry<T>> getFailures() {
+		return filter(Entry::isFailure);
+	}
+
+	/**
+	 * Returns whether the operation failed for any of the {@link Order}s.
+	 *
+	 * @return
+	 */
+	public boolean hasErrors() {
+		return stream().anyMatch(Entry::isFailure);
+	}
+
+	/**
+	 * Applies the given {@link Function} to produce an exception in case the report has errors.
+	 *
+	 * @param exception must not be {@literal null}.
+	 * @return the current report.
+	 */
+	public OrderBatchReport<T> onError(Function<OrderBatchReport<T>, ? extends RuntimeException> exception) {
+
+		Assert.notNull(exception, "Exception mapper must not be null!");
+
+		if (hasErrors()) {
+			throw exception.apply(this);
+		}
+
+		return this;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	@Override
+	public Iterator<Entry<T>> iterator() {
+		return entries.iterator();
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder("OrderBatchReport");
+
+		entries.forEach(it -> builder.append('\n') //
+				.append("> ").append(it));
+
+		return builder.toString();
+	}
+
+	/**
+	 * The outcome of a bulk operation for a single {@link Order}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class Entry<T extends Order> {
+
+		@NonNull T order;
+		@NonNull BatchStatus status;
+		@NonNull Optional<String> message;
+		@NonNull Optional<OrderCompletionReport> completionReport;
+
+		static <T extends Order> Entry<T> succeeded(T order) {
+			return new Entry<>(order, BatchStatus.SUCCEEDED, Optional.empty(), Optional.empty());
+		}
+
+		static <T extends Order> Entry<T> skipped(T order, String message) {
+			return new Entry<>(order, BatchStatus.SKIPPED, Optional.of(message), Optional.empty());
+		}
+
+		static <T extends Order> Entry<T> failed(T order, String message) {
+			return new Entry<>(order, BatchStatus.FAILED, Optional.of(message), Optional.empty());
+		}
+
+		static <T extends Order> Entry<T> failed(T order, OrderCompletionReport report) {
+			return new Entry<>(order, BatchStatus.FAILED, Optional.empty(), Optional.of(report));
+		}
+
+		/**
+		 * Returns whether the {@link Entry} represents a failure.
+		 *
+		 * @return
+		 */
+		public boolean isFailure() {
+			return BatchStatus.FAILED.equals(status);
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+
+			StringBuilder builder = new StringBuilder() //
+					.append(status) //
+					.append(" – ") //
+					.append(order.getId());
+
+			message.ifPresent(it -> builder.append(" - ").append(it));
+			completionReport.ifPresent(it -> builder.append(" - ").append(it));
+
+			return builder.toString();
+		}
+	}
+
+	/**
+	 * The status of a single {@link Order} handled in a bulk operation.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	public static enum BatchStatus {
+		SUCCEEDED, SKIPPED, FAILED;
+	}
+}
@@ -23,12 +23,17 @@ import lombok.RequiredArgsConstructor;
 import lombok.Value;
 import lombok.experimental.FieldDefaults;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Optional;
 import java.util.function.Consumer;
 import java.util.function.Function;
 
+import org.salespointframework.core.SalespointIdentifier;
 import org.salespointframework.order.OrderCompletionReport.OrderLineCompletion;
+import org.salespointframework.quantity.Quantity;
 import org.springframework.data.util.Streamable;
 import org.springframework.util.Assert;
 
@@ -155,6 +160,11 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 		@NonNull OrderLine orderLine;
 		@NonNull CompletionStatus status;
 		@NonNull Optional<String> message;
+		@NonNull List<Allocation> allocations;
+
+		OrderLineCompletion(OrderLine orderLine, CompletionStatus status, Optional<String> message) {
+			this(orderLine, status, message, Collections.emptyList());
+		}
 
 		public static OrderLineCompletion skipped(OrderLine ordeLine) {
 			return new OrderLineCompletion(ordeLine, CompletionStatus.SUCCEEDED, Optional.of("The order line was skipped."));
@@ -170,6 +180,23 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 			return new OrderLineCompletion(orderLine, CompletionStatus.SUCCEEDED, Optional.empty());
 		}
 
+		/**
+		 * Creates an {@link OrderLineCompletion} representing the successful completion of an {@link OrderLine} by taking
+		 * the quantities described by the given {@link Allocation}s from the stock.
+		 *
+		 * @param orderLine must not be {@literal null}.
+		 * @param allocations must not be {@literal null}.
+		 * @return
+		 * @since 7.4
+		 */
+		public static OrderLineCompletion allocated(OrderLine orderLine, List<Allocation> allocations) {
+
+			Assert.notNull(allocations, "Allocations must not be null!");
+
+			return new OrderLineCompletion(orderLine, CompletionStatus.SUCCEEDED, Optional.empty(),
+					Collections.unmodifiableList(new ArrayList<>(allocations)));
+		}
+
 		/**
 		 * Creates an {@link OrderLineCompletion} representing an erroneous {@link OrderLine} alongside an error message.
 		 *
@@ -221,11 +248,42 @@ public class OrderCompletionReport implements Streamable<OrderLineCompletion> {
 					.append(orderLine);
 
 			message.ifPresent(it -> builder.append(" - ").append(it));
+			allocations.forEach(it -> builder.append(" - ").append(it));
 
 			return builder.toString();
 		}
 	}
 
+	/**
+	 * A {@link Quantity} taken from a particular source of stock, e.g. an inventory item, to complete an
+	 * {@link OrderLine}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value(staticConstructor = "of")
+	public static class Allocation {
+
+		/**
+		 * The identifier of the source of stock.
+		 */
+		@NonNull SalespointIdentifier source;
+
+		/**
+		 * The {@link Quantity} taken from it.
+		 */
+		@NonNull Quantity quantity;
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return String.format("%s from %s", quantity, source);
+		}
+	}
+
 	/**
 	 * The status of a completion.
 	 *
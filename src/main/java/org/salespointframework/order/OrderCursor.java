@@ -0,0 +1,105 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+import org.springframework.util.Assert;
+
+/**
+ * A position in the list of {@link Order}s sorted by their creation date and {@link OrderIdentifier}. Used to look up
+ * the {@link Order}s following a particular one without having to skip all previous ones in the database.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderWindow
+ * @see OrderWindowRequest
+ */
+@Value
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderCursor {
+
+	private static final String SEPARATOR = "_";
+
+	@NonNull LocalDateTime dateCreated;
+	@NonNull OrderIdentifier orderIdentifier;
+
+	/**
+	 * Creates a new {@link OrderCursor} pointing to the given {@link Order}.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public static OrderCursor of(Order order) {
+
+		Assert.notNull(order, "Order must not be null!");
+		Assert.state(order.getDateCreated() != null, "Order must have a creation date to create a cursor for it!");
+
+		return new OrderCursor(order.getDateCreated(), order.getId());
+	}
+
+	/**
+	 * Creates a new {@link OrderCursor} pointing to the {@link Order} described by the given {@link OrderSummary}.
+	 *
+	 * @param summary must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @see OrderManagement#findSummaries(OrderWindowRequest)
+	 */
+	public static OrderCursor of(OrderSummary summary) {
+
+		Assert.notNull(summary, "OrderSummary must not be null!");
+
+		return new OrderCursor(summary.getDateCreated(), summary.getId());
+	}
+
+	/**
+	 * Parses the given {@link String} representation of an {@link OrderCursor} as created by {@link #toString()}.
+	 *
+	 * @param source must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 * @throws IllegalArgumentException in case the given source is not a valid {@link OrderCursor} representation.
+	 */
+	public static OrderCursor parse(String source) {
+
+		Assert.hasText(source, "Source must not be null or empty!");
+
+		var index = source.indexOf(SEPARATOR);
+
+		Assert.isTrue(index > 0 && index < source.length() - 1, String.format("Invalid order cursor %s!", source));
+
+		try {
+			return new OrderCursor(LocalDateTime.parse(source.substring(0, index)),
+					new OrderIdentifier(source.substring(index + 1)));
+		} catch (DateTimeParseException o_O) {
+			throw new IllegalArgumentException(String.format("Invalid order cursor %s!", source), o_O);
+		}
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+		return dateCreated.toString() + SEPARATOR + orderIdentifier.getIdentifier();
+	}
+}
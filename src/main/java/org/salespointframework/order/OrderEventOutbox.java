@@ -0,0 +1,427 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import javax.persistence.EntityManager;
+
+import org.salespointframework.order.OrderEvents.OrderCanceled;
+import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.salespointframework.order.OrderOutboxEntry.Status;
+import org.salespointframework.order.OrderProperties.Outbox.Store;
+import org.salespointframework.time.BusinessTime;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.lang.Nullable;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.Assert;
+
+/**
+ * An outbox for the {@link OrderPaid}, {@link OrderCompleted} and {@link OrderCanceled} events. If enabled via
+ * {@code salespoint.order.outbox.enabled=true}, {@link OrderManagement} doesn't publish those events synchronously
+ * within the transaction changing the {@link Order} but writes them to the outbox in that very transaction. The events
+ * are then dispatched by a pool of worker threads, each in a transaction of its own, so that event listeners don't
+ * contribute to the latency of the original change.
+ * <p>
+ * Events of the same {@link Order} are dispatched in the order they were written. Failing dispatches are retried on
+ * subsequent rounds until the configured maximum number of attempts is reached, in which case the entry is marked as
+ * failed and the following events of the {@link Order} are dispatched. As event listeners run after the original
+ * transaction has committed, they cannot veto the state transition anymore. E.g. an {@link OrderCompletionFailure}
+ * doesn't prevent the {@link Order} from being completed but causes the {@link OrderCompleted} event to be retried.
+ * <p>
+ * The bulk operations of {@link OrderManagement} write an entry per {@link Order} as well, i.e. listeners receive the
+ * individual events instead of {@link OrderEvents.OrdersPaid}, {@link OrderEvents.OrdersCompleted} and
+ * {@link OrderEvents.OrdersCanceled}.
+ * <p>
+ * Events are published with a snapshot of the {@link Order} in the {@link OrderStatus} it had when the event was
+ * written, detached from the persistence context, so that listeners see the same state as they would have with
+ * synchronously published events. Changes listeners apply to that instance are not persisted.
+ * <p>
+ * Only a single application instance dispatches the entries persisted in the database at a time. Each dispatch round
+ * renews a lease that expires a minute after the round, and dispatching fails with an {@link IllegalStateException} in
+ * case another instance holds it.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderProperties.Outbox
+ */
+@Component
+@ConditionalOnProperty(name = "salespoint.order.outbox.enabled", havingValue = "true")
+public class OrderEventOutbox implements SmartLifecycle {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(OrderEventOutbox.class);
+	private static final Duration LEASE_DURATION = Duration.ofMinutes(1);
+
+	private final OrderOutboxEntries entries;
+	private final @Nullable OrderOutboxLeaseRepository leases;
+	private final String instance = UUID.randomUUID().toString();
+	private final OrderRepository<Order> orders;
+	private final EntityManager em;
+	private final ApplicationEventPublisher events;
+	private final TransactionTemplate transactions;
+	private final BusinessTime businessTime;
+	private final OrderProperties.Outbox configuration;
+
+	private final AtomicLong dispatched = new AtomicLong();
+	private final AtomicLong failedAttempts = new AtomicLong();
+
+	private boolean running;
+	private @Nullable ExecutorService workers;
+	private @Nullable ScheduledExecutorService scheduler;
+
+	OrderEventOutbox(OrderOutboxEntryRepository repository, OrderOutboxLeaseRepository leases,
+			OrderRepository<Order> orders, EntityManager em, ApplicationEventPublisher events,
+			PlatformTransactionManager transactionManager, BusinessTime businessTime, OrderProperties properties) {
+
+		this.configuration = properties.getOutbox();
+
+		var inMemory = configuration.getStore() == Store.IN_MEMORY;
+
+		this.entries = inMemory ? new InMemoryOrderOutboxEntries() : repository;
+		this.leases = inMemory ? null : leases;
+		this.orders = orders;
+		this.em = em;
+		this.events = events;
+		this.businessTime = businessTime;
+
+		this.transactions = new TransactionTemplate(transactionManager);
+		this.transactions.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+	}
+
+	/**
+	 * Writes an entry for the {@link OrderPaid} event of the given {@link Order}.
+	 *
+	 * @param order must not be {@literal null}.
+	 */
+	void paid(Order order) {
+		entries.save(OrderOutboxEntry.paid(order, businessTime.getTime()));
+	}
+
+	/**
+	 * Writes an entry for the {@link OrderCompleted} event of the given {@link Order}.
+	 *
+	 * @param order must not be {@literal null}.
+	 */
+	void completed(Order order) {
+		entries.save(OrderOutboxEntry.completed(order, businessTime.getTime()));
+	}
+
+	/**
+	 * Writes an entry for the {@link OrderCanceled} event of the given {@link Order}.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @param reason must not be {@literal null}.
+	 */
+	void canceled(Order order, String reason) {
+		entries.save(OrderOutboxEntry.canceled(order, reason, businessTime.getTime()));
+	}
+
+	/**
+	 * Dispatches the next batch of pending events and returns the number of events dispatched successfully. Invoked
+	 * periodically unless {@code salespoint.order.outbox.poll-interval} is set to zero.
+	 *
+	 * @return the number of events dispatched.
+	 * @throws IllegalStateException in case the outbox isn't running or another instance dispatches the events.
+	 */
+	public int dispatchPending() {
+
+		var workers = this.workers;
+
+		Assert.state(workers != null, "Order event outbox is not running!");
+
+		acquireLease();
+
+		var pending = entries.findByStatusOrderByIdAsc(Status.PENDING, PageRequest.of(0, configuration.getBatchSize()));
+
+		if (pending.isEmpty()) {
+			return 0;
+		}
+
+		List<Callable<Integer>> tasks = pending.stream() //
+				.collect(Collectors.groupingBy(OrderOutboxEntry::getOrderIdentifier, LinkedHashMap::new,
+						Collectors.toList())) //
+				.values().stream() //
+				.<Callable<Integer>> map(it -> () -> dispatchInOrder(it)) //
+				.collect(Collectors.toList());
+
+		try {
+
+			var result = 0;
+
+			for (Future<Integer> future : workers.invokeAll(tasks)) {
+				result += future.get();
+			}
+
+			return result;
+
+		} catch (InterruptedException o_O) {
+
+			Thread.currentThread().interrupt();
+
+			return 0;
+
+		} catch (ExecutionException o_O) {
+			throw new IllegalStateException("Failed to dispatch order events!", o_O.getCause());
+		}
+	}
+
+	/**
+	 * Returns the current {@link Metrics} of the outbox.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Metrics getMetrics() {
+
+		var now = businessTime.getTime();
+		var lag = entries.findFirstByStatusOrderByIdAsc(Status.PENDING) //
+				.map(it -> Duration.between(it.getDateCreated(), now)) //
+				.filter(it -> !it.isNegative()) //
+				.orElse(Duration.ZERO);
+
+		return new Metrics(entries.countByStatus(Status.PENDING), entries.countByStatus(Status.FAILED), dispatched.get(),
+				failedAttempts.get(), lag);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#start()
+	 */
+	@Override
+	public synchronized void start() {
+
+		if (running) {
+			return;
+		}
+
+		this.running = true;
+
+		var threadFactory = new CustomizableThreadFactory("salespoint-order-outbox-");
+		threadFactory.setDaemon(true);
+
+		this.workers = Executors.newFixedThreadPool(configuration.getWorkers(), threadFactory);
+
+		if (!configuration.isScheduled()) {
+			return;
+		}
+
+		var interval = configuration.getPollInterval().toMillis();
+
+		this.scheduler = Executors
+				.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("salespoint-order-outbox-poller-"));
+		this.scheduler.scheduleWithFixedDelay(this::dispatchPendingSafely, interval, interval, TimeUnit.MILLISECONDS);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#stop()
+	 */
+	@Override
+	public synchronized void stop() {
+
+		if (scheduler != null) {
+			scheduler.shutdown();
+			this.scheduler = null;
+		}
+
+		if (workers != null) {
+			workers.shutdown();
+			this.workers = null;
+		}
+
+		if (leases != null) {
+			leases.release(OrderOutboxLease.ID, instance, businessTime.getTime());
+		}
+
+		this.running = false;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.context.Lifecycle#isRunning()
+	 */
+	@Override
+	public synchronized boolean isRunning() {
+		return running;
+	}
+
+	private void dispatchPendingSafely() {
+
+		try {
+			while (dispatchPending() > 0) {}
+		} catch (RuntimeException o_O) {
+			LOGGER.error("Failed to dispatch order events!", o_O);
+		}
+	}
+
+	/**
+	 * Dispatches the given {@link OrderOutboxEntry}s of a single {@link Order} in order, stopping at the first entry that
+	 * fails to preserve the order of events.
+	 *
+	 * @param entries must not be {@literal null}.
+	 * @return the number of entries dispatched.
+	 */
+	private int dispatchInOrder(List<OrderOutboxEntry> entries) {
+
+		var result = 0;
+
+		for (OrderOutboxEntry entry : entries) {
+
+			if (!dispatch(entry)) {
+				break;
+			}
+
+			result++;
+		}
+
+		return result;
+	}
+
+	/**
+	 * Renews the lease to dispatch the events persisted in the database, creating it in case it doesn't exist yet.
+	 *
+	 * @throws IllegalStateException in case the lease is held by another instance.
+	 */
+	private void acquireLease() {
+
+		if (leases == null) {
+			return;
+		}
+
+		var now = businessTime.getTime();
+		var expires = now.plus(LEASE_DURATION);
+
+		if (leases.renew(OrderOutboxLease.ID, instance, now, expires) == 1) {
+			return;
+		}
+
+		try {
+			transactions.executeWithoutResult(__ -> leases.save(new OrderOutboxLease(instance, expires)));
+			return;
+		} catch (DataIntegrityViolationException o_O) {
+			// Created concurrently
+		}
+
+		if (leases.renew(OrderOutboxLease.ID, instance, now, expires) != 1) {
+			throw new IllegalStateException(String.format(
+					"Order events are dispatched by another instance, lease held until %s!", leaseExpiry(now)));
+		}
+	}
+
+	private LocalDateTime leaseExpiry(LocalDateTime fallback) {
+
+		return leases.findById(OrderOutboxLease.ID) //
+				.map(OrderOutboxLease::getExpires) //
+				.orElse(fallback);
+	}
+
+	private boolean dispatch(OrderOutboxEntry entry) {
+
+		try {
+
+			transactions.executeWithoutResult(__ -> {
+
+				var order = orders.findById(entry.getOrderIdentifier()) //
+						.orElseThrow(() -> new IllegalStateException(
+								String.format("Order %s not found!", entry.getOrderIdentifier())));
+
+				// Initialize the lines before detaching the snapshot handed to the listeners
+				order.getOrderLines().toList();
+				order.getAllChargeLines().toList();
+				em.detach(order);
+
+				events.publishEvent(entry.toEvent(order));
+				entries.save(entry.markDispatched(businessTime.getTime()));
+			});
+
+			dispatched.incrementAndGet();
+
+			return true;
+
+		} catch (RuntimeException o_O) {
+
+			LOGGER.warn("Failed to dispatch {}!", entry, o_O);
+
+			failedAttempts.incrementAndGet();
+
+			transactions.executeWithoutResult(__ -> entries.findById(entry.getId()) //
+					.map(it -> it.markAttemptFailed(o_O, configuration.getMaxAttempts())) //
+					.ifPresent(entries::save));
+
+			return false;
+		}
+	}
+
+	/**
+	 * Metrics of the {@link OrderEventOutbox}.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	public static class Metrics {
+
+		/**
+		 * The number of events waiting to be dispatched.
+		 */
+		long pending;
+
+		/**
+		 * The number of events that could not be dispatched within the configured number of attempts.
+		 */
+		long failed;
+
+		/**
+		 * The number of events dispatched since the application started.
+		 */
+		long dispatched;
+
+		/**
+		 * The number of failed attempts to dispatch events since the application started.
+		 */
+		long failedAttempts;
+
+		/**
+		 * The age of the oldest pending event.
+		 */
+		Duration lag;
+	}
+}
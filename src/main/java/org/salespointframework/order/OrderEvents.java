@@ -15,9 +15,20 @@
  */
 package org.salespointframework.order;
 
+import lombok.AccessLevel;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NonNull;
+import lombok.RequiredArgsConstructor;
 import lombok.Value;
 
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
 import org.jmolecules.event.types.DomainEvent;
+import org.springframework.util.Assert;
 
 /**
  * Events published by the order module.
@@ -71,4 +82,103 @@ public class OrderEvents {
 			return "OrderCanceled: " + reason;
 		}
 	}
+
+	/**
+	 * Published for a batch of {@link Order}s paid via {@link OrderManagement#payOrders(Iterable)} instead of individual
+	 * {@link OrderPaid} events.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value(staticConstructor = "of")
+	public static class OrdersPaid implements DomainEvent {
+
+		List<Order> orders;
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "OrdersPaid: " + orders.size();
+		}
+	}
+
+	/**
+	 * Published for a batch of {@link Order}s completed via {@link OrderManagement#completeOrders(Iterable)} or
+	 * canceled via {@link OrderManagement#cancelOrders(Iterable, String)} before being completed, instead of individual
+	 * {@link OrderCompleted} events. Listeners can veto the completion of individual {@link Order}s via
+	 * {@link #reject(OrderCompletionReport)}, which reverts the {@link Order} to its previous state while the remaining
+	 * ones get completed.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@EqualsAndHashCode
+	@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+	public static class OrdersCompleted implements DomainEvent {
+
+		private final @Getter @NonNull List<Order> orders;
+		private final Map<Order, OrderCompletionReport> rejections = new LinkedHashMap<>();
+
+		public static OrdersCompleted of(List<Order> orders) {
+			return new OrdersCompleted(orders);
+		}
+
+		/**
+		 * Rejects the completion of the {@link Order} the given {@link OrderCompletionReport} was created for.
+		 *
+		 * @param report must not be {@literal null}.
+		 */
+		public void reject(OrderCompletionReport report) {
+
+			Assert.notNull(report, "OrderCompletionReport must not be null!");
+			Assert.isTrue(orders.contains(report.getOrder()), "Report does not belong to any of the completed orders!");
+
+			rejections.put(report.getOrder(), report);
+		}
+
+		/**
+		 * Returns the {@link OrderCompletionReport} the completion of the given {@link Order} was rejected with.
+		 *
+		 * @param order must not be {@literal null}.
+		 * @return will never be {@literal null}.
+		 */
+		Optional<OrderCompletionReport> getRejection(Order order) {
+			return Optional.ofNullable(rejections.get(order));
+		}
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "OrdersCompleted: " + orders.size();
+		}
+	}
+
+	/**
+	 * Published for a batch of {@link Order}s canceled via {@link OrderManagement#cancelOrders(Iterable, String)} instead
+	 * of individual {@link OrderCanceled} events.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value(staticConstructor = "of")
+	public static class OrdersCanceled implements DomainEvent {
+
+		List<Order> orders;
+		String reason;
+
+		/*
+		 * (non-Javadoc)
+		 * @see java.lang.Object#toString()
+		 */
+		@Override
+		public String toString() {
+			return "OrdersCanceled: " + orders.size() + ", " + reason;
+		}
+	}
 }
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import org.springframework.data.util.Streamable;
+import org.springframework.util.Assert;
+
+/**
+ * Fetch plans to define which parts of an {@link Order} aggregate are supposed to be loaded eagerly when looking up
+ * {@link Order}s via {@link OrderManagement}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+public enum OrderFetchPlan {
+
+	/**
+	 * Loads the {@link Order}s and their {@link org.salespointframework.useraccount.UserAccount} only. Order and charge
+	 * lines are loaded lazily, batched for all {@link Order}s of the same result on first access.
+	 */
+	SUMMARY,
+
+	/**
+	 * Loads the {@link Order}s including all of their {@link OrderLine}s and {@link ChargeLine}s upfront. Lines for all
+	 * {@link Order}s of the result are loaded with a single query per line type.
+	 */
+	FULL;
+
+	/**
+	 * Applies the current fetch plan to the given {@link Order}s.
+	 *
+	 * @param <T> the concrete {@link Order} type.
+	 * @param <S> the {@link Iterable} of {@link Order}s.
+	 * @param orders must not be {@literal null}.
+	 * @return the given {@link Order}s.
+	 */
+	<T extends Order, S extends Iterable<T>> S applyTo(S orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		if (this == FULL) {
+			Streamable.of(orders).forEach(Order::initializeLines);
+		}
+
+		return orders;
+	}
+}
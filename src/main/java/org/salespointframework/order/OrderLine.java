@@ -26,6 +26,8 @@ import javax.persistence.Column;
 import javax.persistence.Embedded;
 import javax.persistence.EmbeddedId;
 import javax.persistence.Entity;
+import javax.persistence.Index;
+import javax.persistence.Table;
 
 import org.salespointframework.catalog.Product;
 import org.salespointframework.catalog.ProductIdentifier;
@@ -50,6 +52,7 @@ import org.springframework.util.Assert;
  */
 @Entity
 @ToString
+@Table(indexes = @Index(name = "ORDER_LINE_PRODUCT_IDX", columnList = "PRODUCT_ID"))
 @NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
 public class OrderLine extends AbstractEntity<OrderLineIdentifier> implements Priced {
 
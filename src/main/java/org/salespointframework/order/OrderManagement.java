@@ -17,12 +17,17 @@ package org.salespointframework.order;
 
 import java.util.Optional;
 
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.salespointframework.catalog.ProductIdentifier;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
 import org.salespointframework.order.OrderEvents.OrderPaid;
 import org.salespointframework.payment.PaymentMethod;
 import org.salespointframework.time.Interval;
 import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountIdentifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
@@ -64,13 +69,24 @@ public interface OrderManagement<T extends Order> {
 
 	/**
 	 * Returns all {@link Order}s having the {@link OrderStatus} {@code status}. If no orders with the specified status
-	 * exist, an empty Iterable is returned.
+	 * exist, an empty Iterable is returned. Includes the {@link Order}s archived by the {@link OrderArchiver}.
 	 *
 	 * @param orderStatus Denoting the {@link OrderStatus} on which the {@link Order}s will be requested.
 	 * @return a {@link Streamable} containing all {@link Order}s with the specified {@link OrderStatus}
 	 */
 	Streamable<T> findBy(OrderStatus orderStatus);
 
+	/**
+	 * Returns all {@link Order}s having the given {@link OrderStatus} loaded according to the given
+	 * {@link OrderFetchPlan}. Includes the {@link Order}s archived by the {@link OrderArchiver}.
+	 *
+	 * @param orderStatus must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @return a {@link Streamable} containing all {@link Order}s with the specified {@link OrderStatus}.
+	 * @since 7.4
+	 */
+	Streamable<T> findBy(OrderStatus orderStatus, OrderFetchPlan plan);
+
 	/**
 	 * Returns all {@link Order}s in between the {@link Interval}. So every entry with an time stamp <= to and >= from is
 	 * returned. If no {@link Order}s within the specified time span exist, an empty {@link Iterable} is returned.
@@ -80,9 +96,19 @@ public interface OrderManagement<T extends Order> {
 	 */
 	Streamable<T> findBy(Interval interval);
 
+	/**
+	 * Returns all {@link Order}s in between the {@link Interval} loaded according to the given {@link OrderFetchPlan}.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @return a {@link Streamable} containing all {@link Order}s in the given {@link Interval}.
+	 * @since 7.4
+	 */
+	Streamable<T> findBy(Interval interval, OrderFetchPlan plan);
+
 	/**
 	 * Returns all {@link Order}s of the given {@link UserAccount}. If this user has no orders, an empty {@link Iterable}
-	 * is returned.
+	 * is returned. Includes the {@link Order}s archived by the {@link OrderArchiver}.
 	 *
 	 * @param userAccount Denoting the {@link UserAccount} on which the orders will be requested, must not be
 	 *          {@literal null}.
@@ -90,6 +116,17 @@ public interface OrderManagement<T extends Order> {
 	 */
 	Streamable<T> findBy(UserAccount userAccount);
 
+	/**
+	 * Returns all {@link Order}s of the given {@link UserAccount} loaded according to the given {@link OrderFetchPlan}.
+	 * Includes the {@link Order}s archived by the {@link OrderArchiver}.
+	 *
+	 * @param userAccount must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @return a {@link Streamable} containing all orders of the specified user.
+	 * @since 7.4
+	 */
+	Streamable<T> findBy(UserAccount userAccount, OrderFetchPlan plan);
+
 	/**
 	 * Returns all {@link Order}s from the given {@link UserAccount} in between the dates {@code from} and {@code to},
 	 * including from and to. So every entry with an time stamp <= to and >= from is returned. If this user has no
@@ -102,7 +139,94 @@ public interface OrderManagement<T extends Order> {
 	Streamable<T> findBy(UserAccount userAccount, Interval interval);
 
 	/**
-	 * Tries to complete this order, the {@link OrderStatus} has to be {@link OrderStatus#PAID}.
+	 * Returns all {@link Order}s from the given {@link UserAccount} in between the given {@link Interval} loaded
+	 * according to the given {@link OrderFetchPlan}.
+	 *
+	 * @param userAccount must not be {@literal null}.
+	 * @param interval must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @return a {@link Streamable} containing all orders from the specified user in the specified period.
+	 * @since 7.4
+	 */
+	Streamable<T> findBy(UserAccount userAccount, Interval interval, OrderFetchPlan plan);
+
+	/**
+	 * Returns all {@link Order}s created within the given {@link Interval} that contain an {@link OrderLine} for the
+	 * {@link org.salespointframework.catalog.Product} with the given {@link ProductIdentifier}. The lookup is executed in
+	 * the database using the index on the product identifier of the {@link OrderLine}s. To page through large numbers of
+	 * {@link Order}s, use {@link #findWindow(OrderWindowRequest)} with
+	 * {@link OrderWindowRequest#containing(ProductIdentifier)}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @param interval must not be {@literal null}.
+	 * @return a {@link Streamable} containing all {@link Order}s containing the given product, ordered by their creation
+	 *         date.
+	 * @since 7.4
+	 */
+	Streamable<T> findContaining(ProductIdentifier product, Interval interval);
+
+	/**
+	 * Returns all {@link Order}s with a total greater than the given {@link MonetaryAmount}. Only {@link Order}s with a
+	 * total in the currency of the given amount are considered. The lookup is executed in the database using the total
+	 * persisted with the {@link Order}, i.e. no lines need to be loaded. {@link Order}s persisted before the total was
+	 * stored alongside them are only considered once their totals have been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param amount must not be {@literal null}.
+	 * @return a {@link Streamable} containing all {@link Order}s with a total greater than the given amount.
+	 * @since 7.4
+	 */
+	Streamable<T> findByTotalGreaterThan(MonetaryAmount amount);
+
+	/**
+	 * Returns the sum of the totals of all {@link Order}s in the given {@link CurrencyUnit} created within the given
+	 * {@link Interval}. The sum is calculated in the database. {@link Order}s persisted before the total was stored
+	 * alongside them are only considered once their totals have been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @param currency must not be {@literal null}.
+	 * @return the sum of all totals, will never be {@literal null}.
+	 * @since 7.4
+	 */
+	MonetaryAmount sumTotals(Interval interval, CurrencyUnit currency);
+
+	/**
+	 * Returns the number of {@link Order}s with the given {@link OrderStatus}. The {@link Order}s are counted in the
+	 * database, i.e. none of them is loaded.
+	 *
+	 * @param orderStatus must not be {@literal null}.
+	 * @return the number of {@link Order}s with the given {@link OrderStatus}.
+	 * @since 7.4
+	 */
+	long countBy(OrderStatus orderStatus);
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created within the given {@link Interval} per
+	 * {@link OrderStatus}. Calculated in a single aggregate query, i.e. none of the {@link Order}s is loaded. As totals
+	 * can only be summed up per currency, the result contains an {@link OrderTotals} instance per {@link OrderStatus}
+	 * and currency.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	Streamable<OrderTotals<OrderStatus>> countByStatus(Interval interval);
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created within the given {@link Interval} per
+	 * {@link UserAccount}. Calculated in a single aggregate query, i.e. none of the {@link Order}s is loaded. As totals
+	 * can only be summed up per currency, the result contains an {@link OrderTotals} instance per {@link UserAccount}
+	 * and currency.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	Streamable<OrderTotals<UserAccountIdentifier>> totalsByUser(Interval interval);
+
+	/**
+	 * Tries to complete this order, the {@link OrderStatus} has to be {@link OrderStatus#PAID}. If the
+	 * {@link OrderEventOutbox} is enabled, the {@link OrderCompleted} event is dispatched asynchronously and thus failures
+	 * of its listeners don't prevent the completion.
 	 *
 	 * @param order the order to complete, must not be {@literal null}.
 	 * @throws OrderCompletionFailure in case the order can't be completed.
@@ -129,6 +253,47 @@ public interface OrderManagement<T extends Order> {
 	 */
 	boolean cancelOrder(T order, String reason);
 
+	/**
+	 * Pays all given {@link Order}s that expect a payment (see {@link #payOrder(Order)}). The {@link Order}s are
+	 * processed in chunks, each in a transaction of its own unless the method is called within a transaction already.
+	 * Instead of an {@link OrderPaid} event per {@link Order}, a single {@link OrderEvents.OrdersPaid} event is published
+	 * per chunk. If the {@link OrderEventOutbox} is enabled, an {@link OrderPaid} event per {@link Order} is written to
+	 * it instead.
+	 *
+	 * @param orders the orders to be paid, must not be {@literal null}.
+	 * @return an {@link OrderBatchReport} with one entry per {@link Order}, will never be {@literal null}.
+	 * @since 7.4
+	 */
+	OrderBatchReport<T> payOrders(Iterable<T> orders);
+
+	/**
+	 * Completes all given {@link Order}s (see {@link #completeOrder(Order)}). The {@link Order}s are processed in
+	 * chunks, each in a transaction of its own unless the method is called within a transaction already. Instead of an
+	 * {@link OrderCompleted} event per {@link Order}, a single {@link OrderEvents.OrdersCompleted} event is published per
+	 * chunk. {@link Order}s that cannot be completed are reported as failures rather than causing the entire operation
+	 * to fail. If the {@link OrderEventOutbox} is enabled, an {@link OrderCompleted} event per {@link Order} is written
+	 * to it instead.
+	 *
+	 * @param orders the orders to be completed, must not be {@literal null}.
+	 * @return an {@link OrderBatchReport} with one entry per {@link Order}, will never be {@literal null}.
+	 * @since 7.4
+	 */
+	OrderBatchReport<T> completeOrders(Iterable<T> orders);
+
+	/**
+	 * Cancels all given {@link Order}s (see {@link #cancelOrder(Order, String)}). The {@link Order}s are processed in
+	 * chunks, each in a transaction of its own unless the method is called within a transaction already. Instead of
+	 * individual {@link OrderCompleted} and {@link OrderCanceled} events, a single {@link OrderEvents.OrdersCompleted}
+	 * event for the {@link Order}s not completed yet and a single {@link OrderEvents.OrdersCanceled} event is published
+	 * per chunk. If the {@link OrderEventOutbox} is enabled, the individual events are written to it instead.
+	 *
+	 * @param orders the orders to be canceled, must not be {@literal null}.
+	 * @param reason the reason the orders were cancelled, must not be {@literal null}.
+	 * @return an {@link OrderBatchReport} with one entry per {@link Order}, will never be {@literal null}.
+	 * @since 7.4
+	 */
+	OrderBatchReport<T> cancelOrders(Iterable<T> orders, String reason);
+
 	/**
 	 * Deletes the given {@link Order}.
 	 *
@@ -145,4 +310,40 @@ public interface OrderManagement<T extends Order> {
 	 * @since 7.1
 	 */
 	Page<T> findAll(Pageable pageable);
+
+	/**
+	 * Returns the {@link Page} of orders specified by the given {@link Pageable} loaded according to the given
+	 * {@link OrderFetchPlan}.
+	 *
+	 * @param pageable must not be {@literal null}.
+	 * @param plan must not be {@literal null}.
+	 * @return the {@link Page} of orders specified by the given {@link Pageable}.
+	 * @since 7.4
+	 */
+	Page<T> findAll(Pageable pageable, OrderFetchPlan plan);
+
+	/**
+	 * Returns the {@link OrderWindow} for the given {@link OrderWindowRequest}, i.e. the {@link Order}s matching all its
+	 * criteria and following the requested {@link OrderCursor} ordered by their creation date and identifier. All
+	 * criteria are combined into a single query. Prefer this over {@link #findAll(Pageable)} to page through large
+	 * numbers of {@link Order}s as the lookup neither issues a count query nor gets slower with the number of
+	 * {@link Order}s preceding the requested window. The {@link Order}s are loaded as described for
+	 * {@link OrderFetchPlan#SUMMARY}.
+	 *
+	 * @param request must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	OrderWindow<T> findWindow(OrderWindowRequest request);
+
+	/**
+	 * Returns the {@link OrderWindow} of {@link OrderSummary}s for the given {@link OrderWindowRequest}. Prefer this
+	 * over {@link #findWindow(OrderWindowRequest)} to list large numbers of {@link Order}s as neither their lines nor
+	 * their {@link PaymentMethod}s are loaded.
+	 *
+	 * @param request must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	OrderWindow<OrderSummary> findSummaries(OrderWindowRequest request);
 }
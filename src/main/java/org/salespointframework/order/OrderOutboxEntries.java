@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.salespointframework.order.OrderOutboxEntry.Status;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Storage of {@link OrderOutboxEntry}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderOutboxEntryRepository
+ * @see InMemoryOrderOutboxEntries
+ */
+interface OrderOutboxEntries {
+
+	/**
+	 * Saves the given {@link OrderOutboxEntry}.
+	 *
+	 * @param entry must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	<S extends OrderOutboxEntry> S save(S entry);
+
+	/**
+	 * Returns the {@link OrderOutboxEntry} with the given identifier.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Optional<OrderOutboxEntry> findById(Long id);
+
+	/**
+	 * Returns the {@link OrderOutboxEntry}s with the given {@link Status} in the order they were written.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	List<OrderOutboxEntry> findByStatusOrderByIdAsc(Status status, Pageable pageable);
+
+	/**
+	 * Returns the oldest {@link OrderOutboxEntry} with the given {@link Status}.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	Optional<OrderOutboxEntry> findFirstByStatusOrderByIdAsc(Status status);
+
+	/**
+	 * Returns the number of {@link OrderOutboxEntry}s with the given {@link Status}.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @return
+	 */
+	long countByStatus(Status status);
+}
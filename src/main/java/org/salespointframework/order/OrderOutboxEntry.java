@@ -0,0 +1,189 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import lombok.ToString;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import javax.persistence.AttributeOverride;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.EnumType;
+import javax.persistence.Enumerated;
+import javax.persistence.GeneratedValue;
+import javax.persistence.Id;
+import javax.persistence.Index;
+import javax.persistence.Table;
+
+import org.jmolecules.event.types.DomainEvent;
+import org.salespointframework.order.OrderEvents.OrderCanceled;
+import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * An order event written to the {@link OrderEventOutbox} to be dispatched asynchronously. Captures the
+ * {@link OrderIdentifier} and the {@link OrderStatus} of the {@link Order} at the time the event was written, so that
+ * the event can be published with the {@link Order} in that state although it might have changed in the meantime.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Entity
+@Getter
+@ToString
+@Table(name = "ORDER_OUTBOX", indexes = @Index(name = "ORDER_OUTBOX_STATUS_IDX", columnList = "status, id"))
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class OrderOutboxEntry {
+
+	private @Id @GeneratedValue @Setter(AccessLevel.PACKAGE) Long id;
+
+	@AttributeOverride(name = "id", column = @Column(name = "ORDER_ID")) //
+	private final OrderIdentifier orderIdentifier;
+
+	@Enumerated(EnumType.STRING) //
+	private final Type type;
+
+	@Enumerated(EnumType.STRING) //
+	private final OrderStatus orderStatus;
+
+	private final @Nullable String reason;
+	private final LocalDateTime dateCreated;
+
+	@Enumerated(EnumType.STRING) //
+	private Status status = Status.PENDING;
+
+	private int attempts;
+	private @Nullable String lastError;
+	private @Nullable LocalDateTime dateDispatched;
+
+	private OrderOutboxEntry(Order order, Type type, @Nullable String reason, LocalDateTime dateCreated) {
+
+		Assert.notNull(order, "Order must not be null!");
+		Assert.notNull(dateCreated, "Creation date must not be null!");
+
+		this.orderIdentifier = order.getId();
+		this.type = type;
+		this.orderStatus = order.getOrderStatus();
+		this.reason = reason;
+		this.dateCreated = dateCreated;
+	}
+
+	static OrderOutboxEntry paid(Order order, LocalDateTime now) {
+		return new OrderOutboxEntry(order, Type.PAID, null, now);
+	}
+
+	static OrderOutboxEntry completed(Order order, LocalDateTime now) {
+		return new OrderOutboxEntry(order, Type.COMPLETED, null, now);
+	}
+
+	static OrderOutboxEntry canceled(Order order, String reason, LocalDateTime now) {
+
+		Assert.notNull(reason, "Reason must not be null!");
+
+		return new OrderOutboxEntry(order, Type.CANCELED, reason, now);
+	}
+
+	/**
+	 * Creates the {@link DomainEvent} to publish for the given {@link Order}, reverting it to the {@link OrderStatus} it
+	 * had when the entry was written. The given {@link Order} must thus not be managed by a persistence context anymore.
+	 *
+	 * @param order must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	DomainEvent toEvent(Order order) {
+
+		Assert.isTrue(order.getId().equals(orderIdentifier), "Order does not belong to outbox entry!");
+
+		order.revertTo(orderStatus);
+
+		switch (type) {
+			case PAID:
+				return OrderPaid.of(order);
+			case COMPLETED:
+				return OrderCompleted.of(order);
+			case CANCELED:
+			default:
+				return OrderCanceled.of(order, reason);
+		}
+	}
+
+	/**
+	 * Marks the entry as dispatched.
+	 *
+	 * @param now must not be {@literal null}.
+	 * @return the current entry.
+	 */
+	OrderOutboxEntry markDispatched(LocalDateTime now) {
+
+		this.status = Status.DISPATCHED;
+		this.dateDispatched = now;
+		this.lastError = null;
+
+		return this;
+	}
+
+	/**
+	 * Records a failed attempt to dispatch the entry and marks it as {@link Status#FAILED} if the given maximum number of
+	 * attempts is reached.
+	 *
+	 * @param error must not be {@literal null}.
+	 * @param maxAttempts the maximum number of attempts.
+	 * @return the current entry.
+	 */
+	OrderOutboxEntry markAttemptFailed(Exception error, int maxAttempts) {
+
+		this.attempts++;
+		this.lastError = Optional.ofNullable(error.getMessage()) //
+				.map(it -> it.length() > 255 ? it.substring(0, 255) : it) //
+				.orElseGet(() -> error.getClass().getName());
+
+		if (attempts >= maxAttempts) {
+			this.status = Status.FAILED;
+		}
+
+		return this;
+	}
+
+	boolean isPending() {
+		return status == Status.PENDING;
+	}
+
+	/**
+	 * The type of order event captured.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	enum Type {
+		PAID, COMPLETED, CANCELED;
+	}
+
+	/**
+	 * The dispatch status of an {@link OrderOutboxEntry}.
+	 *
+	 * @author Oliver Drotbohm
+	 */
+	enum Status {
+		PENDING, DISPATCHED, FAILED;
+	}
+}
@@ -0,0 +1,27 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import org.springframework.data.repository.CrudRepository;
+
+/**
+ * Repository for {@link OrderOutboxEntry}s, i.e. the {@link OrderOutboxEntries} writing the entries in the same
+ * transaction as the change to the {@link Order}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface OrderOutboxEntryRepository extends CrudRepository<OrderOutboxEntry, Long>, OrderOutboxEntries {}
@@ -0,0 +1,79 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.PostLoad;
+import javax.persistence.PrePersist;
+import javax.persistence.Table;
+import javax.persistence.Transient;
+
+import org.springframework.data.domain.Persistable;
+import org.springframework.util.Assert;
+
+/**
+ * The lease of an {@link OrderEventOutbox} instance to dispatch the events persisted in the database. Held by a single
+ * instance at a time so that multiple application instances sharing the database don't dispatch the same events.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Entity
+@Getter
+@Table(name = "ORDER_OUTBOX_LEASE")
+@NoArgsConstructor(force = true, access = AccessLevel.PRIVATE)
+class OrderOutboxLease implements Persistable<String> {
+
+	static final String ID = "order-events";
+
+	private @Id final String id;
+	private final String owner;
+	private final LocalDateTime expires;
+
+	private @Transient @Getter(AccessLevel.NONE) boolean isNew = true;
+
+	OrderOutboxLease(String owner, LocalDateTime expires) {
+
+		Assert.hasText(owner, "Owner must not be null or empty!");
+		Assert.notNull(expires, "Expiry date must not be null!");
+
+		this.id = ID;
+		this.owner = owner;
+		this.expires = expires;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.springframework.data.domain.Persistable#isNew()
+	 */
+	@Override
+	public boolean isNew() {
+		return isNew;
+	}
+
+	@PrePersist
+	@PostLoad
+	void markNotNew() {
+		this.isNew = false;
+	}
+}
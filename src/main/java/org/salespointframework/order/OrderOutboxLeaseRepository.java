@@ -0,0 +1,62 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import java.time.LocalDateTime;
+
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Repository for {@link OrderOutboxLease}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+interface OrderOutboxLeaseRepository extends CrudRepository<OrderOutboxLease, String> {
+
+	/**
+	 * Extends the {@link OrderOutboxLease} with the given identifier until the given date for the given owner, if and
+	 * only if it is held by that owner already or has expired.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param owner must not be {@literal null}.
+	 * @param now must not be {@literal null}.
+	 * @param expires must not be {@literal null}.
+	 * @return the number of {@link OrderOutboxLease}s updated, i.e. {@literal 0} in case the lease doesn't exist or is
+	 *         held by another owner.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update OrderOutboxLease l set l.owner = ?2, l.expires = ?4" //
+			+ " where l.id = ?1 and (l.owner = ?2 or l.expires < ?3)")
+	int renew(String id, String owner, LocalDateTime now, LocalDateTime expires);
+
+	/**
+	 * Expires the {@link OrderOutboxLease} with the given identifier at the given date, if held by the given owner.
+	 *
+	 * @param id must not be {@literal null}.
+	 * @param owner must not be {@literal null}.
+	 * @param now must not be {@literal null}.
+	 * @return the number of {@link OrderOutboxLease}s released.
+	 */
+	@Transactional
+	@Modifying(flushAutomatically = true)
+	@Query("update OrderOutboxLease l set l.expires = ?3 where l.id = ?1 and l.owner = ?2")
+	int release(String id, String owner, LocalDateTime now);
+}
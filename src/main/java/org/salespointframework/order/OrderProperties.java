@@ -0,0 +1,205 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.Value;
+
+import java.time.Duration;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.ConstructorBinding;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * Properties to configure Salespoint's order management. Declare {@code salespoint.order.…} in application properties
+ * to tweak settings.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Value
+@ConstructorBinding
+@ConfigurationProperties("salespoint.order")
+class OrderProperties {
+
+	static final int DEFAULT_BULK_CHUNK_SIZE = 500;
+
+	/**
+	 * The number of {@link Order}s handled in a single transaction by bulk operations like
+	 * {@link OrderManagement#payOrders(Iterable)}, defaults to {@value #DEFAULT_BULK_CHUNK_SIZE}.
+	 */
+	private int bulkChunkSize;
+
+	/**
+	 * Configuration of the outbox to dispatch order events asynchronously.
+	 */
+	private Outbox outbox;
+
+	/**
+	 * Configuration of the archiving of finished {@link Order}s.
+	 */
+	private Archive archive;
+
+	OrderProperties(@Nullable Integer bulkChunkSize, @Nullable Outbox outbox, @Nullable Archive archive) {
+
+		this.bulkChunkSize = bulkChunkSize == null ? DEFAULT_BULK_CHUNK_SIZE : bulkChunkSize;
+		this.outbox = outbox == null ? new Outbox(false, null, null, null, null, null) : outbox;
+		this.archive = archive == null ? new Archive(false, null, null, null) : archive;
+
+		Assert.isTrue(this.bulkChunkSize > 0, "Bulk chunk size must be greater than zero!");
+	}
+
+	/**
+	 * Properties to configure the {@link OrderEventOutbox}. Declare {@code salespoint.order.outbox.…} in application
+	 * properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Outbox {
+
+		/**
+		 * Whether to write order events to an outbox and dispatch them asynchronously instead of publishing them
+		 * synchronously within the transaction changing the {@link Order}, defaults to {@literal false}.
+		 */
+		private boolean enabled;
+
+		/**
+		 * Where to keep the outbox entries, defaults to {@link Store#JPA}.
+		 */
+		private Store store;
+
+		/**
+		 * The number of threads to dispatch events with, defaults to 4.
+		 */
+		private int workers;
+
+		/**
+		 * The maximum number of attempts to dispatch an event before it's marked as failed, defaults to 5.
+		 */
+		private int maxAttempts;
+
+		/**
+		 * The maximum number of events dispatched per round, defaults to 100.
+		 */
+		private int batchSize;
+
+		/**
+		 * The interval to check for pending events in, defaults to one second. Set to zero to disable scheduled
+		 * dispatching and trigger it manually via {@link OrderEventOutbox#dispatchPending()}.
+		 */
+		private Duration pollInterval;
+
+		Outbox(boolean enabled, @Nullable Store store, @Nullable Integer workers, @Nullable Integer maxAttempts,
+				@Nullable Integer batchSize, @Nullable Duration pollInterval) {
+
+			this.enabled = enabled;
+			this.store = store == null ? Store.JPA : store;
+			this.workers = workers == null ? 4 : workers;
+			this.maxAttempts = maxAttempts == null ? 5 : maxAttempts;
+			this.batchSize = batchSize == null ? 100 : batchSize;
+			this.pollInterval = pollInterval == null ? Duration.ofSeconds(1) : pollInterval;
+
+			Assert.isTrue(this.workers > 0, "Number of outbox workers must be greater than zero!");
+			Assert.isTrue(this.maxAttempts > 0, "Maximum number of attempts must be greater than zero!");
+			Assert.isTrue(this.batchSize > 0, "Outbox batch size must be greater than zero!");
+			Assert.isTrue(!this.pollInterval.isNegative(), "Poll interval must not be negative!");
+		}
+
+		/**
+		 * Whether events are supposed to be dispatched periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return !pollInterval.isZero();
+		}
+
+		/**
+		 * The storage options for outbox entries.
+		 *
+		 * @author Oliver Drotbohm
+		 * @since 7.4
+		 */
+		enum Store {
+
+			/**
+			 * Stores the entries in a database table within the transaction changing the {@link Order}.
+			 */
+			JPA,
+
+			/**
+			 * Keeps the entries in memory. Not transactional and only meant to be used in tests.
+			 */
+			IN_MEMORY;
+		}
+	}
+
+	/**
+	 * Properties to configure the {@link OrderArchiver}. Declare {@code salespoint.order.archive.…} in application
+	 * properties to tweak settings.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	@Value
+	static class Archive {
+
+		/**
+		 * Whether to archive finished {@link Order}s, defaults to {@literal false}.
+		 */
+		private boolean enabled;
+
+		/**
+		 * The age after which completed or cancelled {@link Order}s are archived, defaults to 365 days.
+		 */
+		private Duration age;
+
+		/**
+		 * The number of {@link Order}s archived in a single transaction, defaults to 500.
+		 */
+		private int batchSize;
+
+		/**
+		 * The interval to archive {@link Order}s in, defaults to one hour. Set to zero to disable scheduled archiving and
+		 * trigger it manually via {@link OrderArchiver#archive()}.
+		 */
+		private Duration interval;
+
+		Archive(boolean enabled, @Nullable Duration age, @Nullable Integer batchSize, @Nullable Duration interval) {
+
+			this.enabled = enabled;
+			this.age = age == null ? Duration.ofDays(365) : age;
+			this.batchSize = batchSize == null ? 500 : batchSize;
+			this.interval = interval == null ? Duration.ofHours(1) : interval;
+
+			Assert.isTrue(!this.age.isNegative(), "Archive age must not be negative!");
+			Assert.isTrue(this.batchSize > 0, "Archive batch size must be greater than zero!");
+			Assert.isTrue(!this.interval.isNegative(), "Archive interval must not be negative!");
+		}
+
+		/**
+		 * Whether archiving is supposed to run periodically.
+		 *
+		 * @return
+		 */
+		boolean isScheduled() {
+			return !interval.isZero();
+		}
+	}
+}
@@ -15,22 +15,38 @@
  */
 package org.salespointframework.order;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.salespointframework.time.Interval;
 import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountIdentifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
 
 /**
- * Repository interface for {@link Order}s.
+ * Repository interface for {@link Order}s. All finder methods load the {@link Order}s using the
+ * {@value Order#SUMMARY_GRAPH} entity graph, i.e. the {@link UserAccount} is loaded in the same query, lines are loaded
+ * lazily in batches.
  *
  * @author Oliver Gierke
  */
-interface OrderRepository<T extends Order> extends PagingAndSortingRepository<T, OrderIdentifier> {
+interface OrderRepository<T extends Order>
+		extends PagingAndSortingRepository<T, OrderIdentifier>, CustomizedOrderRepository<T> {
 
 	/**
 	 * Re-declaration of the method actually already contained in {@link PagingAndSortingRepository} to use the JPQL based
@@ -41,6 +57,7 @@ interface OrderRepository<T extends Order> extends PagingAndSortingRepository<T,
 	 * @return
 	 */
 	@Override
+	@EntityGraph(Order.SUMMARY_GRAPH)
 	@Query("select o from #{#entityName} o")
 	Page<T> findAll(Pageable pageable);
 
@@ -49,18 +66,31 @@ interface OrderRepository<T extends Order> extends PagingAndSortingRepository<T,
 	 * @param to
 	 * @return
 	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
 	Streamable<T> findByDateCreatedBetween(LocalDateTime from, LocalDateTime to);
 
 	/**
 	 * @param orderStatus
 	 * @return
 	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
 	Streamable<T> findByOrderStatus(OrderStatus orderStatus);
 
+	/**
+	 * Returns all {@link Order}s with the given {@link OrderStatus} that have not been archived yet.
+	 *
+	 * @param orderStatus must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
+	Streamable<T> findByArchivedFalseAndOrderStatus(OrderStatus orderStatus);
+
 	/**
 	 * @param userAccount
 	 * @return
 	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
 	Streamable<T> findByUserAccount(UserAccount userAccount);
 
 	/**
@@ -69,5 +99,220 @@ interface OrderRepository<T extends Order> extends PagingAndSortingRepository<T,
 	 * @param to
 	 * @return
 	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
 	Streamable<T> findByUserAccountAndDateCreatedBetween(UserAccount userAccount, LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the identifiers of the next {@link Order}s to archive, i.e. the ones in one of the given
+	 * {@link OrderStatus}es created before the given date that have not been archived yet.
+	 *
+	 * @param status must not be {@literal null}.
+	 * @param horizon must not be {@literal null}.
+	 * @param pageable must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@Query("select o.orderIdentifier.id from #{#entityName} o" //
+			+ " where o.archived = false and o.orderStatus in ?1 and o.dateCreated < ?2" //
+			+ " order by o.dateCreated, o.orderIdentifier.id")
+	List<String> findArchivable(Collection<OrderStatus> status, LocalDateTime horizon, Pageable pageable);
+
+	/**
+	 * Marks the {@link Order}s with the given identifiers as archived. {@link Order} instances already loaded don't
+	 * reflect the change.
+	 *
+	 * @param identifiers must not be {@literal null}.
+	 * @return the number of {@link Order}s archived.
+	 * @since 7.4
+	 */
+	@Modifying(flushAutomatically = true)
+	@Query("update #{#entityName} o set o.archived = true where o.orderIdentifier.id in ?1")
+	int archive(Collection<String> identifiers);
+
+	/**
+	 * Returns the number of {@link Order}s with the given {@link OrderStatus}.
+	 *
+	 * @param orderStatus must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	long countByOrderStatus(OrderStatus orderStatus);
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created in between the given dates per
+	 * {@link OrderStatus} and currency.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@Query("select o.orderStatus as key, count(o) as count, sum(o.totalAmount) as amount, o.totalCurrency as currency" //
+			+ " from #{#entityName} o where o.dateCreated between ?1 and ?2" //
+			+ " group by o.orderStatus, o.totalCurrency order by o.orderStatus, o.totalCurrency")
+	List<OrderTotalsRow> countByStatus(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created in the given {@link Interval} per
+	 * {@link OrderStatus} and currency.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	default Streamable<OrderTotals<OrderStatus>> countByStatus(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		var from = interval.getStart();
+		var to = interval.getEnd();
+
+		return OrderTotals.of(countByStatus(from, to), () -> findWithoutTotal(from, to), Order::getOrderStatus);
+	}
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created in between the given dates per
+	 * {@link UserAccount} and currency.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@Query("select o.userAccount.userAccountIdentifier as key, count(o) as count, sum(o.totalAmount) as amount," //
+			+ " o.totalCurrency as currency from #{#entityName} o where o.dateCreated between ?1 and ?2" //
+			+ " group by o.userAccount.userAccountIdentifier, o.totalCurrency")
+	List<OrderTotalsRow> totalsByUser(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the number and the sum of the totals of the {@link Order}s created in the given {@link Interval} per
+	 * {@link UserAccount} and currency.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	default Streamable<OrderTotals<UserAccountIdentifier>> totalsByUser(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		var from = interval.getStart();
+		var to = interval.getEnd();
+
+		return OrderTotals.of(totalsByUser(from, to), () -> findWithoutTotal(from, to),
+				it -> it.getUserAccount().getId());
+	}
+
+	/**
+	 * Returns all {@link Order}s created in between the given dates that don't have a total persisted yet, i.e. ones
+	 * persisted before the total was stored alongside the {@link Order}.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
+	@Query("select o from #{#entityName} o" //
+			+ " where o.totalCurrency is null and o.dateCreated between ?1 and ?2")
+	List<T> findWithoutTotal(LocalDateTime from, LocalDateTime to);
+
+	/**
+	 * Returns the given page of all {@link Order}s that don't have a total persisted yet.
+	 *
+	 * @param pageable must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 * @see OrderTotalsMigration
+	 */
+	@Query("select o from #{#entityName} o where o.totalCurrency is null")
+	List<T> findWithoutTotal(Pageable pageable);
+
+	/**
+	 * A row of an aggregate query over {@link Order}s.
+	 *
+	 * @author Oliver Drotbohm
+	 * @since 7.4
+	 */
+	interface OrderTotalsRow {
+
+		Object getKey();
+
+		Long getCount();
+
+		@Nullable
+		BigDecimal getAmount();
+
+		@Nullable
+		String getCurrency();
+
+		default <K> OrderTotals<K> toTotals() {
+			return new OrderTotals<>(getKey(), getCount(), getAmount(), getCurrency());
+		}
+	}
+
+	/**
+	 * Returns all {@link Order}s with a total in the given currency greater than the given amount. {@link Order}s
+	 * persisted before the total was stored alongside the {@link Order} are only considered once their totals have been
+	 * migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param currencyCode must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	@EntityGraph(Order.SUMMARY_GRAPH)
+	@Query("select o from #{#entityName} o where o.totalCurrency = ?1 and o.totalAmount > ?2")
+	Streamable<T> findByTotalGreaterThan(String currencyCode, BigDecimal amount);
+
+	/**
+	 * Returns all {@link Order}s with a total greater than the given {@link MonetaryAmount}. Only {@link Order}s with a
+	 * total in the currency of the given amount are considered. {@link Order}s persisted before the total was stored
+	 * alongside the {@link Order} are only considered once their totals have been migrated using
+	 * {@link OrderTotalsMigration}.
+	 *
+	 * @param amount must not be {@literal null}.
+	 * @return
+	 * @since 7.4
+	 */
+	default Streamable<T> findByTotalGreaterThan(MonetaryAmount amount) {
+
+		Assert.notNull(amount, "Amount must not be null!");
+
+		return findByTotalGreaterThan(amount.getCurrency().getCurrencyCode(),
+				amount.getNumber().numberValueExact(BigDecimal.class));
+	}
+
+	/**
+	 * Returns the sum of the totals of all {@link Order}s in the given currency created in between the given dates.
+	 * {@link Order}s persisted before the total was stored alongside the {@link Order} are only considered once their
+	 * totals have been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param from must not be {@literal null}.
+	 * @param to must not be {@literal null}.
+	 * @param currencyCode must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	@Query("select coalesce(sum(o.totalAmount), 0) from #{#entityName} o" //
+			+ " where o.dateCreated between ?1 and ?2 and o.totalCurrency = ?3")
+	BigDecimal sumTotals(LocalDateTime from, LocalDateTime to, String currencyCode);
+
+	/**
+	 * Returns the sum of the totals of all {@link Order}s created in the given {@link Interval} in the given
+	 * {@link CurrencyUnit}. {@link Order}s persisted before the total was stored alongside the {@link Order} are only
+	 * considered once their totals have been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @param currency must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 * @since 7.4
+	 */
+	default MonetaryAmount sumTotals(Interval interval, CurrencyUnit currency) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+		Assert.notNull(currency, "Currency must not be null!");
+
+		return Money.of(sumTotals(interval.getStart(), interval.getEnd(), currency.getCurrencyCode()), currency);
+	}
 }
@@ -0,0 +1,45 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+import javax.money.MonetaryAmount;
+
+import org.salespointframework.useraccount.UserAccountIdentifier;
+
+/**
+ * A read-only summary of an {@link Order} as returned by {@link OrderManagement#findSummaries(OrderWindowRequest)}.
+ * Only contains the columns of the order table itself, i.e. looking it up neither loads the {@link Order}'s lines nor
+ * its {@link org.salespointframework.payment.PaymentMethod}.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Value
+@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
+public class OrderSummary {
+
+	OrderIdentifier id;
+	LocalDateTime dateCreated;
+	OrderStatus orderStatus;
+	UserAccountIdentifier userAccount;
+	MonetaryAmount total;
+}
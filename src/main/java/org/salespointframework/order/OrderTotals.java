@@ -0,0 +1,141 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import javax.money.Monetary;
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.salespointframework.order.OrderRepository.OrderTotalsRow;
+import org.springframework.data.util.Streamable;
+import org.springframework.util.Assert;
+
+/**
+ * The number of {@link Order}s and the sum of their totals for a particular key, e.g. an {@link OrderStatus}.
+ * Calculated by the database, i.e. without loading the {@link Order}s themselves. As totals can only be summed up per
+ * currency, there's one {@link OrderTotals} instance per key and currency. {@link Order}s persisted without a total
+ * (i.e. before the total was stored alongside the {@link Order}) are loaded and their totals recomputed from their
+ * lines.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderManagement#countByStatus(org.salespointframework.time.Interval)
+ * @see OrderManagement#totalsByUser(org.salespointframework.time.Interval)
+ */
+@Value
+public class OrderTotals<K> {
+
+	/**
+	 * The key the {@link Order}s were grouped by.
+	 */
+	K key;
+
+	/**
+	 * The number of {@link Order}s.
+	 */
+	long count;
+
+	/**
+	 * The sum of the totals of the {@link Order}s.
+	 */
+	MonetaryAmount total;
+
+	/**
+	 * Creates a new {@link OrderTotals} instance from the raw values of an aggregate query.
+	 *
+	 * @param key must not be {@literal null}.
+	 * @param count must not be {@literal null}.
+	 * @param amount must not be {@literal null}.
+	 * @param currency must not be {@literal null}.
+	 */
+	@SuppressWarnings("unchecked")
+	OrderTotals(Object key, Long count, BigDecimal amount, String currency) {
+
+		Assert.notNull(key, "Key must not be null!");
+		Assert.notNull(count, "Count must not be null!");
+		Assert.notNull(amount, "Amount must not be null!");
+		Assert.notNull(currency, "Currency must not be null!");
+
+		this.key = (K) key;
+		this.count = count;
+		this.total = Money.of(amount, Monetary.getCurrency(currency));
+	}
+
+	private OrderTotals(K key, long count, MonetaryAmount total) {
+
+		this.key = key;
+		this.count = count;
+		this.total = total;
+	}
+
+	/**
+	 * Creates {@link OrderTotals} from the given rows of an aggregate query. Rows without a currency represent the
+	 * {@link Order}s without a persisted total, which are obtained from the given {@link Supplier}, get their totals
+	 * recomputed and are added to the totals of their key and currency.
+	 *
+	 * @param rows must not be {@literal null}.
+	 * @param legacy must not be {@literal null}.
+	 * @param keyExtractor must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static <K> Streamable<OrderTotals<K>> of(List<? extends OrderTotalsRow> rows,
+			Supplier<? extends Iterable<? extends Order>> legacy, Function<Order, K> keyExtractor) {
+
+		Assert.notNull(rows, "Rows must not be null!");
+		Assert.notNull(legacy, "Legacy orders must not be null!");
+		Assert.notNull(keyExtractor, "Key extractor must not be null!");
+
+		var totals = new LinkedHashMap<List<Object>, OrderTotals<K>>();
+		var hasLegacy = false;
+
+		for (OrderTotalsRow row : rows) {
+
+			if (row.getCurrency() == null) {
+				hasLegacy = true;
+				continue;
+			}
+
+			totals.put(Arrays.asList(row.getKey(), row.getCurrency()), row.toTotals());
+		}
+
+		if (hasLegacy) {
+
+			for (Order order : legacy.get()) {
+
+				var key = keyExtractor.apply(order);
+				var total = order.getTotal();
+
+				totals.merge(Arrays.asList(key, total.getCurrency().getCurrencyCode()), new OrderTotals<>(key, 1, total),
+						OrderTotals::and);
+			}
+		}
+
+		return Streamable.of(totals.values());
+	}
+
+	private OrderTotals<K> and(OrderTotals<K> other) {
+		return new OrderTotals<>(key, count + other.count, total.add(other.total));
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Persists the totals of {@link Order}s stored before the total was persisted alongside the {@link Order}, calculating
+ * them from their lines. Queries filtering by or summing up the persisted total only consider such {@link Order}s once
+ * they have been migrated. {@link Order}s are migrated in batches, each in a transaction of its own, so that the
+ * migration can be run on large tables and resumed in case it fails.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@Service
+public class OrderTotalsMigration {
+
+	private static final int BATCH_SIZE = 500;
+
+	private final OrderRepository<Order> orders;
+	private final TransactionTemplate transactions;
+
+	OrderTotalsMigration(OrderRepository<Order> orders, PlatformTransactionManager transactionManager) {
+
+		this.orders = orders;
+		this.transactions = new TransactionTemplate(transactionManager);
+	}
+
+	/**
+	 * Persists the totals of all {@link Order}s that don't have one persisted yet.
+	 *
+	 * @return the number of {@link Order}s migrated.
+	 */
+	public long migrateLegacyTotals() {
+
+		long migrated = 0;
+		int batch;
+
+		do {
+
+			batch = transactions.execute(__ -> {
+
+				var legacy = orders.findWithoutTotal(PageRequest.of(0, BATCH_SIZE));
+
+				// Calculates the total from the lines, written back on commit
+				legacy.forEach(Order::getTotal);
+
+				return legacy.size();
+			});
+
+			migrated += batch;
+
+		} while (batch == BATCH_SIZE);
+
+		return migrated;
+	}
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Function;
+
+import org.springframework.data.util.Streamable;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A window of {@link Order}s or {@link OrderSummary}s as requested by an {@link OrderWindowRequest}. Exposes the
+ * {@link OrderWindowRequest} to look up the subsequent ones via {@link #next()}. In contrast to a {@link org.springframework.data.domain.Page}
+ * the lookup neither requires a count query nor the database to skip all preceding {@link Order}s.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ */
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderWindow<T> implements Streamable<T> {
+
+	private final List<T> content;
+	private final @Nullable OrderWindowRequest next;
+
+	/**
+	 * Creates a new {@link OrderWindow} from the given elements looked up for the given {@link OrderWindowRequest}. The
+	 * given elements are expected to contain one more element than requested in case more are available.
+	 *
+	 * @param content must not be {@literal null}.
+	 * @param request must not be {@literal null}.
+	 * @param cursor the function to create an {@link OrderCursor} for an element of the window, must not be
+	 *          {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	static <T> OrderWindow<T> of(List<T> content, OrderWindowRequest request, Function<T, OrderCursor> cursor) {
+
+		Assert.notNull(content, "Content must not be null!");
+		Assert.notNull(request, "OrderWindowRequest must not be null!");
+		Assert.notNull(cursor, "Cursor function must not be null!");
+
+		if (!request.isPaged() || content.size() <= request.getSize()) {
+			return new OrderWindow<>(content, null);
+		}
+
+		var window = content.subList(0, request.getSize());
+		var last = window.get(window.size() - 1);
+
+		return new OrderWindow<>(window, request.after(cursor.apply(last)));
+	}
+
+	/**
+	 * Returns whether there are more elements available after the current window.
+	 *
+	 * @return
+	 */
+	public boolean hasNext() {
+		return next != null;
+	}
+
+	/**
+	 * Returns the {@link OrderWindowRequest} to look up the elements following the current window.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<OrderWindowRequest> next() {
+		return Optional.ofNullable(next);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see java.lang.Iterable#iterator()
+	 */
+	@Override
+	public Iterator<T> iterator() {
+		return content.iterator();
+	}
+}
@@ -0,0 +1,291 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Optional;
+import java.util.Set;
+
+import javax.money.MonetaryAmount;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.time.Interval;
+import org.salespointframework.useraccount.UserAccount;
+import org.springframework.lang.Nullable;
+import org.springframework.util.Assert;
+
+/**
+ * A request for an {@link OrderWindow}, i.e. a number of {@link Order}s following a given {@link OrderCursor}, ordered
+ * by their creation date and identifier, oldest first unless {@link #newestFirst()} is used. Optionally restricts the
+ * {@link Order}s by an arbitrary combination of criteria, all of which have to be matched by the {@link Order}s and are
+ * executed as a single query against the database.
+ *
+ * @author Oliver Drotbohm
+ * @since 7.4
+ * @see OrderManagement#findWindow(OrderWindowRequest)
+ * @see OrderManagement#findSummaries(OrderWindowRequest)
+ */
+@ToString
+@EqualsAndHashCode
+@AllArgsConstructor(access = AccessLevel.PRIVATE)
+public class OrderWindowRequest {
+
+	private final @Getter int size;
+	private final @Nullable OrderCursor cursor;
+	private final Set<OrderStatus> status;
+	private final @Nullable UserAccount userAccount;
+	private final @Nullable Interval interval;
+	private final @Nullable ProductIdentifier product;
+	private final @Nullable MonetaryAmount minimumTotal;
+	private final @Nullable MonetaryAmount maximumTotal;
+	private final @Getter boolean newestFirst;
+
+	/**
+	 * Creates a new {@link OrderWindowRequest} for the first window of {@link Order}s of the given size.
+	 *
+	 * @param size must be greater than zero.
+	 * @return will never be {@literal null}.
+	 */
+	public static OrderWindowRequest ofSize(int size) {
+
+		Assert.isTrue(size > 0, "Size must be greater than zero!");
+
+		return new OrderWindowRequest(size, null, Collections.emptySet(), null, null, null, null, null, false);
+	}
+
+	/**
+	 * Creates a new {@link OrderWindowRequest} for all {@link Order}s in a single window.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	static OrderWindowRequest unpaged() {
+		return new OrderWindowRequest(0, null, Collections.emptySet(), null, null, null, null, null, false);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} for the {@link Order}s following the given {@link OrderCursor}.
+	 *
+	 * @param cursor must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest after(OrderCursor cursor) {
+
+		Assert.notNull(cursor, "Cursor must not be null!");
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s in one of the given {@link OrderStatus}es.
+	 *
+	 * @param status must not be {@literal null} or empty.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest withStatus(OrderStatus... status) {
+
+		Assert.notEmpty(status, "OrderStatus must not be null or empty!");
+		Assert.noNullElements(status, "OrderStatus must not contain null values!");
+
+		return new OrderWindowRequest(size, cursor, EnumSet.copyOf(Arrays.asList(status)), userAccount, interval, product,
+				minimumTotal, maximumTotal, newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s of the given {@link UserAccount}.
+	 *
+	 * @param userAccount must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest withUserAccount(UserAccount userAccount) {
+
+		Assert.notNull(userAccount, "UserAccount must not be null!");
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s created within the given {@link Interval}.
+	 *
+	 * @param interval must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest createdWithin(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s containing an {@link OrderLine} for the
+	 * {@link org.salespointframework.catalog.Product} with the given {@link ProductIdentifier}.
+	 *
+	 * @param product must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest containing(ProductIdentifier product) {
+
+		Assert.notNull(product, "ProductIdentifier must not be null!");
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s with a total of at least the given
+	 * {@link MonetaryAmount}. Only {@link Order}s with a total in the currency of the given amount are considered.
+	 * {@link Order}s persisted before the total was stored alongside them are only considered once their totals have
+	 * been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param minimum must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest withTotalAtLeast(MonetaryAmount minimum) {
+
+		Assert.notNull(minimum, "Minimum total must not be null!");
+		assertSameCurrency(minimum, maximumTotal);
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimum, maximumTotal,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s with a total of at most the given
+	 * {@link MonetaryAmount}. Only {@link Order}s with a total in the currency of the given amount are considered.
+	 * {@link Order}s persisted before the total was stored alongside them are only considered once their totals have
+	 * been migrated using {@link OrderTotalsMigration}.
+	 *
+	 * @param maximum must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest withTotalAtMost(MonetaryAmount maximum) {
+
+		Assert.notNull(maximum, "Maximum total must not be null!");
+		assertSameCurrency(maximum, minimumTotal);
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximum,
+				newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} only considering {@link Order}s with a total in between the given
+	 * {@link MonetaryAmount}s (inclusive). Both amounts have to be in the same currency. {@link Order}s persisted before
+	 * the total was stored alongside them are only considered once their totals have been migrated using
+	 * {@link OrderTotalsMigration}.
+	 *
+	 * @param minimum must not be {@literal null}.
+	 * @param maximum must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest withTotalBetween(MonetaryAmount minimum, MonetaryAmount maximum) {
+
+		Assert.notNull(minimum, "Minimum total must not be null!");
+		Assert.notNull(maximum, "Maximum total must not be null!");
+		assertSameCurrency(minimum, maximum);
+
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimum, maximum, newestFirst);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} returning the most recent {@link Order}s first.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest newestFirst() {
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				true);
+	}
+
+	/**
+	 * Returns a new {@link OrderWindowRequest} returning the oldest {@link Order}s first. That's the default.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public OrderWindowRequest oldestFirst() {
+		return new OrderWindowRequest(size, cursor, status, userAccount, interval, product, minimumTotal, maximumTotal,
+				false);
+	}
+
+	/**
+	 * Returns the {@link OrderCursor} the requested {@link Order}s are supposed to follow.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<OrderCursor> getCursor() {
+		return Optional.ofNullable(cursor);
+	}
+
+	/**
+	 * Returns the {@link OrderStatus}es to restrict the {@link Order}s to. An empty {@link Set} doesn't restrict the
+	 * {@link Order}s.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Set<OrderStatus> getStatus() {
+		return Collections.unmodifiableSet(status);
+	}
+
+	/**
+	 * Returns the {@link UserAccount} to restrict the {@link Order}s to.
+	 *
+	 * @return will never be {@literal null}.
+	 */
+	public Optional<UserAccount> getUserAccount() {
+		return Optional.ofNullable(userAccount);
+	}
+
+	/**
+	 * Returns whether the number of {@link Order}s per window is limited.
+	 *
+	 * @return
+	 */
+	boolean isPaged() {
+		return size > 0;
+	}
+
+	Optional<Interval> getInterval() {
+		return Optional.ofNullable(interval);
+	}
+
+	Optional<ProductIdentifier> getProduct() {
+		return Optional.ofNullable(product);
+	}
+
+	Optional<MonetaryAmount> getMinimumTotal() {
+		return Optional.ofNullable(minimumTotal);
+	}
+
+	Optional<MonetaryAmount> getMaximumTotal() {
+		return Optional.ofNullable(maximumTotal);
+	}
+
+	private static void assertSameCurrency(MonetaryAmount amount, @Nullable MonetaryAmount other) {
+
+		Assert.isTrue(other == null || other.getCurrency().equals(amount.getCurrency()),
+				"Minimum and maximum total must be in the same currency!");
+	}
+}
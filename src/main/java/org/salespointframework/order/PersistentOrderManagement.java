@@ -18,16 +18,33 @@ package org.salespointframework.order;
 import lombok.NonNull;
 import lombok.RequiredArgsConstructor;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
+import javax.money.CurrencyUnit;
+import javax.money.MonetaryAmount;
+
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.order.OrderBatchReport.Entry;
+import org.salespointframework.order.OrderEvents.OrdersCanceled;
+import org.salespointframework.order.OrderEvents.OrdersCompleted;
+import org.salespointframework.order.OrderEvents.OrdersPaid;
 import org.salespointframework.time.BusinessTime;
 import org.salespointframework.time.Interval;
 import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountIdentifier;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.util.Streamable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.util.Assert;
 
 /**
@@ -42,6 +59,11 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 
 	private final @NonNull BusinessTime businessTime;
 	private final @NonNull OrderRepository<T> orderRepository;
+	private final @NonNull ApplicationEventPublisher events;
+	private final @NonNull TransactionTemplate transactions;
+	private final @NonNull OrderProperties properties;
+	private final @NonNull Optional<OrderEventOutbox> outbox;
+	private final @NonNull Optional<OrderArchiver> archiver;
 
 	/*
 	 * (non-Javadoc)
@@ -89,7 +111,23 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 	 */
 	@Override
 	public Streamable<T> findBy(Interval interval) {
-		return orderRepository.findByDateCreatedBetween(interval.getStart(), interval.getEnd());
+		return findBy(interval, OrderFetchPlan.SUMMARY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.time.Interval, org.salespointframework.order.OrderFetchPlan)
+	 */
+	@Override
+	public Streamable<T> findBy(Interval interval, OrderFetchPlan plan) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+		Assert.notNull(plan, "OrderFetchPlan must not be null!");
+
+		var start = interval.getStart();
+		var end = interval.getEnd();
+
+		return plan.applyTo(orderRepository.findByDateCreatedBetween(start, end));
 	}
 
 	/*
@@ -98,10 +136,23 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 	 */
 	@Override
 	public Streamable<T> findBy(OrderStatus orderStatus) {
+		return findBy(orderStatus, OrderFetchPlan.SUMMARY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.order.OrderStatus, org.salespointframework.order.OrderFetchPlan)
+	 */
+	@Override
+	public Streamable<T> findBy(OrderStatus orderStatus, OrderFetchPlan plan) {
 
 		Assert.notNull(orderStatus, "OrderStatus must not be null");
+		Assert.notNull(plan, "OrderFetchPlan must not be null!");
 
-		return orderRepository.findByOrderStatus(orderStatus);
+		// Unfinished Orders are never archived, so they can be looked up in the hot set only
+		return plan.applyTo(archiver.isPresent() && !OrderArchiver.archives(orderStatus) //
+				? orderRepository.findByArchivedFalseAndOrderStatus(orderStatus) //
+				: orderRepository.findByOrderStatus(orderStatus));
 	}
 
 	/*
@@ -110,10 +161,20 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 	 */
 	@Override
 	public Streamable<T> findBy(UserAccount userAccount) {
+		return findBy(userAccount, OrderFetchPlan.SUMMARY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.useraccount.UserAccount, org.salespointframework.order.OrderFetchPlan)
+	 */
+	@Override
+	public Streamable<T> findBy(UserAccount userAccount, OrderFetchPlan plan) {
 
 		Assert.notNull(userAccount, "UserAccount must not be null");
+		Assert.notNull(plan, "OrderFetchPlan must not be null!");
 
-		return orderRepository.findByUserAccount(userAccount);
+		return plan.applyTo(orderRepository.findByUserAccount(userAccount));
 	}
 
 	/*
@@ -122,11 +183,98 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 	 */
 	@Override
 	public Streamable<T> findBy(UserAccount userAccount, Interval interval) {
+		return findBy(userAccount, interval, OrderFetchPlan.SUMMARY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findBy(org.salespointframework.useraccount.UserAccount, org.salespointframework.time.Interval, org.salespointframework.order.OrderFetchPlan)
+	 */
+	@Override
+	public Streamable<T> findBy(UserAccount userAccount, Interval interval, OrderFetchPlan plan) {
 
 		Assert.notNull(userAccount, "UserAccount must not be null");
 		Assert.notNull(interval, "Interval must not be null!");
+		Assert.notNull(plan, "OrderFetchPlan must not be null!");
+
+		var start = interval.getStart();
+		var end = interval.getEnd();
+
+		return plan.applyTo(orderRepository.findByUserAccountAndDateCreatedBetween(userAccount, start, end));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findContaining(org.salespointframework.catalog.ProductIdentifier, org.salespointframework.time.Interval)
+	 */
+	@Override
+	public Streamable<T> findContaining(ProductIdentifier product, Interval interval) {
+
+		Assert.notNull(product, "ProductIdentifier must not be null!");
+		Assert.notNull(interval, "Interval must not be null!");
+
+		return orderRepository.findWindow(OrderWindowRequest.unpaged().containing(product).createdWithin(interval));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findByTotalGreaterThan(javax.money.MonetaryAmount)
+	 */
+	@Override
+	public Streamable<T> findByTotalGreaterThan(MonetaryAmount amount) {
+
+		Assert.notNull(amount, "Amount must not be null!");
+
+		return orderRepository.findByTotalGreaterThan(amount);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#sumTotals(org.salespointframework.time.Interval, javax.money.CurrencyUnit)
+	 */
+	@Override
+	public MonetaryAmount sumTotals(Interval interval, CurrencyUnit currency) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+		Assert.notNull(currency, "Currency must not be null!");
+
+		return orderRepository.sumTotals(interval, currency);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#countBy(org.salespointframework.order.OrderStatus)
+	 */
+	@Override
+	public long countBy(OrderStatus orderStatus) {
+
+		Assert.notNull(orderStatus, "OrderStatus must not be null!");
+
+		return orderRepository.countByOrderStatus(orderStatus);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#countByStatus(org.salespointframework.time.Interval)
+	 */
+	@Override
+	public Streamable<OrderTotals<OrderStatus>> countByStatus(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
 
-		return orderRepository.findByUserAccountAndDateCreatedBetween(userAccount, interval.getStart(), interval.getEnd());
+		return orderRepository.countByStatus(interval);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#totalsByUser(org.salespointframework.time.Interval)
+	 */
+	@Override
+	public Streamable<OrderTotals<UserAccountIdentifier>> totalsByUser(Interval interval) {
+
+		Assert.notNull(interval, "Interval must not be null!");
+
+		return orderRepository.totalsByUser(interval);
 	}
 
 	/*
@@ -143,7 +291,12 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 			throw new OrderCompletionFailure(order, "Order is not paid yet!");
 		}
 
-		save((T) order.complete());
+		if (outbox.isPresent()) {
+			save((T) order.completeSilently());
+			outbox.get().completed(order);
+		} else {
+			save((T) order.complete());
+		}
 	}
 
 	/*
@@ -160,7 +313,12 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 			return false;
 		}
 
-		save((T) order.markPaid());
+		if (outbox.isPresent()) {
+			save((T) order.markPaidSilently());
+			outbox.get().paid(order);
+		} else {
+			save((T) order.markPaid());
+		}
 
 		return true;
 	}
@@ -175,12 +333,192 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 
 		Assert.notNull(order, "Order must not be null");
 
-		if (!order.isCanceled()) {
-			save((T) order.cancel(reason));
-			return true;
-		} else {
+		if (order.isCanceled()) {
 			return false;
 		}
+
+		if (outbox.isPresent()) {
+
+			var completed = order.isCompleted();
+
+			save((T) order.cancelSilently());
+
+			if (!completed) {
+				outbox.get().completed(order);
+			}
+
+			outbox.get().canceled(order, reason);
+
+		} else {
+			save((T) order.cancel(reason));
+		}
+
+		return true;
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#payOrders(java.lang.Iterable)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public OrderBatchReport<T> payOrders(Iterable<T> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		return inChunks(orders, chunk -> {
+
+			List<Order> paid = new ArrayList<>();
+			List<Entry<T>> entries = new ArrayList<>();
+
+			for (T order : chunk) {
+
+				if (!order.isPaymentExpected()) {
+					entries.add(Entry.skipped(order, "Order does not expect a payment!"));
+					continue;
+				}
+
+				paid.add(order.markPaidSilently());
+				entries.add(Entry.succeeded(order));
+
+				outbox.ifPresent(it -> it.paid(order));
+			}
+
+			if (!paid.isEmpty() && outbox.isEmpty()) {
+				events.publishEvent(OrdersPaid.of(paid));
+			}
+
+			return entries;
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#completeOrders(java.lang.Iterable)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public OrderBatchReport<T> completeOrders(Iterable<T> orders) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+
+		return inChunks(orders, chunk -> {
+
+			List<Order> completed = new ArrayList<>();
+
+			for (T order : chunk) {
+				if (order.isPaid()) {
+
+					completed.add(order.completeSilently());
+
+					outbox.ifPresent(it -> it.completed(order));
+				}
+			}
+
+			var event = OrdersCompleted.of(completed);
+
+			// With the outbox, listeners run asynchronously and thus cannot reject the completion anymore
+			if (!completed.isEmpty() && outbox.isEmpty()) {
+				events.publishEvent(event);
+			}
+
+			List<Entry<T>> entries = new ArrayList<>();
+
+			for (T order : chunk) {
+
+				if (!order.isCompleted()) {
+					entries.add(Entry.failed(order, "Order is not paid yet!"));
+					continue;
+				}
+
+				var rejection = event.getRejection(order);
+
+				if (rejection.isPresent()) {
+					order.revertTo(OrderStatus.PAID);
+					entries.add(Entry.failed(order, rejection.get()));
+				} else {
+					entries.add(Entry.succeeded(order));
+				}
+			}
+
+			return entries;
+		});
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#cancelOrders(java.lang.Iterable, java.lang.String)
+	 */
+	@Override
+	@Transactional(propagation = Propagation.SUPPORTS)
+	public OrderBatchReport<T> cancelOrders(Iterable<T> orders, String reason) {
+
+		Assert.notNull(orders, "Orders must not be null!");
+		Assert.notNull(reason, "Reason must not be null!");
+
+		return inChunks(orders, chunk -> {
+
+			var previousStates = new IdentityHashMap<T, OrderStatus>();
+			List<Order> completed = new ArrayList<>();
+
+			for (T order : chunk) {
+
+				if (order.isCanceled()) {
+					continue;
+				}
+
+				previousStates.put(order, order.getOrderStatus());
+
+				if (!order.isCompleted()) {
+					completed.add(order);
+				}
+
+				order.cancelSilently();
+			}
+
+			var completedEvent = OrdersCompleted.of(completed);
+
+			if (!completed.isEmpty() && outbox.isEmpty()) {
+				events.publishEvent(completedEvent);
+			}
+
+			List<Order> canceled = new ArrayList<>();
+			List<Entry<T>> entries = new ArrayList<>();
+
+			for (T order : chunk) {
+
+				if (!previousStates.containsKey(order)) {
+					entries.add(Entry.skipped(order, "Order is already cancelled!"));
+					continue;
+				}
+
+				var rejection = completedEvent.getRejection(order);
+
+				if (rejection.isPresent()) {
+					order.revertTo(previousStates.get(order));
+					entries.add(Entry.failed(order, rejection.get()));
+					continue;
+				}
+
+				canceled.add(order);
+				entries.add(Entry.succeeded(order));
+
+				outbox.ifPresent(it -> {
+
+					if (previousStates.get(order) != OrderStatus.COMPLETED) {
+						it.completed(order);
+					}
+
+					it.canceled(order, reason);
+				});
+			}
+
+			if (!canceled.isEmpty() && outbox.isEmpty()) {
+				events.publishEvent(OrdersCanceled.of(canceled, reason));
+			}
+
+			return entries;
+		});
 	}
 
 	/*
@@ -202,6 +540,91 @@ class PersistentOrderManagement<T extends Order> implements OrderManagement<T> {
 	 */
 	@Override
 	public Page<T> findAll(Pageable pageable) {
-		return orderRepository.findAll(pageable);
+		return findAll(pageable, OrderFetchPlan.SUMMARY);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findAll(org.springframework.data.domain.Pageable, org.salespointframework.order.OrderFetchPlan)
+	 */
+	@Override
+	public Page<T> findAll(Pageable pageable, OrderFetchPlan plan) {
+
+		Assert.notNull(pageable, "Pageable must not be null!");
+		Assert.notNull(plan, "OrderFetchPlan must not be null!");
+
+		return plan.applyTo(orderRepository.findAll(pageable));
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findWindow(org.salespointframework.order.OrderWindowRequest)
+	 */
+	@Override
+	public OrderWindow<T> findWindow(OrderWindowRequest request) {
+
+		Assert.notNull(request, "OrderWindowRequest must not be null!");
+
+		return orderRepository.findWindow(request);
+	}
+
+	/*
+	 * (non-Javadoc)
+	 * @see org.salespointframework.order.OrderManagement#findSummaries(org.salespointframework.order.OrderWindowRequest)
+	 */
+	@Override
+	public OrderWindow<OrderSummary> findSummaries(OrderWindowRequest request) {
+
+		Assert.notNull(request, "OrderWindowRequest must not be null!");
+
+		return orderRepository.findSummaries(request);
+	}
+
+	/**
+	 * Splits the given {@link Order}s into chunks of the configured size and applies the given handler to each of them
+	 * in a transaction of its own (or the one already running). All {@link Order}s of a chunk are persisted in one go
+	 * after the handler has been applied so that the resulting updates can be batched.
+	 *
+	 * @param orders must not be {@literal null}.
+	 * @param handler must not be {@literal null}.
+	 * @return will never be {@literal null}.
+	 */
+	private OrderBatchReport<T> inChunks(Iterable<T> orders, Function<List<T>, List<Entry<T>>> handler) {
+
+		var chunkSize = properties.getBulkChunkSize();
+		List<Entry<T>> entries = new ArrayList<>();
+		List<T> chunk = new ArrayList<>(chunkSize);
+
+		for (T order : orders) {
+
+			chunk.add(order);
+
+			if (chunk.size() == chunkSize) {
+				entries.addAll(handleChunk(chunk, handler));
+				chunk = new ArrayList<>(chunkSize);
+			}
+		}
+
+		if (!chunk.isEmpty()) {
+			entries.addAll(handleChunk(chunk, handler));
+		}
+
+		return OrderBatchReport.of(Collections.unmodifiableList(entries));
+	}
+
+	private List<Entry<T>> handleChunk(List<T> chunk, Function<List<T>, List<Entry<T>>> handler) {
+
+		return transactions.execute(__ -> {
+
+			var entries = handler.apply(chunk);
+
+			chunk.stream() //
+					.filter(Order::isNew) //
+					.forEach(it -> it.setDateCreated(businessTime.getTime()));
+
+			orderRepository.saveAll(chunk);
+
+			return entries;
+		});
 	}
 }
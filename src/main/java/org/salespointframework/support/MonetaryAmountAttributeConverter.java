@@ -15,27 +15,22 @@
  */
 package org.salespointframework.support;
 
-import java.util.Locale;
-
 import javax.money.MonetaryAmount;
-import javax.money.format.MonetaryAmountFormat;
-import javax.money.format.MonetaryFormats;
 import javax.persistence.AttributeConverter;
 import javax.persistence.Converter;
 
-import org.javamoney.moneta.Money;
+import org.salespointframework.core.EmbeddedMonetaryAmount;
 
 /**
  * JPA {@link AttributeConverter} to serialize {@link MonetaryAmount} instances into a {@link String}. Auto-applied to
- * all entity properties of type {@link MonetaryAmount}.
+ * all entity properties of type {@link MonetaryAmount}. Consider {@link EmbeddedMonetaryAmount} to persist amounts in
+ * numeric columns instead.
  *
  * @author Oliver Gierke
  */
 @Converter(autoApply = true)
 class MonetaryAmountAttributeConverter implements AttributeConverter<MonetaryAmount, String> {
 
-	private static final MonetaryAmountFormat FORMAT = MonetaryFormats.getAmountFormat(Locale.ROOT);
-
 	/*
 	 * (non-Javadoc)
 	 * @see javax.persistence.AttributeConverter#convertToDatabaseColumn(java.lang.Object)
@@ -51,22 +46,6 @@ class MonetaryAmountAttributeConverter implements AttributeConverter<MonetaryAmo
 	 */
 	@Override
 	public MonetaryAmount convertToEntityAttribute(String source) {
-
-		if (source == null) {
-			return null;
-		}
-
-		try {
-			return Money.parse(source);
-		} catch (RuntimeException e) {
-
-			try {
-				return Money.parse(source, FORMAT);
-			} catch (RuntimeException inner) {
-
-				// Propagate the original exception in case the fallback fails
-				throw e;
-			}
-		}
+		return EmbeddedMonetaryAmount.parse(source);
 	}
 }
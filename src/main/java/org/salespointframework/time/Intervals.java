@@ -68,7 +68,7 @@ public class Intervals implements Streamable<Interval> {
 	}
 
 	/**
-	 * Recursively builds up all {@link Interval}s of the given duration between the given start and end date.
+	 * Builds up all {@link Interval}s of the given duration between the given start and end date.
 	 * 
 	 * @param start must not be {@literal null}.
 	 * @param end must not be {@literal null}.
@@ -77,15 +77,19 @@ public class Intervals implements Streamable<Interval> {
 	 */
 	private static Collection<Interval> getIntervals(LocalDateTime start, LocalDateTime end, TemporalAmount duration) {
 
+		List<Interval> intervals = new ArrayList<>();
+		LocalDateTime current = start;
 		LocalDateTime target = start.plus(duration);
 
-		if (!target.isBefore(end)) {
-			return Collections.singleton(Interval.from(start).to(end));
+		while (target.isBefore(end)) {
+
+			intervals.add(Interval.from(current).to(target));
+
+			current = target;
+			target = current.plus(duration);
 		}
 
-		List<Interval> intervals = new ArrayList<>();
-		intervals.add(Interval.from(start).to(target));
-		intervals.addAll(getIntervals(target, end, duration));
+		intervals.add(Interval.from(current).to(end));
 
 		return Collections.unmodifiableList(intervals);
 	}
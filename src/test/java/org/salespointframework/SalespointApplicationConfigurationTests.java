@@ -22,6 +22,7 @@ import static org.hamcrest.junit.MatcherAssert.assertThat;
 
 import java.io.IOException;
 import java.util.List;
+import java.util.Map;
 
 import org.junit.jupiter.api.Test;
 import org.moduliths.model.Modules;
@@ -37,7 +38,10 @@ import org.salespointframework.time.BusinessTime;
 import org.salespointframework.useraccount.AuthenticationManagement;
 import org.salespointframework.useraccount.UserAccountManagement;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.SpringApplication;
 import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.StandardEnvironment;
 import org.springframework.mail.MailSender;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.springframework.web.method.support.HandlerMethodArgumentResolver;
@@ -93,6 +97,22 @@ class SalespointApplicationConfigurationTests extends AbstractIntegrationTests {
 		assertThat(environment.getRequiredProperty("spring.datasource.generate-unique-name", boolean.class)).isTrue();
 	}
 
+	@Test
+	void letsApplicationsOverrideTuningDefaults() {
+
+		var environment = new StandardEnvironment();
+		environment.getPropertySources().addLast(new MapPropertySource("application",
+				Map.of("spring.jpa.properties.hibernate.batch_fetch_style", "legacy", //
+						"spring.jpa.properties.hibernate.jdbc.batch_size", 20)));
+
+		new Salespoint.RequiredPropertiesPostProcessor().postProcessEnvironment(environment, new SpringApplication());
+
+		assertThat(environment.getProperty("spring.jpa.properties.hibernate.batch_fetch_style")).isEqualTo("legacy");
+		assertThat(environment.getProperty("spring.jpa.properties.hibernate.jdbc.batch_size")).isEqualTo("20");
+		assertThat(environment.getProperty("spring.jpa.properties.hibernate.order_inserts")).isEqualTo("true");
+		assertThat(environment.getProperty("spring.jpa.open-in-view")).isEqualTo("true");
+	}
+
 	@EnableSalespoint("Salespoint")
 	static class SalespointSample {}
 }
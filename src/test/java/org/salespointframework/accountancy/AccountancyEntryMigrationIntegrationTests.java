@@ -0,0 +1,125 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import javax.persistence.EntityManager;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for the numeric persistence of {@link AccountancyEntry} values and the
+ * {@link AccountancyEntryMigration}.
+ *
+ * @author Oliver Drotbohm
+ */
+class AccountancyEntryMigrationIntegrationTests extends AbstractIntegrationTests {
+
+	static final LocalDateTime DATE = LocalDateTime.of(2020, 1, 1, 12, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired AccountancyEntryMigration migration;
+	@Autowired EntityManager em;
+
+	@Test
+	void persistsValuesInNumericColumns() {
+
+		var entry = accountancy.add(new AccountancyEntry(Money.of(12.5, Currencies.EURO)));
+
+		em.flush();
+		em.clear();
+
+		var row = (Object[]) em.createNativeQuery(
+				"select value_amount, value_currency, value from accountancy_entry where entry_id = ?1") //
+				.setParameter(1, entry.getId().getIdentifier()) //
+				.getSingleResult();
+
+		assertThat((BigDecimal) row[0]).isEqualByComparingTo("12.5");
+		assertThat(row[1]).isEqualTo("EUR");
+		assertThat(row[2]).isNull();
+		assertThat(em.find(AccountancyEntry.class, entry.getId()).getValue()).isEqualTo(Money.of(12.5, Currencies.EURO));
+	}
+
+	@Test
+	void sumsValuesInTheDatabase() {
+
+		accountancy.add(new AccountancyEntry(Money.of(1.25, Currencies.EURO)));
+		accountancy.add(new AccountancyEntry(Money.of(-0.5, Currencies.EURO)));
+
+		em.flush();
+
+		var sum = em.createQuery("select sum(e.value.amount) from AccountancyEntry e where e.value.currency = 'EUR'",
+				BigDecimal.class).getSingleResult();
+
+		assertThat(sum).isEqualByComparingTo("0.75");
+	}
+
+	@Test
+	void readsAndMigratesLegacyValues() {
+
+		var first = insertLegacyEntry("EUR 10.50");
+		var second = insertLegacyEntry("EUR -2");
+		insertLegacyEntry("EUR 10.50");
+
+		assertThat(accountancy.salesVolume(Interval.from(DATE).to(DATE.plusDays(1)), Duration.ofDays(1)).values())
+				.containsExactly(Money.of(19, Currencies.EURO));
+		assertThat(em.find(AccountancyEntry.class, new AccountancyEntryIdentifier(first)).getValue())
+				.isEqualTo(Money.of(10.5, Currencies.EURO));
+
+		// Reading legacy values doesn't write the entries back
+		em.flush();
+		em.clear();
+
+		assertThat(em.createNativeQuery("select count(*) from accountancy_entry where value is not null") //
+				.getSingleResult()).isEqualTo(BigInteger.valueOf(3));
+
+		assertThat(migration.migrateLegacyValues()).isEqualTo(3);
+		assertThat(migration.migrateLegacyValues()).isZero();
+
+		em.clear();
+
+		assertThat(em.createNativeQuery("select count(*) from accountancy_entry where value is not null") //
+				.getSingleResult()).isEqualTo(BigInteger.ZERO);
+		assertThat(em.find(AccountancyEntry.class, new AccountancyEntryIdentifier(second)).getValue())
+				.isEqualTo(Money.of(-2, Currencies.EURO));
+	}
+
+	private String insertLegacyEntry(String value) {
+
+		var id = UUID.randomUUID().toString();
+
+		em.createNativeQuery("insert into accountancy_entry (dtype, entry_id, value, date, description)" //
+				+ " values ('AccountancyEntry', ?1, ?2, ?3, '')") //
+				.setParameter(1, id) //
+				.setParameter(2, value) //
+				.setParameter(3, DATE) //
+				.executeUpdate();
+
+		return id;
+	}
+}
@@ -19,6 +19,8 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 import static org.salespointframework.core.Currencies.*;
 
+import java.util.List;
+
 import javax.money.MonetaryAmount;
 
 import org.javamoney.moneta.Money;
@@ -28,6 +30,7 @@ import org.salespointframework.AbstractIntegrationTests;
 import org.salespointframework.order.Order;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.salespointframework.order.OrderEvents.OrdersCanceled;
 import org.salespointframework.payment.Cash;
 import org.salespointframework.useraccount.UserAccount;
 import org.salespointframework.useraccount.UserAccountManagement;
@@ -80,4 +83,39 @@ class AccountancyOrderEventListenerTests extends AbstractIntegrationTests {
 				.reduce(ZERO_EURO, MonetaryAmount::add)//
 		).isEqualTo(ZERO_EURO);
 	}
+
+	@Test
+	void ignoresOtherEntriesOnOrderCancellation() {
+
+		accountancy.add(new AccountancyEntry(Money.of(10, EURO)));
+
+		listener.on(OrderPaid.of(order));
+		listener.on(OrderCanceled.of(order, "Testing"));
+
+		assertThat(accountancy.findAll()).hasSize(3);
+		assertThat(accountancy.findByOrder(order.getId())).hasSize(2);
+	}
+
+	@Test
+	void doesNotRollBackUnpaidOrderOnCancellation() {
+
+		listener.on(OrderCanceled.of(order, "Testing"));
+
+		assertThat(accountancy.existsRevenueFor(order.getId())).isFalse();
+		assertThat(accountancy.findAll()).isEmpty();
+	}
+
+	@Test
+	void rollsBackPaidOrdersOnlyOnBulkCancellation() {
+
+		var unpaid = new Order(order.getUserAccount(), Cash.CASH);
+
+		listener.on(OrderPaid.of(order));
+		listener.on(OrdersCanceled.of(List.of(order, unpaid), "Testing"));
+
+		assertThat(accountancy.findOrdersWithRevenue(List.of(order.getId(), unpaid.getId()))) //
+				.containsExactly(order.getId());
+		assertThat(accountancy.findByOrder(order.getId())).hasSize(2);
+		assertThat(accountancy.findByOrder(unpaid.getId())).isEmpty();
+	}
 }
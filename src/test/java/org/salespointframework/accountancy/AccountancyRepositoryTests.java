@@ -21,6 +21,8 @@ import lombok.RequiredArgsConstructor;
 
 import java.time.LocalDateTime;
 
+import javax.persistence.EntityManager;
+
 import org.javamoney.moneta.Money;
 import org.junit.jupiter.api.Test;
 import org.moduliths.test.ModuleTest;
@@ -41,6 +43,7 @@ import org.springframework.transaction.annotation.Transactional;
 class AccountancyRepositoryTests {
 
 	private final AccountancyEntryRepository repository;
+	private final EntityManager em;
 
 	@Test // #182
 	void findsEntriesWithinInterval() {
@@ -70,4 +73,13 @@ class AccountancyRepositoryTests {
 		assertThatExceptionOfType(InvalidDataAccessApiUsageException.class) //
 				.isThrownBy(() -> repository.save(new AccountancyEntry()));
 	}
+
+	@Test
+	void looksUpPaymentEntriesByOrderUsingIndex() {
+
+		var plan = em.createNativeQuery("explain select * from accountancy_entry where order_id = 'foo'") //
+				.getSingleResult();
+
+		assertThat(plan.toString()).containsIgnoringCase("ACCOUNTANCY_ENTRY_ORDER_IDX");
+	}
 }
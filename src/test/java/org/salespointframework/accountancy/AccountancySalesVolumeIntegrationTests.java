@@ -0,0 +1,133 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link Accountancy#find(Interval, java.time.temporal.TemporalAmount)} and
+ * {@link Accountancy#salesVolume(Interval, java.time.temporal.TemporalAmount)}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class AccountancySalesVolumeIntegrationTests extends AbstractIntegrationTests {
+
+	static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	Interval year;
+	List<AccountancyEntry> entries;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.year = Interval.from(START).to(START.plusYears(1));
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		this.entries = IntStream.range(0, 1000) //
+				.mapToObj(it -> entry(it % 10 + 1, START.plusHours(it * 8L))) //
+				.collect(Collectors.toList());
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void calculatesDailySalesVolumeInSingleQuery() {
+
+		statistics.clear();
+
+		var volume = accountancy.salesVolume(year, Duration.ofDays(1));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+
+		assertThat(volume).hasSize(366);
+		assertThat(volume.keySet()).extracting(Interval::getStart).isSorted();
+		assertThat(volume).allSatisfy((interval, amount) -> assertThat(amount).isEqualTo(expectedVolume(interval)));
+	}
+
+	@Test
+	void findsEntriesPerIntervalInSingleQuery() {
+
+		statistics.clear();
+
+		var result = accountancy.find(year, Period.ofMonths(1));
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(result).hasSize(12);
+		assertThat(result.values().stream().mapToLong(it -> it.stream().count()).sum()).isEqualTo(entries.size());
+	}
+
+	@Test
+	void assignsEntriesOnIntervalBoundaryToSingleInterval() {
+
+		var interval = Interval.from(START.minusDays(2)).to(START);
+
+		entry(5, START.minusDays(1));
+
+		var volume = accountancy.salesVolume(interval, Duration.ofDays(1));
+
+		assertThat(volume.values()).containsExactly(Money.of(0, Currencies.EURO), Money.of(6, Currencies.EURO));
+		assertThat(accountancy.find(interval, Duration.ofDays(1)).values()) //
+				.extracting(it -> it.stream().count()) //
+				.containsExactly(0L, 2L);
+	}
+
+	private AccountancyEntry entry(long amount, LocalDateTime date) {
+
+		var entry = new AccountancyEntry(Money.of(amount, Currencies.EURO));
+		entry.setDate(date);
+
+		return accountancy.add(entry);
+	}
+
+	private Money expectedVolume(Interval interval) {
+
+		return entries.stream() //
+				.filter(it -> {
+					var date = it.getDate().orElseThrow();
+					return !date.isBefore(interval.getStart()) && date.isBefore(interval.getEnd());
+				}) //
+				.map(it -> Money.from(it.getValue())) //
+				.reduce(Money.of(0, Currencies.EURO), Money::add);
+	}
+}
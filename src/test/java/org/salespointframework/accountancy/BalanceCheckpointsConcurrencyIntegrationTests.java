@@ -0,0 +1,117 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Stress test for closing periods while a backdated {@link AccountancyEntry} is added concurrently. Not transactional
+ * as the entries are added in transactions of their own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@TestPropertySource(properties = { "salespoint.accountancy.checkpoints.enabled=true",
+		"salespoint.accountancy.checkpoints.interval=0" })
+class BalanceCheckpointsConcurrencyIntegrationTests {
+
+	static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired BalanceCheckpoints checkpoints;
+	@Autowired BalanceCheckpointRepository repository;
+	@Autowired PlatformTransactionManager transactionManager;
+
+	@Test
+	void closesPeriodsIncludingBackdatedEntryAddedConcurrently() throws Exception {
+
+		IntStream.range(0, 10).forEach(it -> add(10, START.plusDays(it)));
+
+		var executor = Executors.newSingleThreadExecutor();
+		var added = new CountDownLatch(1);
+		var transactions = new TransactionTemplate(transactionManager);
+
+		var adding = executor.submit(() -> transactions.executeWithoutResult(__ -> {
+
+			add(1000, START.plusDays(2).plusHours(3));
+			added.countDown();
+
+			// Keep the transaction open while the periods are closed
+			try {
+				Thread.sleep(300);
+			} catch (InterruptedException o_O) {
+				Thread.currentThread().interrupt();
+			}
+		}));
+
+		assertThat(added.await(10, TimeUnit.SECONDS)).isTrue();
+
+		checkpoints.closePeriods();
+
+		adding.get(10, TimeUnit.SECONDS);
+		executor.shutdown();
+
+		var interval = Interval.from(START).to(START.plusDays(5));
+
+		assertThat(repository.findLatestEnd()).isPresent();
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(ledger(interval));
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(Money.of(1060, Currencies.EURO));
+
+		// Picks up the entry committed after the periods were closed
+		checkpoints.closePeriods();
+
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(Money.of(1060, Currencies.EURO));
+	}
+
+	private AccountancyEntry add(int amount, LocalDateTime date) {
+
+		var entry = new AccountancyEntry(Money.of(amount, Currencies.EURO));
+		entry.setDate(date);
+
+		return accountancy.add(entry);
+	}
+
+	private MonetaryAmount ledger(Interval interval) {
+
+		return accountancy.findAll().stream() //
+				.filter(it -> {
+					var date = it.getDate().orElseThrow();
+					return !date.isBefore(interval.getStart()) && !date.isAfter(interval.getEnd());
+				}) //
+				.map(AccountancyEntry::getValue) //
+				.reduce(Money.of(0, Currencies.EURO), MonetaryAmount::add);
+	}
+}
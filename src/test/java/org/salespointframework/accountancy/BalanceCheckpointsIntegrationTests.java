@@ -0,0 +1,226 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.money.MonetaryAmount;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.accountancy.RevenueRollup.Granularity;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link BalanceCheckpoints}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = { "salespoint.accountancy.checkpoints.enabled=true",
+		"salespoint.accountancy.checkpoints.interval=0", "spring.jpa.properties.hibernate.generate_statistics=true" })
+class BalanceCheckpointsIntegrationTests extends AbstractIntegrationTests {
+
+	static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired BalanceCheckpoints checkpoints;
+	@Autowired BalanceCheckpointRepository repository;
+	@Autowired BusinessTime businessTime;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	List<AccountancyEntry> entries;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		this.entries = IntStream.range(0, 600) //
+				.mapToObj(it -> add(it % 7 == 0 ? -3 : it % 10 + 1, START.plusMinutes(it * 397L))) //
+				.peek(it -> {
+
+					// Keep the persistence context small to simulate entries being added in individual transactions
+					em.flush();
+					em.clear();
+				}) //
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void matchesRawLedger() {
+
+		var last = entries.get(entries.size() - 1).getDate().orElseThrow();
+
+		List.of(Interval.from(START).to(START.plusDays(30)), //
+				Interval.from(START.plusMinutes(73)).to(START.plusDays(100).plusHours(5)), //
+				Interval.from(START.minusYears(1)).to(last.plusYears(3)), //
+				Interval.from(START.plusMinutes(397)).to(START.plusMinutes(397 * 300)), //
+				Interval.from(START.plusDays(17)).to(START.plusDays(17)), //
+				Interval.from(START.minusDays(2)).to(START.minusDays(1)), //
+				Interval.from(last).to(last.plusDays(1))) //
+				.forEach(it -> assertThat(accountancy.balance(it)).as(it.toString()).isEqualByComparingTo(ledger(it)));
+	}
+
+	@Test
+	void calculatesBalanceFromCheckpoints() {
+
+		checkpoints.closePeriods();
+
+		assertThat(repository.findLatestEnd()).hasValue(Granularity.DAY.truncate(businessTime.getTime()));
+
+		var interval = Interval.from(START.plusDays(3).plusHours(5).plusMinutes(17)).to(START.plusYears(2).plusMinutes(3));
+		var expected = ledger(interval);
+
+		em.flush();
+		em.clear();
+		statistics.clear();
+
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(expected);
+
+		// Two checkpoint lookups, one for the entries not included in them and two scans of partial periods
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+		assertThat(statistics.getEntityInsertCount()).isZero();
+	}
+
+	@Test
+	void closesEachPeriodOnlyOnce() {
+
+		checkpoints.closePeriods();
+		em.flush();
+
+		var count = repository.count();
+
+		checkpoints.closePeriods();
+		em.flush();
+
+		assertThat(repository.count()).isEqualTo(count);
+
+		businessTime.forward(Duration.ofDays(2));
+
+		try {
+
+			checkpoints.closePeriods();
+			em.flush();
+
+			assertThat(repository.count()).isEqualTo(count + 2);
+
+		} finally {
+			businessTime.reset();
+		}
+	}
+
+	@Test
+	void recalculatesCheckpointsFollowingBackdatedEntries() {
+
+		checkpoints.closePeriods();
+
+		var date = START.plusDays(40).plusHours(3);
+		var interval = Interval.from(START.plusDays(10)).to(START.plusDays(60));
+		var before = accountancy.balance(interval);
+		var following = Granularity.DAY.next(Granularity.DAY.truncate(date));
+
+		add(1000, date);
+		em.flush();
+
+		// Adding entries doesn't touch the checkpoints
+		assertThat(repository.findLatestEnd()).hasValue(Granularity.DAY.truncate(businessTime.getTime()));
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(before.add(Money.of(1000, Currencies.EURO)));
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(ledger(interval));
+
+		checkpoints.closePeriods();
+		em.flush();
+		em.clear();
+
+		assertThat(repository.findLatestEnd()).hasValue(Granularity.DAY.truncate(businessTime.getTime()));
+		assertThat(accountancy.balance(interval)).isEqualByComparingTo(ledger(interval));
+		assertThat(repository.findLatestAtOrBefore(following))
+				.extracting(BalanceCheckpoint::getCurrency, it -> it.getBalance().stripTrailingZeros())
+				.containsExactly(tuple("EUR", ledger(Interval.from(START).to(following.minusNanos(1))) //
+						.getNumber().numberValue(BigDecimal.class).stripTrailingZeros()));
+	}
+
+	@Test
+	void calculatesBalanceWithoutClosingPeriods() {
+
+		var interval = Interval.from(START.plusDays(3)).to(START.plusDays(90));
+
+		em.flush();
+		statistics.clear();
+
+		var balance = accountancy.balance(interval);
+
+		// Lookup of the latest checkpoint and a single scan of the interval
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(2);
+		assertThat(statistics.getEntityInsertCount()).isZero();
+		assertThat(balance).isEqualByComparingTo(ledger(interval));
+		assertThat(repository.count()).isZero();
+	}
+
+	@Test
+	void rebuildsCheckpoints() {
+
+		checkpoints.closePeriods();
+		em.flush();
+
+		var count = repository.count();
+
+		checkpoints.rebuild();
+		em.flush();
+
+		assertThat(repository.count()).isEqualTo(count);
+		assertThat(repository.findLatestAtOrBefore(START.plusDays(1)))
+				.extracting(BalanceCheckpoint::getCurrency, it -> it.getBalance().stripTrailingZeros())
+				.containsExactly(tuple("EUR", ledger(Interval.from(START).to(START.plusDays(1).minusNanos(1))) //
+						.getNumber().numberValue(BigDecimal.class).stripTrailingZeros()));
+	}
+
+	private AccountancyEntry add(int amount, LocalDateTime date) {
+
+		var entry = new AccountancyEntry(Money.of(amount, Currencies.EURO));
+		entry.setDate(date);
+
+		return accountancy.add(entry);
+	}
+
+	private MonetaryAmount ledger(Interval interval) {
+
+		return accountancy.findAll().stream() //
+				.filter(it -> {
+					var date = it.getDate().orElseThrow();
+					return !date.isBefore(interval.getStart()) && !date.isAfter(interval.getEnd());
+				}) //
+				.map(AccountancyEntry::getValue) //
+				.reduce(Money.of(0, Currencies.EURO), MonetaryAmount::add);
+	}
+}
@@ -0,0 +1,99 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Stress test for concurrent additions of {@link AccountancyEntry}s to the same period and rolling them up into
+ * {@link RevenueRollup}s. Not transactional as the entries are added in transactions of their own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@TestPropertySource(properties = { "salespoint.accountancy.rollups.enabled=true",
+		"salespoint.accountancy.rollups.interval=0" })
+class RevenueRollupsConcurrencyIntegrationTests {
+
+	static final int THREADS = 8, ENTRIES_PER_THREAD = 10;
+	static final LocalDateTime DATE = LocalDateTime.of(2031, 1, 1, 10, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired RevenueRollups rollups;
+
+	@Test
+	void addsEntriesToSamePeriodConcurrently() throws Exception {
+
+		var executor = Executors.newFixedThreadPool(THREADS);
+		var start = new CountDownLatch(1);
+		var failures = new CopyOnWriteArrayList<Exception>();
+
+		IntStream.range(0, THREADS).forEach(__ -> executor.execute(() -> {
+
+			try {
+				start.await();
+			} catch (InterruptedException o_O) {
+				Thread.currentThread().interrupt();
+				return;
+			}
+
+			IntStream.range(0, ENTRIES_PER_THREAD).forEach(it -> {
+
+				var entry = new AccountancyEntry(Money.of(1, Currencies.EURO));
+				entry.setDate(DATE.plusMinutes(it));
+
+				try {
+					accountancy.add(entry);
+				} catch (RuntimeException o_O) {
+					failures.add(o_O);
+				}
+			});
+		}));
+
+		start.countDown();
+		executor.shutdown();
+
+		assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+		assertThat(failures).isEmpty();
+
+		var hour = Interval.from(DATE).to(DATE.plusHours(1));
+		var expected = Money.of(THREADS * ENTRIES_PER_THREAD, Currencies.EURO);
+
+		assertThat(accountancy.salesVolume(hour, Duration.ofHours(1))).containsEntry(hour, expected);
+
+		rollups.rollUp();
+
+		assertThat(accountancy.salesVolume(hour, Duration.ofHours(1))).containsEntry(hour, expected);
+	}
+}
@@ -0,0 +1,190 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.accountancy;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.Period;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.time.Interval;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link RevenueRollups}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = { "salespoint.accountancy.rollups.enabled=true",
+		"salespoint.accountancy.rollups.interval=0", "spring.jpa.properties.hibernate.generate_statistics=true" })
+class RevenueRollupsIntegrationTests extends AbstractIntegrationTests {
+
+	static final LocalDateTime START = LocalDateTime.of(2020, 1, 1, 0, 0);
+
+	@Autowired Accountancy accountancy;
+	@Autowired RevenueRollups rollups;
+	@Autowired RevenueRollupRepository repository;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	List<AccountancyEntry> entries;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+		this.entries = IntStream.range(0, 1000) //
+				.mapToObj(it -> add(it % 7 == 0 ? -3 : it % 10 + 1, START.plusMinutes(it * 397L))) //
+				.peek(it -> {
+
+					// Keep the persistence context small to simulate entries being added in individual transactions
+					em.flush();
+					em.clear();
+				}) //
+				.collect(Collectors.toList());
+
+		rollups.rollUp();
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void answersMonthlySalesVolumeFromRollups() {
+
+		var interval = Interval.from(START).to(LocalDateTime.of(2020, 6, 20, 17, 45));
+
+		statistics.clear();
+
+		var volume = accountancy.salesVolume(interval, Period.ofMonths(1));
+
+		assertThat(volume).hasSize(6);
+		assertThat(volume).allSatisfy((it, amount) -> assertThat(amount).isEqualTo(expectedVolume(it, it.getEnd()
+				.equals(interval.getEnd()))));
+
+		// One lookup per granularity, one for the entries not rolled up yet and one for the raw tail of the last month
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(5);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void answersSingleIntervalWithPartialHoursAtBothEnds() {
+
+		var interval = Interval.from(START.plusMinutes(90)).to(START.plusDays(40).plusMinutes(20));
+
+		var volume = accountancy.salesVolume(interval, interval.getDuration());
+
+		assertThat(volume).containsExactly(entry(interval, expectedVolume(interval, true)));
+	}
+
+	@Test
+	void fallsBackToEntriesForIntervalsNotAlignedToHours() {
+
+		var interval = Interval.from(START.plusMinutes(30)).to(START.plusDays(3));
+
+		var volume = accountancy.salesVolume(interval, Duration.ofMinutes(90));
+
+		assertThat(volume).allSatisfy((it, amount) -> assertThat(amount).isEqualTo(expectedVolume(it, it.getEnd()
+				.equals(interval.getEnd()))));
+	}
+
+	@Test
+	void includesEntriesNotRolledUpYet() {
+
+		var interval = Interval.from(START).to(START.plusMonths(2));
+
+		entries.add(add(5, START.plusDays(3).plusMinutes(10)));
+		entries.add(add(-2, START.plusMonths(1).plusDays(20)));
+
+		var expected = accountancy.salesVolume(interval, Period.ofMonths(1));
+
+		assertThat(expected).allSatisfy((it, amount) -> assertThat(amount).isEqualTo(expectedVolume(it, it.getEnd()
+				.equals(interval.getEnd()))));
+
+		assertThat(rollups.rollUp()).isEqualTo(2);
+		assertThat(accountancy.salesVolume(interval, Period.ofMonths(1))).isEqualTo(expected);
+	}
+
+	@Test
+	void doesNotAddEntriesToRollupsTwice() {
+
+		var interval = Interval.from(START).to(START.plusMonths(1));
+		var expected = accountancy.salesVolume(interval, Duration.ofDays(1));
+
+		// Writing back an entry loaded before it was rolled up doesn't reset the marker
+		entries.forEach(it -> accountancy.add(it));
+		em.flush();
+
+		assertThat(rollups.rollUp()).isZero();
+		assertThat(accountancy.salesVolume(interval, Duration.ofDays(1))).isEqualTo(expected);
+	}
+
+	@Test
+	void rebuildsRollupsFromEntries() {
+
+		var interval = Interval.from(START).to(START.plusMonths(3));
+		var expected = accountancy.salesVolume(interval, Duration.ofDays(1));
+
+		repository.deleteAllInBulk();
+
+		assertThat(accountancy.salesVolume(interval, Duration.ofDays(1))).isNotEqualTo(expected);
+
+		rollups.rebuild();
+
+		assertThat(accountancy.salesVolume(interval, Duration.ofDays(1))).isEqualTo(expected);
+
+		repository.deleteByStartWithin(START.plusMonths(1), START.plusMonths(2));
+		rollups.rebuild(Interval.from(START.plusMonths(1).plusDays(3)).to(START.plusMonths(1).plusDays(4)));
+
+		assertThat(accountancy.salesVolume(interval, Duration.ofDays(1))).isEqualTo(expected);
+	}
+
+	private AccountancyEntry add(long amount, LocalDateTime date) {
+
+		var entry = new AccountancyEntry(Money.of(amount, Currencies.EURO));
+		entry.setDate(date);
+
+		return accountancy.add(entry);
+	}
+
+	private Money expectedVolume(Interval interval, boolean includeEnd) {
+
+		return entries.stream() //
+				.filter(it -> {
+					var date = it.getDate().orElseThrow();
+					return !date.isBefore(interval.getStart())
+							&& (date.isBefore(interval.getEnd()) || includeEnd && date.equals(interval.getEnd()));
+				}) //
+				.map(it -> Money.from(it.getValue())) //
+				.reduce(Money.of(0, Currencies.EURO), Money::add);
+	}
+}
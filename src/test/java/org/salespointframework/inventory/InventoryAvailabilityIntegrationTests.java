@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.order.Cart;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link InventoryAvailability}. Not transactional, as cached entries are only evicted on
+ * commit.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@TestPropertySource(properties = { "salespoint.inventory.availability.cache-ttl=1m",
+		"spring.jpa.properties.hibernate.generate_statistics=true" })
+class InventoryAvailabilityIntegrationTests {
+
+	@Autowired InventoryAvailability availability;
+	@Autowired UniqueInventory<UniqueInventoryItem> uniqueInventory;
+	@Autowired MultiInventory<MultiInventoryItem> inventory;
+	@Autowired StockShards shards;
+	@Autowired StockReservations reservations;
+	@Autowired OrderManagement<Order> orders;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired EntityManagerFactory emf;
+
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void looksUpAvailabilityForAllInventoriesWithAtMostTwoQueries() {
+
+		var unique = createProduct();
+		var sharded = createProduct();
+		var multi = createProduct();
+		var unknown = createProduct();
+
+		uniqueInventory.save(new UniqueInventoryItem(unique, Quantity.of(10)));
+		shards.shard(uniqueInventory.save(new UniqueInventoryItem(sharded, Quantity.of(13))), 2);
+		inventory.save(new MultiInventoryItem(multi, Quantity.of(5)));
+		inventory.save(new MultiInventoryItem(multi, Quantity.of(3)));
+
+		statistics.clear();
+
+		var result = availability.getAvailable(List.of(unique.getId(), sharded.getId(), multi.getId(), unknown.getId()));
+
+		assertThat(result).containsOnly( //
+				entry(unique.getId(), Quantity.of(10)), //
+				entry(sharded.getId(), Quantity.of(13)), //
+				entry(multi.getId(), Quantity.of(8)));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+		assertThat(availability.getAvailable(unknown.getId())).isEqualTo(Quantity.NONE);
+	}
+
+	@Test
+	void doesNotConsiderReservedQuantitiesAvailable() {
+
+		var product = createProduct();
+
+		uniqueInventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+
+		var cart = new Cart();
+		cart.addOrUpdateItem(product, Quantity.of(3));
+
+		var reservation = reservations.reserve(cart).orElseThrow();
+
+		assertThat(availability.getAvailable(product.getId())).isEqualTo(Quantity.of(7));
+		assertThat(availability.isAvailable(product.getId(), Quantity.of(8))).isFalse();
+
+		reservations.release(reservation);
+
+		assertThat(availability.isAvailable(product.getId(), Quantity.of(8))).isTrue();
+	}
+
+	@Test
+	void cachesStockUntilChanged() {
+
+		var product = createProduct();
+		var id = product.getId();
+
+		uniqueInventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+
+		assertThat(availability.getAvailable(id)).isEqualTo(Quantity.of(10));
+
+		statistics.clear();
+
+		assertThat(availability.getAvailable(id)).isEqualTo(Quantity.of(10));
+		assertThat(statistics.getPrepareStatementCount()).isZero();
+
+		// Changes applied to the database directly are not seen
+		uniqueInventory.decreaseQuantityIfAvailable(id, Quantity.of(1));
+
+		assertThat(availability.getAvailable(id)).isEqualTo(Quantity.of(10));
+
+		// Order completion evicts the cached entry
+		completeOrderFor(product, 2);
+
+		assertThat(availability.getAvailable(id)).isEqualTo(Quantity.of(7));
+
+		// So does restocking
+		uniqueInventory.save(uniqueInventory.findByProductIdentifier(id).orElseThrow().increaseQuantity(Quantity.of(3)));
+
+		assertThat(availability.getAvailable(id)).isEqualTo(Quantity.of(10));
+	}
+
+	private Product createProduct() {
+		return catalog.save(new Product(UUID.randomUUID().toString(), Money.of(1, Currencies.EURO)));
+	}
+
+	private void completeOrderFor(Product product, long amount) {
+
+		var user = users.create(UUID.randomUUID().toString(), UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(amount));
+
+		orders.payOrder(order);
+		orders.completeOrder(order);
+	}
+}
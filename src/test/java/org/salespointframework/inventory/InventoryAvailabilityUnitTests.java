@@ -0,0 +1,153 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.catalog.ProductIdentifier;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.Inventory.QuantitySum;
+import org.salespointframework.inventory.InventoryEvents.StockMoved;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.salespointframework.quantity.Metric;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+
+/**
+ * Unit tests for the caching of {@link InventoryAvailability}.
+ *
+ * @author Oliver Drotbohm
+ */
+@SuppressWarnings("unchecked")
+class InventoryAvailabilityUnitTests {
+
+	UniqueInventory<UniqueInventoryItem> uniqueInventory = mock(UniqueInventory.class);
+	MultiInventory<MultiInventoryItem> inventory = mock(MultiInventory.class);
+	StockReservations reservations = mock(StockReservations.class);
+	BusinessTime businessTime = mock(BusinessTime.class);
+
+	LocalDateTime now = LocalDateTime.now();
+	InventoryAvailability availability;
+
+	@BeforeEach
+	void setUp() {
+
+		doReturn(Quantity.NONE).when(reservations).getReserved(any());
+		doAnswer(__ -> now).when(businessTime).getTime();
+
+		var properties = new InventoryProperties(false, null, null, null, null,
+				new InventoryProperties.Availability(Duration.ofMinutes(1), 2));
+
+		this.availability = new InventoryAvailability(uniqueInventory, inventory, reservations, businessTime, properties);
+	}
+
+	@Test
+	void cachesStockUntilExpiredInBusinessTime() {
+
+		var product = stock(10);
+
+		assertThat(availability.getAvailable(product)).isEqualTo(Quantity.of(10));
+		assertThat(availability.getAvailable(product)).isEqualTo(Quantity.of(10));
+
+		verify(uniqueInventory, times(1)).findQuantitiesByProductIn(any());
+
+		now = now.plusMinutes(2);
+
+		availability.getAvailable(product);
+
+		verify(uniqueInventory, times(2)).findQuantitiesByProductIn(any());
+	}
+
+	@Test
+	void doesNotCacheStockLookedUpConcurrentlyToEviction() {
+
+		var product = createProduct();
+
+		doAnswer(__ -> {
+
+			// Change of the stock committed while looking it up
+			availability.on(StockMoved.of(product, Quantity.of(1), Type.STOCKED));
+
+			return List.of(sum(product, 10));
+
+		}).when(uniqueInventory).findQuantitiesByProductIn(any());
+
+		availability.getAvailable(product);
+		availability.getAvailable(product);
+
+		verify(uniqueInventory, times(2)).findQuantitiesByProductIn(any());
+	}
+
+	@Test
+	void limitsNumberOfProductsCached() {
+
+		var first = stock(1);
+		var second = stock(2);
+		var third = stock(3);
+
+		availability.getAvailable(first);
+		availability.getAvailable(second);
+		availability.getAvailable(third);
+
+		// Third product not cached as the cache is full
+		availability.getAvailable(third);
+		verify(uniqueInventory, times(4)).findQuantitiesByProductIn(any());
+
+		// Expired entries are purged to make room
+		now = now.plusMinutes(2);
+
+		availability.getAvailable(third);
+		availability.getAvailable(third);
+		verify(uniqueInventory, times(5)).findQuantitiesByProductIn(any());
+	}
+
+	private ProductIdentifier stock(long amount) {
+
+		var product = createProduct();
+		var sum = sum(product, amount);
+
+		doReturn(List.of(sum)).when(uniqueInventory).findQuantitiesByProductIn(argThat(it -> it.contains(product)));
+
+		return product;
+	}
+
+	private static ProductIdentifier createProduct() {
+		return new Product("Product", Money.of(1, Currencies.EURO)).getId();
+	}
+
+	private static QuantitySum sum(ProductIdentifier product, long amount) {
+
+		var sum = mock(QuantitySum.class);
+
+		doReturn(product).when(sum).getProduct();
+		doReturn(Quantity.of(amount)).when(sum).getQuantity();
+		doReturn(BigDecimal.valueOf(amount)).when(sum).getAmount();
+		doReturn(Metric.UNIT).when(sum).getMetric();
+
+		return sum;
+	}
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryImporter.Chunk;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link InventoryImporter}. Not transactional, as every chunk is imported in a transaction of
+ * its own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class InventoryImporterIntegrationTests {
+
+	@Autowired InventoryImporter importer;
+	@Autowired UniqueInventory<UniqueInventoryItem> uniqueInventory;
+	@Autowired MultiInventory<MultiInventoryItem> inventory;
+	@Autowired StockLedger ledger;
+	@Autowired Catalog<Product> catalog;
+	@Autowired EntityManagerFactory emf;
+
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void importsItemsInChunksVerifyingEachChunkAtOnce() {
+
+		var products = createProducts(25);
+
+		statistics.clear();
+
+		var report = importer.importItems(products.stream() //
+				.map(it -> new UniqueInventoryItem(it, Quantity.of(10))), 10);
+
+		assertThat(report.getItems()).isEqualTo(25);
+		assertThat(report.getChunks()).extracting(Chunk::getItems).containsExactly(10, 10, 5);
+		assertThat(report.getChunks()).allSatisfy(it -> assertThat(it.getThroughput()).isPositive());
+
+		// Two lookups per chunk instead of two per item
+		assertThat(statistics.getQueryExecutionCount()).isEqualTo(6);
+
+		var identifiers = products.stream().map(Product::getId).collect(Collectors.toList());
+
+		assertThat(uniqueInventory.findProductIdentifiersIn(identifiers)).hasSize(25);
+		assertThat(ledger.getQuantity(identifiers.get(0))).isEqualTo(Quantity.of(10));
+	}
+
+	@Test
+	void importsMultipleItemsPerProduct() {
+
+		var product = createProducts(1).get(0);
+
+		var report = importer.importItems(List.of( //
+				new MultiInventoryItem(product, Quantity.of(3)), //
+				new MultiInventoryItem(product, Quantity.of(4))));
+
+		assertThat(report.getChunks()).hasSize(1);
+		assertThat(inventory.sumQuantityByProduct(product.getId())).isEqualTo(Quantity.of(7));
+	}
+
+	@Test
+	void rejectsItemsForProductsAlreadyManagedByUniqueInventoryItem() {
+
+		var products = createProducts(2);
+
+		uniqueInventory.save(new UniqueInventoryItem(products.get(0), Quantity.of(1)));
+
+		assertThatIllegalStateException() //
+				.isThrownBy(() -> importer.importItems(List.of(new MultiInventoryItem(products.get(0), Quantity.of(1)))));
+		assertThatIllegalStateException() //
+				.isThrownBy(() -> importer.importItems(List.of(new UniqueInventoryItem(products.get(0), Quantity.of(1)))));
+
+		assertThat(inventory.sumQuantityByProduct(products.get(0).getId())).isEqualTo(Quantity.NONE);
+	}
+
+	@Test
+	void rejectsDuplicateUniqueItemsAcrossChunks() {
+
+		var product = createProducts(1).get(0);
+
+		assertThatIllegalStateException().isThrownBy(() -> importer.importItems(IntStream.range(0, 2) //
+				.mapToObj(__ -> new UniqueInventoryItem(product, Quantity.of(1))), 1));
+
+		// First chunk imported nonetheless
+		assertThat(uniqueInventory.findByProductIdentifier(product.getId())).isPresent();
+	}
+
+	private List<Product> createProducts(int count) {
+
+		return IntStream.range(0, count) //
+				.mapToObj(__ -> catalog.save(new Product(UUID.randomUUID().toString(), Money.of(1, Currencies.EURO)))) //
+				.collect(Collectors.toList());
+	}
+}
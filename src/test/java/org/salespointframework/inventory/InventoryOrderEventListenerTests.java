@@ -18,6 +18,13 @@ package org.salespointframework.inventory;
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
 import org.javamoney.moneta.Money;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,12 +37,15 @@ import org.salespointframework.order.Cart;
 import org.salespointframework.order.OrderCompletionFailure;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.quantity.Metric;
+import org.salespointframework.quantity.MetricMismatchException;
 import org.salespointframework.quantity.Quantity;
 import org.salespointframework.useraccount.UserAccountManagement;
 import org.salespointframework.useraccount.UserAccountTestUtils;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
 
 /**
  * Integration tests for {@link InventoryOrderEventListener}.
@@ -43,6 +53,7 @@ import org.springframework.test.context.ContextConfiguration;
  * @author Oliver Gierke
  */
 @ContextConfiguration(classes = InventoryOrderEventListenerTests.Config.class)
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
 class InventoryOrderEventListenerTests extends AbstractIntegrationTests {
 
 	@Autowired InventoryOrderEventListener listener;
@@ -50,6 +61,10 @@ class InventoryOrderEventListenerTests extends AbstractIntegrationTests {
 	@Autowired UserAccountManagement users;
 	@Autowired Catalog<Product> products;
 	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired MultiInventory<MultiInventoryItem> multiInventory;
+	@Autowired StockShards shards;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
 
 	Product iPad, iPadToFilter, macBook;
 
@@ -91,6 +106,53 @@ class InventoryOrderEventListenerTests extends AbstractIntegrationTests {
 				.isThrownBy(() -> listener.on(OrderCompleted.of(order)));
 	}
 
+	@Test
+	void rejectsQuantityNotSupportedByProductWithoutTouchingStock() {
+
+		var user = users.create("username", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		var cart = new Cart();
+		cart.addOrUpdateItem(iPad, 1);
+
+		var order = cart.createOrderFor(user);
+
+		em.flush();
+		em.createNativeQuery("update product set metric = ?1 where product_id = ?2") //
+				.setParameter(1, Metric.LITER.ordinal()) //
+				.setParameter(2, iPad.getId().getIdentifier()) //
+				.executeUpdate();
+		em.clear();
+
+		assertThatExceptionOfType(MetricMismatchException.class) //
+				.isThrownBy(() -> listener.on(OrderCompleted.of(order)));
+
+		assertThat(inventory.findByProduct(iPad) //
+				.map(UniqueInventoryItem::getQuantity) //
+				.map(Quantity::getAmount)) //
+						.hasValueSatisfying(it -> assertThat(it).isEqualByComparingTo("10"));
+	}
+
+	@Test
+	void restocksShardsOfShardedItemForCompletedOrderOnCancellation() {
+
+		shards.shard(inventory.findByProduct(iPad).orElseThrow(), 2);
+
+		var user = users.create("username", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		var cart = new Cart();
+		cart.addOrUpdateItem(iPad, 1);
+
+		var order = spy(cart.createOrderFor(user));
+		when(order.isCompleted()).thenReturn(true);
+
+		listener.on(OrderCanceled.of(order, "No reason!"));
+
+		assertThat(inventory.findByProduct(iPad)).hasValueSatisfying(it -> {
+			assertThat(it.getQuantity()).isEqualTo(Quantity.of(11));
+			assertThat(it.getOwnQuantity()).isEqualTo(Quantity.of(0));
+		});
+	}
+
 	@Test // #230
 	void restocksForCompletedOrderOnCancellation() {
 
@@ -108,4 +170,41 @@ class InventoryOrderEventListenerTests extends AbstractIntegrationTests {
 				.map(UniqueInventoryItem::getQuantity) //
 		).hasValue(Quantity.of(11));
 	}
+
+	@Test
+	void looksUpInventoryItemsForAllOrderLinesAtOnce() {
+
+		var user = users.create("username", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		var cart = new Cart();
+
+		IntStream.range(0, 10).forEach(it -> {
+
+			var product = products.save(new Product("Product " + it, Money.of(1, Currencies.EURO)));
+
+			if (it % 2 == 0) {
+				inventory.save(new UniqueInventoryItem(product, Quantity.of(5)));
+			} else {
+				multiInventory.save(new MultiInventoryItem(product, Quantity.of(5)));
+			}
+
+			cart.addOrUpdateItem(product, 2);
+		});
+
+		var order = cart.createOrderFor(user);
+		var statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+		statistics.clear();
+
+		listener.on(OrderCompleted.of(order));
+
+		// One lookup for the unique and one for the multi inventory items, independent of the number of lines
+		assertThat(Arrays.stream(statistics.getQueries()) //
+				.filter(it -> it.startsWith("select")) //
+				.mapToLong(it -> statistics.getQueryStatistics(it).getExecutionCount()) //
+				.sum()).isEqualTo(2);
+		assertThat(inventory.findAll()) //
+				.filteredOn(it -> it.getProduct().getName().startsWith("Product")) //
+				.hasSize(5) //
+				.allMatch(it -> it.getQuantity().equals(Quantity.of(3)));
+	}
 }
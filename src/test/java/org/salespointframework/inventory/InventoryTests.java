@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
+import java.util.List;
 import java.util.Map;
 import java.util.function.Function;
 
@@ -52,7 +53,7 @@ import org.springframework.transaction.annotation.Transactional;
  * @author Oliver Gierke
  */
 @Transactional
-@ModuleTest(extraIncludes = "org.salespointframework.catalog")
+@ModuleTest(extraIncludes = { "org.salespointframework.catalog", "org.salespointframework.time" })
 class InventoryTests {
 
 	@Autowired UniqueInventory<UniqueInventoryItem> unique;
@@ -169,6 +170,22 @@ class InventoryTests {
 		assertThat(items.getTotalQuantity()).isEqualTo(Quantity.of(8));
 	}
 
+	@Test
+	void sumsUpQuantitiesOfMultipleInventoryItemsPerProduct() {
+
+		var otherCookie = catalog.save(new Cookie("Other cookie", Money.of(3, Currencies.EURO)));
+		var yetAnotherCookie = catalog.save(new Cookie("Yet another cookie", Money.of(3, Currencies.EURO)));
+
+		multiple.save(new MultiInventoryItem(otherCookie, Quantity.of(5)));
+		multiple.save(new MultiInventoryItem(otherCookie, Quantity.of(3)));
+		multiple.save(new MultiInventoryItem(yetAnotherCookie, Quantity.of(2)));
+
+		assertThat(multiple.sumQuantityByProduct(otherCookie.getId())).isEqualTo(Quantity.of(8));
+		assertThat(multiple.sumQuantityByProduct(cookie.getId())).isEqualTo(Quantity.NONE);
+		assertThat(multiple.sumQuantities(List.of(otherCookie.getId(), yetAnotherCookie.getId(), cookie.getId()))) //
+				.containsOnly(entry(otherCookie.getId(), Quantity.of(8)), entry(yetAnotherCookie.getId(), Quantity.of(2)));
+	}
+
 	@Test // #163
 	void rejectsNewUniqueInventoryItemForAlreadyExistingUniqueInventoryItem() {
 
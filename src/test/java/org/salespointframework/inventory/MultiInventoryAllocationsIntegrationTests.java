@@ -0,0 +1,300 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryListeners.InventoryOrderEventListener;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderCompletionFailure;
+import org.salespointframework.order.OrderCompletionReport.Allocation;
+import org.salespointframework.order.OrderCompletionReport.OrderLineCompletion;
+import org.salespointframework.order.OrderEvents.OrderCanceled;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Integration tests for {@link MultiInventoryAllocations} and the {@link AllocationStrategy} implementations.
+ *
+ * @author Oliver Drotbohm
+ */
+@Import(MultiInventoryAllocationsIntegrationTests.Config.class)
+class MultiInventoryAllocationsIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired MultiInventory<MultiInventoryItem> inventory;
+	@Autowired InventoryManagement management;
+	@Autowired InventoryOrderEventListener listener;
+	@Autowired OrderManagement<Order> orders;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired StockLedger ledger;
+	@Autowired BusinessTime businessTime;
+	@Autowired SwitchableStrategy strategy;
+
+	Product product;
+	UserAccount user;
+	MultiInventoryItem small, medium, large;
+
+	@BeforeEach
+	void setUp() {
+
+		this.product = catalog.save(new Product("Cookie", Money.of(1, Currencies.EURO)));
+		this.user = users.create("user", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		this.large = inventory.save(new MultiInventoryItem(product, Quantity.of(10)));
+		this.small = inventory.save(new MultiInventoryItem(product, Quantity.of(3)));
+		this.medium = inventory.save(new MultiInventoryItem(product, Quantity.of(6)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		strategy.delegate = AllocationStrategy.greedy();
+	}
+
+	@Test
+	void greedyStrategyTakesFromItemsInIdentifierOrder() {
+
+		var available = available(large, small, medium);
+		var byIdentifier = available.keySet().stream() //
+				.sorted(Comparator.comparing(it -> it.getId().getIdentifier())) //
+				.collect(Collectors.toList());
+
+		var result = AllocationStrategy.greedy().allocate(Quantity.of(12), sorted(available, byIdentifier));
+
+		assertThat(result.values().stream().reduce(Quantity.NONE, Quantity::add)).isEqualTo(Quantity.of(12));
+		assertThat(result.keySet()).containsExactlyElementsOf(byIdentifier.subList(0, result.size()));
+	}
+
+	@Test
+	void fewestSplitsPrefersSmallestSufficientItem() {
+
+		var available = available(large, small, medium);
+
+		assertThat(AllocationStrategy.fewestSplits().allocate(Quantity.of(5), available)) //
+				.containsExactly(entry(medium, Quantity.of(5)));
+		assertThat(AllocationStrategy.fewestSplits().allocate(Quantity.of(14), available)) //
+				.containsExactly(entry(large, Quantity.of(10)), entry(medium, Quantity.of(4)));
+	}
+
+	@Test
+	void priorityOrderFollowsComparator() {
+
+		var priorities = Map.of(small, 0, medium, 1, large, 2);
+		var strategy = AllocationStrategy.priorityOrder(Comparator.comparing(priorities::get));
+
+		assertThat(strategy.allocate(Quantity.of(7), available(large, small, medium))) //
+				.containsExactly(entry(small, Quantity.of(3)), entry(medium, Quantity.of(4)));
+	}
+
+	@Test
+	void strategiesRejectInsufficientStock() {
+
+		var available = available(large, small, medium);
+
+		assertThat(AllocationStrategy.greedy().allocate(Quantity.of(20), available)).isEmpty();
+		assertThat(AllocationStrategy.fewestSplits().allocate(Quantity.of(20), available)).isEmpty();
+	}
+
+	@Test
+	void decreasesAllocatedItemsAndReportsAllocations() {
+
+		strategy.delegate = AllocationStrategy.fewestSplits();
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(12));
+		order.addOrderLine(product, Quantity.of(3));
+
+		var report = management.verifyAndUpdate(order);
+
+		assertThat(report.hasErrors()).isFalse();
+		assertThat(report.stream().map(OrderLineCompletion::getAllocations)).containsExactly( //
+				List.of(Allocation.of(large.getId(), Quantity.of(10)), Allocation.of(medium.getId(), Quantity.of(2))), //
+				List.of(Allocation.of(small.getId(), Quantity.of(3))));
+
+		assertThat(quantities()).containsExactly( //
+				entry(large, Quantity.of(0)), //
+				entry(small, Quantity.of(0)), //
+				entry(medium, Quantity.of(4)));
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(4));
+	}
+
+	@Test
+	void rejectsOrderWithoutChangingStockIfAllocationFails() {
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(15));
+		order.addOrderLine(product, Quantity.of(5));
+
+		assertThatExceptionOfType(OrderCompletionFailure.class) //
+				.isThrownBy(() -> management.verifyAndUpdate(order));
+
+		assertThat(quantities()).containsExactly( //
+				entry(large, Quantity.of(10)), //
+				entry(small, Quantity.of(3)), //
+				entry(medium, Quantity.of(6)));
+	}
+
+	@Test
+	void returnsStockToAllocatedItemsOnCancellation() {
+
+		var interval = Interval.from(businessTime.getTime().minusMinutes(1)).to(businessTime.getTime().plusHours(1));
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(11));
+
+		orders.payOrder(order);
+		orders.completeOrder(order);
+
+		assertThat(inventory.sumQuantityByProduct(product.getId())).isEqualTo(Quantity.of(8));
+
+		listener.on(OrderCanceled.of(order, "Changed my mind!"));
+
+		assertThat(quantities()).containsExactly( //
+				entry(large, Quantity.of(10)), //
+				entry(small, Quantity.of(3)), //
+				entry(medium, Quantity.of(6)));
+		assertThat(ledger.getMovements(product.getId(), interval)) //
+				.extracting(StockMovement::getType, StockMovement::getQuantity) //
+				.endsWith( //
+						tuple(Type.ORDER_COMPLETED, Quantity.of(-11)), //
+						tuple(Type.ORDER_CANCELED, Quantity.of(11)));
+	}
+
+	@Test
+	void returnsStockToAllocatedItemsWhenCancellingCompletedOrder() {
+
+		strategy.delegate = AllocationStrategy.fewestSplits();
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(12));
+		order.addOrderLine(product, Quantity.of(3));
+
+		orders.payOrder(order);
+		orders.completeOrder(order);
+
+		assertThat(quantities()).containsExactly( //
+				entry(large, Quantity.of(0)), //
+				entry(small, Quantity.of(0)), //
+				entry(medium, Quantity.of(4)));
+
+		orders.cancelOrder(order, "Changed my mind!");
+
+		assertThat(quantities()).containsExactly( //
+				entry(large, Quantity.of(10)), //
+				entry(small, Quantity.of(3)), //
+				entry(medium, Quantity.of(6)));
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(19));
+	}
+
+	@Test
+	void allocatesOrdersWithManyLinesAcrossLocations() {
+
+		var products = IntStream.range(0, 100) //
+				.mapToObj(it -> catalog.save(new Product("Product " + it, Money.of(1, Currencies.EURO)))) //
+				.collect(Collectors.toList());
+
+		products.forEach(it -> IntStream.range(0, 10) //
+				.forEach(__ -> inventory.save(new MultiInventoryItem(it, Quantity.of(1)))));
+
+		var order = new Order(user, Cash.CASH);
+		products.forEach(it -> order.addOrderLine(it, Quantity.of(7)));
+
+		var report = management.verifyAndUpdate(order);
+
+		assertThat(report.hasErrors()).isFalse();
+		assertThat(report.stream()).allSatisfy(it -> assertThat(it.getAllocations()).hasSize(7));
+		assertThat(inventory.sumQuantities(products.stream().map(Product::getId).collect(Collectors.toList())).values())
+				.hasSize(100).containsOnly(Quantity.of(3));
+	}
+
+	private Map<MultiInventoryItem, Quantity> quantities() {
+
+		return inventory.findByProduct(product).stream() //
+				.sorted(Comparator.comparing(it -> it == large ? 0 : it == small ? 1 : 2)) //
+				.collect(Collectors.toMap(Function.identity(), MultiInventoryItem::getQuantity, (l, r) -> l,
+						LinkedHashMap::new));
+	}
+
+	private static Map<MultiInventoryItem, Quantity> available(MultiInventoryItem... items) {
+
+		var result = new LinkedHashMap<MultiInventoryItem, Quantity>();
+
+		for (var item : items) {
+			result.put(item, item.getQuantity());
+		}
+
+		return result;
+	}
+
+	private static Map<MultiInventoryItem, Quantity> sorted(Map<MultiInventoryItem, Quantity> available,
+			Iterable<MultiInventoryItem> order) {
+
+		var result = new LinkedHashMap<MultiInventoryItem, Quantity>();
+
+		order.forEach(it -> result.put(it, available.get(it)));
+
+		return result;
+	}
+
+	static class SwitchableStrategy implements AllocationStrategy {
+
+		AllocationStrategy delegate = AllocationStrategy.greedy();
+
+		/*
+		 * (non-Javadoc)
+		 * @see org.salespointframework.inventory.AllocationStrategy#allocate(org.salespointframework.quantity.Quantity, java.util.Map)
+		 */
+		@Override
+		public Map<MultiInventoryItem, Quantity> allocate(Quantity requested, Map<MultiInventoryItem, Quantity> available) {
+			return delegate.allocate(requested, available);
+		}
+	}
+
+	@TestConfiguration
+	static class Config {
+
+		@Bean
+		SwitchableStrategy allocationStrategy() {
+			return new SwitchableStrategy();
+		}
+	}
+}
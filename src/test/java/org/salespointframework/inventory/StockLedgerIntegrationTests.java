@@ -0,0 +1,188 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+
+import javax.persistence.EntityManager;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryListeners.InventoryOrderEventListener;
+import org.salespointframework.inventory.StockMovement.Type;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderEvents.OrderCanceled;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link StockLedger}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = { "salespoint.inventory.ledger.compaction-interval=0",
+		"salespoint.inventory.ledger.retention=1d" })
+class StockLedgerIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired StockLedger ledger;
+	@Autowired EntityManager em;
+	@Autowired InventoryOrderEventListener listener;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired OrderManagement<Order> orders;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired BusinessTime businessTime;
+
+	Product product;
+	UserAccount user;
+	Interval interval;
+
+	@BeforeEach
+	void setUp() {
+
+		this.product = catalog.save(new Product("Cookie", Money.of(1, Currencies.EURO)));
+		this.user = users.create("user", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.interval = Interval.from(businessTime.getTime().minusMinutes(1)).withLength(Duration.ofHours(1));
+	}
+
+	@AfterEach
+	void tearDown() {
+		businessTime.reset();
+	}
+
+	@Test
+	void recordsMovementsForAllStockChanges() {
+
+		var item = inventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+		inventory.save(item.increaseQuantity(Quantity.of(5)));
+
+		var order = paidOrder(3);
+
+		orders.completeOrder(order);
+		listener.on(OrderCanceled.of(order, "Changed my mind!"));
+
+		assertThat(ledger.getMovements(product.getId(), interval)) //
+				.extracting(StockMovement::getType, StockMovement::getQuantity) //
+				.containsExactly( //
+						tuple(Type.STOCKED, Quantity.of(10)), //
+						tuple(Type.ADJUSTED, Quantity.of(5)), //
+						tuple(Type.ORDER_COMPLETED, Quantity.of(-3)), //
+						tuple(Type.ORDER_CANCELED, Quantity.of(3)));
+
+		assertThat(ledger.getMovements(product.getId(), interval).toList().get(2).getOrder()).hasValue(order.getId());
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(15));
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(15));
+	}
+
+	@Test
+	void materializesQuantityFromSnapshotAndSubsequentMovements() {
+
+		inventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+		orders.completeOrder(paidOrder(4));
+
+		var beforeCompaction = businessTime.getTime();
+
+		// Movements recorded within the last minute are not folded yet
+		assertThat(ledger.compact()).isZero();
+
+		businessTime.forward(Duration.ofMinutes(2));
+
+		assertThat(ledger.compact()).isGreaterThanOrEqualTo(1);
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(6));
+
+		orders.completeOrder(paidOrder(2));
+
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(4));
+		assertThat(ledger.getQuantityAt(product.getId(), beforeCompaction)).isEqualTo(Quantity.of(6));
+		assertThat(ledger.getQuantityAt(product.getId(), beforeCompaction.minusMinutes(1))).isEqualTo(Quantity.NONE);
+	}
+
+	@Test
+	void foldsMovementsCommittedAfterLaterOnesWereFolded() {
+
+		inventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+		orders.completeOrder(paidOrder(4));
+
+		businessTime.forward(Duration.ofMinutes(2));
+		ledger.compact();
+
+		orders.completeOrder(paidOrder(2));
+
+		// Simulate a movement of a transaction committing late, i.e. one with an identifier lower than the ones folded
+		var late = ledger.getMovements(product.getId(), interval).stream() //
+				.reduce((__, it) -> it) //
+				.orElseThrow();
+
+		em.flush();
+		em.createNativeQuery("update inventory_stock_movement set id = ?1 where id = ?2") //
+				.setParameter(1, -late.getId()) //
+				.setParameter(2, late.getId()) //
+				.executeUpdate();
+		em.clear();
+
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(4));
+
+		businessTime.forward(Duration.ofMinutes(2));
+
+		assertThat(ledger.compact()).isEqualTo(1);
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(4));
+		assertThat(ledger.compact()).isZero();
+	}
+
+	@Test
+	void removesFoldedMovementsAfterRetentionPeriod() {
+
+		inventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+		orders.completeOrder(paidOrder(1));
+
+		businessTime.forward(Duration.ofMinutes(2));
+		ledger.compact();
+
+		assertThat(ledger.getMovements(product.getId(), interval)).hasSize(2);
+
+		businessTime.forward(Duration.ofDays(2));
+		ledger.compact();
+
+		assertThat(ledger.getMovements(product.getId(), interval)).isEmpty();
+		assertThat(ledger.getQuantity(product.getId())).isEqualTo(Quantity.of(9));
+	}
+
+	private Order paidOrder(long amount) {
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(amount));
+
+		orders.payOrder(order);
+
+		return order;
+	}
+}
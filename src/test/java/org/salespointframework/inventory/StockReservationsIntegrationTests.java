@@ -0,0 +1,207 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.order.Cart;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderCompletionFailure;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+/**
+ * Integration tests for {@link StockReservations}. Not transactional as reservations only become visible to others
+ * once committed.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@TestPropertySource(properties = { "salespoint.inventory.reservations.ttl=10m",
+		"salespoint.inventory.reservations.expiry-interval=0" })
+class StockReservationsIntegrationTests {
+
+	@Autowired StockReservations reservations;
+	@Autowired ReservationEntryRepository entries;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired OrderManagement<Order> orders;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired BusinessTime businessTime;
+	@Autowired InventoryProperties properties;
+	@Autowired PlatformTransactionManager transactionManager;
+
+	Product product;
+	UserAccount user;
+
+	@BeforeEach
+	void setUp() {
+
+		var name = UUID.randomUUID().toString();
+
+		this.product = catalog.save(new Product(name, Money.of(1, Currencies.EURO)));
+		this.user = users.create(name, UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		inventory.save(new UniqueInventoryItem(product, Quantity.of(5)));
+	}
+
+	@AfterEach
+	void tearDown() {
+		businessTime.reset();
+	}
+
+	@Test
+	void rejectsReservationsExceedingAvailableStock() {
+
+		assertThat(reservations.reserve(cartWith(3))).isPresent();
+		assertThat(reservations.getReserved(product.getId())).isEqualTo(Quantity.of(3));
+
+		assertThat(reservations.reserve(cartWith(3))).isEmpty();
+		assertThat(reservations.reserve(cartWith(2))).isPresent();
+		assertThat(reservations.getReserved(product.getId())).isEqualTo(Quantity.of(5));
+	}
+
+	@Test
+	void completionConsumesReservationAndKeepsOthersReservationsUntouched() {
+
+		var reserved = paidOrderFor(3);
+		var unreserved = paidOrderFor(3);
+
+		assertThat(reservations.reserve(reserved)).isPresent();
+
+		assertThatExceptionOfType(OrderCompletionFailure.class) //
+				.isThrownBy(() -> orders.completeOrder(unreserved));
+
+		orders.completeOrder(reserved);
+
+		assertThat(reservations.findFor(reserved)).isEmpty();
+		assertThat(reservations.getReserved(product.getId())).isEqualTo(Quantity.NONE);
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(2));
+	}
+
+	@Test
+	void assignsCartReservationToOrder() {
+
+		var reservation = reservations.reserve(cartWith(4)).orElseThrow();
+		var order = paidOrderFor(4);
+
+		assertThat(reservations.assign(reservation.getId(), order)) //
+				.hasValueSatisfying(it -> assertThat(it.getOrder()).hasValue(order.getId()));
+		assertThat(reservations.findFor(order)).map(Reservation::getId).hasValue(reservation.getId());
+
+		orders.completeOrder(order);
+
+		assertThat(reservations.findActive(reservation.getId())).isEmpty();
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(1));
+	}
+
+	@Test
+	void expiresReservationsAfterTtl() {
+
+		var reservation = reservations.reserve(cartWith(5)).orElseThrow();
+
+		businessTime.forward(Duration.ofMinutes(5));
+
+		var extended = reservations.extend(reservation.getId()).orElseThrow();
+
+		assertThat(extended.getExpires()).isAfter(reservation.getExpires());
+
+		businessTime.forward(Duration.ofMinutes(9));
+
+		assertThat(reservations.findActive(reservation.getId())).isPresent();
+		assertThat(reservations.reserve(cartWith(1))).isEmpty();
+
+		businessTime.forward(Duration.ofMinutes(2));
+
+		assertThat(reservations.findActive(reservation.getId())).isEmpty();
+		assertThat(reservations.getReserved(product.getId())).isEqualTo(Quantity.NONE);
+		assertThat(reservations.reserve(cartWith(1))).isPresent();
+
+		assertThat(reservations.expire()).isGreaterThanOrEqualTo(1);
+		assertThat(reservations.extend(reservation.getId())).isEmpty();
+	}
+
+	@Test
+	void releasesReservation() {
+
+		var reservation = reservations.reserve(cartWith(5)).orElseThrow();
+
+		reservations.release(reservation);
+
+		assertThat(reservations.findActive(reservation.getId())).isEmpty();
+		assertThat(reservations.reserve(cartWith(5))).isPresent();
+	}
+
+	@Test
+	void loadsActiveReservationsOnStartup() {
+
+		var reservation = reservations.reserve(cartWith(2)).orElseThrow();
+		var restarted = new StockReservations(entries, transactionManager, inventory, businessTime,
+				List.of(), properties);
+
+		restarted.start();
+
+		try {
+
+			assertThat(restarted.findActive(reservation.getId())).map(Reservation::getQuantities)
+					.hasValue(reservation.getQuantities());
+			assertThat(restarted.getReserved(product.getId())).isEqualTo(Quantity.of(2));
+
+		} finally {
+			restarted.stop();
+		}
+	}
+
+	private Cart cartWith(long amount) {
+
+		var cart = new Cart();
+		cart.addOrUpdateItem(product, amount);
+
+		return cart;
+	}
+
+	private Order paidOrderFor(long amount) {
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(amount));
+
+		orders.payOrder(order);
+
+		return order;
+	}
+}
@@ -0,0 +1,290 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryEvents.StockShort;
+import org.salespointframework.order.Cart;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderCompletionFailure;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link StockShards} including a simple benchmark comparing the throughput of order completions
+ * for sharded and unsharded {@link UniqueInventoryItem}s. Not transactional as the orders are completed in
+ * transactions of their own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@ContextConfiguration(classes = StockShardsIntegrationTests.Config.class)
+@TestPropertySource(properties = "salespoint.inventory.restock-threshold=10")
+class StockShardsIntegrationTests {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(StockShardsIntegrationTests.class);
+
+	@Autowired StockShards shards;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired OrderManagement<Order> orders;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired StockShortRecorder recorder;
+	@Autowired StockReservations reservations;
+
+	UserAccount user;
+
+	static class Config {
+
+		@Bean
+		StockShortRecorder stockShortRecorder() {
+			return new StockShortRecorder();
+		}
+	}
+
+	static class StockShortRecorder {
+
+		List<StockShort> events = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		void on(StockShort event) {
+			events.add(event);
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+		this.user = users.create(UUID.randomUUID().toString(), UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+	}
+
+	@Test
+	void reportsSummedQuantityOfShards() {
+
+		var product = createProduct();
+		var item = shards.shard(inventory.save(new UniqueInventoryItem(product, Quantity.of(13))), 4);
+
+		assertThat(item.isSharded()).isTrue();
+		assertThat(item.getQuantity()).isEqualTo(Quantity.of(13));
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(13));
+
+		// No single shard holds 5 items
+		orders.completeOrder(paidOrderFor(product, 5));
+
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(8));
+		assertThat(recorder.events) //
+				.filteredOn(it -> it.getProductId().equals(product.getId())) //
+				.extracting(StockShort::getCurrentQuantity) //
+				.containsExactly(Quantity.of(8));
+
+		var unsharded = shards.unshard(inventory.findByProduct(product).orElseThrow());
+
+		assertThat(unsharded.isSharded()).isFalse();
+		assertThat(unsharded.getQuantity()).isEqualTo(Quantity.of(8));
+	}
+
+	@Test
+	void considersShardsWhenLookingUpItemsOutOfStock() {
+
+		var product = createProduct();
+
+		shards.shard(inventory.save(new UniqueInventoryItem(product, Quantity.of(2))), 2);
+
+		assertThat(inventory.findItemsOutOfStock()).noneMatch(it -> it.keepsTrackOf(product));
+
+		orders.completeOrder(paidOrderFor(product, 2));
+
+		assertThat(inventory.findItemsOutOfStock()).anyMatch(it -> it.keepsTrackOf(product));
+		assertThatExceptionOfType(OrderCompletionFailure.class) //
+				.isThrownBy(() -> orders.completeOrder(paidOrderFor(product, 1)));
+	}
+
+	@Test
+	void keepsQuantitiesReservedByOthersOfShardedItems() {
+
+		var product = createProduct();
+
+		shards.shard(inventory.save(new UniqueInventoryItem(product, Quantity.of(4))), 2);
+
+		var cart = new Cart();
+		cart.addOrUpdateItem(product, Quantity.of(3));
+
+		var reservation = reservations.reserve(cart).orElseThrow();
+
+		assertThatExceptionOfType(OrderCompletionFailure.class) //
+				.isThrownBy(() -> orders.completeOrder(paidOrderFor(product, 2)));
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(4));
+
+		orders.completeOrder(paidOrderFor(product, 1));
+
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(3));
+
+		reservations.release(reservation);
+	}
+
+	@Test
+	void appliesManualChangesOfShardedItemsToShards() {
+
+		var product = createProduct();
+		var item = shards.shard(inventory.save(new UniqueInventoryItem(product, Quantity.of(10))), 4);
+
+		item = inventory.save(item.decreaseQuantity(Quantity.of(7)));
+
+		assertThat(item.getQuantity()).isEqualTo(Quantity.of(3));
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(3));
+
+		item = inventory.save(inventory.findByProduct(product).orElseThrow().increaseQuantity(Quantity.of(2)));
+
+		assertThat(inventory.findByProduct(product)).hasValueSatisfying(it -> {
+			assertThat(it.getQuantity()).isEqualTo(Quantity.of(5));
+			assertThat(it.getOwnQuantity()).isEqualTo(Quantity.of(0));
+		});
+
+		var reloaded = inventory.findByProduct(product).orElseThrow();
+
+		assertThatIllegalArgumentException().isThrownBy(() -> reloaded.decreaseQuantity(Quantity.of(6)));
+	}
+
+	@Test
+	void returnsStockToShardsIfOrderCannotBeFulfilled() {
+
+		var product = createProduct();
+		var other = createProduct();
+
+		shards.shard(inventory.save(new UniqueInventoryItem(product, Quantity.of(4))), 2);
+		inventory.save(new UniqueInventoryItem(other, Quantity.of(1)));
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(3));
+		order.addOrderLine(other, Quantity.of(2));
+
+		orders.payOrder(order);
+
+		assertThatExceptionOfType(OrderCompletionFailure.class) //
+				.isThrownBy(() -> orders.completeOrder(order));
+
+		assertThat(inventory.findByProduct(product)).hasValueSatisfying(it -> {
+			assertThat(it.getQuantity()).isEqualTo(Quantity.of(4));
+			assertThat(it.getOwnQuantity()).isEqualTo(Quantity.of(0));
+		});
+	}
+
+	@Test
+	void benchmarkConcurrentCompletion() throws Exception {
+
+		for (var buyers : List.of(1, 8, 64)) {
+			benchmark(buyers, 0);
+			benchmark(buyers, 8);
+		}
+	}
+
+	private void benchmark(int buyers, int numberOfShards) throws Exception {
+
+		var stock = 100;
+		var product = createProduct();
+		var item = inventory.save(new UniqueInventoryItem(product, Quantity.of(stock)));
+
+		if (numberOfShards > 0) {
+			shards.shard(item, numberOfShards);
+		}
+
+		var paid = IntStream.range(0, stock + 20) //
+				.mapToObj(__ -> paidOrderFor(product, 1)) //
+				.collect(Collectors.toList());
+
+		var executor = Executors.newFixedThreadPool(buyers);
+		var start = new CountDownLatch(1);
+		var completed = new AtomicInteger();
+		var failures = new CopyOnWriteArrayList<Exception>();
+
+		paid.forEach(order -> executor.execute(() -> {
+
+			try {
+
+				start.await();
+				orders.completeOrder(order);
+				completed.incrementAndGet();
+
+			} catch (OrderCompletionFailure o_O) {
+				// Expected for the orders exceeding the stock
+			} catch (InterruptedException o_O) {
+				Thread.currentThread().interrupt();
+			} catch (RuntimeException o_O) {
+				failures.add(o_O);
+			}
+		}));
+
+		var before = System.nanoTime();
+
+		start.countDown();
+		executor.shutdown();
+
+		assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+		var millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before));
+
+		LOGGER.info("{} buyers, {} shards: completed {} of {} orders in {}ms ({} orders/s).", buyers, numberOfShards,
+				completed.get(), paid.size(), millis, paid.size() * 1000 / millis);
+
+		assertThat(failures).isEmpty();
+		assertThat(completed.get()).isEqualTo(stock);
+		assertThat(inventory.findByProduct(product)).map(UniqueInventoryItem::getQuantity).hasValue(Quantity.of(0));
+	}
+
+	private Product createProduct() {
+		return catalog.save(new Product(UUID.randomUUID().toString(), Money.of(1, Currencies.EURO)));
+	}
+
+	private Order paidOrderFor(Product product, long amount) {
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(amount));
+
+		orders.payOrder(order);
+
+		return order;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Collectors;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryEvents.StockShort;
+import org.salespointframework.quantity.Quantity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link StockShortNotifications} and per-item restock thresholds. Not transactional, as
+ * {@link StockShort}s are only published on commit.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@ContextConfiguration(classes = StockShortNotificationsIntegrationTests.Config.class)
+@TestPropertySource(properties = { "salespoint.inventory.restock-threshold=5",
+		"salespoint.inventory.stock-short-window=500ms" })
+class StockShortNotificationsIntegrationTests {
+
+	@Autowired StockShortNotifications notifications;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired Catalog<Product> catalog;
+	@Autowired StockShortRecorder recorder;
+
+	static class Config {
+
+		@Bean
+		StockShortRecorder stockShortRecorder() {
+			return new StockShortRecorder();
+		}
+	}
+
+	static class StockShortRecorder {
+
+		List<StockShort> events = new CopyOnWriteArrayList<>();
+		List<String> threads = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		void on(StockShort event) {
+			events.add(event);
+			threads.add(Thread.currentThread().getName());
+		}
+	}
+
+	@Test
+	void coalescesStockShortsPerProductWithinWindow() throws Exception {
+
+		var product = createProduct();
+		var item = inventory.save(new UniqueInventoryItem(product, Quantity.of(10)));
+
+		for (int i = 0; i < 5; i++) {
+			item = inventory.save(item.decreaseQuantity(Quantity.of(1)));
+		}
+
+		// None of 9 to 5 is below the threshold of 5, 4 opens a window, 3 gets replaced by 2
+		item = inventory.save(item.decreaseQuantity(Quantity.of(1)));
+		item = inventory.save(item.decreaseQuantity(Quantity.of(1)));
+		item = inventory.save(item.decreaseQuantity(Quantity.of(1)));
+
+		awaitStockShorts(product, 2);
+
+		assertThat(shortsFor(product)) //
+				.extracting(StockShort::getCurrentQuantity) //
+				.containsExactly(Quantity.of(4), Quantity.of(2));
+		assertThat(recorder.threads).allMatch(it -> it.startsWith("salespoint-stock-short-"));
+		assertThat(notifications.getSuppressed(product.getId())).isEqualTo(1);
+
+		Thread.sleep(1000);
+
+		assertThat(shortsFor(product)).hasSize(2);
+	}
+
+	@Test
+	void usesRestockThresholdConfiguredForItem() throws Exception {
+
+		var product = createProduct();
+		var item = inventory.save(new UniqueInventoryItem(product, Quantity.of(30)).setRestockThreshold(Quantity.of(25)));
+
+		assertThat(inventory.findById(item.getId())) //
+				.flatMap(UniqueInventoryItem::getRestockThreshold) //
+				.hasValue(Quantity.of(25));
+
+		inventory.save(item.decreaseQuantity(Quantity.of(10)));
+
+		awaitStockShorts(product, 1);
+
+		assertThat(shortsFor(product)).element(0).satisfies(it -> {
+			assertThat(it.getCurrentQuantity()).isEqualTo(Quantity.of(20));
+			assertThat(it.getThreshold()).isEqualTo(Quantity.of(25));
+		});
+	}
+
+	private void awaitStockShorts(Product product, int count) throws InterruptedException {
+
+		for (int i = 0; i < 50 && shortsFor(product).size() < count; i++) {
+			Thread.sleep(100);
+		}
+	}
+
+	private List<StockShort> shortsFor(Product product) {
+
+		return recorder.events.stream() //
+				.filter(it -> it.getProductId().equals(product.getId())) //
+				.collect(Collectors.toList());
+	}
+
+	private Product createProduct() {
+		return catalog.save(new Product(UUID.randomUUID().toString(), Money.of(1, Currencies.EURO)));
+	}
+}
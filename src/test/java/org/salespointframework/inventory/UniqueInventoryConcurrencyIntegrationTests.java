@@ -0,0 +1,163 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.inventory;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.InventoryEvents.StockShort;
+import org.salespointframework.order.Order;
+import org.salespointframework.order.OrderCompletionFailure;
+import org.salespointframework.order.OrderManagement;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Stress test for the atomic stock decrease of {@link UniqueInventory} on concurrent order completion. Not
+ * transactional as the orders are completed in transactions of their own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@ContextConfiguration(classes = UniqueInventoryConcurrencyIntegrationTests.Config.class)
+@TestPropertySource(properties = "salespoint.inventory.restock-threshold=10")
+class UniqueInventoryConcurrencyIntegrationTests {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(UniqueInventoryConcurrencyIntegrationTests.class);
+
+	static final int STOCK = 50, THREADS = 8, ORDERS_PER_THREAD = 20;
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UserAccountManagement users;
+	@Autowired StockShortRecorder recorder;
+
+	static class Config {
+
+		@Bean
+		StockShortRecorder stockShortRecorder() {
+			return new StockShortRecorder();
+		}
+	}
+
+	static class StockShortRecorder {
+
+		List<StockShort> events = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		void on(StockShort event) {
+			events.add(event);
+		}
+	}
+
+	@Test
+	void doesNotOversellHotProductOnConcurrentCompletion() throws Exception {
+
+		var product = catalog.save(new Product("Hot product", Money.of(1, Currencies.EURO)));
+		var user = users.create("hot-product-buyer", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		inventory.save(new UniqueInventoryItem(product, Quantity.of(STOCK)));
+
+		var paid = IntStream.range(0, THREADS * ORDERS_PER_THREAD).mapToObj(__ -> {
+
+			var order = new Order(user, Cash.CASH);
+			order.addOrderLine(product, Quantity.of(1));
+			orders.payOrder(order);
+
+			return order;
+
+		}).collect(Collectors.toList());
+
+		var executor = Executors.newFixedThreadPool(THREADS);
+		var start = new CountDownLatch(1);
+		var completed = new AtomicInteger();
+		var rejected = new AtomicInteger();
+
+		for (int i = 0; i < THREADS; i++) {
+
+			var chunk = paid.subList(i * ORDERS_PER_THREAD, (i + 1) * ORDERS_PER_THREAD);
+
+			executor.execute(() -> {
+
+				try {
+					start.await();
+				} catch (InterruptedException o_O) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+
+				chunk.forEach(it -> {
+
+					try {
+						orders.completeOrder(it);
+						completed.incrementAndGet();
+					} catch (OrderCompletionFailure o_O) {
+						rejected.incrementAndGet();
+					}
+				});
+			});
+		}
+
+		var before = System.nanoTime();
+
+		start.countDown();
+		executor.shutdown();
+
+		assertThat(executor.awaitTermination(1, TimeUnit.MINUTES)).isTrue();
+
+		var millis = Math.max(1, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - before));
+
+		LOGGER.info("Completed {} and rejected {} orders for a single product on {} threads in {}ms ({} orders/s).",
+				completed.get(), rejected.get(), THREADS, millis, paid.size() * 1000 / millis);
+
+		assertThat(completed.get()).isEqualTo(STOCK);
+		assertThat(rejected.get()).isEqualTo(paid.size() - STOCK);
+		assertThat(inventory.findByProduct(product)) //
+				.hasValueSatisfying(it -> assertThat(it.getQuantity()).isEqualTo(Quantity.of(0)));
+
+		assertThat(orders.findBy(user).filter(Order::isCompleted)).hasSize(STOCK);
+		assertThat(recorder.events) //
+				.filteredOn(it -> it.getProductId().equals(product.getId())) //
+				.hasSize(10) //
+				.allSatisfy(it -> assertThat(it.getCurrentQuantity().isNegative()).isFalse());
+	}
+}
@@ -0,0 +1,160 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import javax.persistence.EntityManager;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link OrderArchiver}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = { //
+		"salespoint.order.archive.enabled=true", //
+		"salespoint.order.archive.age=30d", //
+		"salespoint.order.archive.batch-size=2", //
+		"salespoint.order.archive.interval=0" //
+})
+class OrderArchiverIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired OrderArchiver archiver;
+	@Autowired UserAccountManagement users;
+	@Autowired BusinessTime businessTime;
+	@Autowired EntityManager em;
+
+	UserAccount user;
+	LocalDateTime now;
+	Order oldCompleted, oldCanceled, oldOpen, recentCompleted;
+
+	@BeforeEach
+	void setUp() {
+
+		this.user = users.create("archive", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.now = businessTime.getTime();
+
+		this.oldCompleted = createOrder(now.minusDays(60));
+		orders.payOrder(oldCompleted);
+		orders.completeOrder(oldCompleted);
+
+		this.oldCanceled = createOrder(now.minusDays(50));
+		orders.cancelOrder(oldCanceled, "No reason");
+
+		this.oldOpen = createOrder(now.minusDays(45));
+
+		this.recentCompleted = createOrder(now.minusDays(5));
+		orders.payOrder(recentCompleted);
+		orders.completeOrder(recentCompleted);
+
+		em.flush();
+	}
+
+	@Test
+	void archivesFinishedOrdersOlderThanConfiguredAge() {
+
+		assertThat(archiver.getHorizon()).isAfterOrEqualTo(now.minus(Duration.ofDays(30)));
+		assertThat(archiver.archive()).isEqualTo(2);
+
+		em.clear();
+
+		assertThat(orders.get(oldCompleted.getId())).hasValueSatisfying(it -> assertThat(it.isArchived()).isTrue());
+		assertThat(orders.get(oldCanceled.getId())).hasValueSatisfying(it -> assertThat(it.isArchived()).isTrue());
+		assertThat(orders.get(oldOpen.getId())).hasValueSatisfying(it -> assertThat(it.isArchived()).isFalse());
+		assertThat(orders.get(recentCompleted.getId())) //
+				.hasValueSatisfying(it -> assertThat(it.isArchived()).isFalse());
+
+		// Subsequent runs pick up where the previous one stopped
+		assertThat(archiver.archive()).isZero();
+	}
+
+	@Test
+	void keepsPersistenceContextAndArchiveStateOfOrdersLoadedBefore() {
+
+		archiver.archive();
+
+		assertThat(em.contains(oldCompleted)).isTrue();
+
+		// Saving a stale instance must not reset the archive state
+		orders.save(oldCompleted);
+		em.flush();
+		em.clear();
+
+		assertThat(orders.get(oldCompleted.getId())).hasValueSatisfying(it -> assertThat(it.isArchived()).isTrue());
+	}
+
+	@Test
+	void statusAndUserLookupsIncludeArchive() {
+
+		archiver.archive();
+		em.clear();
+
+		assertThat(orders.findBy(user)).containsExactlyInAnyOrder(oldCompleted, oldCanceled, oldOpen, recentCompleted);
+		assertThat(orders.findBy(user, OrderFetchPlan.FULL)).hasSize(4);
+		assertThat(orders.findBy(OrderStatus.COMPLETED)).containsExactlyInAnyOrder(oldCompleted, recentCompleted);
+		assertThat(orders.findBy(OrderStatus.CANCELLED)).containsExactly(oldCanceled);
+		assertThat(orders.findBy(OrderStatus.OPEN)).containsExactly(oldOpen);
+	}
+
+	@Test
+	void intervalLookupsIncludeArchiveIfNeeded() {
+
+		archiver.archive();
+		em.clear();
+
+		var recent = Interval.from(now.minusDays(10)).to(now.plusDays(1));
+		var all = Interval.from(now.minusDays(90)).to(now.plusDays(1));
+
+		assertThat(orders.findBy(recent)).containsExactly(recentCompleted);
+		assertThat(orders.findBy(user, recent)).containsExactly(recentCompleted);
+		assertThat(orders.findBy(all)).containsExactlyInAnyOrder(oldCompleted, oldCanceled, oldOpen, recentCompleted);
+		assertThat(orders.findBy(user, all)).hasSize(4);
+	}
+
+	@Test
+	void indexesOrdersByMappedOwnerColumn() {
+
+		var columns = em.createNativeQuery("select column_name from information_schema.indexes" //
+				+ " where index_name = 'ORDERS_OWNER_IDX' order by ordinal_position") //
+				.getResultList();
+
+		assertThat(columns).containsExactly("USER_ACCOUNT_USERACCOUNT_ID", "DATE_CREATED");
+	}
+
+	private Order createOrder(LocalDateTime created) {
+
+		var order = orders.save(new Order(user, Cash.CASH));
+		order.setDateCreated(created);
+
+		return order;
+	}
+}
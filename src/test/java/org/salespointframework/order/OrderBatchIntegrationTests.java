@@ -0,0 +1,218 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.accountancy.Accountancy;
+import org.salespointframework.accountancy.ProductPaymentEntry;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Cookie;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.inventory.UniqueInventory;
+import org.salespointframework.inventory.UniqueInventoryItem;
+import org.salespointframework.order.OrderBatchReport.BatchStatus;
+import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.salespointframework.order.OrderEvents.OrdersCanceled;
+import org.salespointframework.order.OrderEvents.OrdersCompleted;
+import org.salespointframework.order.OrderEvents.OrdersPaid;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the bulk operations of {@link OrderManagement}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = "salespoint.order.bulk-chunk-size=3")
+@ContextConfiguration(classes = OrderBatchIntegrationTests.Config.class)
+class OrderBatchIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired UserAccountManagement users;
+	@Autowired Catalog<Product> catalog;
+	@Autowired UniqueInventory<UniqueInventoryItem> inventory;
+	@Autowired Accountancy accountancy;
+	@Autowired EventCollector collector;
+
+	UserAccount user;
+	Product cookie;
+
+	static class Config {
+
+		@Bean
+		EventCollector eventCollector() {
+			return new EventCollector();
+		}
+	}
+
+	static class EventCollector {
+
+		List<Object> events = new ArrayList<>();
+
+		@EventListener
+		void on(Object event) {
+
+			if (event.getClass().getName().startsWith(OrderEvents.class.getName())) {
+				events.add(event);
+			}
+		}
+
+		<T> List<T> getEventsOfType(Class<T> type) {
+			return events.stream() //
+					.filter(type::isInstance) //
+					.map(type::cast) //
+					.collect(Collectors.toList());
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+
+		this.user = users.create("bulk", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.cookie = catalog.save(new Cookie("Double choc", Money.of(1.2, Currencies.EURO)));
+
+		inventory.save(new UniqueInventoryItem(cookie, Quantity.of(5)));
+		collector.events.clear();
+	}
+
+	@Test
+	void paysOrdersPublishingOneEventPerChunk() {
+
+		var toPay = createOrders(7);
+		var unpaid = orders.save(new Order(user));
+		toPay.add(unpaid);
+
+		var report = orders.payOrders(toPay);
+
+		assertThat(report.hasErrors()).isFalse();
+		assertThat(report.getSucceeded()).hasSize(7).allMatch(Order::isPaid);
+		assertThat(report.getSkipped()).containsExactly(unpaid);
+
+		assertThat(collector.getEventsOfType(OrderPaid.class)).isEmpty();
+		assertThat(collector.getEventsOfType(OrdersPaid.class)) //
+				.extracting(it -> it.getOrders().size()) //
+				.containsExactly(3, 3, 1);
+
+		assertThat(accountancy.findAll().stream() //
+				.map(ProductPaymentEntry.class::cast) //
+				.filter(ProductPaymentEntry::isRevenue)) //
+						.hasSize(7);
+
+		assertThat(orders.findBy(OrderStatus.PAID)).hasSize(7);
+	}
+
+	@Test
+	void completesOrdersReportingThoseRejectedByInventory() {
+
+		var toComplete = createOrders(4);
+		var open = toComplete.remove(0);
+
+		orders.payOrders(toComplete);
+		toComplete.add(0, open);
+		collector.events.clear();
+
+		var report = orders.completeOrders(toComplete);
+
+		// Only two orders of two cookies each can be fulfilled from a stock of five
+		assertThat(report.getSucceeded()).containsExactly(toComplete.get(1), toComplete.get(2));
+		assertThat(report.getFailures()).extracting(OrderBatchReport.Entry::getOrder) //
+				.containsExactly(open, toComplete.get(3));
+		assertThat(report.getFailures().toList().get(1).getCompletionReport()).hasValueSatisfying(it -> {
+			assertThat(it.hasErrors()).isTrue();
+		});
+
+		assertThat(open.isOpen()).isTrue();
+		assertThat(toComplete.get(3).isPaid()).isTrue();
+		assertThat(inventory.findByProduct(cookie).map(UniqueInventoryItem::getQuantity)).hasValue(Quantity.of(1));
+
+		assertThat(collector.getEventsOfType(OrderCompleted.class)).isEmpty();
+		assertThat(collector.getEventsOfType(OrdersCompleted.class)).hasSize(2);
+
+		assertThatExceptionOfType(IllegalStateException.class) //
+				.isThrownBy(() -> report.onError(it -> new IllegalStateException()));
+	}
+
+	@Test
+	void cancelsOrdersSkippingCanceledOnes() {
+
+		inventory.findByProduct(cookie) //
+				.map(it -> it.increaseQuantity(Quantity.of(10))) //
+				.ifPresent(inventory::save);
+
+		var toCancel = createOrders(4);
+		var paid = toCancel.subList(0, 2);
+
+		orders.payOrders(paid);
+		orders.cancelOrder(toCancel.get(3), "Canceled before!");
+		collector.events.clear();
+
+		var report = orders.cancelOrders(toCancel, "Bulk");
+
+		assertThat(report.getSucceeded()).containsExactlyElementsOf(toCancel.subList(0, 3));
+		assertThat(report.getSkipped()).containsExactly(toCancel.get(3));
+		assertThat(report).extracting(OrderBatchReport.Entry::getStatus).doesNotContain(BatchStatus.FAILED);
+
+		assertThat(collector.getEventsOfType(OrdersCanceled.class)) //
+				.extracting(it -> it.getOrders().size()) //
+				.containsExactly(3);
+
+		// Rollback entries only for the orders paid before
+		assertThat(accountancy.findAll().stream() //
+				.map(ProductPaymentEntry.class::cast) //
+				.filter(it -> !it.isRevenue())) //
+						.hasSize(2);
+	}
+
+	@Test
+	void rejectsInvalidChunkSize() {
+
+		assertThatIllegalArgumentException() //
+				.isThrownBy(() -> new OrderProperties(0, null, null));
+	}
+
+	private List<Order> createOrders(int count) {
+
+		return IntStream.range(0, count) //
+				.mapToObj(__ -> {
+
+					var order = new Order(user, Cash.CASH);
+					order.addOrderLine(cookie, Quantity.of(2));
+
+					return orders.save(order);
+
+				}).collect(Collectors.toCollection(ArrayList::new));
+	}
+}
@@ -0,0 +1,280 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.jmolecules.event.types.DomainEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.Salespoint;
+import org.salespointframework.accountancy.Accountancy;
+import org.salespointframework.accountancy.ProductPaymentEntry;
+import org.salespointframework.order.OrderEvents.OrderCanceled;
+import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.order.OrderEvents.OrderPaid;
+import org.salespointframework.order.OrderEvents.OrdersPaid;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.SpringBootTest.WebEnvironment;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.event.EventListener;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link OrderEventOutbox}. Not transactional as the events are dispatched in transactions of
+ * their own.
+ *
+ * @author Oliver Drotbohm
+ */
+@SpringBootTest(classes = Salespoint.class, webEnvironment = WebEnvironment.NONE)
+@ContextConfiguration(classes = OrderEventOutboxIntegrationTests.Config.class)
+@TestPropertySource(properties = { //
+		"salespoint.order.outbox.enabled=true", //
+		"salespoint.order.outbox.poll-interval=0", //
+		"salespoint.order.outbox.max-attempts=2" //
+})
+class OrderEventOutboxIntegrationTests {
+
+	static final String FAILING_REASON = "Fail!";
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired OrderEventOutbox outbox;
+	@Autowired UserAccountManagement users;
+	@Autowired Accountancy accountancy;
+	@Autowired EventRecorder recorder;
+	@Autowired OrderOutboxLeaseRepository leases;
+	@Autowired BusinessTime businessTime;
+
+	UserAccount user;
+
+	static class Config {
+
+		@Bean
+		EventRecorder eventRecorder() {
+			return new EventRecorder();
+		}
+	}
+
+	static class EventRecorder {
+
+		List<DomainEvent> events = new CopyOnWriteArrayList<>();
+
+		@EventListener
+		void on(OrderPaid event) {
+			events.add(event);
+		}
+
+		@EventListener
+		void on(OrdersPaid event) {
+			events.add(event);
+		}
+
+		@EventListener
+		void on(OrderCompleted event) {
+			events.add(event);
+		}
+
+		@EventListener
+		void on(OrderCanceled event) {
+
+			if (event.getReason().equals(FAILING_REASON)) {
+				throw new IllegalStateException("Rejecting cancellation!");
+			}
+
+			events.add(event);
+		}
+	}
+
+	@BeforeEach
+	void setUp() {
+
+		this.user = users.create(UUID.randomUUID().toString(), UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+
+		while (outbox.dispatchPending() > 0) {}
+
+		recorder.events.clear();
+	}
+
+	@Test
+	void dispatchesPaymentAfterTransactionCompleted() {
+
+		var order = orders.save(new Order(user, Cash.CASH));
+
+		orders.payOrder(order);
+
+		assertThat(recorder.events).isEmpty();
+		assertThat(revenueEntriesFor(order)).isZero();
+		assertThat(outbox.getMetrics().getPending()).isEqualTo(1);
+
+		assertThat(outbox.dispatchPending()).isEqualTo(1);
+
+		assertThat(recorder.events).hasOnlyElementsOfType(OrderPaid.class).hasSize(1);
+		assertThat(revenueEntriesFor(order)).isEqualTo(1);
+		assertThat(outbox.getMetrics().getPending()).isZero();
+		assertThat(outbox.getMetrics().getLag()).isZero();
+	}
+
+	@Test
+	void dispatchesEventsOfOrderInOrder() {
+
+		var order = orders.save(new Order(user, Cash.CASH));
+
+		orders.cancelOrder(order, "No reason");
+
+		assertThat(outbox.dispatchPending()).isEqualTo(2);
+		assertThat(recorder.events) //
+				.extracting(Object::getClass) //
+				.containsExactly(OrderCompleted.class, OrderCanceled.class);
+	}
+
+	@Test
+	void retriesFailingDispatchesAndMarksThemFailedEventually() {
+
+		var order = orders.save(new Order(user, Cash.CASH));
+
+		orders.cancelOrder(order, FAILING_REASON);
+
+		var failed = outbox.getMetrics().getFailed();
+
+		assertThat(outbox.dispatchPending()).isEqualTo(1);
+		assertThat(outbox.getMetrics().getPending()).isEqualTo(1);
+
+		assertThat(outbox.dispatchPending()).isZero();
+
+		var metrics = outbox.getMetrics();
+
+		assertThat(metrics.getPending()).isZero();
+		assertThat(metrics.getFailed()).isEqualTo(failed + 1);
+		assertThat(metrics.getFailedAttempts()).isGreaterThanOrEqualTo(2);
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> assertThat(it.isCanceled()).isTrue());
+	}
+
+	@Test
+	void writesEventsOfBulkOperationsToOutbox() {
+
+		var first = orders.save(new Order(user, Cash.CASH));
+		var second = orders.save(new Order(user, Cash.CASH));
+
+		assertThat(orders.payOrders(List.of(first, second)).getSucceeded()).hasSize(2);
+
+		assertThat(recorder.events).isEmpty();
+		assertThat(outbox.getMetrics().getPending()).isEqualTo(2);
+
+		assertThat(outbox.dispatchPending()).isEqualTo(2);
+
+		assertThat(recorder.events).hasOnlyElementsOfType(OrderPaid.class).hasSize(2);
+		assertThat(revenueEntriesFor(first)).isEqualTo(1);
+		assertThat(revenueEntriesFor(second)).isEqualTo(1);
+	}
+
+	@Test
+	void isRunningWithoutPolling() {
+		assertThat(outbox.isRunning()).isTrue();
+	}
+
+	@Test
+	void publishesOrderInStateEventWasWrittenIn() {
+
+		var order = orders.save(new Order(user, Cash.CASH));
+
+		orders.payOrder(order);
+		orders.cancelOrder(order, "No reason");
+
+		assertThat(outbox.dispatchPending()).isEqualTo(3);
+		assertThat(recorder.events) //
+				.extracting(Object::getClass) //
+				.containsExactly(OrderPaid.class, OrderCompleted.class, OrderCanceled.class);
+		assertThat(((OrderPaid) recorder.events.get(0)).getOrder().isPaid()).isTrue();
+		assertThat(((OrderCanceled) recorder.events.get(2)).getOrder().isCanceled()).isTrue();
+		assertThat(orders.get(order.getId())).hasValueSatisfying(it -> assertThat(it.isCanceled()).isTrue());
+	}
+
+	@Test
+	void dispatchesEventsAfterRestart() {
+
+		outbox.stop();
+
+		assertThatIllegalStateException().isThrownBy(outbox::dispatchPending);
+
+		outbox.start();
+
+		var order = orders.save(new Order(user, Cash.CASH));
+
+		orders.payOrder(order);
+
+		assertThat(outbox.dispatchPending()).isEqualTo(1);
+		assertThat(revenueEntriesFor(order)).isEqualTo(1);
+	}
+
+	@Test
+	void rejectsDispatchingWhileAnotherInstanceHoldsTheLease() {
+
+		var now = businessTime.getTime();
+
+		// Take over the lease as if it had expired
+		assertThat(leases.renew(OrderOutboxLease.ID, "other", now.plusHours(1), now.plusHours(2))).isEqualTo(1);
+
+		try {
+
+			orders.payOrder(orders.save(new Order(user, Cash.CASH)));
+
+			assertThatIllegalStateException().isThrownBy(outbox::dispatchPending);
+			assertThat(recorder.events).isEmpty();
+
+		} finally {
+			leases.release(OrderOutboxLease.ID, "other", now.minusMinutes(1));
+		}
+
+		assertThat(outbox.dispatchPending()).isEqualTo(1);
+	}
+
+	@Nested
+	@TestPropertySource(properties = "salespoint.order.outbox.store=in-memory")
+	class InMemory {
+
+		@Test
+		void dispatchesEventsFromMemory() {
+
+			var order = orders.save(new Order(user, Cash.CASH));
+
+			orders.payOrder(order);
+
+			assertThat(outbox.getMetrics().getPending()).isEqualTo(1);
+			assertThat(outbox.dispatchPending()).isEqualTo(1);
+			assertThat(revenueEntriesFor(order)).isEqualTo(1);
+		}
+	}
+
+	private long revenueEntriesFor(Order order) {
+
+		return accountancy.findAll().stream() //
+				.map(ProductPaymentEntry.class::cast) //
+				.filter(it -> it.belongsTo(order) && it.isRevenue()) //
+				.count();
+	}
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Cookie;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for {@link OrderFetchPlan}s verifying the number of statements issued to load {@link Order}s.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderFetchPlanIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired UserAccountManagement users;
+	@Autowired Catalog<Product> catalog;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	UserAccount user;
+	Product cookie;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.user = users.create("fetchPlans", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.cookie = catalog.save(new Cookie("Double choc", Money.of(1.2, Currencies.EURO)));
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+	}
+
+	@Test
+	void numberOfStatementsForPageWithFullPlanDoesNotDependOnPageSize() {
+
+		Function<Integer, Long> statements = size -> countStatements(size,
+				() -> orders.findAll(PageRequest.of(0, size), OrderFetchPlan.FULL).forEach(Order::getTotal));
+
+		assertThat(statements.apply(5)).isEqualTo(statements.apply(40));
+	}
+
+	@Test
+	void numberOfStatementsForFindByStatusDoesNotDependOnNumberOfOrders() {
+
+		Function<Integer, Long> statements = size -> countStatements(size,
+				() -> orders.findBy(OrderStatus.OPEN, OrderFetchPlan.FULL).forEach(Order::getTotal));
+
+		assertThat(statements.apply(5)).isEqualTo(statements.apply(40));
+	}
+
+	@Test
+	void summaryPlanLoadsLinesInBatchesOnFirstAccess() {
+
+		Function<Integer, Long> statements = size -> countStatements(size,
+				() -> orders.findBy(user, OrderFetchPlan.SUMMARY).forEach(it -> {
+
+					// The total is persisted with the order, so access the lines explicitly to trigger their loading
+					assertThat(it.getOrderLines().toList()).hasSize(2);
+					assertThat(it.getAllChargeLines().toList()).hasSize(2);
+				}));
+
+		assertThat(statements.apply(5)).isEqualTo(statements.apply(40));
+	}
+
+	@Test
+	void fullPlanInitializesAllLines() {
+
+		createOrders(3);
+
+		var result = orders.findBy(user, OrderFetchPlan.FULL).toList();
+
+		em.clear();
+
+		assertThat(result).hasSize(3).allSatisfy(it -> {
+			assertThat(it.getOrderLines()).hasSize(2);
+			assertThat(it.getChargeLines()).hasSize(1);
+			assertThat(it.getAllChargeLines()).hasSize(2);
+		});
+	}
+
+	private long countStatements(int numberOfOrders, Runnable lookup) {
+
+		orders.findBy(user).forEach(orders::delete);
+		createOrders(numberOfOrders);
+
+		statistics.clear();
+
+		lookup.run();
+
+		return statistics.getPrepareStatementCount();
+	}
+
+	private void createOrders(int numberOfOrders) {
+
+		IntStream.range(0, numberOfOrders).forEach(__ -> {
+
+			var order = new Order(user, Cash.CASH);
+			var line = order.addOrderLine(cookie, Quantity.of(2));
+
+			order.addOrderLine(cookie, Quantity.of(1));
+			order.addChargeLine(Money.of(-1, Currencies.EURO), "Discount");
+			order.addChargeLine(Money.of(0.5, Currencies.EURO), "Deposit", line);
+
+			orders.save(order);
+		});
+
+		em.flush();
+		em.clear();
+	}
+}
@@ -20,6 +20,7 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.CoreMatchers.*;
 import static org.hamcrest.junit.MatcherAssert.assertThat;
 
+import java.time.LocalDateTime;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
 
@@ -56,6 +57,7 @@ class OrderManagementTests extends AbstractIntegrationTests {
 
 	@Autowired UserAccountManagement users;
 	@Autowired OrderManagement<Order> orders;
+	@Autowired OrderTotalsMigration migration;
 	@Autowired EntityManager em;
 
 	@Autowired Catalog<Product> catalog;
@@ -205,4 +207,131 @@ class OrderManagementTests extends AbstractIntegrationTests {
 		orders.save(order);
 		em.flush();
 	}
+
+	@Test
+	void findsOrdersByPersistedTotal() {
+
+		var cookie = catalog.save(new Cookie("Double choc", Money.of(1.2, Currencies.EURO)));
+
+		var small = new Order(user, Cash.CASH);
+		small.addOrderLine(cookie, Quantity.of(1));
+
+		var large = new Order(user, Cash.CASH);
+		large.addOrderLine(cookie, Quantity.of(10));
+		large.addChargeLine(Money.of(-1, Currencies.EURO), "Discount");
+
+		orders.save(small);
+		orders.save(large);
+		em.flush();
+		em.clear();
+
+		var threshold = small.getTotal();
+
+		assertThat(orders.findByTotalGreaterThan(threshold)).containsExactly(large);
+		assertThat(orders.findByTotalGreaterThan(Money.of(0, "USD"))).isEmpty();
+
+		var interval = Interval.from(large.getDateCreated().minusHours(1)).to(large.getDateCreated().plusHours(1));
+
+		assertThat(orders.sumTotals(interval, Currencies.EURO)).isEqualTo(small.getTotal().add(large.getTotal()));
+	}
+
+	@Test
+	void aggregatesOrdersInTheDatabase() {
+
+		var cookie = catalog.save(new Cookie("Butter", Money.of(2, Currencies.EURO)));
+		var other = users.create("otherUser", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		var date = LocalDateTime.of(2000, 1, 1, 12, 0);
+
+		var first = createOrder(user, cookie, 1, date);
+		var second = createOrder(user, cookie, 2, date.plusMinutes(1));
+		var third = createOrder(other, cookie, 5, date.plusMinutes(2));
+
+		orders.payOrder(second);
+		em.flush();
+		em.clear();
+
+		var interval = Interval.from(date.minusHours(1)).to(date.plusHours(1));
+
+		assertThat(orders.countBy(OrderStatus.PAID)).isGreaterThanOrEqualTo(1);
+
+		assertThat(orders.countByStatus(interval)) //
+				.extracting(OrderTotals::getKey, OrderTotals::getCount, OrderTotals::getTotal) //
+				.containsExactly( //
+						tuple(OrderStatus.OPEN, 2L, first.getTotal().add(third.getTotal())), //
+						tuple(OrderStatus.PAID, 1L, second.getTotal()));
+
+		assertThat(orders.totalsByUser(interval)) //
+				.extracting(OrderTotals::getKey, OrderTotals::getCount, OrderTotals::getTotal) //
+				.containsExactlyInAnyOrder( //
+						tuple(user.getId(), 2L, first.getTotal().add(second.getTotal())), //
+						tuple(other.getId(), 1L, third.getTotal()));
+	}
+
+	@Test
+	void aggregatesOrdersWithoutPersistedTotal() {
+
+		var cookie = catalog.save(new Cookie("Butter", Money.of(2, Currencies.EURO)));
+		var date = LocalDateTime.of(2000, 1, 1, 12, 0);
+
+		var first = createOrder(user, cookie, 1, date);
+		var legacy = createOrder(user, cookie, 3, date.plusMinutes(1));
+		em.flush();
+
+		em.createNativeQuery("update orders set total_amount = null, total_currency = null where order_id = ?1") //
+				.setParameter(1, legacy.getId().getIdentifier()) //
+				.executeUpdate();
+		em.clear();
+
+		var interval = Interval.from(date.minusHours(1)).to(date.plusHours(1));
+		var expected = first.getTotal().add(legacy.getTotal());
+
+		assertThat(orders.countByStatus(interval)) //
+				.extracting(OrderTotals::getKey, OrderTotals::getCount, OrderTotals::getTotal) //
+				.containsExactly(tuple(OrderStatus.OPEN, 2L, expected));
+
+		assertThat(orders.totalsByUser(interval)) //
+				.extracting(OrderTotals::getKey, OrderTotals::getCount, OrderTotals::getTotal) //
+				.containsExactly(tuple(user.getId(), 2L, expected));
+	}
+
+	@Test
+	void considersOrdersWithoutPersistedTotalOnceMigrated() {
+
+		var cookie = catalog.save(new Cookie("Butter", Money.of(2, Currencies.EURO)));
+		var date = LocalDateTime.of(2000, 1, 1, 12, 0);
+
+		var legacy = createOrder(user, cookie, 3, date);
+		em.flush();
+
+		em.createNativeQuery("update orders set total_amount = null, total_currency = null where order_id = ?1") //
+				.setParameter(1, legacy.getId().getIdentifier()) //
+				.executeUpdate();
+		em.clear();
+
+		var interval = Interval.from(date.minusHours(1)).to(date.plusHours(1));
+		var total = legacy.getTotal();
+		var threshold = total.subtract(Money.of(1, Currencies.EURO));
+
+		assertThat(orders.sumTotals(interval, Currencies.EURO)).isEqualTo(Money.of(0, Currencies.EURO));
+
+		assertThat(migration.migrateLegacyTotals()).isEqualTo(1);
+		assertThat(migration.migrateLegacyTotals()).isZero();
+
+		em.clear();
+
+		assertThat(orders.sumTotals(interval, Currencies.EURO)).isEqualTo(total);
+		assertThat(orders.findByTotalGreaterThan(threshold)).containsExactly(legacy);
+		assertThat(orders.findWindow(OrderWindowRequest.ofSize(10).withTotalAtLeast(threshold))).containsExactly(legacy);
+	}
+
+	private Order createOrder(UserAccount user, Product product, int quantity, LocalDateTime date) {
+
+		var order = new Order(user, Cash.CASH);
+		order.addOrderLine(product, Quantity.of(quantity));
+
+		order = orders.save(order);
+		order.setDateCreated(date);
+
+		return order;
+	}
 }
@@ -16,14 +16,22 @@
 package org.salespointframework.order;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.salespointframework.core.Currencies.*;
 
+import java.util.ArrayList;
+
+import javax.money.MonetaryAmount;
+
+import org.javamoney.moneta.Money;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.moduliths.test.AggregateTestUtils;
 import org.moduliths.test.PublishedEvents;
 import org.moduliths.test.PublishedEventsExtension;
+import org.salespointframework.catalog.Cookie;
 import org.salespointframework.order.OrderEvents.OrderCanceled;
 import org.salespointframework.order.OrderEvents.OrderCompleted;
+import org.salespointframework.quantity.Quantity;
 import org.salespointframework.useraccount.UserAccountTestUtils;
 
 /**
@@ -48,4 +56,137 @@ class OrderUnitTests {
 		assertThat(events.ofType(OrderCompleted.class)).hasSize(1);
 		assertThat(events.ofType(OrderCanceled.class)).hasSize(1);
 	}
+
+	@Test
+	void rejectsCancellingCancelledOrderWithoutRegisteringEvents() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount()).cancel("No reason");
+
+		assertThatIllegalArgumentException().isThrownBy(() -> order.cancel("Again"));
+
+		PublishedEvents events = AggregateTestUtils.eventsOf(order);
+
+		assertThat(events.ofType(OrderCompleted.class)).hasSize(1);
+		assertThat(events.ofType(OrderCanceled.class)).hasSize(1);
+	}
+
+	@Test
+	void keepsRunningTotalInSyncWithLines() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount());
+		var cookie = new Cookie("Double choc", Money.of(1.2, EURO));
+
+		assertThat(order.getTotal()).isEqualTo(ZERO_EURO);
+
+		var first = order.addOrderLine(cookie, Quantity.of(2));
+		var second = order.addOrderLine(cookie, Quantity.of(1));
+		var charge = order.addChargeLine(Money.of(-1.5, EURO), "Discount");
+		order.addChargeLine(Money.of(0.25, EURO), "Deposit", first);
+
+		assertThat(order.getNumberOfLineItems()).isEqualTo(2);
+		assertThat(order.getTotal()).isEqualTo(recalculatedTotalOf(order));
+
+		order.remove(first);
+		order.remove(charge);
+
+		assertThat(order.getNumberOfLineItems()).isEqualTo(1);
+		assertThat(order.getTotal()).isEqualTo(second.getPrice());
+		assertThat(order.getTotal()).isEqualTo(recalculatedTotalOf(order));
+	}
+
+	@Test
+	void removingUnknownLinesDoesNotChangeTotal() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount());
+		var cookie = new Cookie("Double choc", Money.of(1.2, EURO));
+		var line = order.addOrderLine(cookie, Quantity.of(2));
+
+		var other = new Order(UserAccountTestUtils.createUserAccount());
+
+		other.remove(line);
+		other.remove(new ChargeLine(Money.of(1, EURO), "Unknown"));
+
+		assertThat(other.getTotal()).isEqualTo(ZERO_EURO);
+		assertThat(other.getNumberOfLineItems()).isZero();
+	}
+
+	@Test
+	void keepsLineIndexesInSyncWithMutations() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount());
+		var cookie = new Cookie("Double choc", Money.of(1.2, EURO));
+		var other = new Cookie("Chunky chocolate", Money.of(1.5, EURO));
+
+		var first = order.addOrderLine(cookie, Quantity.of(2));
+		var deposit = order.addChargeLine(Money.of(0.25, EURO), "Deposit", first);
+
+		// Trigger index creation
+		assertThat(order.getOrderLines(cookie)).containsExactly(first);
+		assertThat(order.getChargeLines(first)).containsExactly(deposit);
+
+		var second = order.addOrderLine(cookie, Quantity.of(1));
+		var third = order.addOrderLine(other, Quantity.of(1));
+		var discount = order.addChargeLine(Money.of(-0.1, EURO), "Discount", first);
+
+		assertThat(order.getOrderLines(cookie)).containsExactly(first, second);
+		assertThat(order.getOrderLines(other)).containsExactly(third);
+		assertThat(order.getChargeLines(first)).containsExactly(deposit, discount);
+		assertThat(order.getChargeLines(second)).isEmpty();
+
+		order.remove(deposit);
+
+		assertThat(order.getChargeLines(first)).containsExactly(discount);
+
+		order.remove(first);
+
+		assertThat(order.getOrderLines(cookie)).containsExactly(second);
+		assertThat(order.getChargeLines(first)).isEmpty();
+		assertThat(order.getAllChargeLines()).isEmpty();
+		assertThat(order.getTotal()).isEqualTo(recalculatedTotalOf(order));
+	}
+
+	@Test
+	void removesChargeLinesOfLargeOrders() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount());
+		var cookie = new Cookie("Double choc", Money.of(1.2, EURO));
+		var lines = new ArrayList<OrderLine>();
+
+		for (int i = 0; i < 2500; i++) {
+
+			var line = order.addOrderLine(cookie, Quantity.of(1));
+
+			order.addChargeLine(Money.of(0.25, EURO), "Deposit", line);
+			order.addChargeLine(Money.of(-0.1, EURO), "Discount", line);
+
+			lines.add(line);
+		}
+
+		assertThat(order.getOrderLines(cookie)).hasSize(2500);
+		assertThat(order.getChargeLines(lines.get(1000))).hasSize(2);
+
+		lines.subList(0, 2000).forEach(order::removeChargeLinesFor);
+
+		assertThat(order.getAllChargeLines()).hasSize(1000);
+		assertThat(order.getChargeLines(lines.get(1000))).isEmpty();
+		assertThat(order.getChargeLines(lines.get(2000))).hasSize(2);
+		assertThat(order.getTotal()).isEqualTo(recalculatedTotalOf(order));
+	}
+
+	@Test
+	void rejectsRemovalOfChargeLinesForOrderNotOpen() {
+
+		var order = new Order(UserAccountTestUtils.createUserAccount());
+		var line = order.addOrderLine(new Cookie("Double choc", Money.of(1.2, EURO)), Quantity.of(1));
+		order.addChargeLine(Money.of(0.25, EURO), "Deposit", line);
+
+		order.markPaid();
+
+		assertThatIllegalStateException().isThrownBy(() -> order.removeChargeLinesFor(line));
+		assertThat(order.getChargeLines(line)).hasSize(1);
+	}
+
+	private static MonetaryAmount recalculatedTotalOf(Order order) {
+		return order.getOrderLines().getTotal().add(order.getAllChargeLines().getTotal());
+	}
 }
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.math.BigInteger;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.javamoney.moneta.Money;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.catalog.Catalog;
+import org.salespointframework.catalog.Cookie;
+import org.salespointframework.catalog.Product;
+import org.salespointframework.core.Currencies;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.quantity.Quantity;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.time.Interval;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for the criteria of {@link OrderWindowRequest} applied by
+ * {@link OrderManagement#findWindow(OrderWindowRequest)} and {@link OrderManagement#findSummaries(OrderWindowRequest)}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderWindowCriteriaIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired UserAccountManagement users;
+	@Autowired Catalog<Product> catalog;
+	@Autowired BusinessTime businessTime;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	UserAccount first, second;
+	Product cookie, cake;
+	Interval interval;
+	List<Order> created;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.first = users.create("first", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.second = users.create("second", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.cookie = catalog.save(new Cookie("Cookie", Money.of(1, Currencies.EURO)));
+		this.cake = catalog.save(new Cookie("Cake", Money.of(10, Currencies.EURO)));
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+		var now = businessTime.getTime().truncatedTo(ChronoUnit.SECONDS);
+
+		this.interval = Interval.from(now.minusMinutes(1)).to(now.plusHours(1));
+		this.created = IntStream.range(0, 20).mapToObj(it -> {
+
+			var order = new Order(it % 2 == 0 ? first : second, Cash.CASH);
+			order.addOrderLine(cookie, Quantity.of(it + 1));
+
+			if (it % 3 == 0) {
+				order.addOrderLine(cake, Quantity.of(1));
+			}
+
+			order = orders.save(order);
+
+			// Make sure pairs of orders share the same creation date
+			order.setDateCreated(now.plusMinutes(it / 2));
+
+			if (it % 4 == 0) {
+				orders.payOrder(order);
+			}
+
+			return order;
+
+		}).collect(Collectors.toList());
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void combinesAllCriteria() {
+
+		var minimum = Money.of(10_000, Currencies.EURO);
+		var maximum = Money.of(80_000, Currencies.EURO);
+
+		var request = OrderWindowRequest.ofSize(20) //
+				.withStatus(OrderStatus.OPEN, OrderStatus.PAID) //
+				.withUserAccount(first) //
+				.createdWithin(interval) //
+				.containing(cake.getId()) //
+				.withTotalBetween(minimum, maximum);
+
+		var expected = created.stream() //
+				.filter(it -> it.getUserAccount().equals(first)) //
+				.filter(it -> !it.getOrderLines(cake).isEmpty()) //
+				.filter(it -> it.getTotal().isGreaterThanOrEqualTo(minimum) && it.getTotal().isLessThanOrEqualTo(maximum)) //
+				.collect(Collectors.toList());
+
+		assertThat(expected).hasSize(2);
+		assertThat(orders.findWindow(request)).containsExactlyInAnyOrderElementsOf(expected);
+		assertThat(orders.findSummaries(request)).extracting(OrderSummary::getId) //
+				.containsExactlyInAnyOrderElementsOf(expected.stream().map(Order::getId).collect(Collectors.toList()));
+	}
+
+	@Test
+	void pagesThroughOrdersUsingKeyset() {
+
+		var expected = created.stream() //
+				.sorted(Comparator.comparing(Order::getDateCreated) //
+						.thenComparing(it -> it.getId().getIdentifier())) //
+				.collect(Collectors.toList());
+
+		List<Order> result = new ArrayList<>();
+		var window = orders.findWindow(OrderWindowRequest.ofSize(3).createdWithin(interval));
+
+		result.addAll(window.toList());
+
+		while (window.hasNext()) {
+			window = orders.findWindow(window.next().orElseThrow());
+			result.addAll(window.toList());
+		}
+
+		assertThat(result).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void pagesThroughSummariesNewestFirst() {
+
+		var expected = created.stream() //
+				.filter(it -> it.getUserAccount().equals(second)) //
+				.sorted(Comparator.comparing(Order::getDateCreated) //
+						.thenComparing(it -> it.getId().getIdentifier()) //
+						.reversed()) //
+				.map(Order::getId) //
+				.collect(Collectors.toList());
+
+		List<OrderSummary> result = new ArrayList<>();
+		var window = orders.findSummaries(OrderWindowRequest.ofSize(4).withUserAccount(second).newestFirst());
+
+		result.addAll(window.toList());
+
+		while (window.hasNext()) {
+			window = orders.findSummaries(window.next().orElseThrow());
+			result.addAll(window.toList());
+		}
+
+		assertThat(result).extracting(OrderSummary::getId).containsExactlyElementsOf(expected);
+		assertThat(result).allSatisfy(it -> {
+			assertThat(it.getUserAccount()).isEqualTo(second.getId());
+			assertThat(it.getTotal().getCurrency()).isEqualTo(Currencies.EURO);
+		});
+	}
+
+	@Test
+	void summariesAreLookedUpWithoutLoadingOrders() {
+
+		statistics.clear();
+
+		var summaries = orders.findSummaries(OrderWindowRequest.ofSize(20).withStatus(OrderStatus.PAID));
+
+		assertThat(summaries).hasSize(5).allMatch(it -> it.getOrderStatus() == OrderStatus.PAID);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void recomputesTotalOfSummariesWithoutPersistedTotal() {
+
+		var legacy = created.stream() //
+				.filter(it -> it.getUserAccount().equals(first)) //
+				.collect(Collectors.toList());
+
+		em.createNativeQuery("update orders set total_amount = null, total_currency = null where user_account_useraccount_id = ?1") //
+				.setParameter(1, first.getId().getIdentifier()) //
+				.executeUpdate();
+		em.clear();
+		statistics.clear();
+
+		var summaries = orders.findSummaries(OrderWindowRequest.ofSize(20).withUserAccount(first));
+
+		assertThat(summaries).extracting(OrderSummary::getTotal) //
+				.containsExactlyElementsOf(legacy.stream().map(Order::getTotal).collect(Collectors.toList()));
+
+		// Legacy orders are loaded in a single batch, not one by one
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(legacy.size());
+
+		em.flush();
+
+		// Totals are not written back by the read
+		assertThat(em.createNativeQuery("select count(*) from orders where total_amount is null").getSingleResult()) //
+				.isEqualTo(BigInteger.valueOf(legacy.size()));
+	}
+
+	@Test
+	void findsOrdersContainingProduct() {
+
+		var expected = created.stream() //
+				.filter(it -> !it.getOrderLines(cake).isEmpty()) //
+				.sorted(Comparator.comparing(Order::getDateCreated) //
+						.thenComparing(it -> it.getId().getIdentifier())) //
+				.collect(Collectors.toList());
+
+		assertThat(orders.findContaining(cake.getId(), interval)).containsExactlyElementsOf(expected);
+		assertThat(orders.findContaining(cake.getId(), Interval.from(interval.getEnd()).to(interval.getEnd().plusDays(1))))
+				.isEmpty();
+	}
+
+	@Test
+	void looksUpOrderLinesByProductUsingIndex() {
+
+		var plan = em.createNativeQuery("explain select * from order_line where product_id = 'foo'") //
+				.getSingleResult();
+
+		assertThat(plan.toString()).containsIgnoringCase("ORDER_LINE_PRODUCT_IDX");
+	}
+
+	@Test
+	void rejectsTotalsInDifferentCurrencies() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> OrderWindowRequest.ofSize(1) //
+				.withTotalAtLeast(Money.of(1, Currencies.EURO)) //
+				.withTotalAtMost(Money.of(1, "USD")));
+	}
+}
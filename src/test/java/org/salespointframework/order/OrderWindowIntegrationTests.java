@@ -0,0 +1,179 @@
+/*
+ * Copyright 2021 the original author or authors.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      https://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.salespointframework.order;
+
+import static org.assertj.core.api.Assertions.*;
+
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.salespointframework.AbstractIntegrationTests;
+import org.salespointframework.payment.Cash;
+import org.salespointframework.time.BusinessTime;
+import org.salespointframework.useraccount.UserAccount;
+import org.salespointframework.useraccount.UserAccountManagement;
+import org.salespointframework.useraccount.UserAccountTestUtils;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.TestPropertySource;
+
+/**
+ * Integration tests for keyset based lookups of {@link Order}s via {@link OrderManagement#findWindow(OrderWindowRequest)}.
+ *
+ * @author Oliver Drotbohm
+ */
+@TestPropertySource(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class OrderWindowIntegrationTests extends AbstractIntegrationTests {
+
+	@Autowired OrderManagement<Order> orders;
+	@Autowired UserAccountManagement users;
+	@Autowired BusinessTime businessTime;
+	@Autowired EntityManager em;
+	@Autowired EntityManagerFactory emf;
+
+	UserAccount first, second;
+	Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+
+		this.first = users.create("first", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.second = users.create("second", UserAccountTestUtils.UNENCRYPTED_PASSWORD);
+		this.statistics = emf.unwrap(SessionFactory.class).getStatistics();
+
+		var now = businessTime.getTime().truncatedTo(ChronoUnit.SECONDS);
+
+		IntStream.range(0, 25).forEach(it -> {
+
+			var order = orders.save(new Order(it % 2 == 0 ? first : second, Cash.CASH));
+
+			// Make sure groups of three orders share the same creation date
+			order.setDateCreated(now.plusMinutes(it / 3));
+
+			if (it % 5 == 0) {
+				orders.payOrder(order);
+			}
+		});
+
+		em.flush();
+		em.clear();
+	}
+
+	@Test
+	void traversesAllOrdersInWindows() {
+
+		var sort = Sort.by("dateCreated", "orderIdentifier.id");
+		var expected = orders.findAll(PageRequest.of(0, 100, sort)).getContent();
+
+		assertThat(collectAll(OrderWindowRequest.ofSize(7))).containsExactlyElementsOf(expected);
+	}
+
+	@Test
+	void appliesStatusAndUserAccountFilters() {
+
+		var paid = collectAll(OrderWindowRequest.ofSize(2).withStatus(OrderStatus.PAID));
+
+		assertThat(paid).hasSize(5).allMatch(Order::isPaid);
+
+		var ofFirst = collectAll(OrderWindowRequest.ofSize(4).withUserAccount(first));
+
+		assertThat(ofFirst).hasSize(13).allMatch(it -> it.getUserAccount().equals(first));
+
+		var paidOfSecond = collectAll(OrderWindowRequest.ofSize(4) //
+				.withUserAccount(second) //
+				.withStatus(OrderStatus.PAID));
+
+		assertThat(paidOfSecond).hasSize(2).allMatch(it -> it.getUserAccount().equals(second) && it.isPaid());
+	}
+
+	@Test
+	void deepWindowIssuesSingleStatementUnlikeOffsetPaging() {
+
+		var window = orders.findWindow(OrderWindowRequest.ofSize(5));
+
+		while (window.hasNext()) {
+
+			var next = window.next().orElseThrow();
+
+			statistics.clear();
+			window = orders.findWindow(next);
+
+			assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+		}
+
+		statistics.clear();
+		orders.findAll(PageRequest.of(3, 5));
+
+		// Offset based paging needs an additional count query
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+	}
+
+	@Test
+	void cursorCanBeRenderedAndParsed() {
+
+		var window = orders.findWindow(OrderWindowRequest.ofSize(5));
+		var cursor = window.next().flatMap(OrderWindowRequest::getCursor).orElseThrow();
+
+		var parsed = OrderCursor.parse(cursor.toString());
+
+		assertThat(parsed).isEqualTo(cursor);
+		assertThat(orders.findWindow(OrderWindowRequest.ofSize(5).after(parsed))) //
+				.containsExactlyElementsOf(orders.findWindow(window.next().orElseThrow()));
+	}
+
+	@Test
+	void rejectsInvalidCursor() {
+
+		assertThatIllegalArgumentException().isThrownBy(() -> OrderCursor.parse("foo"));
+		assertThatIllegalArgumentException().isThrownBy(() -> OrderCursor.parse("foo_bar"));
+	}
+
+	@Test
+	void lastWindowHasNoNext() {
+
+		var window = orders.findWindow(OrderWindowRequest.ofSize(25));
+
+		assertThat(window).hasSize(25);
+		assertThat(window.hasNext()).isFalse();
+		assertThat(window.next()).isEmpty();
+	}
+
+	private List<Order> collectAll(OrderWindowRequest request) {
+
+		List<Order> result = new ArrayList<>();
+		var window = orders.findWindow(request);
+
+		result.addAll(window.toList());
+
+		while (window.hasNext()) {
+			window = orders.findWindow(window.next().orElseThrow());
+			result.addAll(window.stream().collect(Collectors.toList()));
+		}
+
+		return result;
+	}
+}